@@ -510,6 +510,20 @@ public class AndroidDrawContext implements GLDrawContext {
 			}
 		}
 
+		@Override
+		public void put(ByteBuffer data) {
+			if (bufferlength > 0) {
+				writeBuffer();
+				bufferstart += bufferlength;
+				bufferlength = 0;
+				buffer.position(0);
+			}
+			int length = data.remaining();
+			GLES11.glBufferSubData(GLES11.GL_ARRAY_BUFFER, bufferstart, length, data);
+			data.position(data.limit());
+			bufferstart += length;
+		}
+
 		private void writeBuffer() {
 			buffer.position(0);
 			GLES11.glBufferSubData(GLES11.GL_ARRAY_BUFFER, bufferstart,
@@ -480,6 +480,11 @@ public class JOGLDrawContext implements GLDrawContext {
 		public void position(int position) {
 			buffer.position(position);
 		}
+
+		@Override
+		public void put(ByteBuffer data) {
+			buffer.put(data);
+		}
 	}
 
 	@Override
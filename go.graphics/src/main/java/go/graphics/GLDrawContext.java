@@ -73,7 +73,8 @@ public interface GLDrawContext {
 	 *            The height of the image.
 	 * @param data
 	 *            The data as array. It needs to have a length of width * height and each element is a color with: 5 bits red, 5 bits gree,n, 5 bits
-	 *            blue and 1 bit alpha.
+	 *            blue and 1 bit alpha. It may be <code>null</code> to create an uninitialized texture that is filled by
+	 *            {@link #updateTexture(TextureHandle, int, int, int, int, ShortBuffer)} later.
 	 * @return The id of the generated texture.
 	 */
 	TextureHandle generateTexture(int width, int height, ShortBuffer data);
@@ -135,6 +136,14 @@ public interface GLDrawContext {
 		void putByte(byte b);
 
 		void position(int position);
+
+		/**
+		 * Writes all remaining bytes of the given buffer at the current position.
+		 * 
+		 * @param data
+		 *            The data to write.
+		 */
+		void put(ByteBuffer data);
 	}
 
 	void drawTrianglesWithTextureColored(TextureHandle currentTexture,
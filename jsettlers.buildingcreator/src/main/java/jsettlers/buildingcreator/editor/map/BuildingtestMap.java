@@ -21,6 +21,7 @@ import jsettlers.common.landscape.ELandscapeType;
 import jsettlers.common.map.EDebugColorModes;
 import jsettlers.common.map.IGraphicsBackgroundListener;
 import jsettlers.common.map.IGraphicsGrid;
+import jsettlers.common.map.IGraphicsObjectsListener;
 import jsettlers.common.map.partition.IPartitionData;
 import jsettlers.common.mapobject.IMapObject;
 import jsettlers.common.movable.IMovable;
@@ -108,6 +109,11 @@ public class BuildingtestMap implements IGraphicsGrid {
 	public void setBackgroundListener(IGraphicsBackgroundListener backgroundListener) {
 	}
 
+	@Override
+	public boolean setObjectsListener(IGraphicsObjectsListener objectsListener) {
+		return false;
+	}
+
 	@Override
 	public int nextDrawableX(int x, int y, int maxX) {
 		return x + 1;
@@ -65,6 +65,11 @@ public abstract class CommonConstants {
 	 */
 	public static boolean USE_SAVEGAME_COMPRESSION = false;
 
+	/**
+	 * Minutes of game time between two autosaves. If 0, the game is not saved automatically.
+	 */
+	public static int AUTOSAVE_INTERVAL_MINUTES = 0;
+
 	/**
 	 * Enables the AI submodule.
 	 */
@@ -15,14 +15,15 @@
 package jsettlers.common.map;
 
 /**
- * This interface can be used by the user of the IGraphicsGrid to get notified if the background (landscape type or height) has changed.
+ * This interface can be used by the user of the IGraphicsGrid to get notified if the background (landscape type, height or visible status) has
+ * changed.
  * 
  * @author Andreas Eberle
  * 
  */
 public interface IGraphicsBackgroundListener {
 	/**
-	 * This method is called if the landscape type or height has changed at the given position.
+	 * This method is called if the landscape type, height or visible status has changed at the given position. It may be called from any thread.
 	 * 
 	 * @param x
 	 *            x coordinate
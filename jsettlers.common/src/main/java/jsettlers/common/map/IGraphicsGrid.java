@@ -126,6 +126,18 @@ public interface IGraphicsGrid {
 	 */
 	void setBackgroundListener(IGraphicsBackgroundListener backgroundListener);
 
+	/**
+	 * This method can be used to set a {@link IGraphicsObjectsListener} to this {@link IGraphicsGrid}. <br>
+	 * 
+	 * @see IGraphicsObjectsListener
+	 * 
+	 * @param objectsListener
+	 *            listener to be set or <code>null</code> to remove the listener.
+	 * @return <code>true</code> if the grid reports all changes to the listener. If it returns <code>false</code>, the grid does not report changes
+	 *         and its users need to look at the whole grid.
+	 */
+	boolean setObjectsListener(IGraphicsObjectsListener objectsListener);
+
 	/**
 	 * Gets the next x coordinate that might contain a drawable Object.
 	 * 
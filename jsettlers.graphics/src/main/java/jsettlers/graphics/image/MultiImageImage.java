@@ -60,6 +60,11 @@ public class MultiImageImage extends Image {
 
 	private final Data torso;
 
+	/**
+	 * The pages of the map that contain this image.
+	 */
+	private final long pages;
+
 	public MultiImageImage(MultiImageMap map, ImageMetadata settlerMeta,
 			int settlerx, int settlery, ImageMetadata torsoMeta, int torsox,
 			int torsoy) {
@@ -76,6 +81,12 @@ public class MultiImageImage extends Image {
 			torso = null;
 			torsoGeometry = null;
 		}
+
+		long pageMask = map.getPageMask(settlery, settlerMeta.height);
+		if (torsoMeta != null) {
+			pageMask |= map.getPageMask(torsoy, torsoMeta.height);
+		}
+		pages = pageMask;
 	}
 
 	private static final float IMAGE_DRAW_OFFSET = 0.5f;
@@ -145,7 +156,7 @@ public class MultiImageImage extends Image {
 	public void draw(GLDrawContext gl, Color color, float multiply) {
 		try {
 			gl.color(multiply, multiply, multiply, 1);
-			TextureHandle texture = map.getTexture(gl);
+			TextureHandle texture = map.getTexture(gl, pages);
 			gl.drawQuadWithTexture(texture, settlerGeometry);
 			if (torsoGeometry != null) {
 				if (color != null) {
@@ -178,7 +189,7 @@ public class MultiImageImage extends Image {
 			TEMP_BUFFER[15] = right + IMAGE_DRAW_OFFSET;
 			TEMP_BUFFER[16] = top + IMAGE_DRAW_OFFSET;
 
-			gl.drawQuadWithTexture(map.getTexture(gl), TEMP_BUFFER);
+			gl.drawQuadWithTexture(map.getTexture(gl, pages), TEMP_BUFFER);
 		} catch (IllegalBufferException e) {
 			handleIllegalBufferException(e);
 		}
@@ -203,7 +214,7 @@ public class MultiImageImage extends Image {
 	private void drawAt(GLDrawContext gl, DrawBuffer buffer, float viewX,
 			float viewY, int sColor, int tColor) {
 		try {
-			TextureHandle texture = map.getTexture(gl);
+			TextureHandle texture = map.getTexture(gl, pages);
 			buffer.addImage(texture, viewX + settler.offsetX
 					+ IMAGE_DRAW_OFFSET, viewY - settler.offsetY - settler.height
 					+ IMAGE_DRAW_OFFSET, viewX + settler.offsetX + settler.width
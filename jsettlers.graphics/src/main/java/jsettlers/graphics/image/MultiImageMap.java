@@ -15,15 +15,30 @@
 package jsettlers.graphics.image;
 
 import go.graphics.GLDrawContext;
+import go.graphics.IllegalBufferException;
 import go.graphics.TextureHandle;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.ShortBuffer;
+import java.util.ArrayList;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import java8.util.concurrent.ForkJoinPool;
+import java8.util.concurrent.RecursiveAction;
 
 import jsettlers.common.resources.ResourceManager;
 import jsettlers.graphics.map.draw.GLPreloadTask;
@@ -39,13 +54,34 @@ import jsettlers.graphics.sequence.Sequence;
 /**
  * This is a map of multiple images of one sequence. It always contains the settler image and the torso. This class allows packing the settler images
  * to a single, big texture.
- * 
+ * <p>
+ * The images are decoded in parallel on the common {@link ForkJoinPool} and packed to the texture afterwards in the order they were requested, so
+ * the texture does not depend on the decoding order.
+ * <p>
+ * The packed texture is cached on disk. The cache file starts with an index of all image positions, so the images can be registered without
+ * decoding anything. The texture itself is split into pages of whole lines that are compressed separately. A page is only read and uploaded when
+ * an image on it is drawn for the first time. The cache is only used if it was created from the same DAT file.
+ *
  * @author Michael Zangl
  */
 public class MultiImageMap implements ImageArrayProvider, GLPreloadTask {
+	/**
+	 * Number of images decoded by one task.
+	 */
+	private static final int DECODE_BATCH_SIZE = 8;
+
+	private static final int CACHE_MAGIC = 0x4a534d49;
+	private static final int CACHE_VERSION = 2;
+	/**
+	 * The minimum number of lines in a cache page. Larger textures use larger pages, so that the pages always fit into a <code>long</code> mask.
+	 */
+	private static final int MIN_PAGE_HEIGHT = 128;
+	private static final int MAX_PAGES = 64;
 
 	private final int width;
 	private final int height;
+	private final int pageHeight;
+	private final int pageCount;
 	private int drawx = 0; // x coordinate of free space
 	private int linetop = 0;
 	private int linebottom = 0;
@@ -56,11 +92,19 @@ public class MultiImageMap implements ImageArrayProvider, GLPreloadTask {
 	private ShortBuffer buffers;
 	private ByteBuffer byteBuffer;
 
+	private final ArrayList<SequenceLayout> layout = new ArrayList<>();
+	/**
+	 * The position of each page in the cache file. <code>null</code> if the pages can not be loaded from the cache.
+	 */
+	private long[] pageOffsets;
+	private int[] pageLengths;
+	private long loadedPages;
+
 	private final File cacheFile;
 
 	/**
 	 * Creates a new {@link MultiImageMap}.
-	 * 
+	 *
 	 * @param width
 	 *            The width of the base image.
 	 * @param height
@@ -72,6 +116,8 @@ public class MultiImageMap implements ImageArrayProvider, GLPreloadTask {
 	public MultiImageMap(int width, int height, String id) {
 		this.width = width;
 		this.height = height;
+		this.pageHeight = Math.max(MIN_PAGE_HEIGHT, (height + MAX_PAGES - 1) / MAX_PAGES);
+		this.pageCount = (height + pageHeight - 1) / pageHeight;
 		File root = new File(ResourceManager.getResourcesDirectory(), "cache");
 		cacheFile = new File(root, "cache-" + id);
 	}
@@ -84,7 +130,7 @@ public class MultiImageMap implements ImageArrayProvider, GLPreloadTask {
 
 	/**
 	 * Adds a list of textures to this file. The images can be referenced by the image handles added to addTo.
-	 * 
+	 *
 	 * @param dfr
 	 *            The reader to read the textures from.
 	 * @param sequenceIndexes
@@ -96,102 +142,213 @@ public class MultiImageMap implements ImageArrayProvider, GLPreloadTask {
 	 */
 	public synchronized void addSequences(AdvancedDatFileReader dfr, int[] sequenceIndexes,
 			Sequence<Image>[] addTo) throws IOException {
+		ArrayList<DecodedImage> decodedImages = new ArrayList<>();
+		int[] imageCounts = new int[sequenceIndexes.length];
+		boolean[] hasTorsos = new boolean[sequenceIndexes.length];
+		for (int s = 0; s < sequenceIndexes.length; s++) {
+			long[] settlers = dfr.getSettlerPointers(sequenceIndexes[s]);
+			long[] torsos = dfr.getTorsoPointers(sequenceIndexes[s]);
+			imageCounts[s] = settlers.length;
+			hasTorsos[s] = torsos != null;
+			for (int i = 0; i < settlers.length; i++) {
+				decodedImages.add(new DecodedImage(dfr, settlers[i], false));
+				if (torsos != null) {
+					decodedImages.add(new DecodedImage(dfr, torsos[i], true));
+				}
+			}
+		}
+
+		try {
+			ForkJoinPool.commonPool().invoke(new DecodeAction(decodedImages, 0, decodedImages.size()));
+		} catch (DecodeException e) {
+			throw e.getCause();
+		}
+
 		allocateBuffers();
 
-		ImageMetadata settlermeta = new ImageMetadata();
-		ImageMetadata reusableTorsometa = new ImageMetadata();
-		for (int seqindex : sequenceIndexes) {
-			long[] settlers = dfr.getSettlerPointers(seqindex);
-			long[] torsos = dfr.getTorsoPointers(seqindex);
+		int decodedIndex = 0;
+		for (int s = 0; s < sequenceIndexes.length; s++) {
+			SequenceLayout sequence = new SequenceLayout(sequenceIndexes[s], imageCounts[s], hasTorsos[s]);
+			for (int i = 0; i < imageCounts[s]; i++) {
+				DecodedImage settler = decodedImages.get(decodedIndex++);
+				settler.copyTo(this);
+				sequence.settlers[i] = new PlacedImage(settler.metadata, drawx - settler.metadata.width, linetop);
 
-			Image[] images = new Image[settlers.length];
-			for (int i = 0; i < settlers.length; i++) {
-				// System.out.println("Processing seq + " + seqindex +
-				// ", image " + i + ":");
+				if (hasTorsos[s]) {
+					DecodedImage torso = decodedImages.get(decodedIndex++);
+					torso.copyTo(this);
+					sequence.torsos[i] = new PlacedImage(torso.metadata, drawx - torso.metadata.width, linetop);
+				}
+			}
+			layout.add(sequence);
+			addTo[sequenceIndexes[s]] = sequence.createSequence(this);
+		}
 
-				ByteReader reader;
-				reader = dfr.getReaderForPointer(settlers[i]);
-				DatBitmapReader.uncompressImage(reader,
-						dfr.getSettlerTranslator(), settlermeta,
-						this);
-				int settlerx = drawx - settlermeta.width;
-				int settlery = linetop;
+		// request a opengl rerender, or do it ourselves on the next image
+		textureValid = false;
+		ImageProvider.getInstance().addPreloadTask(this);
+	}
+
+	/**
+	 * Registers the images stored in the cache file. The texture pages are not read yet, they are loaded when the images are drawn.
+	 *
+	 * @param sourceHash
+	 *            The hash of the DAT file the images are read from. The cache is ignored if it was created for a different file.
+	 * @param sequenceIndexes
+	 *            The indexes where the sequences start.
+	 * @param addTo
+	 *            The image sequence to add image references to the cached images to.
+	 * @return <code>true</code> if the cache was valid and the images were added.
+	 */
+	public synchronized boolean loadCache(long sourceHash, int[] sequenceIndexes, Sequence<Image>[] addTo) {
+		if (!cacheFile.isFile()) {
+			return false;
+		}
 
-				int torsox = 0;
-				int torsoy = 0;
+		ArrayList<SequenceLayout> cachedLayout = new ArrayList<>();
+		long[] offsets = new long[pageCount];
+		int[] lengths = new int[pageCount];
+		try {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)));
+			try {
+				if (in.readInt() != CACHE_MAGIC || in.readInt() != CACHE_VERSION) {
+					return false;
+				}
+				byte[] header = new byte[in.readInt()];
+				in.readFully(header);
+				long pagesStart = 12 + header.length;
 
-				ImageMetadata torsometa;
-				if (torsos != null) {
-					torsometa = reusableTorsometa;
-					reader = dfr.getReaderForPointer(torsos[i]);
-					if (reader != null) {
-						DatBitmapReader.uncompressImage(reader,
-								dfr.getTorsoTranslator(),
-								torsometa, this);
-						torsox = drawx - torsometa.width;
-						torsoy = linetop;
+				DataInputStream index = new DataInputStream(new ByteArrayInputStream(header));
+				if (index.readLong() != sourceHash || index.readInt() != width || index.readInt() != height
+						|| index.readInt() != sequenceIndexes.length) {
+					return false;
+				}
+				for (int sequenceIndex : sequenceIndexes) {
+					if (index.readInt() != sequenceIndex) {
+						return false;
 					}
-				} else {
-					torsometa = null;
+					cachedLayout.add(SequenceLayout.read(index, sequenceIndex));
 				}
 
-				images[i] =
-						new MultiImageImage(this, settlermeta, settlerx,
-								settlery, torsometa,
-								torsox, torsoy);
+				if (index.readInt() != pageHeight || index.readInt() != pageCount) {
+					return false;
+				}
+				for (int i = 0; i < pageCount; i++) {
+					offsets[i] = pagesStart + index.readInt();
+					lengths[i] = index.readInt();
+				}
+			} finally {
+				in.close();
 			}
-			addTo[seqindex] = new ArraySequence<>(images);
+		} catch (IOException e) {
+			System.err.println("Ignoring invalid image cache " + cacheFile + ": " + e.getMessage());
+			return false;
+		}
+
+		pageOffsets = offsets;
+		pageLengths = lengths;
+		layout.addAll(cachedLayout);
+		for (SequenceLayout sequence : cachedLayout) {
+			addTo[sequence.sequenceIndex] = sequence.createSequence(this);
 		}
 
-		// request a opengl rerender, or do it ourselves on the next image
 		textureValid = false;
 		ImageProvider.getInstance().addPreloadTask(this);
+		return true;
 	}
 
 	/**
 	 * Forces the regeneration of the cache file.
+	 *
+	 * @param sourceHash
+	 *            The hash of the DAT file the images were read from.
 	 */
-	public synchronized void writeCache() {
-		FileOutputStream out = null;
+	public synchronized void writeCache(long sourceHash) {
 		try {
+			ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+			DataOutputStream header = new DataOutputStream(headerBytes);
+			header.writeLong(sourceHash);
+			header.writeInt(width);
+			header.writeInt(height);
+			header.writeInt(layout.size());
+			for (SequenceLayout sequence : layout) {
+				sequence.write(header);
+			}
+
+			header.writeInt(pageHeight);
+			header.writeInt(pageCount);
+			byte[][] pages = new byte[pageCount][];
+			int offset = 0;
+			for (int i = 0; i < pageCount; i++) {
+				pages[i] = compressPage(i);
+				header.writeInt(offset);
+				header.writeInt(pages[i].length);
+				offset += pages[i].length;
+			}
+			header.close();
+
 			cacheFile.getParentFile().mkdirs();
 			cacheFile.delete();
 			File tempFile = new File(cacheFile.getParentFile(), cacheFile.getName() + ".tmp");
-			out = new FileOutputStream(tempFile);
-
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
 			try {
-				byte[] line = new byte[this.width * 2];
-				byteBuffer.rewind();
-				while (byteBuffer.hasRemaining()) {
-					byteBuffer.get(line);
-					out.write(line);
+				out.writeInt(CACHE_MAGIC);
+				out.writeInt(CACHE_VERSION);
+				out.writeInt(headerBytes.size());
+				headerBytes.writeTo(out);
+				for (byte[] page : pages) {
+					out.write(page);
 				}
 			} finally {
 				out.close();
 			}
 
-			tempFile.renameTo(cacheFile);
-
-			buffers = null;
-			byteBuffer = null;
-		} catch (IOException e) {
-			if (out != null) {
-				try {
-					out.close();
-				} catch (IOException e1) {
+			if (tempFile.renameTo(cacheFile)) {
+				long pagesStart = 12 + headerBytes.size();
+				offset = 0;
+				pageOffsets = new long[pageCount];
+				pageLengths = new int[pageCount];
+				for (int i = 0; i < pageCount; i++) {
+					pageOffsets[i] = pagesStart + offset;
+					pageLengths[i] = pages[i].length;
+					offset += pages[i].length;
 				}
 			}
+		} catch (IOException e) {
 			e.printStackTrace();
 		}
 	}
 
 	/**
-	 * Checks if this image map is can be loaded from the cache instead of regenerating it.
-	 * 
-	 * @return <code>true</code> iff this file is cached.
+	 * Compresses the lines of one page. The colors are stored little endian.
+	 *
+	 * @param page
+	 *            The page index.
+	 * @return The compressed page.
 	 */
-	public synchronized boolean hasCache() {
-		return cacheFile.isFile();
+	private byte[] compressPage(int page) {
+		int firstLine = page * pageHeight;
+		int lines = Math.min(pageHeight, height - firstLine);
+
+		ShortBuffer pageData = buffers.duplicate();
+		pageData.limit((firstLine + lines) * width);
+		pageData.position(firstLine * width);
+		byte[] raw = new byte[lines * width * 2];
+		ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().put(pageData);
+
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try {
+			deflater.setInput(raw);
+			deflater.finish();
+			ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 4);
+			byte[] chunk = new byte[64 * 1024];
+			while (!deflater.finished()) {
+				compressed.write(chunk, 0, deflater.deflate(chunk));
+			}
+			return compressed.toByteArray();
+		} finally {
+			deflater.end();
+		}
 	}
 
 	@Override
@@ -234,7 +391,7 @@ public class MultiImageMap implements ImageArrayProvider, GLPreloadTask {
 
 	/**
 	 * Gets the width of the underlying texture.
-	 * 
+	 *
 	 * @return The width.
 	 */
 	public int getWidth() {
@@ -243,7 +400,7 @@ public class MultiImageMap implements ImageArrayProvider, GLPreloadTask {
 
 	/**
 	 * Gets the height of the underlying texture.
-	 * 
+	 *
 	 * @return The height.
 	 */
 	public int getHeight() {
@@ -251,58 +408,328 @@ public class MultiImageMap implements ImageArrayProvider, GLPreloadTask {
 	}
 
 	/**
-	 * Gets the texture handle.
-	 * 
+	 * Gets the mask of the texture pages that contain the given lines.
+	 *
+	 * @param top
+	 *            The first line.
+	 * @param lines
+	 *            The number of lines.
+	 * @return A mask with one bit set for each page.
+	 */
+	long getPageMask(int top, int lines) {
+		int firstPage = top / pageHeight;
+		int lastPage = Math.min(pageCount - 1, (top + Math.max(lines, 1) - 1) / pageHeight);
+		long mask = 0;
+		for (int page = firstPage; page <= lastPage; page++) {
+			mask |= 1L << page;
+		}
+		return mask;
+	}
+
+	/**
+	 * Gets the texture handle with all pages loaded.
+	 *
 	 * @param gl
 	 *            The gl context to use when creating the texutre.
 	 * @return A valid texture handle.
 	 */
 	public TextureHandle getTexture(GLDrawContext gl) {
+		return getTexture(gl, -1L);
+	}
+
+	/**
+	 * Gets the texture handle.
+	 *
+	 * @param gl
+	 *            The gl context to use when creating the texutre.
+	 * @param pages
+	 *            The pages that need to be loaded, as returned by {@link #getPageMask(int, int)}.
+	 * @return A valid texture handle.
+	 */
+	public TextureHandle getTexture(GLDrawContext gl, long pages) {
 		if (!textureValid || !texture.isValid()) {
 			if (texture != null) {
 				texture.delete();
 			}
-			try {
-				loadTexture(gl);
-			} catch (IOException e) {
-				e.printStackTrace();
-			}
+			loadTexture(gl);
+		}
+		if ((loadedPages & pages) != pages) {
+			loadPages(gl, pages);
 		}
 		return texture;
 	}
 
-	private synchronized void loadTexture(GLDrawContext gl) throws
-			IOException {
-		if (buffers == null) {
-			allocateBuffers();
-			FileInputStream in = new FileInputStream(cacheFile);
+	private synchronized void loadTexture(GLDrawContext gl) {
+		loadedPages = 0;
+		if (buffers != null) {
+			// the images were just decoded, so we can upload all of them.
+			buffers.rewind();
+			texture = gl.generateTexture(width, height, buffers);
+			loadedPages = -1L;
+			if (pageOffsets != null) {
+				// later reloads can use the cache.
+				buffers = null;
+				byteBuffer = null;
+			}
+		} else {
+			texture = gl.generateTexture(width, height, null);
+		}
+		System.out.println("opengl Texture: " + texture
+				+ ", thread: " + Thread.currentThread().toString());
+		textureValid = texture != null;
+	}
+
+	private synchronized void loadPages(GLDrawContext gl, long pages) {
+		long missing = pages & ~loadedPages;
+		// never retry pages that failed.
+		loadedPages |= missing;
+		if (texture == null) {
+			return;
+		}
+
+		try {
+			RandomAccessFile file = new RandomAccessFile(cacheFile, "r");
 			try {
-				byte[] line = new byte[this.width * 2];
-				while (in.available() > 0) {
-					if (in.read(line) <= 0) {
-						throw new IOException();
+				ByteBuffer pageBuffer = ByteBuffer.allocateDirect(pageHeight * width * 2);
+				pageBuffer.order(ByteOrder.nativeOrder());
+				Inflater inflater = new Inflater();
+				try {
+					for (int page = 0; page < pageCount; page++) {
+						if ((missing & (1L << page)) != 0) {
+							loadPage(gl, file, inflater, pageBuffer, page);
+						}
 					}
-					byteBuffer.put(line);
+				} finally {
+					inflater.end();
 				}
-				byteBuffer.rewind();
 			} finally {
-				in.close();
+				file.close();
 			}
+		} catch (IOException | IllegalBufferException e) {
+			e.printStackTrace();
 		}
+	}
 
-		buffers.rewind();
-		texture = gl.generateTexture(width, height, buffers);
-		System.out.println("opengl Texture: " + texture
-				+ ", thread: " + Thread.currentThread().toString());
-		if (texture != null) {
-			textureValid = true;
+	private void loadPage(GLDrawContext gl, RandomAccessFile file, Inflater inflater, ByteBuffer pageBuffer, int page)
+			throws IOException, IllegalBufferException {
+		if (pageOffsets == null) {
+			throw new IOException("Page " + page + " of " + cacheFile + " is not cached.");
+		}
+		int firstLine = page * pageHeight;
+		int lines = Math.min(pageHeight, height - firstLine);
+
+		byte[] compressed = new byte[pageLengths[page]];
+		file.seek(pageOffsets[page]);
+		file.readFully(compressed);
+
+		byte[] raw = new byte[lines * width * 2];
+		inflater.reset();
+		inflater.setInput(compressed);
+		try {
+			int length = 0;
+			while (length < raw.length && !inflater.finished()) {
+				int inflated = inflater.inflate(raw, length, raw.length - length);
+				if (inflated == 0 && inflater.needsInput()) {
+					break;
+				}
+				length += inflated;
+			}
+			if (length != raw.length) {
+				throw new IOException("Page " + page + " of " + cacheFile + " is truncated.");
+			}
+		} catch (DataFormatException e) {
+			throw new IOException(e);
 		}
-		buffers = null;
-		byteBuffer = null;
+
+		pageBuffer.clear();
+		ShortBuffer pageData = pageBuffer.asShortBuffer();
+		pageData.put(ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer());
+		pageData.flip();
+		gl.updateTexture(texture, 0, firstLine, width, lines, pageData);
 	}
 
 	@Override
 	public void run(GLDrawContext context) {
-		getTexture(context);
+		getTexture(context, 0);
+	}
+
+	/**
+	 * The position of an image in the texture.
+	 */
+	private static final class PlacedImage {
+		private final ImageMetadata metadata;
+		private final int x;
+		private final int y;
+
+		PlacedImage(ImageMetadata metadata, int x, int y) {
+			this.metadata = metadata;
+			this.x = x;
+			this.y = y;
+		}
+
+		void write(DataOutputStream out) throws IOException {
+			out.writeInt(metadata.width);
+			out.writeInt(metadata.height);
+			out.writeInt(metadata.offsetX);
+			out.writeInt(metadata.offsetY);
+			out.writeInt(x);
+			out.writeInt(y);
+		}
+
+		static PlacedImage read(DataInputStream in) throws IOException {
+			ImageMetadata metadata = new ImageMetadata();
+			metadata.width = in.readInt();
+			metadata.height = in.readInt();
+			metadata.offsetX = in.readInt();
+			metadata.offsetY = in.readInt();
+			return new PlacedImage(metadata, in.readInt(), in.readInt());
+		}
+	}
+
+	/**
+	 * The positions of all images of one sequence.
+	 */
+	private static final class SequenceLayout {
+		private final int sequenceIndex;
+		private final PlacedImage[] settlers;
+		private final PlacedImage[] torsos;
+
+		SequenceLayout(int sequenceIndex, int imageCount, boolean hasTorsos) {
+			this.sequenceIndex = sequenceIndex;
+			this.settlers = new PlacedImage[imageCount];
+			this.torsos = hasTorsos ? new PlacedImage[imageCount] : null;
+		}
+
+		Sequence<Image> createSequence(MultiImageMap map) {
+			Image[] images = new Image[settlers.length];
+			for (int i = 0; i < images.length; i++) {
+				PlacedImage settler = settlers[i];
+				PlacedImage torso = torsos != null ? torsos[i] : null;
+				if (torso != null) {
+					images[i] = new MultiImageImage(map, settler.metadata, settler.x, settler.y, torso.metadata, torso.x, torso.y);
+				} else {
+					images[i] = new MultiImageImage(map, settler.metadata, settler.x, settler.y, null, 0, 0);
+				}
+			}
+			return new ArraySequence<>(images);
+		}
+
+		void write(DataOutputStream out) throws IOException {
+			out.writeInt(sequenceIndex);
+			out.writeInt(settlers.length);
+			out.writeBoolean(torsos != null);
+			for (int i = 0; i < settlers.length; i++) {
+				settlers[i].write(out);
+				if (torsos != null) {
+					torsos[i].write(out);
+				}
+			}
+		}
+
+		static SequenceLayout read(DataInputStream in, int sequenceIndex) throws IOException {
+			int imageCount = in.readInt();
+			if (imageCount < 0) {
+				throw new IOException("Invalid image count " + imageCount);
+			}
+			SequenceLayout sequence = new SequenceLayout(sequenceIndex, imageCount, in.readBoolean());
+			for (int i = 0; i < imageCount; i++) {
+				sequence.settlers[i] = PlacedImage.read(in);
+				if (sequence.torsos != null) {
+					sequence.torsos[i] = PlacedImage.read(in);
+				}
+			}
+			return sequence;
+		}
+	}
+
+	/**
+	 * An image decoded from a DAT file. It keeps the lines as they were written, so it can be copied to the texture later.
+	 */
+	private static final class DecodedImage implements ImageArrayProvider {
+		private final AdvancedDatFileReader dfr;
+		private final long pointer;
+		private final boolean torso;
+		private final ImageMetadata metadata = new ImageMetadata();
+		private final ArrayList<short[]> lines = new ArrayList<>();
+
+		DecodedImage(AdvancedDatFileReader dfr, long pointer, boolean torso) {
+			this.dfr = dfr;
+			this.pointer = pointer;
+			this.torso = torso;
+		}
+
+		void decode() throws IOException {
+			ByteReader reader = dfr.getReaderForPointer(pointer);
+			if (torso) {
+				DatBitmapReader.uncompressImage(reader, dfr.getTorsoTranslator(), metadata, this);
+			} else {
+				DatBitmapReader.uncompressImage(reader, dfr.getSettlerTranslator(), metadata, this);
+			}
+		}
+
+		void copyTo(ImageArrayProvider array) throws IOException {
+			array.startImage(metadata.width, metadata.height);
+			for (short[] line : lines) {
+				array.writeLine(line, line.length);
+			}
+		}
+
+		@Override
+		public void startImage(int width, int height) {
+			lines.clear();
+		}
+
+		@Override
+		public void writeLine(short[] data, int length) {
+			short[] line = new short[length];
+			System.arraycopy(data, 0, line, 0, length);
+			lines.add(line);
+		}
+	}
+
+	/**
+	 * Decodes a range of images, split into batches of {@link MultiImageMap#DECODE_BATCH_SIZE}.
+	 */
+	private static final class DecodeAction extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final ArrayList<DecodedImage> images;
+		private final int from;
+		private final int to;
+
+		DecodeAction(ArrayList<DecodedImage> images, int from, int to) {
+			this.images = images;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > DECODE_BATCH_SIZE) {
+				int middle = (from + to) / 2;
+				invokeAll(new DecodeAction(images, from, middle), new DecodeAction(images, middle, to));
+			} else {
+				for (int i = from; i < to; i++) {
+					try {
+						images.get(i).decode();
+					} catch (IOException e) {
+						throw new DecodeException(e);
+					}
+				}
+			}
+		}
+	}
+
+	private static final class DecodeException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		DecodeException(IOException cause) {
+			super(cause);
+		}
+
+		@Override
+		public synchronized IOException getCause() {
+			return (IOException) super.getCause();
+		}
 	}
 }
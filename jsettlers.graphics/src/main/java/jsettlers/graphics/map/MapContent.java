@@ -70,6 +70,7 @@ import jsettlers.graphics.map.controls.original.OriginalControls;
 import jsettlers.graphics.map.draw.Background;
 import jsettlers.graphics.map.draw.ImageProvider;
 import jsettlers.graphics.map.draw.MapObjectDrawer;
+import jsettlers.graphics.map.draw.OccupiedTiles;
 import jsettlers.graphics.messages.Messenger;
 import jsettlers.graphics.sound.BackgroundSound;
 import jsettlers.graphics.sound.SoundManager;
@@ -148,7 +149,11 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 
 	private final IGraphicsGrid map;
 
-	private final Background background = new Background();
+	private final Background background;
+	/**
+	 * The positions with objects to draw. <code>null</code> if the map does not report its changes.
+	 */
+	private final OccupiedTiles occupiedTiles;
 
 	private final MapDrawContext context;
 
@@ -223,6 +228,7 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 	 */
 	public MapContent(IStartedGame game, SoundPlayer soundPlayer, ETextDrawPosition textDrawPosition, IControls controls) {
 		this.map = game.getMap();
+		this.background = new Background(map.getWidth(), map.getHeight());
 		this.gameTimeProvider = game.getGameTimeProvider();
 		this.textDrawPosition = textDrawPosition;
 		this.messenger = new Messenger(this.gameTimeProvider);
@@ -244,7 +250,13 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 		this.connector = new MapInterfaceConnector(this);
 		this.connector.addListener(this);
 
-		map.setBackgroundListener(background);
+		context.addBackgroundListener(background);
+		if (context.isReportingObjectChanges()) {
+			occupiedTiles = new OccupiedTiles(map);
+			context.addObjectsListener(occupiedTiles);
+		} else {
+			occupiedTiles = null;
+		}
 	}
 
 	private void resizeTo(int newWindowWidth, int newWindowHeight) {
@@ -468,6 +480,10 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 
 		double bottomDrawY = screen.getMinY() - OVERDRAW_BOTTOM_PX;
 
+		if (occupiedTiles != null) {
+			occupiedTiles.update();
+		}
+
 		boolean linePartiallyVisible = true;
 		for (int line = 0; line < area.getLines() + 50 && linePartiallyVisible; line++) {
 			int y = area.getLineY(line);
@@ -481,12 +497,18 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 
 			int endX = Math.min(area.getLineEndX(line), width - 1);
 			int startX = Math.max(area.getLineStartX(line), 0);
-			for (int x = startX; x <= endX; x = map.nextDrawableX(x, y, endX)) {
-				drawTile(x, y);
-				if (!linePartiallyVisible) {
-					double drawSpaceY = this.context.getConverter().getViewY(x, y, this.context.getHeight(x, y));
-					if (drawSpaceY > bottomDrawY) {
-						linePartiallyVisible = true;
+			if (occupiedTiles != null) {
+				for (int x = occupiedTiles.nextOccupiedX(startX, y, endX); x <= endX; x = occupiedTiles.nextOccupiedX(x + 1, y, endX)) {
+					drawTile(x, y);
+				}
+				for (int x = startX; x <= endX && !linePartiallyVisible; x++) {
+					linePartiallyVisible = isAboveBottom(x, y, bottomDrawY);
+				}
+			} else {
+				for (int x = startX; x <= endX; x = map.nextDrawableX(x, y, endX)) {
+					drawTile(x, y);
+					if (!linePartiallyVisible) {
+						linePartiallyVisible = isAboveBottom(x, y, bottomDrawY);
 					}
 				}
 			}
@@ -510,6 +532,11 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 		context.getDrawBuffer().flush();
 	}
 
+	private boolean isAboveBottom(int x, int y, double bottomDrawY) {
+		double drawSpaceY = this.context.getConverter().getViewY(x, y, this.context.getHeight(x, y));
+		return drawSpaceY > bottomDrawY;
+	}
+
 	private void drawTile(int x, int y) {
 		IMapObject object = map.getMapObjectsAt(x, y);
 		if (object != null) {
@@ -15,11 +15,14 @@
 package jsettlers.graphics.map;
 
 import java.util.Iterator;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import go.graphics.GLDrawContext;
 import jsettlers.common.Color;
 import jsettlers.common.landscape.ELandscapeType;
+import jsettlers.common.map.IGraphicsBackgroundListener;
 import jsettlers.common.map.IGraphicsGrid;
+import jsettlers.common.map.IGraphicsObjectsListener;
 import jsettlers.common.map.shapes.IMapArea;
 import jsettlers.common.map.shapes.MapRectangle;
 import jsettlers.common.position.FloatRectangle;
@@ -43,10 +46,12 @@ import jsettlers.graphics.map.geometry.MapCoordinateConverter;
  * given in draw space.
  * <h2>Draw buffer</h2> We hold a draw buffer everyone drawing with the map draw context can use. The buffer should be flushed when drawing one
  * component finished. When the draw buffer is used after a call to end(), the buffer is invalid.
+ * <h2>Change listeners</h2> The context is the background and objects listener of the map and forwards the changes to everyone that registered
+ * with {@link #addBackgroundListener(IGraphicsBackgroundListener)} or {@link #addObjectsListener(IGraphicsObjectsListener)}.
  *
  * @author Michael Zangl
  */
-public final class MapDrawContext implements IGLProvider {
+public final class MapDrawContext implements IGLProvider, IGraphicsBackgroundListener, IGraphicsObjectsListener {
 
 	private GLDrawContext gl = null;
 
@@ -108,6 +113,10 @@ public final class MapDrawContext implements IGLProvider {
 	 */
 	private final DrawBuffer buffer;
 
+	private final CopyOnWriteArrayList<IGraphicsBackgroundListener> backgroundListeners = new CopyOnWriteArrayList<>();
+	private final CopyOnWriteArrayList<IGraphicsObjectsListener> objectsListeners = new CopyOnWriteArrayList<>();
+	private final boolean reportingObjectChanges;
+
 	/**
 	 * Creates a new map context for a given map.
 	 *
@@ -126,6 +135,73 @@ public final class MapDrawContext implements IGLProvider {
 				map.getHeight());
 
 		buffer = new DrawBuffer(this);
+
+		map.setBackgroundListener(this);
+		reportingObjectChanges = map.setObjectsListener(this);
+	}
+
+	/**
+	 * Adds a listener that is informed about all background changes of the map.
+	 *
+	 * @param listener
+	 *            The listener.
+	 */
+	public void addBackgroundListener(IGraphicsBackgroundListener listener) {
+		backgroundListeners.add(listener);
+	}
+
+	/**
+	 * Removes a listener added by {@link #addBackgroundListener(IGraphicsBackgroundListener)}.
+	 *
+	 * @param listener
+	 *            The listener.
+	 */
+	public void removeBackgroundListener(IGraphicsBackgroundListener listener) {
+		backgroundListeners.remove(listener);
+	}
+
+	@Override
+	public void backgroundChangedAt(int x, int y) {
+		for (IGraphicsBackgroundListener listener : backgroundListeners) {
+			listener.backgroundChangedAt(x, y);
+		}
+	}
+
+	/**
+	 * Adds a listener that is informed about all object changes of the map.
+	 *
+	 * @param listener
+	 *            The listener.
+	 * @see #isReportingObjectChanges()
+	 */
+	public void addObjectsListener(IGraphicsObjectsListener listener) {
+		objectsListeners.add(listener);
+	}
+
+	/**
+	 * Removes a listener added by {@link #addObjectsListener(IGraphicsObjectsListener)}.
+	 *
+	 * @param listener
+	 *            The listener.
+	 */
+	public void removeObjectsListener(IGraphicsObjectsListener listener) {
+		objectsListeners.remove(listener);
+	}
+
+	/**
+	 * Checks if the map reports object changes to the objects listeners.
+	 *
+	 * @return <code>false</code> if the objects listeners are never called and the map needs to be polled for changes.
+	 */
+	public boolean isReportingObjectChanges() {
+		return reportingObjectChanges;
+	}
+
+	@Override
+	public void objectsChangedAt(int x, int y) {
+		for (IGraphicsObjectsListener listener : objectsListeners) {
+			listener.objectsChangedAt(x, y);
+		}
 	}
 
 	/**
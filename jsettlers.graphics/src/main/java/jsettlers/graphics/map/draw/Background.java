@@ -17,7 +17,17 @@ package jsettlers.graphics.map.draw;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.util.BitSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import go.graphics.GLDrawContext;
 import go.graphics.GLDrawContext.GLBuffer;
@@ -40,6 +50,11 @@ import jsettlers.graphics.reader.ImageMetadata;
  * The map background.
  * <p>
  * This class draws the map background (landscape) layer. It has support for smooth FOW transitions and buffers the background to make it faster.
+ * <p>
+ * The map is split into chunks of {@link #CHUNK_SIZE} * {@link #CHUNK_SIZE} points, each with its own geometry that is drawn with one call. Chunks
+ * are built when they become visible and stay resident until they are the least recently drawn ones, so scrolling and zooming only builds chunks
+ * that were not visible recently. Only points whose landscape or visible status changed or that are still dimming are generated again, and only
+ * the chunks containing them are uploaded.
  * 
  * @author Michael Zangl
  */
@@ -834,8 +849,6 @@ public class Background implements IGraphicsBackgroundListener {
 			// ...
 	};
 
-	private final BitSet fowDimmed = new BitSet();
-
 	private static final short FLOAT_SIZE = 4;
 	/**
 	 * How many bytes are needed per vertex
@@ -844,6 +857,38 @@ public class Background implements IGraphicsBackgroundListener {
 
 	private static final byte DIM_MAX = 20;
 
+	/**
+	 * Width and height of a chunk in map points.
+	 */
+	private static final int CHUNK_SIZE = 32;
+	/**
+	 * Minimum number of chunks that are kept when they are not visible any more. At least twice the number of visible chunks is kept.
+	 */
+	private static final int MIN_RESIDENT_CHUNKS = 64;
+	/**
+	 * Minimum number of points to redraw before the geometry is generated in parallel.
+	 */
+	private static final int PARALLEL_MIN_REDRAWS = 4096;
+
+	private static final byte REDRAW_NONE = 0;
+	private static final byte REDRAW_NEW = 1;
+	private static final byte REDRAW_UPDATE = 2;
+
+	private static final int GENERATOR_THREADS = Runtime.getRuntime().availableProcessors() - 1;
+	private static final ThreadPoolExecutor GENERATOR_EXECUTOR = new ThreadPoolExecutor(Math.max(GENERATOR_THREADS, 1), Math.max(GENERATOR_THREADS,
+			1), 10, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "BackgroundGenerator");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+
+	static {
+		GENERATOR_EXECUTOR.allowCoreThreadTimeOut(true);
+	}
+
 	private static final byte[] BLACK = new byte[] {
 			0, 0, 0, (byte) 255
 	};
@@ -854,20 +899,24 @@ public class Background implements IGraphicsBackgroundListener {
 	 */
 	// private static final int COLOR_OFFSET = 5 * FLOAT_SIZE;
 
-	private byte[] fogOfWarStatus = new byte[1];
-	private MapRectangle oldBufferPosition = new MapRectangle(0, 0, 0, 0);
-	private int bufferWidth = 1; // in map points.
-	private int bufferHeight = 1; // in map points.
+	private final int mapWidth;
+	private final int mapHeight;
+	private final ChangedPositions changedPositions;
 
 	private static TextureHandle texture = null;
 
-	private GeometryHandle geometryhandle = null;
-
-	private int geometrytirs;
-
-	private BitSet geometryInvalid = new BitSet();
-
-	private boolean mapViewResized;
+	private final int chunksX;
+	private final int chunksY;
+	/**
+	 * The resident chunks by their index chunkX + chunkY * chunksX.
+	 */
+	private final TerrainChunk[] chunks;
+	/**
+	 * The resident chunks, least recently drawn first.
+	 */
+	private final LinkedHashMap<Integer, TerrainChunk> residentChunks = new LinkedHashMap<>(16, .75f, true);
+	private ArrayList<TerrainChunk> visibleChunks = new ArrayList<>();
+	private ArrayList<TerrainChunk> previouslyVisibleChunks = new ArrayList<>();
 
 	private static short[] preloadedTexture = null;
 
@@ -1176,6 +1225,23 @@ public class Background implements IGraphicsBackgroundListener {
 		return index;
 	}
 
+	/**
+	 * Creates a new background for a map.
+	 * 
+	 * @param mapWidth
+	 *            The width of the map.
+	 * @param mapHeight
+	 *            The height of the map.
+	 */
+	public Background(int mapWidth, int mapHeight) {
+		this.mapWidth = mapWidth;
+		this.mapHeight = mapHeight;
+		this.changedPositions = new ChangedPositions(mapWidth, mapHeight);
+		this.chunksX = (mapWidth + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		this.chunksY = (mapHeight + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		this.chunks = new TerrainChunk[chunksX * chunksY];
+	}
+
 	/**
 	 * Draws a given map content.
 	 * 
@@ -1187,112 +1253,239 @@ public class Background implements IGraphicsBackgroundListener {
 		try {
 			GLDrawContext gl = context.getGl();
 			MapRectangle screenArea = context.getConverter().getMapForScreen(screen);
-			mapViewResized = geometryhandle == null || !geometryhandle.isValid() || screenArea.getLineLength() + 1 != bufferWidth || screenArea.getLines() != bufferHeight;
-			if (mapViewResized) {
-				regenerateGeometry(gl, screenArea);
+			if (!isGeometryValid()) {
+				clearChunks();
 			}
 
-			GLBuffer boundBuffer = gl.startWriteGeometry(geometryhandle);
-			reloadGeometry(boundBuffer, screenArea, context);
-			gl.endWriteGeometry(geometryhandle);
+			changedPositions.drain(this);
+			findVisibleChunks(gl, screenArea);
+			markPendingRedraws();
+			generateGeometry(context);
+			uploadGeometry(gl);
+
 			gl.glPushMatrix();
 			try {
 				gl.glTranslatef(0, 0, -.1f);
 				gl.glScalef(1, 1, 0);
 				gl.glMultMatrixf(context.getConverter().getMatrixWithHeight(), 0);
 				gl.color(1, 1, 1, 1);
-				gl.drawTrianglesWithTextureColored(getTexture(context.getGl()), geometryhandle, geometrytirs);
+				TextureHandle backgroundTexture = getTexture(context.getGl());
+				for (TerrainChunk chunk : visibleChunks) {
+					gl.drawTrianglesWithTextureColored(backgroundTexture, chunk.geometry, chunk.points * 2);
+				}
 			} finally {
 				gl.glPopMatrix();
 			}
 
-			resetFOWDimStatus();
+			evictChunks();
 		} catch (IllegalBufferException e) {
 			// TODO: Create crash report.
 			e.printStackTrace();
 		}
 	}
 
-	private void resetFOWDimStatus() {
-		fowDimmed.clear();
+	private boolean isGeometryValid() {
+		for (TerrainChunk chunk : residentChunks.values()) {
+			if (chunk.geometry == null || !chunk.geometry.isValid()) {
+				return false;
+			}
+		}
+		return true;
 	}
 
-	private void regenerateGeometry(GLDrawContext gl, MapRectangle screenArea) {
-		if (geometryhandle != null && geometryhandle.isValid()) {
-			geometryhandle.delete();
+	private void clearChunks() {
+		for (TerrainChunk chunk : residentChunks.values()) {
+			deleteChunk(chunk);
 		}
-		bufferWidth = niceRoundUp(screenArea.getLineLength() + 1);
-		bufferHeight = niceRoundUp(screenArea.getLines());
-		int count = bufferHeight * bufferWidth;
-		fogOfWarStatus = new byte[count * 4];
-		geometryInvalid = new BitSet(count);
-		geometrytirs = count * 2;
-
-		geometryhandle = gl.generateGeometry(geometrytirs * 3 * VERTEX_SIZE);
+		residentChunks.clear();
+		visibleChunks.clear();
+		previouslyVisibleChunks.clear();
 	}
 
-	private static int niceRoundUp(int i) {
-		return i;
+	private void deleteChunk(TerrainChunk chunk) {
+		if (chunk.geometry != null && chunk.geometry.isValid()) {
+			chunk.geometry.delete();
+		}
+		chunks[chunk.index] = null;
 	}
 
 	/**
-	 * Gets the geometry of the background as array.
+	 * Finds all chunks that intersect the given area and builds the missing ones.
 	 * 
-	 * @param boundBuffer
-	 *            The buffer of opengl.
-	 * @param context
-	 *            The context to use.
-	 * @return The geometry as float array.
+	 * @param gl
+	 *            The context to allocate the geometry of new chunks.
+	 * @param area
+	 *            The area of the map that is visible.
 	 */
-	private void reloadGeometry(GLBuffer boundBuffer, MapRectangle area, MapDrawContext context) {
-		boolean hasInvalidFields = hasInvalidFields();
-
-		int width = context.getMap().getWidth();
-		int height = context.getMap().getHeight();
-		int oldBufferTop = oldBufferPosition.getLineY(0);
-		int oldBufferBottom = oldBufferTop + bufferHeight; // excluding
-
-		for (int line = 0; line < bufferHeight; line++) {
-
-			int y = area.getLineY(line);
-			int minx = area.getLineStartX(line);
-			int maxx = minx + bufferWidth;
-			int oldMinX = 0;
-			int oldMaxX = 0; // excluding
-			if (y >= oldBufferTop && y < oldBufferBottom) {
-				oldMinX = oldBufferPosition.getLineStartX(y - oldBufferTop);
-				oldMaxX = oldMinX + bufferWidth;
+	private void findVisibleChunks(GLDrawContext gl, MapRectangle area) {
+		ArrayList<TerrainChunk> previouslyVisible = visibleChunks;
+		for (TerrainChunk chunk : previouslyVisible) {
+			chunk.visible = false;
+		}
+		visibleChunks = previouslyVisibleChunks;
+		previouslyVisibleChunks = previouslyVisible;
+		visibleChunks.clear();
+
+		int minY = Math.max(area.getMinY(), 0);
+		int maxY = Math.min(area.getMinY() + area.getLines(), mapHeight); // excluding
+		for (int chunkY = minY / CHUNK_SIZE; chunkY * CHUNK_SIZE < maxY; chunkY++) {
+			int firstLine = Math.max(chunkY * CHUNK_SIZE, minY) - area.getMinY();
+			int lastLine = Math.min(chunkY * CHUNK_SIZE + CHUNK_SIZE, maxY) - 1 - area.getMinY();
+			// the buffer covers one point more than the area
+			int minX = Math.max(area.getLineStartX(firstLine), 0);
+			int maxX = Math.min(area.getLineStartX(lastLine) + area.getLineLength() + 1, mapWidth); // excluding
+
+			for (int chunkX = minX / CHUNK_SIZE; chunkX * CHUNK_SIZE < maxX; chunkX++) {
+				visibleChunks.add(getVisibleChunk(gl, chunkX, chunkY));
 			}
-			boolean lineIsInMap = y >= 0 && y < height;
-
-			for (int x = minx; x < maxx; x++) {
-				int bufferPosition = getBufferPosition(y, x);
-				if (mapViewResized || oldMinX > x || oldMaxX <= x) {
-					redrawPoint(boundBuffer, context, x, y, false, bufferPosition);
-				} else if (lineIsInMap && x >= 0 && x < width) {
-					if (hasInvalidFields && getAndResetInvalid(bufferPosition)) {
-						redrawPoint(boundBuffer, context, x, y, true, bufferPosition);
-					} else if (context.getVisibleStatus(x, y) != fogOfWarStatus[bufferPosition * 4]) {
-						redrawPoint(boundBuffer, context, x, y, true, bufferPosition);
-						invalidatePoint(x - 1, y); // only for next pass
-						invalidatePoint(x - 1, y - 1);
-						invalidatePoint(x - 1, y - 1);
-					}
-				}
+		}
+
+		for (TerrainChunk chunk : previouslyVisible) {
+			if (!chunk.visible) {
+				chunk.hide();
 			}
 		}
+	}
 
-		oldBufferPosition = area;
+	private TerrainChunk getVisibleChunk(GLDrawContext gl, int chunkX, int chunkY) {
+		int index = chunkX + chunkY * chunksX;
+		TerrainChunk chunk = chunks[index];
+		if (chunk == null) {
+			int minX = chunkX * CHUNK_SIZE;
+			int minY = chunkY * CHUNK_SIZE;
+			int width = Math.min(CHUNK_SIZE, mapWidth - minX);
+			int height = Math.min(CHUNK_SIZE, mapHeight - minY);
+			chunk = new TerrainChunk(index, minX, minY, width, height, gl.generateGeometry(width * height * 2 * 3 * VERTEX_SIZE));
+			chunks[index] = chunk;
+			residentChunks.put(index, chunk);
+			chunk.markAllNew();
+		} else {
+			residentChunks.get(index); // mark as recently used
+			if (chunk.outdated) {
+				chunk.markAllNew();
+			}
+		}
+		chunk.visible = true;
+		return chunk;
 	}
 
-	private synchronized boolean getAndResetInvalid(int bufferPosition) {
-		boolean invalid = geometryInvalid.get(bufferPosition);
-		geometryInvalid.clear(bufferPosition);
-		return invalid;
+	/**
+	 * Removes the least recently drawn chunks if there are too many.
+	 */
+	private void evictChunks() {
+		int maxResident = Math.max(MIN_RESIDENT_CHUNKS, visibleChunks.size() * 2);
+		Iterator<TerrainChunk> iterator = residentChunks.values().iterator();
+		while (residentChunks.size() > maxResident) {
+			TerrainChunk chunk = iterator.next();
+			if (chunk.visible) {
+				break;
+			}
+			iterator.remove();
+			deleteChunk(chunk);
+		}
 	}
 
-	private synchronized boolean hasInvalidFields() {
-		return !geometryInvalid.isEmpty();
+	/**
+	 * Marks all points of visible chunks that need to be generated again because they are still dimming.
+	 */
+	private void markPendingRedraws() {
+		for (TerrainChunk chunk : visibleChunks) {
+			int[] pending = chunk.swapPending();
+			for (int i = 0; i < chunk.pendingCount; i++) {
+				chunk.markRedraw(pending[i], REDRAW_UPDATE);
+			}
+			chunk.pendingCount = 0;
+		}
+	}
+
+	/**
+	 * Marks a point to be generated again. Resident chunks that are not visible are built completely when they are visible again.
+	 */
+	private void markUpdate(int x, int y) {
+		if (x >= 0 && x < mapWidth && y >= 0 && y < mapHeight) {
+			TerrainChunk chunk = chunks[x / CHUNK_SIZE + y / CHUNK_SIZE * chunksX];
+			if (chunk == null) {
+				return;
+			} else if (chunk.visible) {
+				chunk.markRedraw(x - chunk.minX + (y - chunk.minY) * chunk.width, REDRAW_UPDATE);
+			} else {
+				chunk.outdated = true;
+			}
+		}
+	}
+
+	private void generateGeometry(final MapDrawContext context) {
+		int redraws = 0;
+		int dirtyChunks = 0;
+		for (TerrainChunk chunk : visibleChunks) {
+			if (chunk.redrawCount > 0) {
+				redraws += chunk.redrawCount;
+				dirtyChunks++;
+			}
+		}
+
+		if (GENERATOR_THREADS > 0 && redraws >= PARALLEL_MIN_REDRAWS && dirtyChunks > 1) {
+			ArrayList<Future<?>> futures = new ArrayList<>(dirtyChunks);
+			for (final TerrainChunk chunk : visibleChunks) {
+				if (chunk.redrawCount > 0) {
+					futures.add(GENERATOR_EXECUTOR.submit(new Runnable() {
+						@Override
+						public void run() {
+							generateChunk(context, chunk);
+						}
+					}));
+				}
+			}
+			try {
+				for (Future<?> future : futures) {
+					future.get();
+				}
+			} catch (InterruptedException | ExecutionException e) {
+				throw new RuntimeException(e);
+			}
+		} else {
+			for (TerrainChunk chunk : visibleChunks) {
+				if (chunk.redrawCount > 0) {
+					generateChunk(context, chunk);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Generates all marked points of a chunk. Chunks do not share any points, so they can be generated in parallel.
+	 */
+	private void generateChunk(MapDrawContext context, TerrainChunk chunk) {
+		VertexBuffer buffer = new VertexBuffer(chunk.vertices.duplicate().order(ByteOrder.nativeOrder()));
+		int[] redraws = chunk.redraws;
+		for (int i = 0; i < chunk.redrawCount; i++) {
+			int point = redraws[i];
+			boolean wasVisible = chunk.redrawModes[point] == REDRAW_UPDATE;
+			chunk.redrawModes[point] = REDRAW_NONE;
+
+			int x = chunk.minX + point % chunk.width;
+			int y = chunk.minY + point / chunk.width;
+			if (redrawPoint(buffer, context, chunk.fogOfWarStatus, x, y, wasVisible, point)) {
+				chunk.addPending(point);
+			}
+		}
+		chunk.redrawCount = 0;
+		chunk.changed = true;
+	}
+
+	private void uploadGeometry(GLDrawContext gl) throws IllegalBufferException {
+		for (TerrainChunk chunk : visibleChunks) {
+			if (chunk.changed) {
+				ByteBuffer data = chunk.vertices.duplicate();
+				data.clear();
+
+				GLBuffer boundBuffer = gl.startWriteGeometry(chunk.geometry);
+				boundBuffer.position(0);
+				boundBuffer.put(data);
+				gl.endWriteGeometry(chunk.geometry);
+				chunk.changed = false;
+			}
+		}
 	}
 
 	/**
@@ -1302,39 +1495,41 @@ public class Background implements IGraphicsBackgroundListener {
 	 *            The buffer to use
 	 * @param context
 	 *            The context
+	 * @param fogOfWarStatus
+	 *            The fog of war buffer of the chunk
 	 * @param x
 	 *            The x coordinate of the point
 	 * @param y
 	 *            The y coordinate of the point
 	 * @param wasVisible
 	 *            true if and only if the point was already in the buffer.
+	 * @return true if the fog of war of the point is still dimming and the point needs to be redrawn in the next frame.
 	 */
-	private void redrawPoint(GLBuffer boundBuffer, MapDrawContext context, int x, int y, boolean wasVisible, int pointOffset) {
+	private boolean redrawPoint(GLBuffer boundBuffer, MapDrawContext context, byte[] fogOfWarStatus, int x, int y, boolean wasVisible,
+			int pointOffset) {
 		boundBuffer.position(pointOffset * 2 * 3 * VERTEX_SIZE);
 
+		boolean dimming = false;
 		if (x >= 0 && y >= 0 && x < context.getMap().getWidth() - 1 && y < context.getMap().getHeight() - 1) {
 			if (wasVisible) {
-				dimFogOfWarBuffer(context, (pointOffset * 4), x, y);
-				dimFogOfWarBuffer(context, (pointOffset * 4) + 1, x + 1, y);
-				dimFogOfWarBuffer(context, (pointOffset * 4) + 2, x, y + 1);
-				dimFogOfWarBuffer(context, (pointOffset * 4) + 3, x + 1, y + 1);
+				dimming |= dimFogOfWarBuffer(context, fogOfWarStatus, (pointOffset * 4), x, y);
+				dimming |= dimFogOfWarBuffer(context, fogOfWarStatus, (pointOffset * 4) + 1, x + 1, y);
+				dimming |= dimFogOfWarBuffer(context, fogOfWarStatus, (pointOffset * 4) + 2, x, y + 1);
+				dimming |= dimFogOfWarBuffer(context, fogOfWarStatus, (pointOffset * 4) + 3, x + 1, y + 1);
 			} else {
-				addFogOfWarBuffer(context, (pointOffset * 4), x, y);
-				addFogOfWarBuffer(context, (pointOffset * 4) + 1, x + 1, y);
-				addFogOfWarBuffer(context, (pointOffset * 4) + 2, x, y + 1);
-				addFogOfWarBuffer(context, (pointOffset * 4) + 3, x + 1, y + 1);
+				addFogOfWarBuffer(context, fogOfWarStatus, (pointOffset * 4), x, y);
+				addFogOfWarBuffer(context, fogOfWarStatus, (pointOffset * 4) + 1, x + 1, y);
+				addFogOfWarBuffer(context, fogOfWarStatus, (pointOffset * 4) + 2, x, y + 1);
+				addFogOfWarBuffer(context, fogOfWarStatus, (pointOffset * 4) + 3, x + 1, y + 1);
 			}
-			addTrianglesToGeometry(context, boundBuffer, x, y, pointOffset * 4);
+			addTrianglesToGeometry(context, boundBuffer, fogOfWarStatus, x, y, pointOffset * 4);
 		} else {
 			addPseudoTrianglesToGeometry(context, boundBuffer, x, y);
 		}
+		return dimming;
 	}
 
-	private synchronized void invalidatePoint(int x, int y) {
-		geometryInvalid.set(getBufferPosition(y, x));
-	}
-
-	private void addFogOfWarBuffer(MapDrawContext context, int offset, int x, int y) {
+	private static void addFogOfWarBuffer(MapDrawContext context, byte[] fogOfWarStatus, int offset, int x, int y) {
 		fogOfWarStatus[offset] = context.getVisibleStatus(x, y);
 	}
 
@@ -1343,20 +1538,21 @@ public class Background implements IGraphicsBackgroundListener {
 	 * 
 	 * @param context
 	 *            The context
+	 * @param fogOfWarStatus
+	 *            The fog of war buffer of the chunk
 	 * @param offset
 	 *            The fog of war buffer offset
 	 * @param x
 	 *            The x coordinate of the tile
 	 * @param y
 	 *            The y coordinate of the tile.
-	 * @return true if and only if the dim has finished.
+	 * @return true if and only if the dim has not finished yet.
 	 */
-	private void dimFogOfWarBuffer(MapDrawContext context, int offset, int x, int y) {
-		if (!fowDimmed.get(offset)) {
-			byte newFog = context.getVisibleStatus(x, y);
-			fogOfWarStatus[offset] = dim(fogOfWarStatus[offset], newFog);
-			fowDimmed.set(offset);
-		}
+	private static boolean dimFogOfWarBuffer(MapDrawContext context, byte[] fogOfWarStatus, int offset, int x, int y) {
+		byte newFog = context.getVisibleStatus(x, y);
+		byte dimmed = dim(fogOfWarStatus[offset], newFog);
+		fogOfWarStatus[offset] = dimmed;
+		return dimmed != newFog;
 	}
 
 	private static byte dim(byte value, byte dimTo) {
@@ -1373,19 +1569,6 @@ public class Background implements IGraphicsBackgroundListener {
 		}
 	}
 
-	private final int getBufferPosition(int y, int x) {
-		int linePos = y % bufferHeight;
-		int colPos = x % bufferWidth;
-		while (linePos < 0) {
-			linePos += bufferHeight;
-		}
-		while (colPos < 0) {
-			colPos += bufferWidth;
-		}
-
-		return (linePos * bufferWidth + colPos);
-	}
-
 	/**
 	 * Adds the two triangles for a point to the list of verteces
 	 * 
@@ -1393,11 +1576,12 @@ public class Background implements IGraphicsBackgroundListener {
 	 * @param buffer
 	 * @param x
 	 * @param y
+	 * @param fogOfWarStatus
 	 * @param fogBase
 	 */
-	private void addTrianglesToGeometry(MapDrawContext context, GLBuffer buffer, int x, int y, int fogBase) {
-		addTriangle1ToGeometry(context, buffer, x, y, fogBase);
-		addTriangle2ToGeometry(context, buffer, x, y, fogBase);
+	private void addTrianglesToGeometry(MapDrawContext context, GLBuffer buffer, byte[] fogOfWarStatus, int x, int y, int fogBase) {
+		addTriangle1ToGeometry(context, buffer, fogOfWarStatus, x, y, fogBase);
+		addTriangle2ToGeometry(context, buffer, fogOfWarStatus, x, y, fogBase);
 	}
 
 	private static void addPseudoTrianglesToGeometry(MapDrawContext context, GLBuffer buffer, int x, int y) { // manually do everything...
@@ -1416,9 +1600,10 @@ public class Background implements IGraphicsBackgroundListener {
 	 * @param buffer
 	 * @param x
 	 * @param y
+	 * @param fogOfWarStatus
 	 * @param fogBase
 	 */
-	private void addTriangle1ToGeometry(MapDrawContext context, GLBuffer buffer, int x, int y, int fogBase) {
+	private void addTriangle1ToGeometry(MapDrawContext context, GLBuffer buffer, byte[] fogOfWarStatus, int x, int y, int fogBase) {
 		ELandscapeType topLandscape = context.getLandscape(x, y);
 		ELandscapeType leftLandscape = context.getLandscape(x, y + 1);
 		ELandscapeType rightLandscape = context.getLandscape(x + 1, y + 1);
@@ -1459,23 +1644,23 @@ public class Background implements IGraphicsBackgroundListener {
 			// top
 			float u = (relativeTexCoordinates[0] + adddx) / TEXTURE_SIZE;
 			float v = (relativeTexCoordinates[1] + adddy) / TEXTURE_SIZE;
-			addPointToGeometry(context, buffer, x, y, u, v, fogBase);
+			addPointToGeometry(context, buffer, fogOfWarStatus, x, y, u, v, fogBase);
 		}
 		{
 			// left
 			float u = (relativeTexCoordinates[2] + adddx) / TEXTURE_SIZE;
 			float v = (relativeTexCoordinates[3] + adddy) / TEXTURE_SIZE;
-			addPointToGeometry(context, buffer, x, y + 1, u, v, fogBase + 2);
+			addPointToGeometry(context, buffer, fogOfWarStatus, x, y + 1, u, v, fogBase + 2);
 		}
 		{
 			// right
 			float u = (relativeTexCoordinates[4] + adddx) / TEXTURE_SIZE;
 			float v = (relativeTexCoordinates[5] + adddy) / TEXTURE_SIZE;
-			addPointToGeometry(context, buffer, x + 1, y + 1, u, v, fogBase + 3);
+			addPointToGeometry(context, buffer, fogOfWarStatus, x + 1, y + 1, u, v, fogBase + 3);
 		}
 	}
 
-	private void addPointToGeometry(MapDrawContext context, GLBuffer buffer, int x, int y, float u, float v, int fogOffset) {
+	private void addPointToGeometry(MapDrawContext context, GLBuffer buffer, byte[] fogOfWarStatus, int x, int y, float u, float v, int fogOffset) {
 		buffer.putFloat(x);
 		buffer.putFloat(y);
 		buffer.putFloat(context.getHeight(x, y));
@@ -1483,7 +1668,7 @@ public class Background implements IGraphicsBackgroundListener {
 		buffer.putFloat(u);
 		buffer.putFloat(v);
 
-		addVertexColor(context, buffer, x, y, fogOffset);
+		addVertexColor(context, buffer, fogOfWarStatus, x, y, fogOffset);
 	}
 
 	private static void addBlackPointToGeometry(MapDrawContext context, GLBuffer buffer, int x, int y) {
@@ -1498,7 +1683,7 @@ public class Background implements IGraphicsBackgroundListener {
 		buffer.putByte(BLACK[3]);
 	}
 
-	private void addTriangle2ToGeometry(MapDrawContext context, GLBuffer buffer, int x, int y, int fogBase) {
+	private void addTriangle2ToGeometry(MapDrawContext context, GLBuffer buffer, byte[] fogOfWarStatus, int x, int y, int fogBase) {
 		ELandscapeType leftLandscape = context.getLandscape(x, y);
 		ELandscapeType bottomLandscape = context.getLandscape(x + 1, y + 1);
 		ELandscapeType rightLandscape = context.getLandscape(x + 1, y);
@@ -1539,19 +1724,19 @@ public class Background implements IGraphicsBackgroundListener {
 			// left
 			float u = (relativeTexCoordinates[0] + addDx) / TEXTURE_SIZE;
 			float v = (relativeTexCoordinates[1] + addDy) / TEXTURE_SIZE;
-			addPointToGeometry(context, buffer, x, y, u, v, fogBase);
+			addPointToGeometry(context, buffer, fogOfWarStatus, x, y, u, v, fogBase);
 		}
 		{
 			// bottom
 			float u = (relativeTexCoordinates[2] + addDx) / TEXTURE_SIZE;
 			float v = (relativeTexCoordinates[3] + addDy) / TEXTURE_SIZE;
-			addPointToGeometry(context, buffer, x + 1, y + 1, u, v, fogBase + 3);
+			addPointToGeometry(context, buffer, fogOfWarStatus, x + 1, y + 1, u, v, fogBase + 3);
 		}
 		{
 			// right
 			float u = (relativeTexCoordinates[4] + addDx) / TEXTURE_SIZE;
 			float v = (relativeTexCoordinates[5] + addDy) / TEXTURE_SIZE;
-			addPointToGeometry(context, buffer, x + 1, y, u, v, fogBase + 1);
+			addPointToGeometry(context, buffer, fogOfWarStatus, x + 1, y, u, v, fogBase + 1);
 		}
 
 	}
@@ -1564,7 +1749,7 @@ public class Background implements IGraphicsBackgroundListener {
 		}
 	}
 
-	private void addVertexColor(MapDrawContext context, GLBuffer buffer, int x, int y, int fogOffset) {
+	private void addVertexColor(MapDrawContext context, GLBuffer buffer, byte[] fogOfWarStatus, int x, int y, int fogOffset) {
 		byte color;
 
 		if (x <= 0 || x >= context.getMap().getWidth() - 2 || y <= 0 || y >= context.getMap().getHeight() - 2 || context.getVisibleStatus(x, y) <= 0) {
@@ -1591,26 +1776,196 @@ public class Background implements IGraphicsBackgroundListener {
 
 	@Override
 	public void backgroundChangedAt(int x, int y) {
-		if (oldBufferPosition != null) {
-			if (oldBufferPosition.contains(x, y)) {
-				invalidatePoint(x, y);
+		changedPositions.set(x, y);
+	}
+
+	/**
+	 * Invalidates the background texture.
+	 */
+	public static void invalidateTexture() {
+		texture = null;
+	}
+
+	/**
+	 * A square part of the map with its own geometry. The chunk keeps its vertices in memory, so it can be uploaded again after a part of it changed.
+	 * Points are addressed by their index (x - minX) + (y - minY) * width inside the chunk.
+	 */
+	private static final class TerrainChunk {
+		private final int index;
+		private final int minX;
+		private final int minY;
+		private final int width;
+		private final int points;
+		private final GeometryHandle geometry;
+		private final ByteBuffer vertices;
+		private final byte[] fogOfWarStatus;
+		private final byte[] redrawModes;
+
+		private int[] redraws = new int[64];
+		private int redrawCount;
+		private int[] pending = new int[64];
+		private int[] nextPending = new int[64];
+		private int pendingCount;
+		private int nextPendingCount;
+		private boolean changed;
+		private boolean visible;
+		private boolean outdated;
+
+		TerrainChunk(int index, int minX, int minY, int width, int height, GeometryHandle geometry) {
+			this.index = index;
+			this.minX = minX;
+			this.minY = minY;
+			this.width = width;
+			this.points = width * height;
+			this.geometry = geometry;
+			this.vertices = ByteBuffer.allocate(points * 2 * 3 * VERTEX_SIZE).order(ByteOrder.nativeOrder());
+			this.fogOfWarStatus = new byte[points * 4];
+			this.redrawModes = new byte[points];
+		}
+
+		void markAllNew() {
+			for (int point = 0; point < points; point++) {
+				redrawModes[point] = REDRAW_NONE;
+				markRedraw(point, REDRAW_NEW);
 			}
-			if (oldBufferPosition.contains(x - 1, y)) {
-				invalidatePoint(x - 1, y);
+			nextPendingCount = 0;
+			outdated = false;
+		}
+
+		/**
+		 * Drops all points that still need to be generated, the chunk is built completely when it is visible again.
+		 */
+		void hide() {
+			if (redrawCount > 0 || nextPendingCount > 0) {
+				for (int i = 0; i < redrawCount; i++) {
+					redrawModes[redraws[i]] = REDRAW_NONE;
+				}
+				redrawCount = 0;
+				nextPendingCount = 0;
+				outdated = true;
 			}
-			if (oldBufferPosition.contains(x - 1, y - 1)) {
-				invalidatePoint(x - 1, y - 1);
+		}
+
+		void markRedraw(int point, byte mode) {
+			if (redrawModes[point] == REDRAW_NONE) {
+				redrawModes[point] = mode;
+				if (redrawCount >= redraws.length) {
+					redraws = Arrays.copyOf(redraws, redraws.length * 2);
+				}
+				redraws[redrawCount++] = point;
 			}
-			if (oldBufferPosition.contains(x, y - 1)) {
-				invalidatePoint(x, y - 1);
+		}
+
+		void addPending(int point) {
+			if (nextPendingCount >= nextPending.length) {
+				nextPending = Arrays.copyOf(nextPending, nextPending.length * 2);
 			}
+			nextPending[nextPendingCount++] = point;
+		}
+
+		/**
+		 * Makes the points added with {@link #addPending(int)} the current pending points.
+		 * 
+		 * @return The pending points, {@link #pendingCount} of them are valid.
+		 */
+		int[] swapPending() {
+			int[] current = nextPending;
+			nextPending = pending;
+			pending = current;
+			pendingCount = nextPendingCount;
+			nextPendingCount = 0;
+			return current;
 		}
 	}
 
 	/**
-	 * Invalidates the background texture.
+	 * Writes the generated vertices to the buffer in memory.
 	 */
-	public static void invalidateTexture() {
-		texture = null;
+	private static final class VertexBuffer implements GLBuffer {
+		private final ByteBuffer data;
+
+		VertexBuffer(ByteBuffer data) {
+			this.data = data;
+		}
+
+		@Override
+		public void putFloat(float f) {
+			data.putFloat(f);
+		}
+
+		@Override
+		public void putByte(byte b) {
+			data.put(b);
+		}
+
+		@Override
+		public void position(int position) {
+			data.position(position);
+		}
+
+		@Override
+		public void put(ByteBuffer data) {
+			this.data.put(data);
+		}
+	}
+
+	/**
+	 * Lock free set of map positions that changed since it was last drained. The positions are reported by other threads.
+	 */
+	private static final class ChangedPositions {
+		private final int width;
+		private final int height;
+		private final AtomicLongArray bits;
+		private volatile boolean changed;
+
+		ChangedPositions(int width, int height) {
+			this.width = width;
+			this.height = height;
+			this.bits = new AtomicLongArray((width * height + 63) / 64);
+		}
+
+		void set(int x, int y) {
+			if (x < 0 || y < 0 || x >= width || y >= height) {
+				return;
+			}
+			int index = x + y * width;
+			int word = index >>> 6;
+			long mask = 1L << index;
+			long old;
+			do {
+				old = bits.get(word);
+			} while ((old & mask) == 0 && !bits.compareAndSet(word, old, old | mask));
+			changed = true;
+		}
+
+		/**
+		 * Marks the points of all changed positions for an update and clears them. A position changes the 4 points it is a corner of and the 2 points
+		 * below, because the shading of a vertex depends on the height of the position above it.
+		 */
+		void drain(Background background) {
+			if (!changed) {
+				return;
+			}
+			changed = false;
+
+			for (int word = 0; word < bits.length(); word++) {
+				if (bits.get(word) == 0) {
+					continue;
+				}
+				long set = bits.getAndSet(word, 0);
+				while (set != 0) {
+					int index = (word << 6) + Long.numberOfTrailingZeros(set);
+					set &= set - 1;
+					int x = index % width;
+					int y = index / width;
+					background.markUpdate(x, y);
+					background.markUpdate(x - 1, y);
+					background.markUpdate(x - 1, y - 1);
+					background.markUpdate(x, y - 1);
+					background.markUpdate(x, y + 1);
+					background.markUpdate(x - 1, y + 1);
+				}
+			}
+		}
 	}
 }
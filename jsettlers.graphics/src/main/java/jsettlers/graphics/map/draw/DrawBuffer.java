@@ -19,11 +19,19 @@ import go.graphics.TextureHandle;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 
 import jsettlers.graphics.map.IGLProvider;
 
 /**
- * This class buffers triangle draw calls and sends them to opengl in bratches. It should only be used during one frame.
+ * This class buffers image and triangle draw calls and sends them to opengl in bratches. It should only be used during one frame.
+ * <p>
+ * The triangles are grouped by texture, so every texture used in a frame is normally drawn with a single call when the buffer is flushed. The z
+ * coordinate of each item makes sure they still overlap in the order they were added.
  * 
  * @author Michael Zangl
  *
@@ -31,10 +39,13 @@ import jsettlers.graphics.map.IGLProvider;
 public class DrawBuffer {
 
 	private static final float Z_OFFSET_PER_ITEM = .00001f;
-	/**
-	 * Number of buffers to hold. So many textures may be used simultaneously.
-	 */
-	private static final int BUFFERS = 5;
+	private static final Comparator<Buffer> FIRST_Z_COMPARATOR = new Comparator<Buffer>() {
+		@Override
+		public int compare(Buffer o1, Buffer o2) {
+			return Float.compare(o1.firstZ, o2.firstZ);
+		}
+	};
+
 	private final IGLProvider context;
 	private float z;
 
@@ -50,43 +61,43 @@ public class DrawBuffer {
 		 */
 		private static final int VERTEX_LENGTH = 5 * 4 + 4;
 		private static final int TRIAMGLE_LENGTH = 3 * VERTEX_LENGTH;
-		private static final int BUFFER_TRIANGLES = 1000;
+		private static final int BUFFER_TRIANGLES = 2000;
 
-		/**
-		 * The last texture we set.
-		 */
-		private TextureHandle currentTexture = null;
+		private TextureHandle texture;
 
 		private int currentTriangles = 0;
 
 		protected final ByteBuffer byteBuffer;
 
+		/**
+		 * The z coordinate of the first item added since the buffer was last drawn.
+		 */
+		private float firstZ;
+		private boolean used;
+
 		protected Buffer() {
 			byteBuffer =
 					ByteBuffer.allocateDirect(BUFFER_TRIANGLES * TRIAMGLE_LENGTH);
 			byteBuffer.order(ByteOrder.nativeOrder());
 		}
 
-		protected void setForTexture(TextureHandle texture) throws IllegalBufferException {
-			if (currentTexture != texture) {
-				if (texture != null && !texture.isValid()) {
-					throw new IllegalBufferException("The texture " + texture + " is not valid.");
-				}
-
-				if (currentTriangles != 0) {
-					draw();
-				}
-				currentTexture = texture;
+		private void markUsed() {
+			if (!used) {
+				used = true;
+				firstZ = getZ();
+				usedBuffers.add(this);
 			}
 		}
 
 		protected void draw() {
-			try {
-				byteBuffer.rewind();
-				context.getGl().drawTrianglesWithTextureColored(currentTexture, byteBuffer, currentTriangles);
-			} catch (IllegalBufferException e) {
-				// TODO: Crash report. Should not happen since we check texture in advance.
-				e.printStackTrace();
+			if (currentTriangles > 0) {
+				try {
+					byteBuffer.rewind();
+					context.getGl().drawTrianglesWithTextureColored(texture, byteBuffer, currentTriangles);
+				} catch (IllegalBufferException e) {
+					// TODO: Crash report. Should not happen since we check texture in advance.
+					e.printStackTrace();
+				}
 			}
 			byteBuffer.rewind();
 			currentTriangles = 0;
@@ -96,6 +107,7 @@ public class DrawBuffer {
 			if (currentTriangles >= BUFFER_TRIANGLES - 2) {
 				draw();
 			}
+			markUsed();
 			addPointPrimitive(x1, y1, u1, v1, activeColor);
 			addPointPrimitive(x1, y2, u1, v2, activeColor);
 			addPointPrimitive(x2, y1, u2, v1, activeColor);
@@ -110,6 +122,7 @@ public class DrawBuffer {
 			if (currentTriangles >= BUFFER_TRIANGLES - 1) {
 				draw();
 			}
+			markUsed();
 			addPointPrimitive(x1, y1, u1, v1, activeColor);
 			addPointPrimitive(x2, y2, u2, v2, activeColor);
 			addPointPrimitive(x3, y3, u3, v3, activeColor);
@@ -126,15 +139,19 @@ public class DrawBuffer {
 		}
 	}
 
-	private int lastFreedBuffer = 0;
-	private final Buffer[] drawBuffers;
+	/**
+	 * The buffers of all textures that were used in this or the last frame.
+	 */
+	private final HashMap<TextureHandle, Buffer> drawBuffers = new HashMap<>();
+	/**
+	 * The buffers that got items since the last flush.
+	 */
+	private final ArrayList<Buffer> usedBuffers = new ArrayList<>();
+	private final ArrayList<Buffer> freeBuffers = new ArrayList<>();
+	private Buffer lastBuffer = null;
 
 	public DrawBuffer(IGLProvider context) {
 		this.context = context;
-		drawBuffers = new Buffer[BUFFERS];
-		for (int i = 0; i < BUFFERS; i++) {
-			drawBuffers[i] = new Buffer();
-		}
 	}
 
 	/**
@@ -181,29 +198,47 @@ public class DrawBuffer {
 	 *             If the texture could not be used.
 	 */
 	public Buffer getBuffer(TextureHandle texture) throws IllegalBufferException {
-		for (int i = 0; i < BUFFERS; i++) {
-			if (drawBuffers[i].currentTexture == texture) {
-				return drawBuffers[i];
-			}
+		if (lastBuffer != null && lastBuffer.texture == texture) {
+			return lastBuffer;
 		}
 
-		lastFreedBuffer++;
-		if (lastFreedBuffer >= BUFFERS) {
-			lastFreedBuffer = 0;
+		if (texture != null && !texture.isValid()) {
+			throw new IllegalBufferException("The texture " + texture + " is not valid.");
 		}
 
-		Buffer buffer = drawBuffers[lastFreedBuffer];
-		buffer.setForTexture(texture);
+		Buffer buffer = drawBuffers.get(texture);
+		if (buffer == null) {
+			buffer = freeBuffers.isEmpty() ? new Buffer() : freeBuffers.remove(freeBuffers.size() - 1);
+			buffer.texture = texture;
+			drawBuffers.put(texture, buffer);
+		}
+		lastBuffer = buffer;
 		return buffer;
 	}
 
 	/**
-	 * Draw all pending buffers to the screen.
+	 * Draw all pending buffers to the screen. The textures are drawn in the order in which they were first used since the last flush.
+	 * <p>
+	 * Buffers of textures that were not used since the last flush are released, so that textures that are not drawn any more are forgotten.
 	 */
 	public void flush() {
-		for (int i = 0; i < BUFFERS; i++) {
-			drawBuffers[i].draw();
+		Collections.sort(usedBuffers, FIRST_Z_COMPARATOR);
+		for (Buffer buffer : usedBuffers) {
+			buffer.draw();
+		}
+
+		for (Iterator<Buffer> iterator = drawBuffers.values().iterator(); iterator.hasNext();) {
+			Buffer buffer = iterator.next();
+			if (buffer.used) {
+				buffer.used = false;
+			} else {
+				iterator.remove();
+				buffer.texture = null;
+				freeBuffers.add(buffer);
+			}
 		}
+		usedBuffers.clear();
+		lastBuffer = null;
 		setZ(0);
 	}
 
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.map.draw;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import jsettlers.common.map.IGraphicsGrid;
+import jsettlers.common.map.IGraphicsObjectsListener;
+
+/**
+ * This is an index of the map positions that have something to draw on them: a map object, a movable or a border.
+ * <p>
+ * Each map row is stored as a bit set, so that the draw pass can skip 64 empty positions at once. The index is updated from the objects
+ * listener of the map. The listener may be called by any thread, it only marks the position as changed. The index is only read and updated by
+ * the drawing thread in {@link #update()}.
+ */
+public final class OccupiedTiles implements IGraphicsObjectsListener {
+	private final IGraphicsGrid map;
+	private final int width;
+	private final int height;
+	private final int wordsPerRow;
+
+	private final long[] occupied;
+	private final AtomicLongArray changed;
+	private boolean initialized = false;
+
+	/**
+	 * Creates a new index. It has to be registered as objects listener of the map.
+	 *
+	 * @param map
+	 *            The map to index.
+	 */
+	public OccupiedTiles(IGraphicsGrid map) {
+		this.map = map;
+		this.width = map.getWidth();
+		this.height = map.getHeight();
+		this.wordsPerRow = (width + 63) / 64;
+		this.occupied = new long[wordsPerRow * height];
+		this.changed = new AtomicLongArray(wordsPerRow * height);
+	}
+
+	@Override
+	public void objectsChangedAt(int x, int y) {
+		if (x < 0 || y < 0 || x >= width || y >= height) {
+			return;
+		}
+
+		int word = y * wordsPerRow + (x >>> 6);
+		long bit = 1L << x;
+		long old;
+		do {
+			old = changed.get(word);
+			if ((old & bit) != 0) {
+				return;
+			}
+		} while (!changed.compareAndSet(word, old, old | bit));
+	}
+
+	/**
+	 * Updates the index for all positions that changed since the last call. The first call indexes the whole map.
+	 */
+	public void update() {
+		if (!initialized) {
+			initialized = true;
+			for (int word = 0; word < changed.length(); word++) {
+				changed.set(word, 0);
+			}
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					updatePosition(x, y);
+				}
+			}
+			return;
+		}
+
+		for (int word = 0; word < changed.length(); word++) {
+			if (changed.get(word) == 0) {
+				continue;
+			}
+			long bits = changed.getAndSet(word, 0);
+			int y = word / wordsPerRow;
+			int firstX = (word % wordsPerRow) << 6;
+			while (bits != 0) {
+				int x = firstX + Long.numberOfTrailingZeros(bits);
+				bits &= bits - 1;
+				updatePosition(x, y);
+			}
+		}
+	}
+
+	private void updatePosition(int x, int y) {
+		int word = y * wordsPerRow + (x >>> 6);
+		long bit = 1L << x;
+		if (map.getMapObjectsAt(x, y) != null || map.getMovableAt(x, y) != null || map.isBorder(x, y)) {
+			occupied[word] |= bit;
+		} else {
+			occupied[word] &= ~bit;
+		}
+	}
+
+	/**
+	 * Finds the next occupied position in a row.
+	 *
+	 * @param x
+	 *            The first x coordinate to check.
+	 * @param y
+	 *            The row.
+	 * @param maxX
+	 *            The last x coordinate to check.
+	 * @return The x coordinate of the next occupied position or a value greater than maxX if there is none.
+	 */
+	public int nextOccupiedX(int x, int y, int maxX) {
+		if (x > maxX) {
+			return x;
+		}
+		int rowStart = y * wordsPerRow;
+		int word = rowStart + (x >>> 6);
+		int lastWord = rowStart + (maxX >>> 6);
+		long bits = occupied[word] & (-1L << x);
+		while (bits == 0) {
+			word++;
+			if (word > lastWord) {
+				return maxX + 1;
+			}
+			bits = occupied[word];
+		}
+		return ((word - rowStart) << 6) + Long.numberOfTrailingZeros(bits);
+	}
+}
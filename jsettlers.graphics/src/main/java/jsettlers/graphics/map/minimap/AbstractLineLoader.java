@@ -14,10 +14,16 @@
  *******************************************************************************/
 package jsettlers.graphics.map.minimap;
 
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
 import jsettlers.common.Color;
 import jsettlers.common.CommonConstants;
 import jsettlers.common.buildings.IBuilding;
+import jsettlers.common.map.IGraphicsBackgroundListener;
 import jsettlers.common.map.IGraphicsGrid;
+import jsettlers.common.map.IGraphicsObjectsListener;
 import jsettlers.common.mapobject.EMapObjectType;
 import jsettlers.common.mapobject.IMapObject;
 import jsettlers.common.movable.IMovable;
@@ -27,33 +33,76 @@ import jsettlers.graphics.map.minimap.MinimapMode.SettlersMode;
 
 /**
  * This class does the minimap line loading without knowing how to store the data.
- * 
+ * <p>
+ * The loader listens to changes of the map and only recalculates the minimap pixels that show a changed position. The changed pixels are reported
+ * as areas of whole lines. While nothing changes, the loader thread sleeps.
+ *
  * @author Michael Zangl
  */
-public abstract class AbstractLineLoader implements Runnable {
+public abstract class AbstractLineLoader implements Runnable, IGraphicsBackgroundListener, IGraphicsObjectsListener {
 	protected static final short BLACK = Color.BLACK.toShortColor(1);
 	protected static final short TRANSPARENT = 0;
-	private static final int Y_STEP_HEIGHT = 5;
-	private static final int X_STEP_WIDTH = 5;
-	private static final int LINES_PER_RUN = 30;
+	/**
+	 * The time in milliseconds changes are collected before they are drawn.
+	 */
+	private static final int UPDATE_INTERVAL = 100;
+	/**
+	 * The time in milliseconds after which the whole minimap is redrawn if the map does not report object changes.
+	 */
+	private static final int POLL_INTERVAL = 1000;
 
-	private int currentLine = 0;
-	private boolean stopped;
+	private volatile boolean stopped;
 	private int workingMinimapWidth = -1;
 	private int workingMinimapHeight = -1;
-	private int currYOffset = 0;
-	private int currXOffset = 0;
 
 	private final MinimapMode modeSettings;
 	protected final IMinimapData minimapData;
+	private final short mapWidth;
+	private final short mapHeight;
+
+	/**
+	 * The map positions that changed since the last update, one bit for each position.
+	 */
+	private final AtomicLongArray changedPositions;
+	private final AtomicBoolean everythingChanged = new AtomicBoolean(true);
+	private final Object changesMutex = new Object();
+	private volatile boolean changesPending = true;
+
 	/**
 	 * The explored landscape.
 	 */
 	private short[][] landscape = new short[1][1];
 
+	/**
+	 * The map area shown by each minimap line and column.
+	 */
+	private int mapLineHeight;
+	private int[] lineMinY;
+	private int[] lineMaxY;
+	private int[] columnMinX;
+	private int[] columnMaxX;
+
+	/**
+	 * The minimap lines and columns that need to be redrawn if a map row or column changed.
+	 */
+	private int[] firstLineOfY;
+	private int[] lastLineOfY;
+	private int[] firstColumnOfX;
+	private int[] lastColumnOfX;
+
+	/**
+	 * The range of pixels in each line that need to be redrawn. It is empty if min > max.
+	 */
+	private int[] dirtyMinX = new int[0];
+	private int[] dirtyMaxX = new int[0];
+
 	public AbstractLineLoader(IMinimapData minimapData, MinimapMode modeSettings) {
 		this.minimapData = minimapData;
 		this.modeSettings = modeSettings;
+		IGraphicsGrid map = minimapData.getContext().getMap();
+		mapWidth = map.getWidth();
+		mapHeight = map.getHeight();
+		changedPositions = new AtomicLongArray((mapWidth * mapHeight + 63) / 64);
 		landscape[0][0] = TRANSPARENT;
 	}
 
@@ -61,46 +110,125 @@ public abstract class AbstractLineLoader implements Runnable {
 	public void run() {
 		while (!stopped) {
 			try {
-				updateLine();
+				waitForChanges();
+				if (!stopped) {
+					updateChangedPixels();
+				}
 			} catch (Throwable e) {
 				e.printStackTrace();
 			}
 		}
 	}
 
+	@Override
+	public void backgroundChangedAt(int x, int y) {
+		positionChanged(x, y);
+	}
+
+	@Override
+	public void objectsChangedAt(int x, int y) {
+		positionChanged(x, y);
+	}
+
+	private void positionChanged(int x, int y) {
+		if (x < 0 || y < 0 || x >= mapWidth || y >= mapHeight) {
+			return;
+		}
+
+		int index = x + y * mapWidth;
+		int word = index >>> 6;
+		long bit = 1L << index;
+		long old;
+		do {
+			old = changedPositions.get(word);
+			if ((old & bit) != 0) {
+				return;
+			}
+		} while (!changedPositions.compareAndSet(word, old, old | bit));
+
+		signalChanges();
+	}
+
 	/**
-	 * Updates a line by putting it to the update buffer. Next time the gl context is available, it is updated.
+	 * Requests to recalculate the whole minimap, e.g. because the size or the display mode changed.
 	 */
-	private void updateLine() {
-		minimapData.blockUntilUpdateAllowedOrStopped();
-		for (int i = 0; i < LINES_PER_RUN; i++) {
-			int width = minimapData.getWidth();
-			int height = minimapData.getHeight();
-			if (workingMinimapWidth != width || workingMinimapHeight != height) {
-				workingMinimapWidth = width;
-				workingMinimapHeight = height;
-				resizeBuffer(width, height);
-				resizeBackground(width, height);
-				currentLine = 0;
-				currXOffset = 0;
-				currYOffset = 0;
-			}
+	public void invalidateAll() {
+		everythingChanged.set(true);
+		signalChanges();
+	}
 
-			calculateLineData(currentLine);
-			markLineUpdate(currentLine);
+	private void signalChanges() {
+		if (!changesPending) {
+			synchronized (changesMutex) {
+				changesPending = true;
+				changesMutex.notifyAll();
+			}
+		}
+	}
 
-			currentLine += Y_STEP_HEIGHT;
-			if (currentLine >= workingMinimapHeight) {
-				currYOffset++;
-				if (currYOffset >= Y_STEP_HEIGHT) {
-					currYOffset = 0;
-					currXOffset += 3;
-					currXOffset %= X_STEP_WIDTH;
+	/**
+	 * Blocks until something changed and gives other changes some time to arrive, so that they can be drawn together.
+	 */
+	private void waitForChanges() {
+		boolean polling = !minimapData.getContext().isReportingObjectChanges();
+		synchronized (changesMutex) {
+			while (!stopped && !changesPending) {
+				try {
+					if (polling) {
+						changesMutex.wait(POLL_INTERVAL);
+						if (!changesPending) {
+							everythingChanged.set(true);
+							changesPending = true;
+						}
+					} else {
+						changesMutex.wait();
+					}
+				} catch (InterruptedException e) {
+					e.printStackTrace();
 				}
+			}
+			changesPending = false;
+		}
+
+		try {
+			Thread.sleep(UPDATE_INTERVAL);
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Recalculates all pixels showing changed positions and puts them to the update buffer. Next time the gl context is available, they are
+	 * updated.
+	 */
+	private void updateChangedPixels() {
+		minimapData.blockUntilUpdateAllowedOrStopped();
+		if (stopped) {
+			return;
+		}
+
+		int width = minimapData.getWidth();
+		int height = minimapData.getHeight();
+		if (workingMinimapWidth != width || workingMinimapHeight != height) {
+			workingMinimapWidth = width;
+			workingMinimapHeight = height;
+			resizeBuffer(width, height);
+			resizeBackground(width, height);
+			calculateAreas(width, height);
+			everythingChanged.set(true);
+		}
 
-				currentLine = currYOffset;
+		if (everythingChanged.getAndSet(false)) {
+			drainChangedPositions(false);
+			for (int line = 0; line < height; line++) {
+				dirtyMinX[line] = 0;
+				dirtyMaxX[line] = width - 1;
 			}
+		} else {
+			drainChangedPositions(true);
 		}
+
+		redrawDirtyPixels();
 	}
 
 	private void resizeBackground(int width, int height) {
@@ -117,75 +245,188 @@ public abstract class AbstractLineLoader implements Runnable {
 		}
 	}
 
-	protected abstract void markLineUpdate(int line);
-
-	protected abstract void resizeBuffer(int width, int height);
-
-	private void calculateLineData(final int currentline) {
-		// may change!
-		final int safeWidth = workingMinimapWidth;
-		final int safeHeight = workingMinimapHeight;
-		final MapDrawContext context = minimapData.getContext();
-		final IGraphicsGrid map = context.getMap();
-
-		// for height shades
-		final short mapWidth = map.getWidth();
-		final short mapHeight = map.getHeight();
-
-		int mapLineHeight = mapHeight / safeHeight + 1;
-
-		// first map tile in line
-		int mapMaxY = (int) ((1 - (float) currentline / safeHeight) * mapHeight);
-		// first map line not in line
-		int mapMinY = (int) ((1 - (float) (currentline + 1) / safeHeight) * mapHeight);
-		if (mapMinY == mapMaxY) {
-			if (mapMaxY == mapHeight) {
-				mapMinY = mapHeight - 1;
-			} else {
-				mapMaxY = mapMinY - 1;
+	/**
+	 * Computes which map area is shown by which pixel of the minimap.
+	 */
+	private void calculateAreas(int width, int height) {
+		mapLineHeight = mapHeight / height + 1;
+
+		lineMinY = new int[height];
+		lineMaxY = new int[height];
+		firstLineOfY = new int[mapHeight];
+		lastLineOfY = new int[mapHeight];
+		Arrays.fill(firstLineOfY, Integer.MAX_VALUE);
+		Arrays.fill(lastLineOfY, -1);
+		for (int line = 0; line < height; line++) {
+			// first map tile in line
+			int mapMaxY = (int) ((1 - (float) line / height) * mapHeight);
+			// first map line not in line
+			int mapMinY = (int) ((1 - (float) (line + 1) / height) * mapHeight);
+			if (mapMinY == mapMaxY) {
+				if (mapMaxY == mapHeight) {
+					mapMinY = mapHeight - 1;
+				} else {
+					mapMaxY = mapMinY - 1;
+				}
+			}
+			lineMinY[line] = mapMinY;
+			lineMaxY[line] = mapMaxY;
+
+			// the height shades use the positions below the line.
+			int from = Math.max(0, Math.min(mapMinY, mapMaxY));
+			int to = Math.min(mapHeight - 1, Math.max(mapMaxY, mapMinY + mapLineHeight));
+			for (int y = from; y <= to; y++) {
+				firstLineOfY[y] = Math.min(firstLineOfY[y], line);
+				lastLineOfY[y] = Math.max(lastLineOfY[y], line);
 			}
 		}
 
-		int myXOffset = (currXOffset + currentline * 3) % X_STEP_WIDTH;
-
-		for (int x = myXOffset; x < safeWidth; x += X_STEP_WIDTH) {
-			int mapMinX = (int) ((float) x / safeWidth * mapWidth);
-			int mapMaxX = (int) ((float) (x + 1) / safeWidth * mapWidth);
+		columnMinX = new int[width];
+		columnMaxX = new int[width];
+		firstColumnOfX = new int[mapWidth];
+		lastColumnOfX = new int[mapWidth];
+		Arrays.fill(firstColumnOfX, Integer.MAX_VALUE);
+		Arrays.fill(lastColumnOfX, -1);
+		for (int x = 0; x < width; x++) {
+			int mapMinX = (int) ((float) x / width * mapWidth);
+			int mapMaxX = (int) ((float) (x + 1) / width * mapWidth);
 
 			if (mapMinX != 0 && mapMaxX == mapMinX) {
 				mapMinX = mapMaxX - 1;
 			}
-			int centerX = (mapMaxX + mapMinX) / 2;
-			int centerY = (mapMaxY + mapMinY) / 2;
+			columnMinX[x] = mapMinX;
+			columnMaxX[x] = mapMaxX;
 
-			short color = TRANSPARENT;
-			byte visibleStatus = map.getVisibleStatus(centerX, centerY);
-			if (visibleStatus > CommonConstants.FOG_OF_WAR_EXPLORED) {
-				color = getSettlerForArea(map, context, mapMinX, mapMinY, mapMaxX, mapMaxY);
+			for (int mapX = mapMinX; mapX <= Math.min(mapWidth - 1, mapMaxX); mapX++) {
+				firstColumnOfX[mapX] = Math.min(firstColumnOfX[mapX], x);
+				lastColumnOfX[mapX] = Math.max(lastColumnOfX[mapX], x);
 			}
+		}
 
-			if (visibleStatus > CommonConstants.FOG_OF_WAR_EXPLORED || landscape[currentline][x] == TRANSPARENT) {
-				float basecolor = ((float) visibleStatus) / CommonConstants.FOG_OF_WAR_VISIBLE;
-				int dheight = map.getHeightAt(centerX, mapMinY) - map.getHeightAt(centerX, Math.min(mapMinY + mapLineHeight, mapHeight - 1));
-				basecolor *= 1 + .15f * dheight;
+		dirtyMinX = new int[height];
+		dirtyMaxX = new int[height];
+		Arrays.fill(dirtyMinX, Integer.MAX_VALUE);
+		Arrays.fill(dirtyMaxX, -1);
+	}
 
-				short landscapeColor;
-				if (basecolor >= 0) {
-					landscapeColor = getColorForArea(map, mapMinX, mapMinY, mapMaxX, mapMaxY).toShortColor(basecolor);
-				} else {
-					landscapeColor = BLACK;
+	/**
+	 * Resets the changed positions.
+	 *
+	 * @param markDirty
+	 *            If the pixels showing the positions should be marked for redrawing.
+	 */
+	private void drainChangedPositions(boolean markDirty) {
+		for (int word = 0; word < changedPositions.length(); word++) {
+			if (changedPositions.get(word) == 0) {
+				continue;
+			}
+			long bits = changedPositions.getAndSet(word, 0);
+			while (markDirty && bits != 0) {
+				int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+				bits &= bits - 1;
+				markDirty(index % mapWidth, index / mapWidth);
+			}
+		}
+	}
+
+	private void markDirty(int mapX, int mapY) {
+		int firstColumn = firstColumnOfX[mapX];
+		int lastColumn = lastColumnOfX[mapX];
+		for (int line = firstLineOfY[mapY]; line <= lastLineOfY[mapY]; line++) {
+			dirtyMinX[line] = Math.min(dirtyMinX[line], firstColumn);
+			dirtyMaxX[line] = Math.max(dirtyMaxX[line], lastColumn);
+		}
+	}
+
+	/**
+	 * Recalculates the dirty pixels. Neighboring lines are reported as one area.
+	 */
+	private void redrawDirtyPixels() {
+		int areaStart = -1;
+		int areaMinX = 0;
+		int areaMaxX = 0;
+		for (int line = 0; line < workingMinimapHeight; line++) {
+			int minX = dirtyMinX[line];
+			int maxX = dirtyMaxX[line];
+			if (minX <= maxX) {
+				for (int x = minX; x <= maxX; x++) {
+					calculatePixel(line, x);
 				}
-				if (color == TRANSPARENT) {
-					color = landscapeColor;
+				dirtyMinX[line] = Integer.MAX_VALUE;
+				dirtyMaxX[line] = -1;
+
+				if (areaStart < 0) {
+					areaStart = line;
+					areaMinX = minX;
+					areaMaxX = maxX;
+				} else {
+					areaMinX = Math.min(areaMinX, minX);
+					areaMaxX = Math.max(areaMaxX, maxX);
 				}
-				landscape[currentline][x] = landscapeColor;
+			} else if (areaStart >= 0) {
+				markAreaUpdate(areaMinX, areaStart, areaMaxX - areaMinX + 1, line - areaStart);
+				areaStart = -1;
 			}
+		}
+		if (areaStart >= 0) {
+			markAreaUpdate(areaMinX, areaStart, areaMaxX - areaMinX + 1, workingMinimapHeight - areaStart);
+		}
+	}
+
+	/**
+	 * Marks an area of the buffer as changed.
+	 *
+	 * @param left
+	 *            The first changed pixel in each line.
+	 * @param line
+	 *            The first changed line.
+	 * @param width
+	 *            The number of changed pixels in each line.
+	 * @param lines
+	 *            The number of changed lines.
+	 */
+	protected abstract void markAreaUpdate(int left, int line, int width, int lines);
 
+	protected abstract void resizeBuffer(int width, int height);
+
+	private void calculatePixel(int currentline, int x) {
+		final MapDrawContext context = minimapData.getContext();
+		final IGraphicsGrid map = context.getMap();
+
+		int mapMinY = lineMinY[currentline];
+		int mapMaxY = lineMaxY[currentline];
+		int mapMinX = columnMinX[x];
+		int mapMaxX = columnMaxX[x];
+		int centerX = (mapMaxX + mapMinX) / 2;
+		int centerY = (mapMaxY + mapMinY) / 2;
+
+		short color = TRANSPARENT;
+		byte visibleStatus = map.getVisibleStatus(centerX, centerY);
+		if (visibleStatus > CommonConstants.FOG_OF_WAR_EXPLORED) {
+			color = getSettlerForArea(map, context, mapMinX, mapMinY, mapMaxX, mapMaxY);
+		}
+
+		if (visibleStatus > CommonConstants.FOG_OF_WAR_EXPLORED || landscape[currentline][x] == TRANSPARENT) {
+			float basecolor = ((float) visibleStatus) / CommonConstants.FOG_OF_WAR_VISIBLE;
+			int dheight = map.getHeightAt(centerX, mapMinY) - map.getHeightAt(centerX, Math.min(mapMinY + mapLineHeight, mapHeight - 1));
+			basecolor *= 1 + .15f * dheight;
+
+			short landscapeColor;
+			if (basecolor >= 0) {
+				landscapeColor = getColorForArea(map, mapMinX, mapMinY, mapMaxX, mapMaxY).toShortColor(basecolor);
+			} else {
+				landscapeColor = BLACK;
+			}
 			if (color == TRANSPARENT) {
-				color = landscape[currentline][x];
+				color = landscapeColor;
 			}
-			setBuffer(currentline, x, color);
+			landscape[currentline][x] = landscapeColor;
 		}
+
+		if (color == TRANSPARENT) {
+			color = landscape[currentline][x];
+		}
+		setBuffer(currentline, x, color);
 	}
 
 	protected abstract void setBuffer(int currentline, int x, short color);
@@ -264,5 +505,8 @@ public abstract class AbstractLineLoader implements Runnable {
 	 */
 	public void stop() {
 		stopped = true;
+		synchronized (changesMutex) {
+			changesMutex.notifyAll();
+		}
 	}
 }
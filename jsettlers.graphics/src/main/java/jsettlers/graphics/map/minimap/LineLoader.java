@@ -17,7 +17,7 @@ package jsettlers.graphics.map.minimap;
 import java.util.Arrays;
 
 /**
- * This class runs as background thread and updates the lines in the original ui.
+ * This class runs as background thread and updates the changed areas in the original ui.
  * 
  * @author Michael Zangl
  */
@@ -56,8 +56,8 @@ class LineLoader extends AbstractLineLoader {
 	}
 
 	@Override
-	protected void markLineUpdate(int line) {
-		minimap.setUpdatedLine(line);
+	protected void markAreaUpdate(int left, int line, int width, int lines) {
+		minimap.setUpdatedArea(left, line, width, lines);
 	}
 
 	@Override
@@ -21,7 +21,7 @@ import go.graphics.TextureHandle;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.ShortBuffer;
-import java.util.LinkedList;
+import java.util.ArrayList;
 
 import jsettlers.common.map.IGraphicsGrid;
 import jsettlers.common.map.shapes.MapRectangle;
@@ -55,7 +55,7 @@ public final class Minimap implements IMinimapData {
 
 	private MapRectangle mapViewport;
 	private short[][] buffer;
-	private final LinkedList<Integer> updatedLines = new LinkedList<>();
+	private final ArrayList<UpdatedArea> updatedAreas = new ArrayList<>();
 	private final LineLoader lineLoader;
 	private boolean stopped = false;
 
@@ -65,6 +65,9 @@ public final class Minimap implements IMinimapData {
 		stride = MiniMapLayoutProperties.getStride(map.getWidth()) / map.getWidth();
 		converter = new MapCoordinateConverter(map.getWidth(), map.getHeight(), 1, 1);
 		lineLoader = new LineLoader(this, modeSettings);
+		modeSettings.setChangeListener(lineLoader::invalidateAll);
+		context.addBackgroundListener(lineLoader);
+		context.addObjectsListener(lineLoader);
 		Thread minimapThread = new Thread(lineLoader, "minimap loader");
 		minimapThread.setDaemon(true);
 		minimapThread.start();
@@ -77,6 +80,7 @@ public final class Minimap implements IMinimapData {
 			imageIsValid = false;
 			updateMutex.notifyAll();
 		}
+		lineLoader.invalidateAll();
 	}
 
 	public void draw(GLDrawContext context) {
@@ -96,22 +100,12 @@ public final class Minimap implements IMinimapData {
 					}
 					data.position(0);
 					texture = context.generateTexture(width, height, data);
-					updatedLines.clear();
+					updatedAreas.clear();
 					imageIsValid = true;
 				}
 
-				if (!updatedLines.isEmpty()) {
-					ShortBuffer currData = ByteBuffer.allocateDirect(width * 2)
-							.order(ByteOrder.nativeOrder()).asShortBuffer();
-					for (Integer currLine : updatedLines) {
-						currData.position(0);
-						currData.put(buffer[currLine]);
-						currData.position(0);
-
-						context.updateTexture(texture, 0, currLine, width, 1,
-								currData);
-					}
-					updatedLines.clear();
+				if (!updatedAreas.isEmpty()) {
+					uploadUpdatedAreas(context);
 				}
 				updateMutex.notifyAll();
 			}
@@ -155,6 +149,28 @@ public final class Minimap implements IMinimapData {
 		}
 	}
 
+	private void uploadUpdatedAreas(GLDrawContext context) throws IllegalBufferException {
+		// the buffer may still have the old size if the minimap was resized.
+		if (buffer != null && buffer.length == height && buffer[0].length == width) {
+			int maxSize = 0;
+			for (UpdatedArea area : updatedAreas) {
+				maxSize = Math.max(maxSize, area.width * area.lines);
+			}
+			ShortBuffer currData = ByteBuffer.allocateDirect(maxSize * 2)
+					.order(ByteOrder.nativeOrder()).asShortBuffer();
+			for (UpdatedArea area : updatedAreas) {
+				currData.clear();
+				for (int line = area.line; line < area.line + area.lines; line++) {
+					currData.put(buffer[line], area.left, area.width);
+				}
+				currData.flip();
+
+				context.updateTexture(texture, area.left, area.line, area.width, area.lines, currData);
+			}
+		}
+		updatedAreas.clear();
+	}
+
 	private void drawViewmark(GLDrawContext context) {
 		if (mapViewport == null) {
 			return;
@@ -217,14 +233,20 @@ public final class Minimap implements IMinimapData {
 	}
 
 	/**
-	 * Sets the data
+	 * Marks an area of the buffer to be uploaded to the texture.
 	 *
+	 * @param left
+	 *            The first changed pixel in each line.
 	 * @param line
-	 * @param data
+	 *            The first changed line.
+	 * @param width
+	 *            The number of changed pixels in each line.
+	 * @param lines
+	 *            The number of changed lines.
 	 */
-	public void setUpdatedLine(int line) {
+	public void setUpdatedArea(int left, int line, int width, int lines) {
 		synchronized (updateMutex) {
-			updatedLines.add(line);
+			updatedAreas.add(new UpdatedArea(left, line, width, lines));
 		}
 	}
 
@@ -253,7 +275,7 @@ public final class Minimap implements IMinimapData {
 	public void blockUntilUpdateAllowedOrStopped() {
 		synchronized (updateMutex) {
 			while (!stopped
-					&& (!updatedLines.isEmpty() || width < 1 || height < 1)) {
+					&& (!updatedAreas.isEmpty() || width < 1 || height < 1)) {
 				try {
 					updateMutex.wait();
 				} catch (InterruptedException e) {
@@ -269,9 +291,28 @@ public final class Minimap implements IMinimapData {
 
 	public void stop() {
 		lineLoader.stop();
-		stopped = true;
+		context.removeBackgroundListener(lineLoader);
+		context.removeObjectsListener(lineLoader);
 		synchronized (updateMutex) {
+			stopped = true;
+			updateMutex.notifyAll();
+		}
+	}
 
+	/**
+	 * An area of the buffer that changed.
+	 */
+	private static final class UpdatedArea {
+		private final int left;
+		private final int line;
+		private final int width;
+		private final int lines;
+
+		UpdatedArea(int left, int line, int width, int lines) {
+			this.left = left;
+			this.line = line;
+			this.width = width;
+			this.lines = lines;
 		}
 	}
 }
@@ -35,6 +35,7 @@ public class MinimapMode {
 	private boolean displayBuildings = true;
 	private OccupiedAreaMode displayOccupied = OccupiedAreaMode.BORDERS;
 	private SettlersMode displaySettlers = SettlersMode.SOILDERS;
+	private Runnable changeListener;
 
 	public boolean getDisplayBuildings() {
 		return displayBuildings;
@@ -42,6 +43,7 @@ public class MinimapMode {
 
 	public void setDisplayBuildings(boolean displayBuildings) {
 		this.displayBuildings = displayBuildings;
+		modeChanged();
 	}
 
 	public OccupiedAreaMode getDisplayOccupied() {
@@ -50,6 +52,7 @@ public class MinimapMode {
 
 	public void setDisplayOccupied(OccupiedAreaMode displayOccupied) {
 		this.displayOccupied = displayOccupied;
+		modeChanged();
 	}
 
 	public SettlersMode getDisplaySettlers() {
@@ -58,5 +61,23 @@ public class MinimapMode {
 
 	public void setDisplaySettlers(SettlersMode displaySettlers) {
 		this.displaySettlers = displaySettlers;
+		modeChanged();
+	}
+
+	/**
+	 * Sets a listener that is called whenever one of the settings changes.
+	 * 
+	 * @param changeListener
+	 *            The listener or <code>null</code>.
+	 */
+	public void setChangeListener(Runnable changeListener) {
+		this.changeListener = changeListener;
+	}
+
+	private void modeChanged() {
+		Runnable listener = changeListener;
+		if (listener != null) {
+			listener.run();
+		}
 	}
 }
@@ -16,7 +16,8 @@ package jsettlers.graphics.reader;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
 
 import jsettlers.graphics.image.GuiImage;
 import jsettlers.graphics.image.Image;
@@ -196,8 +197,15 @@ public class AdvancedDatFileReader implements DatFileSet {
 
 	private final DatBitmapTranslator<GuiImage> guiTranslator;
 
-	private ByteReader reader = null;
+	/**
+	 * The mapping of the whole file. Every read creates its own {@link ByteReader} on it, so images can be loaded concurrently.
+	 */
+	private ByteBuffer data = null;
 	private final File file;
+	/**
+	 * The hash of the file content, computed by {@link #getSourceHash()}.
+	 */
+	private Long sourceHash = null;
 
 	/**
 	 * This is a list of file positions where the settler sequences start.
@@ -205,9 +213,9 @@ public class AdvancedDatFileReader implements DatFileSet {
 	private int[] settlerstarts;
 
 	/**
-	 * A list of loaded settler sequences.
+	 * A list of loaded settler sequences. It is set last by {@link #initialize()}.
 	 */
-	private Sequence<Image>[] settlersequences = null;
+	private volatile Sequence<Image>[] settlersequences = null;
 	/**
 	 * An array with the same length as settlers.
 	 */
@@ -258,17 +266,14 @@ public class AdvancedDatFileReader implements DatFileSet {
 	 * Initializes the reader, reads the index.
 	 */
 	@SuppressWarnings("unchecked")
-	public void initialize() {
+	public synchronized void initialize() {
 		try {
 			try {
-				reader = new ByteReader(new RandomAccessFile(file, "r"));
-				initFromReader(file, reader);
+				data = ByteReader.map(file);
+				initFromReader(file, createReader());
 
 			} catch (IOException e) {
-				if (reader != null) {
-					reader.close();
-					reader = null;
-				}
+				data = null;
 				throw e;
 			}
 		} catch (Exception e) {
@@ -280,8 +285,6 @@ public class AdvancedDatFileReader implements DatFileSet {
 
 		guiimages = new GuiImage[guistarts.length];
 
-		settlersequences = new Sequence[settlerstarts.length];
-
 		int torsodifference = settlerstarts.length - torsostarts.length;
 		if (torsodifference != 0) {
 			int[] oldtorsos = torsostarts;
@@ -305,6 +308,16 @@ public class AdvancedDatFileReader implements DatFileSet {
 				torsostarts[i] = -1;
 			}
 		}
+
+		settlersequences = new Sequence[settlerstarts.length];
+	}
+
+	private ByteReader createReader() throws IOException {
+		ByteBuffer data = this.data;
+		if (data == null) {
+			throw new IOException("The file " + file + " could not be read.");
+		}
+		return new ByteReader(data);
 	}
 
 	private void initFromReader(File file, ByteReader reader)
@@ -421,7 +434,11 @@ public class AdvancedDatFileReader implements DatFileSet {
 
 	private void initializeIfNeeded() {
 		if (settlersequences == null) {
-			initialize();
+			synchronized (this) {
+				if (settlersequences == null) {
+					initialize();
+				}
+			}
 		}
 	}
 
@@ -457,10 +474,11 @@ public class AdvancedDatFileReader implements DatFileSet {
 		}
 	}
 
-	private synchronized void loadSettlers(int index) throws IOException {
+	private void loadSettlers(int index) throws IOException {
+		ByteReader reader = createReader();
 
 		int position = settlerstarts[index];
-		long[] framePositions = readSequenceHeader(position);
+		long[] framePositions = readSequenceHeader(reader, position);
 
 		SettlerImage[] images = new SettlerImage[framePositions.length];
 		for (int i = 0; i < framePositions.length; i++) {
@@ -470,7 +488,7 @@ public class AdvancedDatFileReader implements DatFileSet {
 
 		int torsoposition = torsostarts[index];
 		if (torsoposition >= 0) {
-			long[] torsoPositions = readSequenceHeader(torsoposition);
+			long[] torsoPositions = readSequenceHeader(reader, torsoposition);
 			for (int i = 0; i < torsoPositions.length
 					&& i < framePositions.length; i++) {
 				reader.skipTo(torsoPositions[i]);
@@ -483,7 +501,7 @@ public class AdvancedDatFileReader implements DatFileSet {
 		settlersequences[index] = new ArraySequence<>(images);
 	}
 
-	private long[] readSequenceHeader(int position) throws IOException {
+	private static long[] readSequenceHeader(ByteReader reader, int position) throws IOException {
 		reader.skipTo(position);
 
 		reader.assumeToRead(START);
@@ -546,12 +564,14 @@ public class AdvancedDatFileReader implements DatFileSet {
 
 	public ByteReader getReaderForLandscape(int index) throws IOException {
 		initializeIfNeeded();
+		ByteReader reader = createReader();
 		reader.skipTo(landscapestarts[index]);
 		return reader;
 	}
 
 	private void loadLandscapeImage(int index) {
 		try {
+			ByteReader reader = createReader();
 			reader.skipTo(landscapestarts[index]);
 			LandscapeImage image =
 					DatBitmapReader.getImage(landscapeTranslator, reader);
@@ -601,6 +621,7 @@ public class AdvancedDatFileReader implements DatFileSet {
 
 	private void loadGuiImage(int index) {
 		try {
+			ByteReader reader = createReader();
 			reader.skipTo(guistarts[index]);
 			GuiImage image = DatBitmapReader.getImage(guiTranslator, reader);
 			guiimages[index] = image;
@@ -611,21 +632,21 @@ public class AdvancedDatFileReader implements DatFileSet {
 
 	public long[] getSettlerPointers(int seqindex) throws IOException {
 		initializeIfNeeded();
-		return readSequenceHeader(settlerstarts[seqindex]);
+		return readSequenceHeader(createReader(), settlerstarts[seqindex]);
 	}
 
 	public long[] getTorsoPointers(int seqindex) throws IOException {
 		initializeIfNeeded();
 		int position = torsostarts[seqindex];
 		if (position >= 0) {
-			return readSequenceHeader(position);
+			return readSequenceHeader(createReader(), position);
 		} else {
 			return null;
 		}
 	}
 
 	/**
-	 * Gets a reader positioned at the given settler
+	 * Gets a new reader positioned at the given settler
 	 * 
 	 * @param pointer
 	 * @return
@@ -633,6 +654,7 @@ public class AdvancedDatFileReader implements DatFileSet {
 	 */
 	public ByteReader getReaderForPointer(long pointer) throws IOException {
 		initializeIfNeeded();
+		ByteReader reader = createReader();
 		reader.skipTo(pointer);
 		return reader;
 	}
@@ -641,11 +663,40 @@ public class AdvancedDatFileReader implements DatFileSet {
 			String id) throws IOException {
 		initializeIfNeeded();
 
+		long sourceHash = getSourceHash();
 		MultiImageMap map = new MultiImageMap(width, height, id);
-		if (!map.hasCache()) {
+		if (!map.loadCache(sourceHash, sequences, settlersequences)) {
 			map.addSequences(this, sequences, settlersequences);
-			map.writeCache();
+			map.writeCache(sourceHash);
+		}
+	}
+
+	/**
+	 * Gets a hash of the content of the DAT file. It is used to detect outdated caches.
+	 * 
+	 * @return The hash.
+	 * @throws IOException
+	 *             If the file could not be read.
+	 */
+	public synchronized long getSourceHash() throws IOException {
+		initializeIfNeeded();
+		if (sourceHash == null) {
+			ByteBuffer data = this.data;
+			if (data == null) {
+				throw new IOException("The file " + file + " could not be read.");
+			}
+			data = data.duplicate();
+			data.position(0);
+			CRC32 crc = new CRC32();
+			byte[] chunk = new byte[64 * 1024];
+			while (data.hasRemaining()) {
+				int length = Math.min(chunk.length, data.remaining());
+				data.get(chunk, 0, length);
+				crc.update(chunk, 0, length);
+			}
+			sourceHash = ((long) data.capacity() << 32) | crc.getValue();
 		}
+		return sourceHash;
 	}
 
 	public DatBitmapTranslator<SettlerImage> getSettlerTranslator() {
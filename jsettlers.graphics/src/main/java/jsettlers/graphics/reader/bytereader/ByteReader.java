@@ -14,46 +14,27 @@
  *******************************************************************************/
 package jsettlers.graphics.reader.bytereader;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel.MapMode;
 
 /**
  * This class provides a little endian wrapper of a reader.
+ * <p>
+ * The data is read from a {@link ByteBuffer}, usually a memory mapping of the whole file. Every reader has its own position, so multiple readers
+ * created with {@link #ByteReader(ByteBuffer)} on the same mapping can be used concurrently.
  *
  * @author michael
  */
 public class ByteReader {
 
-	private static final int CACHE_SIZE = 10000;
+	private final ByteBuffer data;
 
 	/**
-	 * The position the input stram is currently at.
-	 */
-	private long inputStreamPosition = 0;
-	/**
-	 * The current cache position the user is reading from next.
-	 * <p>
-	 * It may never be greater than CACHE_SIZE.
-	 *
-	 * @see ByteReader#assertCacheHolds(int);
-	 */
-	private int cachePosition;
-	/**
-	 * The start of the cache in the file.
-	 * <p>
-	 * Initialize so that jump does good work.
-	 */
-	private long cacheStart = -2 * CACHE_SIZE;
-
-	/**
-	 * The data cache
-	 */
-	private byte[] cache = new byte[CACHE_SIZE];
-
-	private final RandomAccessFile in;
-
-	/**
-	 * Creates a new reader.
+	 * Creates a new reader that maps the whole file. The file is closed afterwards.
 	 *
 	 * @param in
 	 *            The in reader.
@@ -61,101 +42,69 @@ public class ByteReader {
 	 *             It an IO error occured.
 	 */
 	public ByteReader(RandomAccessFile in) throws IOException {
-		this.in = in;
-		jumpCachePosition(0);
+		this(map(in));
 	}
 
 	/**
-	 * Reads a 16 bit int.
+	 * Creates a new reader reading from the given data. The reader has its own position starting at 0, the given buffer is not modified.
 	 *
-	 * @return The int.
-	 * @throws IOException
-	 *             If an io error occured.
+	 * @param data
+	 *            The data to read.
 	 */
-	public int read16() throws IOException {
-		assertCacheHolds(2);
-
-		int c = this.cachePosition;
-		int byte0 = this.cache[c];
-		int byte1 = this.cache[c + 1];
-		this.cachePosition = c + 2;
-
-		return (0xff & byte0) | ((0xff & byte1) << 8);
+	public ByteReader(ByteBuffer data) {
+		this.data = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+		this.data.position(0);
 	}
 
 	/**
-	 * Sets the cache position pointer and the cache so that the pointer is on the given position in the file.
+	 * Maps the whole file to memory.
 	 *
-	 * @param newCachePosition
-	 *            A file position
+	 * @param file
+	 *            The file to map.
+	 * @return The mapped data.
 	 * @throws IOException
+	 *             If the file could not be mapped.
 	 */
-	private void jumpCachePosition(long newCachePosition) throws IOException {
-		long positionInCache = newCachePosition - this.cacheStart;
-		if (positionInCache >= 0 && positionInCache < CACHE_SIZE) {
-			this.cachePosition = (int) positionInCache;
-		} else {
-			// we have to reload...
-			this.in.seek(newCachePosition);
-			this.inputStreamPosition = newCachePosition;
-			this.cacheStart = this.inputStreamPosition;
+	public static ByteBuffer map(File file) throws IOException {
+		return map(new RandomAccessFile(file, "r"));
+	}
 
-			this.inputStreamPosition += this.in.read(this.cache, 0, CACHE_SIZE);
-			this.cachePosition = 0;
+	private static ByteBuffer map(RandomAccessFile in) throws IOException {
+		try {
+			return in.getChannel().map(MapMode.READ_ONLY, 0, in.length());
+		} finally {
+			in.close();
+		}
+	}
+
+	private void assertRemaining(int bytecount) throws IOException {
+		if (data.remaining() < bytecount) {
+			throw new IOException("Unexpected end of file at " + data.position());
 		}
 	}
 
 	/**
-	 * Asserts that the cache hold bytecount valid bytes.
-	 * <p>
-	 * if the rest of the cache is not long enough
+	 * Reads a 16 bit int.
 	 *
-	 * @param bytecount
+	 * @return The int.
 	 * @throws IOException
+	 *             If an io error occured.
 	 */
-	private void assertCacheHolds(int bytecount) throws IOException {
-
-		if (bytecount >= CACHE_SIZE) {
-			throw new IllegalArgumentException(
-					"Cache buffer to small to read that many bytes");
-		}
-
-		int remaining = CACHE_SIZE - this.cachePosition;
-		if (remaining < bytecount) {
-			// refill buffer
-			for (int i = 0; i < remaining; i++) {
-				this.cache[i] = this.cache[this.cachePosition + i];
-			}
-
-			// todo: save until where cache is valid, if file to long.
-			int length = (int) Math.min(CACHE_SIZE - remaining, this.in.length() - this.in.getFilePointer());
-			this.inputStreamPosition += this.in.read(this.cache, remaining, length);
-			// TODO: store how long buffer is valid
-			this.cacheStart += this.cachePosition;
-			this.cachePosition = 0;
-		}
+	public int read16() throws IOException {
+		assertRemaining(2);
+		return 0xffff & data.getShort();
 	}
 
 	/**
-	 * Reads an int with 32 bit from the stram.
+	 * Reads a 32 bit int.
 	 *
-	 * @return The int's value.
+	 * @return The int.
 	 * @throws IOException
-	 *             If an IO error occured.
+	 *             If an io error occured.
 	 */
 	public int read32() throws IOException {
-		assertCacheHolds(4);
-
-		byte byte0 = this.cache[this.cachePosition++];
-		byte byte1 = this.cache[this.cachePosition++];
-		byte byte2 = this.cache[this.cachePosition++];
-		byte byte3 = this.cache[this.cachePosition++];
-
-		int value =
-				(0xff & byte0) | ((0xff & byte1) << 8)
-						| ((0xff & byte2) << 16)
-						| ((0xff & byte3) << 24);
-		return value;
+		assertRemaining(4);
+		return data.getInt();
 	}
 
 	/**
@@ -167,10 +116,10 @@ public class ByteReader {
 	 *             If the read data does not match the given data.
 	 */
 	public void assumeToRead(byte[] toRead) throws IOException {
-		assertCacheHolds(toRead.length);
+		assertRemaining(toRead.length);
 
 		for (int i = 0; i < toRead.length; i++) {
-			byte read = this.cache[this.cachePosition++];
+			byte read = data.get();
 			if (read != toRead[i]) {
 				throw new IOException("IO error: expected to read " + toRead[i]
 						+ " but got " + read + " (i=" + i + ")");
@@ -186,12 +135,8 @@ public class ByteReader {
 	 *             If an IO error occured.
 	 */
 	public int read16signed() throws IOException {
-		int read = read16();
-		if (read < 0x8000) {
-			return read;
-		} else {
-			return read - 0x10000;
-		}
+		assertRemaining(2);
+		return data.getShort();
 	}
 
 	/**
@@ -202,14 +147,12 @@ public class ByteReader {
 	 *             If an io error occured.
 	 */
 	public int read8() throws IOException {
-		assertCacheHolds(1);
-		return 0xff & this.cache[this.cachePosition++];
+		assertRemaining(1);
+		return 0xff & data.get();
 	}
 
 	/**
 	 * Reads a byte stream from the stream.
-	 * <p>
-	 * Warning: this is not guaranteed to work for long arrays.
 	 *
 	 * @param b
 	 *            The byte array to read to.
@@ -222,11 +165,8 @@ public class ByteReader {
 	 *             If an io error occurred.
 	 */
 	public int read(byte[] b, int off, int len) throws IOException {
-		assertCacheHolds(len);
-
-		for (int i = 0; i < len; i++) {
-			b[off + i] = this.cache[this.cachePosition++];
-		}
+		assertRemaining(len);
+		data.get(b, off, len);
 		return len;
 	}
 
@@ -237,30 +177,31 @@ public class ByteReader {
 	 *            The position to go to.
 	 * @return The actual position we went to.
 	 * @throws IOException
-	 *             If an IO error occured.
+	 *             If the position is not in the file.
 	 */
 	public long skipTo(long pos) throws IOException {
-		jumpCachePosition(pos);
-		return this.cacheStart + this.cachePosition;
+		if (pos < 0 || pos > data.limit()) {
+			throw new IOException("Position " + pos + " is not in the file.");
+		}
+		data.position((int) pos);
+		return pos;
 	}
 
 	/**
-	 * gets the number of read or skipped bytes. It is equal to the position in the stream, as long as no {@link IOException}s occurred and reset()
-	 * was not used.
+	 * gets the number of read or skipped bytes. It is equal to the position in the stream.
 	 *
 	 * @return The number.
 	 */
 	public long getReadBytes() {
-		return this.cacheStart + this.cachePosition;
+		return data.position();
 	}
 
 	/**
-	 * Closes the underlying stream.
+	 * Closes the reader. The mapping is released when it is not used any more.
 	 *
 	 * @throws IOException
 	 *             If the close failed.
 	 */
 	public void close() throws IOException {
-		this.in.close();
 	}
 }
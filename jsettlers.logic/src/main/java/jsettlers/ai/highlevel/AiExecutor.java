@@ -14,37 +14,53 @@
  *******************************************************************************/
 package jsettlers.ai.highlevel;
 
-import static java8.util.stream.StreamSupport.stream;
-
 import java.util.ArrayList;
 import java.util.List;
 
 import jsettlers.common.logging.StatisticsStopWatch;
+import jsettlers.logic.constants.GameContext;
+import jsettlers.logic.constants.MatchConstants;
 import jsettlers.logic.map.grid.MainGrid;
 import jsettlers.logic.player.PlayerSetting;
 import jsettlers.network.client.interfaces.ITaskScheduler;
 import jsettlers.network.synchronic.timer.INetworkTimerable;
 
+import java8.util.concurrent.ForkJoinPool;
+import java8.util.concurrent.RecursiveAction;
+
 /**
  * The AiExecutor holds all IWhatToDoAi high level KIs and executes them when NetworkTimer notifies it.
+ * <p>
+ * The rules of the computer players are applied in parallel. During that time the {@link AiStatistics} are only read. Every computer player
+ * schedules its tasks into its own {@link AiTaskCollector}; the collected tasks are submitted to the {@link ITaskScheduler} in the order of the
+ * players afterwards. Therefore the scheduled tasks are the same as if the rules were applied one after another.
  * 
  * @author codingberlin
  */
 public class AiExecutor implements INetworkTimerable {
 
+	private final GameContext gameContext;
+	private final ITaskScheduler taskScheduler;
 	private final List<IWhatToDoAi> whatToDoAis;
+	private final List<AiTaskCollector> taskCollectors;
+	private final ForkJoinPool pool;
 	private final AiStatistics aiStatistics;
 	private final StatisticsStopWatch updateStatisticsStopWatch = new StatisticsStopWatch();
 	private final StatisticsStopWatch applyRulesStopWatch = new StatisticsStopWatch();
 
 	public AiExecutor(PlayerSetting[] playerSettings, MainGrid mainGrid, ITaskScheduler taskScheduler) {
+		gameContext = mainGrid.getGameContext();
+		this.taskScheduler = taskScheduler;
 		aiStatistics = new AiStatistics(mainGrid);
 		aiStatistics.updateStatistics();
 		this.whatToDoAis = new ArrayList<>();
+		this.taskCollectors = new ArrayList<>();
 		WhatToDoAiFactory aiFactory = new WhatToDoAiFactory();
 		for (byte playerId = 0; playerId < playerSettings.length; playerId++) {
 			PlayerSetting playerSetting = playerSettings[playerId];
 			if (playerSetting.isAvailable() && playerSetting.getPlayerType().isAi()) {
+				AiTaskCollector taskCollector = new AiTaskCollector();
+				taskCollectors.add(taskCollector);
 				whatToDoAis.add(aiFactory.buildWhatToDoAi(
 						playerSettings[playerId].getPlayerType(),
 						playerSettings[playerId].getCivilisation(),
@@ -52,21 +68,45 @@ public class AiExecutor implements INetworkTimerable {
 						mainGrid.getPartitionsGrid().getPlayer(playerId),
 						mainGrid,
 						mainGrid.getMovableGrid(),
-						taskScheduler));
+						taskCollector));
 			}
 		}
+		int threads = MatchConstants.AI_THREADS > 0 ? MatchConstants.AI_THREADS : Runtime.getRuntime().availableProcessors();
+		pool = new ForkJoinPool(Math.max(1, Math.min(whatToDoAis.size(), threads)));
 	}
 
 	@Override
 	public void timerEvent() {
+		gameContext.bindToCurrentThread();
 		updateStatisticsStopWatch.restart();
 		aiStatistics.updateStatistics();
 		updateStatisticsStopWatch.stop("computerplayer:updateStatistics()");
 		applyRulesStopWatch.restart();
-		stream(whatToDoAis).forEach(IWhatToDoAi::applyRules);
+		try {
+			if (pool.getParallelism() > 1) {
+				pool.invoke(new ApplyRulesAction(0, whatToDoAis.size()));
+			} else {
+				applyRules(0, whatToDoAis.size());
+			}
+		} finally {
+			for (AiTaskCollector taskCollector : taskCollectors) {
+				taskCollector.submitTo(taskScheduler);
+			}
+		}
 		applyRulesStopWatch.stop("computerplayer:applyRules()");
 	}
 
+	private void applyRules(int from, int to) {
+		gameContext.bindToCurrentThread();
+		for (int i = from; i < to; i++) {
+			whatToDoAis.get(i).applyRules();
+		}
+	}
+
+	public void shutdown() {
+		pool.shutdown();
+	}
+
 	public StatisticsStopWatch getUpdateStatisticsStopWatch() {
 		return updateStatisticsStopWatch;
 	}
@@ -74,4 +114,29 @@ public class AiExecutor implements INetworkTimerable {
 	public StatisticsStopWatch getApplyRulesStopWatch() {
 		return applyRulesStopWatch;
 	}
+
+	/**
+	 * Splits the computer players until every one of them is handled by its own task.
+	 */
+	private class ApplyRulesAction extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int from;
+		private final int to;
+
+		ApplyRulesAction(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > 1) {
+				int middle = (from + to) / 2;
+				invokeAll(new ApplyRulesAction(from, middle), new ApplyRulesAction(middle, to));
+			} else {
+				applyRules(from, to);
+			}
+		}
+	}
 }
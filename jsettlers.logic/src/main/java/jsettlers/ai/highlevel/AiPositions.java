@@ -24,6 +24,12 @@ import java.util.Iterator;
 
 /**
  * This is a set of points on the map. It is optimized for range queries.
+ * <p>
+ * The points are stored in cells of {@value #CELL_SIZE} x {@value #CELL_SIZE} positions. Every cell is a bit mask, so adding, removing and
+ * checking a point does not depend on the number of points. {@link #getNearestPoint(ShortPoint2D, int, AiPositionFilter)} searches the cells
+ * in rings around the center and stops as soon as no cell of the next ring can contain a nearer point.
+ * <p>
+ * Index based access, iteration and {@link #stream()} use the points in map order (x, then y). This order is only rebuilt after the set changed.
  * 
  * @author Michael Zangl
  *
@@ -31,6 +37,11 @@ import java.util.Iterator;
 public class AiPositions implements IMapArea {
 	private static final int MIN_SIZE = 16;
 	private static final int SHORT_MASK = 0x7fff;
+	private static final int CELL_SHIFT = 3;
+	private static final int CELL_SIZE = 1 << CELL_SHIFT;
+	private static final int CELL_MASK = CELL_SIZE - 1;
+	private static final int COLUMN_MASK = (1 << CELL_SIZE) - 1;
+	private static final int MAX_CELLS = (SHORT_MASK >> CELL_SHIFT) + 1;
 	/**
 	 * 
 	 */
@@ -103,13 +114,38 @@ public class AiPositions implements IMapArea {
 		}
 	}
 
-	private boolean sorted = false;
-	private int[] points = new int[MIN_SIZE];
+	/**
+	 * The cells are stored column by column. Bit (x % CELL_SIZE) * CELL_SIZE + y % CELL_SIZE of a cell is set if the point is in this set.
+	 */
+	private long[] cells = new long[0];
+	private int cellsWidth = 0;
+	private int cellsHeight = 0;
 	private int size = 0;
 
+	/**
+	 * The points in map order. Only valid if {@link #sorted} is true.
+	 */
+	private boolean sorted = true;
+	private int[] points = new int[MIN_SIZE];
+
+	/**
+	 * Adds the given position if it is not in this set yet.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the position can not be on a map.
+	 */
 	public void add(int x, int y) {
-		if (!contains(x, y)) {
-			addNoCollission(x, y);
+		if (x < 0 || y < 0 || x > SHORT_MASK || y > SHORT_MASK) {
+			throw new IllegalArgumentException("(" + x + "|" + y + ") is not a position on a map.");
+		}
+
+		ensureCellsFor(x >> CELL_SHIFT, y >> CELL_SHIFT);
+		int cellIndex = getCellIndex(x >> CELL_SHIFT, y >> CELL_SHIFT);
+		long bit = getBit(x, y);
+		if ((cells[cellIndex] & bit) == 0) {
+			cells[cellIndex] |= bit;
+			size++;
+			sorted = false;
 		}
 	}
 
@@ -120,35 +156,37 @@ public class AiPositions implements IMapArea {
 	 * @param y
 	 */
 	public void addNoCollission(int x, int y) {
-		int pos = pack(x, y);
-		if (points.length == size) {
-			resizeTo(points.length * 2);
-		}
-		points[size] = pos;
-		size++;
-		sorted = false;
+		add(x, y);
 	}
 
 	public void addAllNoCollision(AiPositions otherAiPositions) {
-		int newSize = size + otherAiPositions.size;
-		if (newSize > points.length) {
-			resizeTo(newSize * 2);
+		if (otherAiPositions.size == 0) {
+			return;
+		}
+
+		ensureCellsFor(otherAiPositions.cellsWidth - 1, otherAiPositions.cellsHeight - 1);
+		for (int cellX = 0; cellX < otherAiPositions.cellsWidth; cellX++) {
+			for (int cellY = 0; cellY < otherAiPositions.cellsHeight; cellY++) {
+				int cellIndex = getCellIndex(cellX, cellY);
+				long added = otherAiPositions.cells[otherAiPositions.getCellIndex(cellX, cellY)] & ~cells[cellIndex];
+				if (added != 0) {
+					cells[cellIndex] |= added;
+					size += Long.bitCount(added);
+					sorted = false;
+				}
+			}
 		}
-		System.arraycopy(otherAiPositions.points, 0, points, size, otherAiPositions.size);
-		size = newSize;
-		sorted = false;
 	}
 
 	public void remove(int x, int y) {
-		ensureSorted();
-		int index = indexOf(x, y);
-		if (index >= 0) {
-			if (index < size - 1) {
-				points[index] = points[size - 1];
+		if (isInCells(x, y)) {
+			int cellIndex = getCellIndex(x >> CELL_SHIFT, y >> CELL_SHIFT);
+			long bit = getBit(x, y);
+			if ((cells[cellIndex] & bit) != 0) {
+				cells[cellIndex] &= ~bit;
+				size--;
 				sorted = false;
 			}
-			// TODO: shrink array.
-			size--;
 		}
 	}
 
@@ -159,12 +197,7 @@ public class AiPositions implements IMapArea {
 
 	@Override
 	public boolean contains(int x, int y) {
-		ensureSorted();
-		return indexOf(x, y) >= 0;
-	}
-
-	private int indexOf(int x, int y) {
-		return Arrays.binarySearch(points, 0, size, pack(x, y));
+		return isInCells(x, y) && (cells[getCellIndex(x >> CELL_SHIFT, y >> CELL_SHIFT)] & getBit(x, y)) != 0;
 	}
 
 	@Override
@@ -173,11 +206,42 @@ public class AiPositions implements IMapArea {
 		return new PositionsIterator();
 	}
 
-	private void ensureSorted() {
-		if (!sorted) {
-			Arrays.sort(points, 0, size);
-			sorted = true;
+	/**
+	 * Rebuilds the points in map order if the set changed. Read accesses from multiple threads are only safe after this has been called.
+	 */
+	void ensureSorted() {
+		if (sorted) {
+			return;
 		}
+
+		if (points.length < size) {
+			points = new int[Math.max(size, points.length * 2)];
+		}
+
+		int[] usedCellsOfColumn = new int[cellsHeight];
+		int index = 0;
+		for (int cellX = 0; cellX < cellsWidth; cellX++) {
+			int usedCells = 0;
+			for (int cellY = 0; cellY < cellsHeight; cellY++) {
+				if (cells[getCellIndex(cellX, cellY)] != 0) {
+					usedCellsOfColumn[usedCells++] = cellY;
+				}
+			}
+
+			for (int dx = 0; dx < CELL_SIZE && usedCells > 0; dx++) {
+				int x = (cellX << CELL_SHIFT) + dx;
+				for (int i = 0; i < usedCells; i++) {
+					int cellY = usedCellsOfColumn[i];
+					int column = (int) (cells[getCellIndex(cellX, cellY)] >>> (dx << CELL_SHIFT)) & COLUMN_MASK;
+					while (column != 0) {
+						int dy = Integer.numberOfTrailingZeros(column);
+						column &= column - 1;
+						points[index++] = pack(x, (cellY << CELL_SHIFT) + dy);
+					}
+				}
+			}
+		}
+		sorted = true;
 	}
 
 	private static int pack(int x, int y) {
@@ -192,12 +256,38 @@ public class AiPositions implements IMapArea {
 		return pos & SHORT_MASK;
 	}
 
-	private void resizeTo(int arraySize) {
-		points = Arrays.copyOf(points, arraySize);
+	private static long getBit(int x, int y) {
+		return 1L << (((x & CELL_MASK) << CELL_SHIFT) | (y & CELL_MASK));
+	}
+
+	private int getCellIndex(int cellX, int cellY) {
+		return cellX * cellsHeight + cellY;
+	}
+
+	private boolean isInCells(int x, int y) {
+		return x >= 0 && y >= 0 && (x >> CELL_SHIFT) < cellsWidth && (y >> CELL_SHIFT) < cellsHeight;
+	}
+
+	private void ensureCellsFor(int cellX, int cellY) {
+		if (cellX < cellsWidth && cellY < cellsHeight) {
+			return;
+		}
+
+		int newWidth = cellX < cellsWidth ? cellsWidth : Math.min(MAX_CELLS, Math.max(cellX + 1, cellsWidth * 2));
+		int newHeight = cellY < cellsHeight ? cellsHeight : Math.min(MAX_CELLS, Math.max(cellY + 1, cellsHeight * 2));
+		long[] newCells = new long[newWidth * newHeight];
+		for (int currX = 0; currX < cellsWidth; currX++) {
+			System.arraycopy(cells, currX * cellsHeight, newCells, currX * newHeight, cellsHeight);
+		}
+		cells = newCells;
+		cellsWidth = newWidth;
+		cellsHeight = newHeight;
 	}
 
 	public void clear() {
+		Arrays.fill(cells, 0);
 		size = 0;
+		sorted = true;
 		points = new int[MIN_SIZE];
 	}
 
@@ -205,52 +295,46 @@ public class AiPositions implements IMapArea {
 		return getNearestPoint(center, maxDistance, null);
 	}
 
+	/**
+	 * Finds the nearest point with an on grid distance smaller than maxDistance. Of equally near points, the first in map order is returned.
+	 */
 	public ShortPoint2D getNearestPoint(ShortPoint2D center, int maxDistance, AiPositionFilter filter) {
-		ensureSorted();
-		int resX = -1, resY = -1;
-		int median = findClosestIndex(center.x, center.y);
-		if (median >= size) {
-			median = size - 1;
+		if (size == 0) {
+			return null;
 		}
-		int l = median, r = median + 1;
-		while (true) {
-			int current;
-			int rDist = r < size ? unpackX(points[r]) - center.x : maxDistance;
-			if (l >= 0 && center.x - unpackX(points[l]) <= rDist) {
-				current = points[l];
-				l--;
-			} else if (r < size && rDist < maxDistance) {
-				current = points[r];
-				r++;
-			} else {
-				break;
-			}
-
-			int x = unpackX(current);
-			int y = unpackY(current);
-			if (filter != null && !filter.contains(x, y)) {
-				continue;
-			}
 
-			int pDist = ShortPoint2D.getOnGridDist(center.x - x, center.y - y);
-			if (pDist < maxDistance) {
-				resX = x;
-				resY = y;
-				maxDistance = pDist;
+		NearestPointSearch search = new NearestPointSearch(center, maxDistance, filter);
+		int centerCellX = center.x >> CELL_SHIFT;
+		int centerCellY = center.y >> CELL_SHIFT;
+		int maxRing = Math.max(Math.max(centerCellX, cellsWidth - 1 - centerCellX), Math.max(centerCellY, cellsHeight - 1 - centerCellY));
+
+		for (int ring = 0; ring <= maxRing && search.mayContainCandidate(ring == 0 ? 0 : (ring << CELL_SHIFT) - CELL_MASK); ring++) {
+			int minCellY = Math.max(0, centerCellY - ring);
+			int maxCellY = Math.min(cellsHeight - 1, centerCellY + ring);
+			for (int cellX = Math.max(0, centerCellX - ring); cellX <= Math.min(cellsWidth - 1, centerCellX + ring); cellX++) {
+				if (cellX == centerCellX - ring || cellX == centerCellX + ring) {
+					for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+						search.visitCell(cellX, cellY);
+					}
+				} else {
+					if (centerCellY - ring >= 0 && centerCellY - ring < cellsHeight) {
+						search.visitCell(cellX, centerCellY - ring);
+					}
+					if (centerCellY + ring < cellsHeight) {
+						search.visitCell(cellX, centerCellY + ring);
+					}
+				}
 			}
 		}
 
-		return resY >= 0 ? new ShortPoint2D(resX, resY) : null;
+		return search.getResult();
 	}
 
 	public ShortPoint2D get(int index) {
+		ensureSorted();
 		return new ShortPoint2D(unpackX(points[index]), unpackY(points[index]));
 	}
 
-	private int findClosestIndex(int x, int y) {
-		return Math.abs(indexOf(x, y));
-	}
-
 	public int size() {
 		return size;
 	}
@@ -275,12 +359,12 @@ public class AiPositions implements IMapArea {
 			pointsStr.append(",");
 			pointsStr.append(p.y);
 		}
-		return "AiPositions [sorted=" + sorted + ", size=" + size + ", points="
+		return "AiPositions [size=" + size + ", points="
 				+ pointsStr + "]";
 	}
 
 	public ShortPoint2D getBestRatedPoint(PositionRater rater) {
-		// TODO: Parallel ?
+		ensureSorted();
 		int currentBestRating = PositionRater.RATE_INVALID;
 		ShortPoint2D currentBest = null;
 		for (int i = 0; i < size; i++) {
@@ -300,6 +384,7 @@ public class AiPositions implements IMapArea {
 		return new CoordinateStream() {
 			@Override
 			public boolean iterate(IBooleanCoordinateFunction function) {
+				ensureSorted();
 				for (int i = 0; i < size; i++) {
 					int packedCoordinate = points[i];
 					int x = unpackX(packedCoordinate);
@@ -313,4 +398,46 @@ public class AiPositions implements IMapArea {
 			}
 		};
 	}
+
+	/**
+	 * State of one {@link #getNearestPoint(ShortPoint2D, int, AiPositionFilter)} call.
+	 */
+	private class NearestPointSearch {
+		private final ShortPoint2D center;
+		private final AiPositionFilter filter;
+		private int bestDistance;
+		private int bestPoint = -1;
+
+		NearestPointSearch(ShortPoint2D center, int maxDistance, AiPositionFilter filter) {
+			this.center = center;
+			this.bestDistance = maxDistance;
+			this.filter = filter;
+		}
+
+		boolean mayContainCandidate(int minDistance) {
+			return minDistance < bestDistance || (bestPoint >= 0 && minDistance == bestDistance);
+		}
+
+		void visitCell(int cellX, int cellY) {
+			long cell = cells[getCellIndex(cellX, cellY)];
+			while (cell != 0) {
+				int bitIndex = Long.numberOfTrailingZeros(cell);
+				cell &= cell - 1;
+				int x = (cellX << CELL_SHIFT) + (bitIndex >> CELL_SHIFT);
+				int y = (cellY << CELL_SHIFT) + (bitIndex & CELL_MASK);
+
+				int distance = ShortPoint2D.getOnGridDist(center.x - x, center.y - y);
+				int point = pack(x, y);
+				if ((distance < bestDistance || (bestPoint >= 0 && distance == bestDistance && point < bestPoint))
+						&& (filter == null || filter.contains(x, y))) {
+					bestDistance = distance;
+					bestPoint = point;
+				}
+			}
+		}
+
+		ShortPoint2D getResult() {
+			return bestPoint >= 0 ? new ShortPoint2D(unpackX(bestPoint), unpackY(bestPoint)) : null;
+		}
+	}
 }
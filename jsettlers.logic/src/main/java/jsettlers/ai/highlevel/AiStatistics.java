@@ -29,7 +29,9 @@ import static jsettlers.common.movable.EMovableType.SWORDSMAN_L3;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
@@ -58,6 +60,7 @@ import jsettlers.common.position.RelativePoint;
 import jsettlers.common.position.ShortPoint2D;
 import jsettlers.logic.buildings.Building;
 import jsettlers.logic.buildings.WorkAreaBuilding;
+import jsettlers.logic.map.grid.IMapChangedListener;
 import jsettlers.logic.map.grid.MainGrid;
 import jsettlers.logic.map.grid.flags.FlagsGrid;
 import jsettlers.logic.map.grid.landscape.LandscapeGrid;
@@ -65,10 +68,10 @@ import jsettlers.logic.map.grid.movable.MovableGrid;
 import jsettlers.logic.map.grid.objects.AbstractHexMapObject;
 import jsettlers.logic.map.grid.objects.ObjectsGrid;
 import jsettlers.logic.map.grid.partition.PartitionsGrid;
+import jsettlers.logic.movable.Movable;
 import jsettlers.logic.movable.interfaces.ILogicMovable;
 import jsettlers.logic.player.Player;
 
-import java8.util.Comparators;
 import java8.util.J8Arrays;
 import java8.util.Maps;
 import java8.util.Objects;
@@ -84,9 +87,29 @@ public class AiStatistics {
 
 	private static final EBuildingType[] REFERENCE_POINT_FINDER_BUILDING_ORDER = { LUMBERJACK, TOWER, BIG_TOWER, CASTLE };
 	public static final int NEAR_STONE_DISTANCE = 5;
+	/**
+	 * The statistics of a position only depend on the positions within this distance (see {@link #evaluatePosition(short, short)}).
+	 */
+	private static final int CHANGE_INFLUENCE_DISTANCE = NEAR_STONE_DISTANCE;
+	private static final Comparator<ShortPoint2D> MAP_ORDER = (first, second) -> first.x != second.x ? first.x - second.x : first.y - second.y;
+
+	private static final int RESOURCE = 1;
+	private static final int GRASS = 1 << 1;
+	private static final int FREE_TREE = 1 << 2;
+	private static final int FREE_STONE = 1 << 3;
+	private static final int FREE_RIVER = 1 << 4;
+	private static final int PLAYER_STONE = 1 << 5;
+	private static final int PLAYER_TREE = 1 << 6;
+	private static final int PLAYER_LAND = 1 << 7;
+	private static final int PLAYER_RIVER = 1 << 8;
+	private static final int PLAYER_WINE = 1 << 9;
+	private static final int BORDER_INGESTIBLE = 1 << 10;
+	private static final int OTHER_PARTITION_BORDER = 1 << 11;
+	private static final int RESOURCE_TYPE_SHIFT = 16;
 
 	private final MainGrid mainGrid;
 	private final Queue<Building> buildings;
+	private final Queue<ILogicMovable> movables;
 	private final PlayerStatistic[] playerStatistics;
 	private final Map<EMapObjectType, AiPositions> sortedCuttableObjectsInDefaultPartition;
 	private final AiPositions[] sortedResourceTypes;
@@ -100,10 +123,31 @@ public class AiStatistics {
 	private final AiMapInformation aiMapInformation;
 	private final long[] resourceCountInDefaultPartition;
 	private final List<Player> players;
+	private final int noPlayerId;
+
+	/**
+	 * The contribution of every position to the statistics when it has been evaluated the last time. They are needed to remove the old
+	 * contribution when a position changes.
+	 */
+	private final int[] positionFlags;
+	private final byte[] positionOwners;
+	private final byte[] positionResourceOwners;
+	private final int[] positionNearStonePlayers;
+	private int evaluatedFlags;
+	private byte evaluatedOwner;
+	private byte evaluatedResourceOwner;
+	private int evaluatedNearStonePlayers;
+
+	private final BitSet changedPositions;
+	private boolean allPositionsChanged = true; // guarded by changedPositions
+	private final BitSet positionsToUpdate;
+	private final short[] lastPartitionIdsToBuildOn;
+	private final short[] lastBlockedPartitionIds;
 
 	public AiStatistics(MainGrid mainGrid) {
 		this.mainGrid = mainGrid;
 		buildings = Building.getAllBuildings();
+		movables = Movable.getAllMovables();
 		landscapeGrid = mainGrid.getLandscapeGrid();
 		objectsGrid = mainGrid.getObjectsGrid();
 		partitionsGrid = mainGrid.getPartitionsGrid();
@@ -112,17 +156,31 @@ public class AiStatistics {
 		constructionMarksGrid = mainGrid.getConstructionMarksGrid();
 		playerStatistics = new PlayerStatistic[mainGrid.getGuiInputGrid().getNumberOfPlayers()];
 		aiMapInformation = new AiMapInformation(partitionsGrid, landscapeGrid);
+		noPlayerId = aiMapInformation.resourceAndGrassCount.length - 1;
 		for (byte i = 0; i < mainGrid.getGuiInputGrid().getNumberOfPlayers(); i++) {
 			this.playerStatistics[i] = new PlayerStatistic();
 		}
 		sortedRiversInDefaultPartition = new AiPositions();
 		sortedCuttableObjectsInDefaultPartition = new HashMap<>();
+		sortedCuttableObjectsInDefaultPartition.put(TREE_ADULT, new AiPositions());
+		sortedCuttableObjectsInDefaultPartition.put(STONE, new AiPositions());
 		sortedResourceTypes = new AiPositions[EResourceType.VALUES.length];
 		for (int i = 0; i < sortedResourceTypes.length; i++) {
 			sortedResourceTypes[i] = new AiPositions();
 		}
 		resourceCountInDefaultPartition = new long[EResourceType.VALUES.length];
 		players = J8Arrays.stream(partitionsGrid.getPlayers()).filter(Objects::nonNull).collect(Collectors.toList());
+
+		int numberOfPositions = mainGrid.getWidth() * mainGrid.getHeight();
+		positionFlags = new int[numberOfPositions];
+		positionOwners = new byte[numberOfPositions];
+		positionResourceOwners = new byte[numberOfPositions];
+		positionNearStonePlayers = new int[numberOfPositions];
+		changedPositions = new BitSet(numberOfPositions);
+		positionsToUpdate = new BitSet(numberOfPositions);
+		lastPartitionIdsToBuildOn = new short[playerStatistics.length];
+		lastBlockedPartitionIds = new short[playerStatistics.length];
+		mainGrid.addMapChangedListener(new MapChangedListener());
 	}
 
 	public byte getFlatternEffortAtPositionForBuilding(final ShortPoint2D position, final EBuildingType buildingType) {
@@ -135,16 +193,14 @@ public class AiStatistics {
 
 	public void updateStatistics() {
 		for (PlayerStatistic playerStatistic : playerStatistics) {
-			playerStatistic.clearAll();
-		}
-		sortedRiversInDefaultPartition.clear();
-		sortedCuttableObjectsInDefaultPartition.clear();
-		for (AiPositions xCoordinatesMap : sortedResourceTypes) {
-			xCoordinatesMap.clear();
+			playerStatistic.clearBuildingsAndMovables();
 		}
 
 		updateBuildingStatistics();
+		updatePartitionIdsToBuildOn();
+		updateMovableStatistics();
 		updateMapStatistics();
+		sortAllPositions();
 	}
 
 	private void updateBuildingStatistics() {
@@ -193,96 +249,287 @@ public class AiStatistics {
 		}
 	}
 
+	private void updateMovableStatistics() {
+		for (ILogicMovable movable : movables) {
+			ShortPoint2D position = movable.getPosition();
+			if (movableGrid.getMovableAt(position.x, position.y) != movable) {
+				continue; // the movable is not on the map, e.g. it is in a building
+			}
+
+			Player movablePlayer = movable.getPlayer();
+			byte movablePlayerId = movablePlayer.playerId;
+			PlayerStatistic movablePlayerStatistic = playerStatistics[movablePlayerId];
+			EMovableType movableType = movable.getMovableType();
+			Maps.computeIfAbsent(movablePlayerStatistic.movablePositions, movableType, key -> new ArrayList<>()).add(position);
+
+			if (movableType == BEARER && movable.getAction() == EMovableAction.NO_ACTION) {
+				movablePlayerStatistic.joblessBearerPositions.add(position);
+			}
+			Player player = partitionsGrid.getPlayerAt(position.x, position.y);
+			if (player != null && player.playerId != movablePlayerId && movableType.isSoldier() && getEnemiesOf(player).contains(movablePlayer)) {
+				playerStatistics[player.playerId].enemyTroopsInTown.addNoCollission(position.x, position.y);
+			}
+		}
+
+		// keep the order of a scan over the map, the users of the lists prefer the first of equally good positions
+		for (PlayerStatistic playerStatistic : playerStatistics) {
+			for (List<ShortPoint2D> positions : playerStatistic.movablePositions.values()) {
+				Collections.sort(positions, MAP_ORDER);
+			}
+			Collections.sort(playerStatistic.joblessBearerPositions, MAP_ORDER);
+		}
+	}
+
+	/**
+	 * Updates the statistics of the positions that changed since the last update. Only if the partition a player builds on changed or the
+	 * grids reported a change of unknown positions, the whole map is evaluated again.
+	 */
 	private void updateMapStatistics() {
-		aiMapInformation.clear();
-		updatePartitionIdsToBuildOn();
+		boolean partitionsToBuildOnChanged = havePartitionsToBuildOnChanged();
+
+		boolean updateAllPositions;
+		synchronized (changedPositions) {
+			updateAllPositions = allPositionsChanged || partitionsToBuildOnChanged;
+			allPositionsChanged = false;
+			if (!updateAllPositions) {
+				markInfluencedPositions();
+			}
+			changedPositions.clear();
+		}
+
+		if (updateAllPositions) {
+			positionsToUpdate.clear();
+			evaluateAllPositions();
+		} else {
+			updateMarkedPositions();
+		}
+	}
+
+	private boolean havePartitionsToBuildOnChanged() {
+		boolean changed = false;
+		for (int playerId = 0; playerId < playerStatistics.length; playerId++) {
+			PlayerStatistic playerStatistic = playerStatistics[playerId];
+			if (lastPartitionIdsToBuildOn[playerId] != playerStatistic.partitionIdToBuildOn
+					|| lastBlockedPartitionIds[playerId] != playerStatistic.blockedPartitionId) {
+				lastPartitionIdsToBuildOn[playerId] = playerStatistic.partitionIdToBuildOn;
+				lastBlockedPartitionIds[playerId] = playerStatistic.blockedPartitionId;
+				changed = true;
+			}
+		}
+		return changed;
+	}
+
+	private void markInfluencedPositions() {
 		short width = mainGrid.getWidth();
 		short height = mainGrid.getHeight();
+		for (int index = changedPositions.nextSetBit(0); index >= 0; index = changedPositions.nextSetBit(index + 1)) {
+			int x = index % width;
+			int y = index / width;
+			int minX = Math.max(0, x - CHANGE_INFLUENCE_DISTANCE);
+			int maxX = Math.min(width - 1, x + CHANGE_INFLUENCE_DISTANCE);
+			int maxY = Math.min(height - 1, y + CHANGE_INFLUENCE_DISTANCE);
+			for (int currY = Math.max(0, y - CHANGE_INFLUENCE_DISTANCE); currY <= maxY; currY++) {
+				positionsToUpdate.set(minX + currY * width, maxX + currY * width + 1);
+			}
+		}
+	}
+
+	/**
+	 * Sorts all positions, so that the computer players can read them in parallel without changing them.
+	 */
+	private void sortAllPositions() {
+		sortedRiversInDefaultPartition.ensureSorted();
+		for (AiPositions cuttableObjects : sortedCuttableObjectsInDefaultPartition.values()) {
+			cuttableObjects.ensureSorted();
+		}
+		for (AiPositions resourcePositions : sortedResourceTypes) {
+			resourcePositions.ensureSorted();
+		}
+		for (PlayerStatistic playerStatistic : playerStatistics) {
+			playerStatistic.sortPositions();
+		}
+	}
+
+	private void evaluateAllPositions() {
+		aiMapInformation.clear();
 		Arrays.fill(resourceCountInDefaultPartition, 0);
+		sortedRiversInDefaultPartition.clear();
+		for (AiPositions cuttableObjects : sortedCuttableObjectsInDefaultPartition.values()) {
+			cuttableObjects.clear();
+		}
+		for (AiPositions resourcePositions : sortedResourceTypes) {
+			resourcePositions.clear();
+		}
+		for (PlayerStatistic playerStatistic : playerStatistics) {
+			playerStatistic.clearMapStatistics();
+		}
 
-		for (short x = 0; x < width; x++) {
-			for (short y = 0; y < height; y++) {
-				Player player = partitionsGrid.getPlayerAt(x, y);
-				int mapInformationPlayerId;
-				if (player != null) {
-					mapInformationPlayerId = player.playerId;
-				} else {
-					mapInformationPlayerId = aiMapInformation.resourceAndGrassCount.length - 1;
-				}
-				if (landscapeGrid.getResourceAmountAt(x, y) > 0) {
-					EResourceType resourceType = landscapeGrid.getResourceTypeAt(x, y);
-					sortedResourceTypes[resourceType.ordinal].addNoCollission(x, y);
-					if (resourceType != EResourceType.FISH) {
-						aiMapInformation.resourceAndGrassCount[mapInformationPlayerId][resourceType.ordinal]++;
-						if (player != null) {
-							playerStatistics[player.playerId].resourceCount[resourceType.ordinal]++;
-						} else {
-							resourceCountInDefaultPartition[resourceType.ordinal]++;
-						}
-					} else if (landscapeGrid.getLandscapeTypeAt(x, y) == ELandscapeType.WATER1) {
-						int fishMapInformationPlayerId = mapInformationPlayerId;
-						if (mapInformationPlayerId == aiMapInformation.resourceAndGrassCount.length - 1) {
-							fishMapInformationPlayerId = mapInformationPlayerIdOfPosition((short) (x + 3), y);
-							if (fishMapInformationPlayerId == aiMapInformation.resourceAndGrassCount.length - 1) {
-								fishMapInformationPlayerId = mapInformationPlayerIdOfPosition((short) (x - 3), y);
-								if (fishMapInformationPlayerId == aiMapInformation.resourceAndGrassCount.length - 1) {
-									fishMapInformationPlayerId = mapInformationPlayerIdOfPosition(x, (short) (y + 3));
-									if (fishMapInformationPlayerId == aiMapInformation.resourceAndGrassCount.length - 1) {
-										fishMapInformationPlayerId = mapInformationPlayerIdOfPosition(x, (short) (y - 3));
-									}
-								}
+		short width = mainGrid.getWidth();
+		short height = mainGrid.getHeight();
+		for (short y = 0; y < height; y++) {
+			for (short x = 0; x < width; x++) {
+				evaluatePosition(x, y);
+				storeEvaluatedPosition(x + y * width);
+				applyPosition(x, y, evaluatedFlags, evaluatedOwner, evaluatedResourceOwner, evaluatedNearStonePlayers, 1);
+			}
+		}
+	}
+
+	private void updateMarkedPositions() {
+		short width = mainGrid.getWidth();
+		for (int index = positionsToUpdate.nextSetBit(0); index >= 0; index = positionsToUpdate.nextSetBit(index + 1)) {
+			short x = (short) (index % width);
+			short y = (short) (index / width);
+			evaluatePosition(x, y);
+
+			if (positionFlags[index] != evaluatedFlags || positionOwners[index] != evaluatedOwner
+					|| positionResourceOwners[index] != evaluatedResourceOwner || positionNearStonePlayers[index] != evaluatedNearStonePlayers) {
+				applyPosition(x, y, positionFlags[index], positionOwners[index], positionResourceOwners[index], positionNearStonePlayers[index], -1);
+				applyPosition(x, y, evaluatedFlags, evaluatedOwner, evaluatedResourceOwner, evaluatedNearStonePlayers, 1);
+				storeEvaluatedPosition(index);
+			}
+		}
+		positionsToUpdate.clear();
+	}
+
+	private void storeEvaluatedPosition(int index) {
+		positionFlags[index] = evaluatedFlags;
+		positionOwners[index] = evaluatedOwner;
+		positionResourceOwners[index] = evaluatedResourceOwner;
+		positionNearStonePlayers[index] = evaluatedNearStonePlayers;
+	}
+
+	/**
+	 * Calculates the contribution of the given position to the statistics and stores it in the evaluated* fields.
+	 */
+	private void evaluatePosition(short x, short y) {
+		Player player = partitionsGrid.getPlayerAt(x, y);
+		int mapInformationPlayerId = player != null ? player.playerId : noPlayerId;
+		int flags = 0;
+		int resourceOwner = -1;
+		evaluatedNearStonePlayers = 0;
+
+		if (landscapeGrid.getResourceAmountAt(x, y) > 0) {
+			EResourceType resourceType = landscapeGrid.getResourceTypeAt(x, y);
+			flags |= RESOURCE | resourceType.ordinal << RESOURCE_TYPE_SHIFT;
+			if (resourceType != EResourceType.FISH) {
+				resourceOwner = mapInformationPlayerId;
+			} else if (landscapeGrid.getLandscapeTypeAt(x, y) == ELandscapeType.WATER1) {
+				resourceOwner = mapInformationPlayerId;
+				if (resourceOwner == noPlayerId) {
+					resourceOwner = mapInformationPlayerIdOfPosition((short) (x + 3), y);
+					if (resourceOwner == noPlayerId) {
+						resourceOwner = mapInformationPlayerIdOfPosition((short) (x - 3), y);
+						if (resourceOwner == noPlayerId) {
+							resourceOwner = mapInformationPlayerIdOfPosition(x, (short) (y + 3));
+							if (resourceOwner == noPlayerId) {
+								resourceOwner = mapInformationPlayerIdOfPosition(x, (short) (y - 3));
 							}
 						}
-						aiMapInformation.resourceAndGrassCount[fishMapInformationPlayerId][resourceType.ordinal]++;
-						if (fishMapInformationPlayerId == aiMapInformation.resourceAndGrassCount.length - 1) {
-							resourceCountInDefaultPartition[resourceType.ordinal]++;
-						} else {
-							playerStatistics[fishMapInformationPlayerId].resourceCount[resourceType.ordinal]++;
-						}
 					}
 				}
-				if (landscapeGrid.getLandscapeTypeAt(x, y).isGrass()) {
-					aiMapInformation.resourceAndGrassCount[mapInformationPlayerId][AiMapInformation.GRASS_INDEX]++;
-				}
-				ILogicMovable movable = movableGrid.getMovableAt(x, y);
-				if (movable != null) {
-					Player movablePlayer = movable.getPlayer();
-					byte movablePlayerId = movablePlayer.playerId;
-					PlayerStatistic movablePlayerStatistic = playerStatistics[movablePlayerId];
-					EMovableType movableType = movable.getMovableType();
-					Maps.computeIfAbsent(movablePlayerStatistic.movablePositions, movableType, key -> new ArrayList<>()).add(movable.getPosition());
-
-					if (movableType == BEARER && movable.getAction() == EMovableAction.NO_ACTION) {
-						playerStatistics[movablePlayerId].joblessBearerPositions.add(movable.getPosition());
-					}
-					if (player != null && player.playerId != movablePlayerId && movableType.isSoldier() && getEnemiesOf(player).contains(movablePlayer)) {
-						playerStatistics[player.playerId].enemyTroopsInTown.addNoCollission(movable.getPos().x, movable.getPos().y);
-					}
-				}
-				if (player == null) {
-					updateFreeLand(x, y);
-				} else if (partitionsGrid.getPartitionIdAt(x, y) == playerStatistics[player.playerId].partitionIdToBuildOn) {
-					updatePlayerLand(x, y, player);
+			}
+		}
+		if (landscapeGrid.getLandscapeTypeAt(x, y).isGrass()) {
+			flags |= GRASS;
+		}
+		if (player == null) {
+			flags |= evaluateFreeLand(x, y);
+		} else if (partitionsGrid.getPartitionIdAt(x, y) == playerStatistics[player.playerId].partitionIdToBuildOn) {
+			flags |= evaluatePlayerLand(x, y, player);
+		}
+		if (player != null && hasNeighborIngestibleByPioneersOf(x, y, player)) {
+			if (partitionsGrid.getPartitionIdAt(x, y) == playerStatistics[player.playerId].partitionIdToBuildOn) {
+				flags |= BORDER_INGESTIBLE;
+			} else {
+				flags |= OTHER_PARTITION_BORDER;
+			}
+		}
+
+		evaluatedFlags = flags;
+		evaluatedOwner = (byte) mapInformationPlayerId;
+		evaluatedResourceOwner = (byte) resourceOwner;
+	}
+
+	/**
+	 * Adds (delta = 1) or removes (delta = -1) the contribution of a position to the statistics.
+	 */
+	private void applyPosition(short x, short y, int flags, byte owner, byte resourceOwner, int nearStonePlayers, int delta) {
+		boolean add = delta > 0;
+		if ((flags & RESOURCE) != 0) {
+			int resourceType = flags >>> RESOURCE_TYPE_SHIFT;
+			changePosition(sortedResourceTypes[resourceType], x, y, add);
+			if (resourceOwner >= 0) {
+				aiMapInformation.resourceAndGrassCount[resourceOwner][resourceType] += delta;
+				if (resourceOwner == noPlayerId) {
+					resourceCountInDefaultPartition[resourceType] += delta;
+				} else {
+					playerStatistics[resourceOwner].resourceCount[resourceType] += delta;
 				}
-				if (player != null && hasNeighborIngestibleByPioneersOf(x, y, player)) {
-					if (partitionsGrid.getPartitionIdAt(x, y) == playerStatistics[player.playerId].partitionIdToBuildOn) {
-						playerStatistics[player.playerId].borderIngestibleByPioneers.add(x, y);
-					} else {
-						playerStatistics[player.playerId].otherPartitionBorder.add(x, y);
-					}
+			}
+		}
+		if ((flags & GRASS) != 0) {
+			aiMapInformation.resourceAndGrassCount[owner][AiMapInformation.GRASS_INDEX] += delta;
+		}
+
+		if ((flags & FREE_TREE) != 0) {
+			changePosition(sortedCuttableObjectsInDefaultPartition.get(TREE_ADULT), x, y, add);
+		}
+		if ((flags & FREE_STONE) != 0) {
+			changePosition(sortedCuttableObjectsInDefaultPartition.get(STONE), x, y, add);
+			for (int playerId = 0; playerId < playerStatistics.length; playerId++) {
+				if ((nearStonePlayers & (1 << playerId)) != 0) {
+					changePosition(playerStatistics[playerId].stonesNearBy, x, y, add);
 				}
 			}
 		}
+		if ((flags & FREE_RIVER) != 0) {
+			changePosition(sortedRiversInDefaultPartition, x, y, add);
+		}
+
+		if (owner == noPlayerId) {
+			return;
+		}
+		PlayerStatistic playerStatistic = playerStatistics[owner];
+		if ((flags & PLAYER_STONE) != 0) {
+			changePosition(playerStatistic.stones, x, y, add);
+		}
+		if ((flags & PLAYER_TREE) != 0) {
+			changePosition(playerStatistic.trees, x, y, add);
+		}
+		if ((flags & PLAYER_LAND) != 0) {
+			changePosition(playerStatistic.landToBuildOn, x, y, add);
+		}
+		if ((flags & PLAYER_RIVER) != 0) {
+			changePosition(playerStatistic.rivers, x, y, add);
+		}
+		if ((flags & PLAYER_WINE) != 0) {
+			playerStatistic.wineCount += delta;
+		}
+		if ((flags & BORDER_INGESTIBLE) != 0) {
+			changePosition(playerStatistic.borderIngestibleByPioneers, x, y, add);
+		}
+		if ((flags & OTHER_PARTITION_BORDER) != 0) {
+			changePosition(playerStatistic.otherPartitionBorder, x, y, add);
+		}
+	}
+
+	private static void changePosition(AiPositions positions, short x, short y, boolean add) {
+		if (add) {
+			positions.addNoCollission(x, y);
+		} else {
+			positions.remove(x, y);
+		}
 	}
 
 	private int mapInformationPlayerIdOfPosition(short x, short y) {
 		if (!mainGrid.isInBounds(x, y)) {
-			return aiMapInformation.resourceAndGrassCount.length - 1;
+			return noPlayerId;
 		}
 
 		byte playerId = mainGrid.getPartitionsGrid().getPlayerIdAt(x, y);
 		if (playerId == -1) {
-			return aiMapInformation.resourceAndGrassCount.length - 1;
+			return noPlayerId;
 		}
 
 		return playerId;
@@ -302,28 +549,28 @@ public class AiStatistics {
 				&& !partitionsGrid.isEnforcedByTower(x, y);
 	}
 
-	private void updatePlayerLand(short x, short y, Player player) {
-		byte playerId = player.playerId;
-		PlayerStatistic playerStatistic = playerStatistics[playerId];
+	private int evaluatePlayerLand(short x, short y, Player player) {
+		int flags = 0;
 		if (mainGrid.getFlagsGrid().isProtected(x, y)) {
 			AbstractHexMapObject o = objectsGrid.getObjectsAt(x, y);
 			if (o != null) {
 				if (o.hasCuttableObject(STONE) && isCuttableByPlayer(x, y, player.playerId)) {
-					playerStatistic.stones.addNoCollission(x, y);
+					flags |= PLAYER_STONE;
 				} else if (o.hasMapObjectTypes(TREE_GROWING, TREE_ADULT) && isCuttableByPlayer(x, y, player.playerId)) {
-					playerStatistic.trees.addNoCollission(x, y);
+					flags |= PLAYER_TREE;
 				}
 			}
 		} else {
-			playerStatistic.landToBuildOn.addNoCollission(x, y);
+			flags |= PLAYER_LAND;
 		}
 		ELandscapeType landscape = landscapeGrid.getLandscapeTypeAt(x, y);
 		if (landscape.isRiver()) {
-			playerStatistic.rivers.addNoCollission(x, y);
+			flags |= PLAYER_RIVER;
 		}
 		if (objectsGrid.hasMapObjectType(x, y, EMapObjectType.WINE_GROWING, EMapObjectType.WINE_HARVESTABLE)) {
-			playerStatistic.wineCount++;
+			flags |= PLAYER_WINE;
 		}
+		return flags;
 	}
 
 	private boolean isCuttableByPlayer(short x, short y, byte playerId) {
@@ -340,41 +587,35 @@ public class AiStatistics {
 		return true;
 	}
 
-	private void updateFreeLand(short x, short y) {
+	private int evaluateFreeLand(short x, short y) {
+		int flags = 0;
 		if (objectsGrid.hasCuttableObject(x, y, TREE_ADULT)) {
-			AiPositions trees = sortedCuttableObjectsInDefaultPartition.get(TREE_ADULT);
-			if (trees == null) {
-				trees = new AiPositions();
-				sortedCuttableObjectsInDefaultPartition.put(TREE_ADULT, trees);
-			}
-			trees.addNoCollission(x, y);
+			flags |= FREE_TREE;
 		}
 		if (objectsGrid.hasCuttableObject(x, y, STONE)) {
-			AiPositions stones = sortedCuttableObjectsInDefaultPartition.get(STONE);
-			if (stones == null) {
-				stones = new AiPositions();
-				sortedCuttableObjectsInDefaultPartition.put(STONE, stones);
-			}
-			stones.addNoCollission(x, y);
-			updateNearStones(x, y);
+			flags |= FREE_STONE;
+			evaluatedNearStonePlayers = evaluateNearStonePlayers(x, y);
 		}
 		ELandscapeType landscape = landscapeGrid.getLandscapeTypeAt(x, y);
 		if (landscape.isRiver()) {
-			sortedRiversInDefaultPartition.addNoCollission(x, y);
+			flags |= FREE_RIVER;
 		}
+		return flags;
 	}
 
-	private void updateNearStones(short x, short y) {
+	private int evaluateNearStonePlayers(short x, short y) {
+		int nearStonePlayers = 0;
 		for (EDirection dir : EDirection.VALUES) {
 			int currX = dir.getNextTileX(x, NEAR_STONE_DISTANCE);
 			int currY = dir.getNextTileY(y, NEAR_STONE_DISTANCE);
 			if (mainGrid.isInBounds(currX, currY)) {
 				byte playerId = partitionsGrid.getPlayerIdAt(currX, currY);
 				if (playerId != -1 && hasPlayersBlockedPartition(playerId, x, y)) {
-					playerStatistics[playerId].stonesNearBy.addNoCollission(x, y);
+					nearStonePlayers |= 1 << playerId;
 				}
 			}
 		}
+		return nearStonePlayers;
 	}
 
 	private void updatePartitionIdsToBuildOn() {
@@ -573,21 +814,17 @@ public class AiStatistics {
 			return null;
 		}
 
-		return detectNearestPointsFromList(referencePoint, points, 1).get(0);
-	}
-
-	private static List<ShortPoint2D> detectNearestPointsFromList(final ShortPoint2D referencePoint, List<ShortPoint2D> points, int amountOfPointsToDetect) {
-		if (amountOfPointsToDetect <= 0) {
-			return Collections.emptyList();
-		}
-
-		if (points.size() <= amountOfPointsToDetect) {
-			return points;
+		// the list may be read by other computer players at the same time, so it must not be sorted here
+		ShortPoint2D nearestPoint = null;
+		int nearestDistance = Integer.MAX_VALUE;
+		for (ShortPoint2D point : points) {
+			int distance = point.getOnGridDistTo(referencePoint);
+			if (distance < nearestDistance) {
+				nearestPoint = point;
+				nearestDistance = distance;
+			}
 		}
-
-		Collections.sort(points, Comparators.comparingInt(o -> o.getOnGridDistTo(referencePoint)));
-
-		return points.subList(0, amountOfPointsToDetect);
+		return nearestPoint;
 	}
 
 	public int getNumberOfMaterialTypeForPlayer(EMaterialType type, byte playerId) {
@@ -673,7 +910,34 @@ public class AiStatistics {
 		return playerStatistics[playerId].resourceCount[resourceType.ordinal];
 	}
 
+	AiPositions getResourcesInDefaultPartition(EResourceType resourceType) {
+		return sortedResourceTypes[resourceType.ordinal];
+	}
+
+	AiPositions getCuttableObjectsInDefaultPartition(EMapObjectType cuttableObject) {
+		return sortedCuttableObjectsInDefaultPartition.get(cuttableObject);
+	}
+
+	AiPositions getRiversInDefaultPartition() {
+		return sortedRiversInDefaultPartition;
+	}
+
+	/**
+	 * Makes the next update evaluate the whole map again instead of only the changed positions.
+	 */
+	void invalidateMapStatistics() {
+		synchronized (changedPositions) {
+			allPositionsChanged = true;
+		}
+	}
+
 	List<ShortPoint2D> threatenedBorderOf(byte playerId) {
+		synchronized (playerStatistics[playerId]) {
+			return calculateThreatenedBorderOf(playerId);
+		}
+	}
+
+	private List<ShortPoint2D> calculateThreatenedBorderOf(byte playerId) {
 		if (playerStatistics[playerId].threatenedBorder == null) {
 			AiPositions borderOfOtherPlayers = new AiPositions();
 
@@ -700,6 +964,22 @@ public class AiStatistics {
 		return playerStatistics[playerId].stonesNearBy;
 	}
 
+	private final class MapChangedListener implements IMapChangedListener {
+		@Override
+		public void mapChangedAt(int x, int y) {
+			synchronized (changedPositions) {
+				changedPositions.set(x + y * mainGrid.getWidth());
+			}
+		}
+
+		@Override
+		public void mapChanged() {
+			synchronized (changedPositions) {
+				allPositionsChanged = true;
+			}
+		}
+	}
+
 	private static class PlayerStatistic {
 		ShortPoint2D referencePosition;
 		boolean isAlive;
@@ -733,11 +1013,31 @@ public class AiStatistics {
 			clearIntegers();
 		}
 
-		public void clearAll() {
+		void clearBuildingsAndMovables() {
 			isAlive = false;
 			materials = null;
 			buildingPositions.clear();
 			enemyTroopsInTown.clear();
+			movablePositions.clear();
+			joblessBearerPositions.clear();
+			farmWorkAreas.clear();
+			wineGrowerWorkAreas.clear();
+			threatenedBorder = null;
+			clearIntegers();
+		}
+
+		void sortPositions() {
+			landToBuildOn.ensureSorted();
+			borderIngestibleByPioneers.ensureSorted();
+			otherPartitionBorder.ensureSorted();
+			stones.ensureSorted();
+			stonesNearBy.ensureSorted();
+			trees.ensureSorted();
+			rivers.ensureSorted();
+			enemyTroopsInTown.ensureSorted();
+		}
+
+		void clearMapStatistics() {
 			stones.clear();
 			stonesNearBy.clear();
 			trees.clear();
@@ -745,22 +1045,16 @@ public class AiStatistics {
 			landToBuildOn.clear();
 			borderIngestibleByPioneers.clear();
 			otherPartitionBorder.clear();
-			movablePositions.clear();
-			joblessBearerPositions.clear();
-			farmWorkAreas.clear();
-			wineGrowerWorkAreas.clear();
-			threatenedBorder = null;
-			clearIntegers();
+			Arrays.fill(resourceCount, 0);
+			wineCount = 0;
 		}
 
 		private void clearIntegers() {
 			Arrays.fill(totalBuildingsNumbers, 0);
 			Arrays.fill(buildingsNumbers, 0);
-			Arrays.fill(resourceCount, 0);
 			numberOfNotFinishedBuildings = 0;
 			numberOfTotalBuildings = 0;
 			numberOfNotOccupiedMilitaryBuildings = 0;
-			wineCount = 0;
 			partitionIdToBuildOn = Short.MIN_VALUE;
 			blockedPartitionId = Short.MIN_VALUE;
 		}
@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) 2017
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.ai.highlevel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jsettlers.network.client.interfaces.ITaskScheduler;
+import jsettlers.network.client.task.packets.TaskPacket;
+
+/**
+ * Collects the tasks scheduled by one computer player while its rules are applied. The {@link AiExecutor} submits the collected tasks of all
+ * computer players in a fixed order afterwards, so the order of the tasks does not depend on the order the rules have been finished in.
+ */
+class AiTaskCollector implements ITaskScheduler {
+	private final List<TaskPacket> tasks = new ArrayList<>();
+
+	@Override
+	public void scheduleTask(TaskPacket task) {
+		tasks.add(task);
+	}
+
+	void submitTo(ITaskScheduler taskScheduler) {
+		for (TaskPacket task : tasks) {
+			taskScheduler.scheduleTask(task);
+		}
+		tasks.clear();
+	}
+}
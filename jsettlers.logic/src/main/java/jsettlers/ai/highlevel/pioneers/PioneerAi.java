@@ -27,6 +27,7 @@ import jsettlers.ai.highlevel.pioneers.target.TreesForLumberJackTargetFinder;
 import jsettlers.common.buildings.EBuildingType;
 import jsettlers.common.landscape.EResourceType;
 import jsettlers.common.position.ShortPoint2D;
+import jsettlers.logic.constants.ExtendedRandom;
 import jsettlers.logic.constants.MatchConstants;
 
 /**
@@ -38,6 +39,10 @@ public class PioneerAi {
 	private final byte playerId;
 	private final int searchDistance;
 	private final AbstractPioneerTargetFinder[] targetFinders;
+	/**
+	 * Own random of this computer player, so that the random numbers do not depend on the order the computer players are executed in.
+	 */
+	private final ExtendedRandom random;
 	private ShortPoint2D lastResourceTarget;
 
 	public PioneerAi(AiStatistics aiStatistics, byte playerId) {
@@ -45,6 +50,7 @@ public class PioneerAi {
 		this.playerId = playerId;
 		this.searchDistance = aiStatistics.getMainGrid().getWidth() / 2;
 		this.lastResourceTarget = aiStatistics.getPositionOfPartition(playerId);
+		this.random = new ExtendedRandom(MatchConstants.aiRandom().nextLong());
 
 		this.targetFinders = new AbstractPioneerTargetFinder[] {
 				new TreesForLumberJackTargetFinder(aiStatistics, playerId, searchDistance, 10),
@@ -64,7 +70,7 @@ public class PioneerAi {
 		if (newTarget == null) {
 			AiPositions border = aiStatistics.getBorderIngestibleByPioneersOf(playerId);
 			if (border.size() > 1) {
-				lastResourceTarget = border.get(MatchConstants.aiRandom().nextInt(border.size()));
+				lastResourceTarget = border.get(random.nextInt(border.size()));
 			}
 		} else {
 			lastResourceTarget = newTarget;
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.assignment;
+
+import java.util.Arrays;
+
+/**
+ * Solves the assignment problem: Every row is assigned to a distinct column, so that the sum of the costs of the chosen cells is minimal. The
+ * implementation uses the Hungarian method with potentials and runs in O(n² * m) for n rows and m columns.
+ */
+public final class MinCostAssignment {
+	private static final int INFINITE = Integer.MAX_VALUE / 2;
+
+	private MinCostAssignment() {
+	}
+
+	/**
+	 * Calculates the assignment with minimal total costs.
+	 *
+	 * @param costs
+	 * 		costs[row][column] are the costs of assigning the row to the column. All rows must have the same length, which must be at least the number
+	 * 		of rows. The costs must be non-negative and small enough that their sum does not overflow.
+	 * @return An array containing the assigned column for every row. If multiple optimal assignments exist, the result is still deterministic.
+	 */
+	public static int[] solve(int[][] costs) {
+		int rows = costs.length;
+		if (rows == 0) {
+			return new int[0];
+		}
+		int columns = costs[0].length;
+		if (columns < rows) {
+			throw new IllegalArgumentException("There must be at least as many columns as rows.");
+		}
+
+		// arrays are 1-based, column 0 is a virtual column used as root of the augmenting paths
+		int[] rowPotentials = new int[rows + 1];
+		int[] columnPotentials = new int[columns + 1];
+		int[] rowOfColumn = new int[columns + 1];
+		int[] previousColumn = new int[columns + 1];
+		int[] minSlack = new int[columns + 1];
+		boolean[] visited = new boolean[columns + 1];
+
+		for (int row = 1; row <= rows; row++) {
+			rowOfColumn[0] = row;
+			int currentColumn = 0;
+			Arrays.fill(minSlack, INFINITE);
+			Arrays.fill(visited, false);
+
+			do {
+				visited[currentColumn] = true;
+				int currentRow = rowOfColumn[currentColumn];
+				int delta = INFINITE;
+				int nextColumn = 0;
+
+				for (int column = 1; column <= columns; column++) {
+					if (!visited[column]) {
+						int slack = costs[currentRow - 1][column - 1] - rowPotentials[currentRow] - columnPotentials[column];
+						if (slack < minSlack[column]) {
+							minSlack[column] = slack;
+							previousColumn[column] = currentColumn;
+						}
+						if (minSlack[column] < delta) {
+							delta = minSlack[column];
+							nextColumn = column;
+						}
+					}
+				}
+
+				for (int column = 0; column <= columns; column++) {
+					if (visited[column]) {
+						rowPotentials[rowOfColumn[column]] += delta;
+						columnPotentials[column] -= delta;
+					} else {
+						minSlack[column] -= delta;
+					}
+				}
+				currentColumn = nextColumn;
+			} while (rowOfColumn[currentColumn] != 0);
+
+			do { // augment along the found path
+				int column = previousColumn[currentColumn];
+				rowOfColumn[currentColumn] = rowOfColumn[column];
+				currentColumn = column;
+			} while (currentColumn != 0);
+		}
+
+		int[] assignment = new int[rows];
+		for (int column = 1; column <= columns; column++) {
+			if (rowOfColumn[column] != 0) {
+				assignment[rowOfColumn[column] - 1] = column - 1;
+			}
+		}
+		return assignment;
+	}
+}
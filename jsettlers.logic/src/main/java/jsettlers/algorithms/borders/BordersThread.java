@@ -31,7 +31,7 @@ public class BordersThread implements Runnable {
 	private final LinkedBlockingQueue<ShortPoint2D> positionsQueue = new LinkedBlockingQueue<>();
 	private final Thread bordersThread;
 
-	private boolean canceled = false;
+	private volatile boolean canceled = false;
 
 	/**
 	 * This constructor creates a new instance of {@link BordersThread} and automatically launches a thread for it called "bordersThread".
@@ -109,10 +109,16 @@ public class BordersThread implements Runnable {
 	}
 
 	public void checkPosition(ShortPoint2D position) {
-		this.positionsQueue.offer(position);
+		if (!canceled) {
+			this.positionsQueue.offer(position);
+		}
 	}
 
 	public void checkArea(int x, int y, short width, short height) {
+		if (canceled) {
+			return;
+		}
+
 		int endX = x + width;
 		int endY = y + height;
 
@@ -126,6 +132,7 @@ public class BordersThread implements Runnable {
 	public void cancel() {
 		this.canceled = true;
 		bordersThread.interrupt();
+		positionsQueue.clear();
 	}
 
 	public void start() {
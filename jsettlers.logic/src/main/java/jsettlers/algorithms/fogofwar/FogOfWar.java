@@ -17,10 +17,14 @@ package jsettlers.algorithms.fogofwar;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import jsettlers.algorithms.fogofwar.CachedViewCircle.CachedViewCircleIterator;
 import jsettlers.common.CommonConstants;
+import jsettlers.common.map.IGraphicsBackgroundListener;
 import jsettlers.common.player.IPlayer;
 import jsettlers.common.player.IPlayerable;
 import jsettlers.common.position.ShortPoint2D;
@@ -29,36 +33,96 @@ import jsettlers.logic.constants.MatchConstants;
 
 /**
  * This class holds the fog of war for a given map and team.
+ * <p>
+ * The fog of war is updated incrementally: For every position, the number of observers currently seeing it is counted. Movables publish their
+ * position changes via {@link #observerChanged(IViewDistancable)}, buildings are compared with their last applied state once per update. Only the
+ * view circles of changed observers are removed and added again. Positions nobody sees any more are dimmed down lazily: The sight and the time it
+ * was last seen are stored and the dimmed value is only calculated when a new snapshot is published.
+ * <p>
+ * All values are stored row by row in flat arrays, because that is the order the renderer queries them. {@link #getVisibleStatus(int, int)} reads
+ * from the last published snapshot and does not need any locking. Every position whose visible status changed with a new snapshot is reported to the
+ * {@link IGraphicsBackgroundListener}, so the renderer only needs to update these positions. A new snapshot only recalculates the positions changed
+ * by an observer and the positions that are still dimming down, it never scans the whole map.
  * 
  * @author Andreas Eberle
  */
 public final class FogOfWar implements Serializable {
-	private static final long serialVersionUID = 1877994785778678510L;
+	private static final long serialVersionUID = -2386102913441851553L; // savegames with the old layout are rejected by the GameSerializer
 	/**
 	 * Longest distance any unit may look
 	 */
 	private static final byte MAX_VIEW_DISTANCE = 65;
 	static final int PADDING = 10;
 
+	private static final byte DIM_DOWN_SPEED = 10;
+	private static final long UPDATE_INTERVAL = 100L;
+	private static final int UPDATES_PER_DIM_STEP = 8;
+
 	private final byte team;
 
 	private final short width;
 	private final short height;
-	private byte[][] sight;
+	/**
+	 * Sight of every position at the time it was last seen. Positions currently seen by an observer are visible, positions no longer seen are
+	 * dimmed down depending on {@link #lastSeen}. The index of a position is x + y * width.
+	 */
+	private byte[] sight;
+
+	private transient short[] observers;
+	private transient int[] lastSeen;
+	private transient int dimTime;
+	private transient volatile byte[] visibleSnapshot;
+	private transient byte[] snapshotBuffer;
+	/**
+	 * Positions whose sight changed since the last snapshot.
+	 */
+	private transient IndexSet changedPositions;
+	/**
+	 * Positions changed with the last snapshot. The snapshot buffer does not contain them yet.
+	 */
+	private transient IndexSet publishedPositions;
+	/**
+	 * Positions nobody sees that are not dimmed down to {@link CommonConstants#FOG_OF_WAR_EXPLORED} yet.
+	 */
+	private transient IndexSet dimmingPositions;
+	private transient int publishedDimTime;
+	private transient ConcurrentLinkedQueue<IViewDistancable> changedObservers;
 
 	private transient boolean enabled = Constants.FOG_OF_WAR_DEFAULT_ENABLED;
 	private transient IFogOfWarGrid grid;
+	private transient IGraphicsBackgroundListener backgroundListener;
 	private transient boolean canceled;
 
 	public FogOfWar(short width, short height, IPlayer player) {
 		this.width = width;
 		this.height = height;
 		this.team = player.getTeamId();
-		this.sight = new byte[width][height];
+		this.sight = new byte[width * height];
+		initTransients();
+	}
+
+	private void initTransients() {
+		observers = new short[width * height];
+		lastSeen = new int[width * height];
+		changedPositions = new IndexSet(width * height);
+		publishedPositions = new IndexSet(width * height);
+		dimmingPositions = new IndexSet(width * height);
+		changedObservers = new ConcurrentLinkedQueue<>();
+
+		byte[] snapshot = new byte[width * height];
+		for (int index = 0; index < snapshot.length; index++) {
+			snapshot[index] = getSight(index);
+			if (snapshot[index] > CommonConstants.FOG_OF_WAR_EXPLORED) {
+				dimmingPositions.add(index);
+			}
+		}
+		visibleSnapshot = snapshot;
+		snapshotBuffer = snapshot.clone();
 	}
 
 	private void readObject(ObjectInputStream ois) throws ClassNotFoundException, IOException {
 		ois.defaultReadObject();
+		initTransients();
 		enabled = true;
 	}
 
@@ -79,28 +143,144 @@ public final class FogOfWar implements Serializable {
 	 */
 	public final byte getVisibleStatus(int x, int y) {
 		if (enabled) {
-			return (byte) Math.min(sight[x][y], CommonConstants.FOG_OF_WAR_VISIBLE);
+			return visibleSnapshot[x + y * width];
 		} else {
 			return CommonConstants.FOG_OF_WAR_VISIBLE;
 		}
 	}
 
+	/**
+	 * @return The current sight of the position, ignoring the published snapshot.
+	 */
+	final byte getSight(int index) {
+		if (observers[index] > 0) {
+			return CommonConstants.FOG_OF_WAR_VISIBLE;
+		}
+
+		byte currSight = sight[index];
+		if (currSight <= CommonConstants.FOG_OF_WAR_EXPLORED) {
+			return currSight;
+		}
+
+		return (byte) Math.max(currSight - DIM_DOWN_SPEED * (dimTime - lastSeen[index]), CommonConstants.FOG_OF_WAR_EXPLORED);
+	}
+
+	/**
+	 * Dims down all positions nobody sees by one step.
+	 */
+	final void stepDimTime() {
+		dimTime++;
+	}
+
+	/**
+	 * Calculates the current sight of the changed and dimming positions into the snapshot buffer and publishes it for
+	 * {@link #getVisibleStatus(int, int)}.
+	 */
+	final void publishSnapshot() {
+		final byte[] buffer = snapshotBuffer;
+		final byte[] oldSnapshot = visibleSnapshot;
+
+		IndexSet published = publishedPositions;
+		for (int i = 0; i < published.size; i++) {
+			int index = published.indices[i];
+			buffer[index] = oldSnapshot[index];
+		}
+		published.clear();
+
+		IndexSet changed = changedPositions;
+		if (publishedDimTime != dimTime) {
+			publishedDimTime = dimTime;
+			IndexSet dimming = dimmingPositions;
+			for (int i = 0; i < dimming.size; i++) {
+				changed.add(dimming.indices[i]);
+			}
+			dimming.clear();
+		}
+
+		for (int i = 0; i < changed.size; i++) {
+			int index = changed.indices[i];
+			byte newSight = getSight(index);
+			buffer[index] = newSight;
+			if (newSight > CommonConstants.FOG_OF_WAR_EXPLORED && observers[index] == 0) {
+				dimmingPositions.add(index);
+			}
+		}
+
+		snapshotBuffer = oldSnapshot;
+		visibleSnapshot = buffer;
+		changedPositions = published;
+		publishedPositions = changed;
+
+		IGraphicsBackgroundListener listener = backgroundListener;
+		if (listener != null && enabled) {
+			for (int i = 0; i < changed.size; i++) {
+				int index = changed.indices[i];
+				if (oldSnapshot[index] != buffer[index]) {
+					listener.backgroundChangedAt(index % width, index / width);
+				}
+			}
+		}
+	}
+
+	private void reportAllChanged() {
+		IGraphicsBackgroundListener listener = backgroundListener;
+		if (listener != null) {
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					listener.backgroundChangedAt(x, y);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sets the listener that is informed about every position whose visible status changed.
+	 * 
+	 * @param backgroundListener
+	 *            The listener or <code>null</code> to remove it.
+	 */
+	public void setBackgroundListener(IGraphicsBackgroundListener backgroundListener) {
+		this.backgroundListener = backgroundListener;
+	}
+
+	/**
+	 * Informs the fog of war that the position or view distance of the given observer might have changed. The change is applied asynchronously by the
+	 * fog of war thread.
+	 * 
+	 * @param observer
+	 *            The changed observer.
+	 */
+	public void observerChanged(IViewDistancable observer) {
+		if (enabled && grid != null && !canceled && isPlayerOK(observer)) {
+			changedObservers.offer(observer);
+		}
+	}
+
 	private boolean isPlayerOK(IPlayerable playerable) {
 		return (MatchConstants.ENABLE_ALL_PLAYER_FOG_OF_WAR || (playerable.getPlayer().getTeamId() == team));
 	}
 
 	public final void toggleEnabled() {
 		enabled = !enabled;
+		reportAllChanged();
 	}
 
 	public void setEnabled(boolean enabled) {
-		this.enabled = enabled;
+		if (this.enabled != enabled) {
+			this.enabled = enabled;
+			reportAllChanged();
+		}
 	}
 
 	final class NewFoWThread extends Thread {
-		private static final byte DIM_DOWN_SPEED = 10;
 		private final CircleDrawer drawer = new CircleDrawer();
-		private byte[][] buffer = new byte[width][height];
+		private final IdentityHashMap<IViewDistancable, AppliedCircle> appliedMovables = new IdentityHashMap<>();
+		private final IdentityHashMap<IViewDistancable, AppliedCircle> appliedBuildings = new IdentityHashMap<>();
+
+		private boolean resyncNeeded = true;
+		private int buildingsUpdate;
+		private int updatesSinceDim;
+		private boolean dimStepped;
 
 		NewFoWThread() {
 			super("FoWThread");
@@ -115,56 +295,119 @@ public final class FogOfWar implements Serializable {
 				// StopWatch watch = new MilliStopWatch();
 				// watch.restart();
 				if (enabled) {
-					rebuildSight();
+					updateSight();
+				} else {
+					changedObservers.clear();
+					resyncNeeded = true;
 				}
 				// watch.stop("NewFoWThread needed: ");
 
-				mySleep(800L);
+				mySleep(UPDATE_INTERVAL);
 			}
 		}
 
-		private void rebuildSight() {
-			drawer.setBuffer(buffer);
+		private void updateSight() {
+			if (++updatesSinceDim >= UPDATES_PER_DIM_STEP) {
+				updatesSinceDim = 0;
+				stepDimTime();
+				dimStepped = true;
+			}
 
-			for (short x = 0; x < width; x++) {
-				for (short y = 0; y < height; y++) {
-					byte currSight = sight[x][y];
+			if (resyncNeeded) {
+				resyncNeeded = false;
+				resync();
+			}
 
-					if (currSight >= CommonConstants.FOG_OF_WAR_EXPLORED) {
-						byte newSight = (byte) (currSight - DIM_DOWN_SPEED);
-						if (newSight < CommonConstants.FOG_OF_WAR_EXPLORED) {
-							buffer[x][y] = CommonConstants.FOG_OF_WAR_EXPLORED;
-						} else {
-							buffer[x][y] = newSight;
-						}
-					} else {
-						buffer[x][y] = sight[x][y];
-					}
+			IViewDistancable observer;
+			while ((observer = changedObservers.poll()) != null) {
+				updateObserver(appliedMovables, observer);
+			}
+
+			updateBuildings();
+
+			boolean dimming = dimStepped && dimmingPositions.size > 0;
+			if (drawer.changed || dimming) {
+				publishSnapshot();
+				drawer.changed = false;
+			}
+			dimStepped = false;
+		}
+
+		/**
+		 * Removes all applied circles and adds the circles of all current movables. This is needed on start and after the fog of war was disabled,
+		 * because no changes are recorded while it is disabled.
+		 */
+		private void resync() {
+			removeAll(appliedMovables);
+			removeAll(appliedBuildings);
+			changedObservers.clear();
+
+			for (IViewDistancable movable : grid.getMovableViewDistancables()) {
+				if (isPlayerOK(movable)) {
+					updateObserver(appliedMovables, movable);
 				}
 			}
+		}
 
-			ConcurrentLinkedQueue<? extends IViewDistancable> buildings = grid.getBuildingViewDistancables();
-			applyViewDistances(buildings);
+		private void removeAll(IdentityHashMap<IViewDistancable, AppliedCircle> appliedCircles) {
+			for (AppliedCircle applied : appliedCircles.values()) {
+				drawer.removeCircle(applied.x, applied.y, applied.circle);
+			}
+			appliedCircles.clear();
+		}
+
+		private void updateBuildings() {
+			buildingsUpdate++;
 
-			ConcurrentLinkedQueue<? extends IViewDistancable> movables = grid.getMovableViewDistancables();
-			applyViewDistances(movables);
+			for (IViewDistancable building : grid.getBuildingViewDistancables()) {
+				AppliedCircle applied = updateObserver(appliedBuildings, building);
+				if (applied != null) {
+					applied.update = buildingsUpdate;
+				}
+			}
 
-			byte[][] temp = sight;
-			sight = buffer;
-			buffer = temp;
+			for (Iterator<AppliedCircle> iterator = appliedBuildings.values().iterator(); iterator.hasNext();) {
+				AppliedCircle applied = iterator.next();
+				if (applied.update != buildingsUpdate) { // the building does not exist anymore
+					drawer.removeCircle(applied.x, applied.y, applied.circle);
+					iterator.remove();
+				}
+			}
 		}
 
-		private void applyViewDistances(ConcurrentLinkedQueue<? extends IViewDistancable> objects) {
-			for (IViewDistancable curr : objects) {
-				if (isPlayerOK(curr)) {
-					short distance = curr.getViewDistance();
-					if (distance > 0) {
-						ShortPoint2D pos = curr.getPos();
-						if (pos != null)
-							drawer.drawCircleToBuffer(pos.x, pos.y, distance);
-					}
+		/**
+		 * Compares the current state of the given observer with the circle applied for it and updates the observer counts if they differ.
+		 * 
+		 * @return The circle now applied for the observer or null if it currently does not see anything.
+		 */
+		private AppliedCircle updateObserver(IdentityHashMap<IViewDistancable, AppliedCircle> appliedCircles, IViewDistancable observer) {
+			AppliedCircle applied = appliedCircles.get(observer);
+
+			ShortPoint2D pos = observer.getPos();
+			short distance = observer.getViewDistance();
+			if (pos == null || distance <= 0 || !isPlayerOK(observer)) {
+				if (applied != null) {
+					drawer.removeCircle(applied.x, applied.y, applied.circle);
+					appliedCircles.remove(observer);
 				}
+				return null;
+			}
+
+			CachedViewCircle circle = drawer.getCachedCircle(distance);
+			if (applied == null) {
+				applied = new AppliedCircle();
+				appliedCircles.put(observer, applied);
+			} else if (applied.x == pos.x && applied.y == pos.y && applied.circle == circle) {
+				return applied; // nothing changed
+			} else {
+				drawer.removeCircle(applied.x, applied.y, applied.circle);
 			}
+
+			applied.x = pos.x;
+			applied.y = pos.y;
+			applied.circle = circle;
+			drawer.addCircle(pos.x, pos.y, circle);
+			return applied;
 		}
 
 		private void mySleep(long ms) {
@@ -177,38 +420,73 @@ public final class FogOfWar implements Serializable {
 
 	}
 
+	/**
+	 * The view circle currently applied to the observer counts for an observer.
+	 */
+	static final class AppliedCircle {
+		int x;
+		int y;
+		CachedViewCircle circle;
+		int update;
+	}
+
 	final class CircleDrawer {
-		private byte[][] buffer;
 		private final CachedViewCircle[] cachedCircles = new CachedViewCircle[MAX_VIEW_DISTANCE];
-
-		public final void setBuffer(byte[][] buffer) {
-			this.buffer = buffer;
-		}
+		boolean changed;
 
 		/**
-		 * Draws a circle to the buffer line. Each point is only brightened and onlydrawn if its x coordinate is in [0, mapWidth - 1] and its computed y coordinate is bigger than 0.
+		 * Adds an observer with the given circle. Each point is only changed if its x coordinate is in [0, mapWidth - 1] and its computed y coordinate
+		 * is bigger than 0. Points inside the view distance get an additional observer, points in the padding are only brightened.
 		 */
-		final void drawCircleToBuffer(int bufferX, int bufferY, int viewDistance) {
-			CachedViewCircle circle = getCachedCircle(viewDistance);
-			CachedViewCircleIterator iterator = circle.iterator(bufferX, bufferY);
+		final void addCircle(int centerX, int centerY, CachedViewCircle circle) {
+			CachedViewCircleIterator iterator = circle.iterator(centerX, centerY);
 
 			while (iterator.hasNext()) {
 				final int x = iterator.getCurrX();
 				final int y = iterator.getCurrY();
 
 				if (x >= 0 && x < width && y > 0 && y < height) {
-					byte oldSight = buffer[x][y];
-					if (oldSight < CommonConstants.FOG_OF_WAR_VISIBLE) {
-						byte newSight = iterator.getCurrSight();
-						if (oldSight < newSight) {
-							buffer[x][y] = newSight;
+					final int index = x + y * width;
+					byte newSight = iterator.getCurrSight();
+					if (newSight >= CommonConstants.FOG_OF_WAR_VISIBLE) {
+						if (observers[index]++ == 0) {
+							sight[index] = CommonConstants.FOG_OF_WAR_VISIBLE;
+							changedPositions.add(index);
 						}
+					} else if (getSight(index) < newSight) {
+						sight[index] = newSight;
+						lastSeen[index] = dimTime;
+						changedPositions.add(index);
 					}
 				}
 			}
+			changed = true;
 		}
 
-		private CachedViewCircle getCachedCircle(int viewDistance) {
+		/**
+		 * Removes an observer added with {@link #addCircle(int, int, CachedViewCircle)}. Points no observer sees any more start dimming down.
+		 */
+		final void removeCircle(int centerX, int centerY, CachedViewCircle circle) {
+			CachedViewCircleIterator iterator = circle.iterator(centerX, centerY);
+
+			while (iterator.hasNext()) {
+				final int x = iterator.getCurrX();
+				final int y = iterator.getCurrY();
+
+				if (x >= 0 && x < width && y > 0 && y < height && iterator.getCurrSight() >= CommonConstants.FOG_OF_WAR_VISIBLE) {
+					final int index = x + y * width;
+					if (--observers[index] <= 0) {
+						observers[index] = 0;
+						sight[index] = CommonConstants.FOG_OF_WAR_VISIBLE;
+						lastSeen[index] = dimTime;
+						changedPositions.add(index);
+					}
+				}
+			}
+			changed = true;
+		}
+
+		CachedViewCircle getCachedCircle(int viewDistance) {
 			int radius = Math.min(viewDistance + PADDING, MAX_VIEW_DISTANCE - 1);
 			if (cachedCircles[radius] == null) {
 				cachedCircles[radius] = new CachedViewCircle(radius);
@@ -221,4 +499,34 @@ public final class FogOfWar implements Serializable {
 	public void cancel() {
 		this.canceled = true;
 	}
+
+	/**
+	 * Set of position indices that can be iterated in the order they have been added.
+	 */
+	private static final class IndexSet {
+		private final boolean[] contained;
+		private int[] indices = new int[64];
+		private int size;
+
+		IndexSet(int positions) {
+			contained = new boolean[positions];
+		}
+
+		void add(int index) {
+			if (!contained[index]) {
+				contained[index] = true;
+				if (size == indices.length) {
+					indices = Arrays.copyOf(indices, size * 2);
+				}
+				indices[size++] = index;
+			}
+		}
+
+		void clear() {
+			for (int i = 0; i < size; i++) {
+				contained[indices[i]] = false;
+			}
+			size = 0;
+		}
+	}
 }
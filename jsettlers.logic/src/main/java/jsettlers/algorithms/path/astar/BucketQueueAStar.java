@@ -14,7 +14,7 @@
  *******************************************************************************/
 package jsettlers.algorithms.path.astar;
 
-import java.util.BitSet;
+import java.util.Arrays;
 
 import jsettlers.algorithms.path.IPathCalculatable;
 import jsettlers.algorithms.path.InvalidStartPositionException;
@@ -26,6 +26,9 @@ import jsettlers.common.position.ShortPoint2D;
 
 /**
  * AStar algorithm to find paths from A to B on a hex grid
+ * <p>
+ * The open and closed flags of the positions are stored as generation stamps, so a search only needs to touch the positions it visits and the
+ * work arrays never need to be cleared between searches.
  * 
  * @author Andreas Eberle
  * 
@@ -39,8 +42,12 @@ public final class BucketQueueAStar extends AbstractAStar {
 	private final short height;
 	private final short width;
 
-	private final BitSet openBitSet;
-	private final BitSet closedBitSet;
+	/**
+	 * {@link #openStamp} if the position is open in the current search, {@link #openStamp} + 1 if it is closed and anything smaller if it has not
+	 * been visited yet.
+	 */
+	private final int[] nodeStamps;
+	private int openStamp = 0;
 
 	final float[] costs;
 
@@ -55,8 +62,7 @@ public final class BucketQueueAStar extends AbstractAStar {
 
 		this.open = new ListMinBucketQueue(width * height);
 
-		this.openBitSet = new BitSet(width * height);
-		this.closedBitSet = new BitSet(width * height);
+		this.nodeStamps = new int[width * height];
 		this.costs = new float[width * height];
 
 		this.depthParentHeap = new int[width * height * 2];
@@ -85,8 +91,7 @@ public final class BucketQueueAStar extends AbstractAStar {
 
 		final int targetFlatIdx = getFlatIdx(tx, ty);
 
-		closedBitSet.clear();
-		openBitSet.clear();
+		startNewSearch();
 
 		open.clear();
 		boolean found = false;
@@ -114,10 +119,10 @@ public final class BucketQueueAStar extends AbstractAStar {
 				if (isValidPosition(requester, x, y, neighborX, neighborY, blockedAtStartPartition)) {
 					final int flatNeighborIdx = getFlatIdx(neighborX, neighborY);
 
-					if (!closedBitSet.get(flatNeighborIdx)) {
+					if (nodeStamps[flatNeighborIdx] != openStamp + 1) { // not closed
 						final float newCosts = currPositionCosts + map.getCost(x, y, neighborX, neighborY);
 
-						if (openBitSet.get(flatNeighborIdx)) {
+						if (nodeStamps[flatNeighborIdx] == openStamp) {
 							final float oldCosts = costs[flatNeighborIdx];
 
 							if (oldCosts > newCosts) {
@@ -133,7 +138,7 @@ public final class BucketQueueAStar extends AbstractAStar {
 							costs[flatNeighborIdx] = newCosts;
 							depthParentHeap[getDepthIdx(flatNeighborIdx)] = depthParentHeap[getDepthIdx(currFlatIdx)] + 1;
 							depthParentHeap[getParentIdx(flatNeighborIdx)] = currFlatIdx;
-							openBitSet.set(flatNeighborIdx);
+							nodeStamps[flatNeighborIdx] = openStamp;
 							open.insert(flatNeighborIdx, newCosts + getHeuristicCost(neighborX, neighborY, tx, ty));
 
 							map.markAsOpen(neighborX, neighborY);
@@ -162,6 +167,14 @@ public final class BucketQueueAStar extends AbstractAStar {
 		return null;
 	}
 
+	private final void startNewSearch() {
+		if (openStamp >= Integer.MAX_VALUE - 2) { // the stamps overflow => reset them
+			Arrays.fill(nodeStamps, 0);
+			openStamp = 0;
+		}
+		openStamp += 2;
+	}
+
 	private static final int getDepthIdx(int flatIdx) {
 		return 2 * flatIdx;
 	}
@@ -171,7 +184,7 @@ public final class BucketQueueAStar extends AbstractAStar {
 	}
 
 	private final void setClosed(int x, int y) {
-		closedBitSet.set(getFlatIdx(x, y));
+		nodeStamps[getFlatIdx(x, y)] = openStamp + 1;
 		map.markAsClosed(x, y);
 	}
 
@@ -182,7 +195,7 @@ public final class BucketQueueAStar extends AbstractAStar {
 		costs[flatIdx] = 0;
 
 		open.insert(flatIdx, 0 + getHeuristicCost(sx, sy, tx, ty));
-		openBitSet.set(flatIdx);
+		nodeStamps[flatIdx] = openStamp;
 	}
 
 	private final boolean isValidPosition(IPathCalculatable requester, int fromX, int fromY, int toX, int toY, short blockedAtStartPartition) {
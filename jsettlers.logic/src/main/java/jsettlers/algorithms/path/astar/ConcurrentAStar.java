@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.path.astar;
+
+import jsettlers.algorithms.path.IPathCalculatable;
+import jsettlers.algorithms.path.Path;
+import jsettlers.common.Color;
+import jsettlers.common.position.ShortPoint2D;
+
+/**
+ * AStar that can be used by several threads at the same time. Every thread lazily gets its own {@link BucketQueueAStar} workspace, which is
+ * reused for all following searches of that thread.
+ * <p>
+ * The map must not be changed while searches are running. The workspaces do not mark the searched positions on the map, because the debug colors
+ * are not thread safe.
+ */
+public final class ConcurrentAStar extends AbstractAStar {
+	private final ThreadLocal<BucketQueueAStar> workspaces;
+
+	public ConcurrentAStar(final IAStarPathMap map, final short width, final short height) {
+		this.workspaces = new ThreadLocal<BucketQueueAStar>() {
+			@Override
+			protected BucketQueueAStar initialValue() {
+				return new BucketQueueAStar(new UnmarkedPathMap(map), width, height);
+			}
+		};
+	}
+
+	@Override
+	public Path findPath(IPathCalculatable requester, short sx, short sy, short tx, short ty) {
+		return workspaces.get().findPath(requester, sx, sy, tx, ty);
+	}
+
+	@Override
+	public Path findPath(IPathCalculatable requester, ShortPoint2D targetPos) {
+		return workspaces.get().findPath(requester, targetPos);
+	}
+
+	/**
+	 * Delegates to a map but ignores the debug markings.
+	 */
+	private static final class UnmarkedPathMap implements IAStarPathMap {
+		private final IAStarPathMap map;
+
+		UnmarkedPathMap(IAStarPathMap map) {
+			this.map = map;
+		}
+
+		@Override
+		public boolean isBlocked(IPathCalculatable requester, int x, int y) {
+			return map.isBlocked(requester, x, y);
+		}
+
+		@Override
+		public float getCost(int sx, int sy, int tx, int ty) {
+			return map.getCost(sx, sy, tx, ty);
+		}
+
+		@Override
+		public void markAsOpen(int x, int y) {
+		}
+
+		@Override
+		public void markAsClosed(int x, int y) {
+		}
+
+		@Override
+		public void setDebugColor(int x, int y, Color color) {
+		}
+
+		@Override
+		public short getBlockedPartition(int x, int y) {
+			return map.getBlockedPartition(x, y);
+		}
+	}
+}
@@ -0,0 +1,465 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.path.astar.hierarchical;
+
+import java.util.Arrays;
+
+import jsettlers.algorithms.path.IPathCalculatable;
+import jsettlers.algorithms.path.astar.IAStarPathMap;
+import jsettlers.common.movable.EDirection;
+import jsettlers.common.player.IPlayer;
+import jsettlers.common.position.ShortPoint2D;
+
+/**
+ * Abstract graph used by the {@link HierarchicalAStar}. The map is divided into square clusters. Free positions on both sides of a cluster border
+ * form entrances, the positions of the entrances are the nodes of the graph. Nodes in the same cluster are connected with the costs of the shortest
+ * path inside of the cluster.
+ * <p>
+ * Clusters and borders are calculated lazily when they are first needed and invalidated when a position in them changes its blocked state.
+ */
+final class ClusterGraph {
+	static final int CLUSTER_SIZE = 16;
+	/**
+	 * Upper bound of the number of nodes of a cluster. Every border can have at most one entrance for two of its positions.
+	 */
+	static final int MAX_NODES_PER_CLUSTER = 2 * CLUSTER_SIZE + 4;
+	/**
+	 * Free border segments of at least this length get an entrance at both of their ends instead of a single one in their middle.
+	 */
+	private static final int DOUBLE_ENTRANCE_LENGTH = 6;
+	private static final int[] NO_ENTRANCES = new int[0];
+
+	private static final byte[] xDeltaArray = EDirection.getXDeltaArray();
+	private static final byte[] yDeltaArray = EDirection.getYDeltaArray();
+
+	/**
+	 * The graph is shared by all requesters. Therefore, only the requester independent blocking is used.
+	 */
+	private static final IPathCalculatable NEUTRAL_REQUESTER = new IPathCalculatable() {
+		@Override
+		public ShortPoint2D getPos() {
+			return null;
+		}
+
+		@Override
+		public IPlayer getPlayer() {
+			return null;
+		}
+
+		@Override
+		public boolean needsPlayersGround() {
+			return false;
+		}
+	};
+
+	private final IAStarPathMap map;
+	private final short width;
+	private final short height;
+	private final int clustersX;
+	private final int clustersY;
+
+	private final Cluster[] clusters;
+	/**
+	 * Entrances on the border to the right neighbor cluster as pairs of the flat indexes of the position in this and in the neighbor cluster.
+	 */
+	private final int[][] rightEntrances;
+	/**
+	 * Entrances on the border to the neighbor cluster below as pairs of the flat indexes of the position in this and in the neighbor cluster.
+	 */
+	private final int[][] bottomEntrances;
+
+	private final ClusterSearch search = new ClusterSearch();
+
+	ClusterGraph(IAStarPathMap map, short width, short height) {
+		this.map = map;
+		this.width = width;
+		this.height = height;
+		this.clustersX = (width + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+		this.clustersY = (height + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+
+		this.clusters = new Cluster[clustersX * clustersY];
+		this.rightEntrances = new int[clustersX * clustersY][];
+		this.bottomEntrances = new int[clustersX * clustersY][];
+	}
+
+	/**
+	 * Invalidates the clusters and borders that depend on the given position.
+	 */
+	void invalidate(int x, int y) {
+		int clusterX = x / CLUSTER_SIZE;
+		int clusterY = y / CLUSTER_SIZE;
+		int clusterIdx = getClusterIdx(clusterX, clusterY);
+		int localX = x % CLUSTER_SIZE;
+		int localY = y % CLUSTER_SIZE;
+
+		clusters[clusterIdx] = null;
+
+		if (localX == CLUSTER_SIZE - 1 && clusterX + 1 < clustersX) {
+			rightEntrances[clusterIdx] = null;
+			clusters[clusterIdx + 1] = null;
+		} else if (localX == 0 && clusterX > 0) {
+			rightEntrances[clusterIdx - 1] = null;
+			clusters[clusterIdx - 1] = null;
+		}
+
+		if (localY == CLUSTER_SIZE - 1 && clusterY + 1 < clustersY) {
+			bottomEntrances[clusterIdx] = null;
+			clusters[clusterIdx + clustersX] = null;
+		} else if (localY == 0 && clusterY > 0) {
+			bottomEntrances[clusterIdx - clustersX] = null;
+			clusters[clusterIdx - clustersX] = null;
+		}
+	}
+
+	/**
+	 * Invalidates the whole graph.
+	 */
+	void invalidateAll() {
+		Arrays.fill(clusters, null);
+		Arrays.fill(rightEntrances, null);
+		Arrays.fill(bottomEntrances, null);
+	}
+
+	Cluster getClusterOf(int x, int y) {
+		return getCluster(x / CLUSTER_SIZE, y / CLUSTER_SIZE);
+	}
+
+	int getNumberOfClusters() {
+		return clusters.length;
+	}
+
+	/**
+	 * Gets a cluster that has already been built by a call to {@link #getClusterOf(int, int)}.
+	 */
+	Cluster getBuiltCluster(int clusterIdx) {
+		return clusters[clusterIdx];
+	}
+
+	int getClusterIdxOf(int x, int y) {
+		return getClusterIdx(x / CLUSTER_SIZE, y / CLUSTER_SIZE);
+	}
+
+	private int getClusterIdx(int clusterX, int clusterY) {
+		return clusterY * clustersX + clusterX;
+	}
+
+	private Cluster getCluster(int clusterX, int clusterY) {
+		int clusterIdx = getClusterIdx(clusterX, clusterY);
+		Cluster cluster = clusters[clusterIdx];
+		if (cluster == null) {
+			cluster = buildCluster(clusterX, clusterY);
+			clusters[clusterIdx] = cluster;
+		}
+		return cluster;
+	}
+
+	/**
+	 * Calculates the costs from the given position to all nodes of its cluster, using only positions inside of the cluster.
+	 * 
+	 * @return The costs for every node of the cluster. {@link Float#POSITIVE_INFINITY} marks unreachable nodes.
+	 */
+	float[] getCostsToNodes(Cluster cluster, int x, int y) {
+		return search.search(cluster, x, y);
+	}
+
+	/**
+	 * Finds the shortest path between two positions of the same cluster, using only positions inside of the cluster.
+	 * 
+	 * @param cluster
+	 *            The cluster containing both positions.
+	 * @param from
+	 *            Flat index of the start position.
+	 * @param to
+	 *            Flat index of the target position.
+	 * @param path
+	 *            Buffer receiving the flat indexes of the path without the start position, in reversed order.
+	 * @return The length of the path or -1 if there is no path.
+	 */
+	int findPathInCluster(Cluster cluster, int from, int to, int[] path) {
+		return search.findPath(cluster, from % width, from / width, to % width, to / width, path);
+	}
+
+	private Cluster buildCluster(int clusterX, int clusterY) {
+		int clusterIdx = getClusterIdx(clusterX, clusterY);
+
+		int[] right = clusterX + 1 < clustersX ? getRightEntrances(clusterX, clusterY) : NO_ENTRANCES;
+		int[] bottom = clusterY + 1 < clustersY ? getBottomEntrances(clusterX, clusterY) : NO_ENTRANCES;
+		int[] left = clusterX > 0 ? getRightEntrances(clusterX - 1, clusterY) : NO_ENTRANCES;
+		int[] top = clusterY > 0 ? getBottomEntrances(clusterX, clusterY - 1) : NO_ENTRANCES;
+
+		int maxNodes = (right.length + bottom.length + left.length + top.length) / 2;
+		int[] nodes = new int[maxNodes];
+		int[] interFrom = new int[maxNodes];
+		int[] interTo = new int[maxNodes];
+
+		Cluster cluster = new Cluster(clusterIdx, clusterX * CLUSTER_SIZE, clusterY * CLUSTER_SIZE,
+				Math.min(width, (clusterX + 1) * CLUSTER_SIZE), Math.min(height, (clusterY + 1) * CLUSTER_SIZE));
+
+		int numberOfNodes = 0;
+		int numberOfInterEdges = 0;
+		int[][] borders = { right, bottom, left, top };
+		for (int border = 0; border < borders.length; border++) {
+			int[] entrances = borders[border];
+			boolean ownSideFirst = border < 2; // for the left and top border, this cluster is the second of each pair
+
+			for (int i = 0; i < entrances.length; i += 2) {
+				int ownCell = ownSideFirst ? entrances[i] : entrances[i + 1];
+				int otherCell = ownSideFirst ? entrances[i + 1] : entrances[i];
+
+				int node = indexOf(nodes, numberOfNodes, ownCell);
+				if (node < 0) {
+					node = numberOfNodes++;
+					nodes[node] = ownCell;
+				}
+				interFrom[numberOfInterEdges] = node;
+				interTo[numberOfInterEdges] = otherCell;
+				numberOfInterEdges++;
+			}
+		}
+
+		cluster.nodes = Arrays.copyOf(nodes, numberOfNodes);
+		cluster.interFrom = Arrays.copyOf(interFrom, numberOfInterEdges);
+		cluster.interTo = Arrays.copyOf(interTo, numberOfInterEdges);
+		cluster.intraCosts = new float[numberOfNodes][];
+
+		for (int node = 0; node < numberOfNodes; node++) {
+			int cell = cluster.nodes[node];
+			cluster.intraCosts[node] = search.search(cluster, cell % width, cell / width);
+		}
+
+		return cluster;
+	}
+
+	static int getHeuristicCost(final int sx, final int sy, final int tx, final int ty) {
+		final int dx = (tx - sx);
+		final int dy = (ty - sy);
+		final int absDx = Math.abs(dx);
+		final int absDy = Math.abs(dy);
+
+		if (dx * dy > 0) { // dx and dy go in the same direction
+			return Math.max(absDx, absDy);
+		} else {
+			return absDx + absDy;
+		}
+	}
+
+	private static int indexOf(int[] array, int length, int value) {
+		for (int i = 0; i < length; i++) {
+			if (array[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private int[] getRightEntrances(int clusterX, int clusterY) {
+		int clusterIdx = getClusterIdx(clusterX, clusterY);
+		int[] entrances = rightEntrances[clusterIdx];
+		if (entrances == null) {
+			int x = clusterX * CLUSTER_SIZE + CLUSTER_SIZE - 1;
+			int y0 = clusterY * CLUSTER_SIZE;
+			entrances = calculateEntrances(x, y0, 0, 1, Math.min(CLUSTER_SIZE, height - y0), 1, 0);
+			rightEntrances[clusterIdx] = entrances;
+		}
+		return entrances;
+	}
+
+	private int[] getBottomEntrances(int clusterX, int clusterY) {
+		int clusterIdx = getClusterIdx(clusterX, clusterY);
+		int[] entrances = bottomEntrances[clusterIdx];
+		if (entrances == null) {
+			int x0 = clusterX * CLUSTER_SIZE;
+			int y = clusterY * CLUSTER_SIZE + CLUSTER_SIZE - 1;
+			entrances = calculateEntrances(x0, y, 1, 0, Math.min(CLUSTER_SIZE, width - x0), 0, 1);
+			bottomEntrances[clusterIdx] = entrances;
+		}
+		return entrances;
+	}
+
+	/**
+	 * Calculates the entrances of a border by walking along it and collecting segments of positions that are free on both sides.
+	 */
+	private int[] calculateEntrances(int startX, int startY, int stepX, int stepY, int length, int crossX, int crossY) {
+		int[] entrances = new int[4 * length];
+		int numberOfEntrances = 0;
+
+		int segmentStart = -1;
+		for (int i = 0; i <= length; i++) {
+			boolean free = i < length && isFree(startX + i * stepX, startY + i * stepY) && isFree(startX + i * stepX + crossX, startY + i * stepY + crossY);
+
+			if (free && segmentStart < 0) {
+				segmentStart = i;
+			} else if (!free && segmentStart >= 0) {
+				int segmentEnd = i - 1;
+				if (segmentEnd - segmentStart + 1 >= DOUBLE_ENTRANCE_LENGTH) {
+					numberOfEntrances = addEntrance(entrances, numberOfEntrances, startX + segmentStart * stepX, startY + segmentStart * stepY, crossX, crossY);
+					numberOfEntrances = addEntrance(entrances, numberOfEntrances, startX + segmentEnd * stepX, startY + segmentEnd * stepY, crossX, crossY);
+				} else {
+					int middle = (segmentStart + segmentEnd) / 2;
+					numberOfEntrances = addEntrance(entrances, numberOfEntrances, startX + middle * stepX, startY + middle * stepY, crossX, crossY);
+				}
+				segmentStart = -1;
+			}
+		}
+
+		return Arrays.copyOf(entrances, numberOfEntrances);
+	}
+
+	private int addEntrance(int[] entrances, int numberOfEntrances, int x, int y, int crossX, int crossY) {
+		entrances[numberOfEntrances] = getFlatIdx(x, y);
+		entrances[numberOfEntrances + 1] = getFlatIdx(x + crossX, y + crossY);
+		return numberOfEntrances + 2;
+	}
+
+	private boolean isFree(int x, int y) {
+		return !map.isBlocked(NEUTRAL_REQUESTER, x, y);
+	}
+
+	int getFlatIdx(int x, int y) {
+		return y * width + x;
+	}
+
+	/**
+	 * A cluster of the graph with its nodes and edges.
+	 */
+	static final class Cluster {
+		final int index;
+		final int minX;
+		final int minY;
+		final int maxX;
+		final int maxY;
+
+		/**
+		 * Flat indexes of the positions of the nodes.
+		 */
+		int[] nodes;
+		/**
+		 * Costs between the nodes of this cluster. {@link Float#POSITIVE_INFINITY} marks unreachable nodes.
+		 */
+		float[][] intraCosts;
+		/**
+		 * Edges to the nodes of neighbor clusters: The node of this cluster and the flat index of the node in the neighbor cluster.
+		 */
+		int[] interFrom;
+		int[] interTo;
+
+		Cluster(int index, int minX, int minY, int maxX, int maxY) {
+			this.index = index;
+			this.minX = minX;
+			this.minY = minY;
+			this.maxX = maxX;
+			this.maxY = maxY;
+		}
+
+		int getNodeIndex(int flatIdx) {
+			return indexOf(nodes, nodes.length, flatIdx);
+		}
+	}
+
+	/**
+	 * Dijkstra search restricted to the positions of a single cluster. If a target is given, the search is directed towards it like an AStar.
+	 */
+	private final class ClusterSearch {
+		private final float[] costs = new float[CLUSTER_SIZE * CLUSTER_SIZE];
+		private final int[] parents = new int[CLUSTER_SIZE * CLUSTER_SIZE];
+		private final int[] reached = new int[CLUSTER_SIZE * CLUSTER_SIZE];
+		private final int[] closed = new int[CLUSTER_SIZE * CLUSTER_SIZE];
+		private final NodeHeap open = new NodeHeap(CLUSTER_SIZE * CLUSTER_SIZE);
+		private int searchId;
+
+		/**
+		 * Calculates the costs from the given position to all nodes of the cluster.
+		 */
+		float[] search(Cluster cluster, int sourceX, int sourceY) {
+			search(cluster, sourceX, sourceY, -1, 0, 0);
+
+			int[] nodes = cluster.nodes;
+			float[] result = new float[nodes.length];
+			for (int node = 0; node < nodes.length; node++) {
+				int localIdx = getLocalIdx(cluster, nodes[node] % width, nodes[node] / width);
+				result[node] = closed[localIdx] == searchId ? costs[localIdx] : Float.POSITIVE_INFINITY;
+			}
+			return result;
+		}
+
+		/**
+		 * Finds the path to the given target position.
+		 * 
+		 * @return The length of the path or -1 if there is no path.
+		 */
+		int findPath(Cluster cluster, int sourceX, int sourceY, int targetX, int targetY, int[] path) {
+			int targetIdx = getLocalIdx(cluster, targetX, targetY);
+			search(cluster, sourceX, sourceY, targetIdx, targetX, targetY);
+			if (closed[targetIdx] != searchId) {
+				return -1;
+			}
+
+			int length = 0;
+			for (int idx = targetIdx; parents[idx] >= 0; idx = parents[idx]) {
+				path[length++] = getFlatIdx(cluster.minX + idx % CLUSTER_SIZE, cluster.minY + idx / CLUSTER_SIZE);
+			}
+			return length;
+		}
+
+		private void search(Cluster cluster, int sourceX, int sourceY, int targetIdx, int targetX, int targetY) {
+			searchId++;
+			open.clear();
+
+			int sourceIdx = getLocalIdx(cluster, sourceX, sourceY);
+			reached[sourceIdx] = searchId;
+			costs[sourceIdx] = 0;
+			parents[sourceIdx] = -1;
+			open.push(sourceIdx, 0, 0);
+
+			while (!open.isEmpty()) {
+				int currIdx = open.pop();
+				if (closed[currIdx] == searchId) {
+					continue; // outdated heap entry
+				}
+				closed[currIdx] = searchId;
+				if (currIdx == targetIdx) {
+					return;
+				}
+
+				int x = cluster.minX + currIdx % CLUSTER_SIZE;
+				int y = cluster.minY + currIdx / CLUSTER_SIZE;
+				float currCosts = costs[currIdx];
+
+				for (int i = 0; i < EDirection.NUMBER_OF_DIRECTIONS; i++) {
+					int neighborX = x + xDeltaArray[i];
+					int neighborY = y + yDeltaArray[i];
+
+					if (cluster.minX <= neighborX && neighborX < cluster.maxX && cluster.minY <= neighborY && neighborY < cluster.maxY
+							&& isFree(neighborX, neighborY)) {
+						int neighborIdx = getLocalIdx(cluster, neighborX, neighborY);
+						float newCosts = currCosts + map.getCost(x, y, neighborX, neighborY);
+
+						if (reached[neighborIdx] != searchId || newCosts < costs[neighborIdx]) {
+							reached[neighborIdx] = searchId;
+							costs[neighborIdx] = newCosts;
+							parents[neighborIdx] = currIdx;
+							int heuristicCosts = targetIdx >= 0 ? getHeuristicCost(neighborX, neighborY, targetX, targetY) : 0;
+							open.push(neighborIdx, newCosts + heuristicCosts, newCosts);
+						}
+					}
+				}
+			}
+		}
+
+		private int getLocalIdx(Cluster cluster, int x, int y) {
+			return (x - cluster.minX) + (y - cluster.minY) * CLUSTER_SIZE;
+		}
+	}
+}
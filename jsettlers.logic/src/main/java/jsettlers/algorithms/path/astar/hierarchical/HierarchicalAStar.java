@@ -0,0 +1,314 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.path.astar.hierarchical;
+
+import java.util.Arrays;
+
+import jsettlers.algorithms.path.IPathCalculatable;
+import jsettlers.algorithms.path.Path;
+import jsettlers.algorithms.path.astar.AbstractAStar;
+import jsettlers.algorithms.path.astar.IAStarPathMap;
+import jsettlers.algorithms.path.astar.hierarchical.ClusterGraph.Cluster;
+import jsettlers.common.position.ShortPoint2D;
+
+/**
+ * Hierarchical AStar (HPA*) on top of a flat {@link AbstractAStar}.
+ * <p>
+ * Long paths are first searched on the abstract {@link ClusterGraph} and then refined into concrete path segments between the nodes of the abstract
+ * path. Every segment stays inside of a single cluster, so only the positions of the clusters along the path are expanded.
+ * <p>
+ * Short paths, paths of requesters that need the ground of their player and paths starting or ending on blocked positions are directly calculated
+ * with the flat AStar. If the abstract graph does not find a path, the flat AStar is used as well. Therefore, a path is found whenever the flat
+ * AStar would find one.
+ * <p>
+ * Several instances created with {@link #withFlatAStar(AbstractAStar)} share the abstract graph and can be used by different threads at the same
+ * time, as long as the map is not changed meanwhile. The searches on the abstract graph are serialized then.
+ * <p>
+ * NOTE: The costs of the map are expected to be symmetric.
+ */
+public final class HierarchicalAStar extends AbstractAStar {
+	private static final int MIN_HIERARCHICAL_DISTANCE = 2 * ClusterGraph.CLUSTER_SIZE;
+
+	private final IAStarPathMap map;
+	private final AbstractAStar aStar;
+	private final short width;
+	private final short height;
+	private final ClusterGraph graph;
+
+	private final NodeHeap open = new NodeHeap(256);
+	private float[] costs;
+	private int[] parents;
+	private int[] cells;
+	private int[] reached;
+	private int[] closed;
+	private int searchId;
+
+	/**
+	 * Creates a new hierarchical AStar.
+	 * 
+	 * @param map
+	 *            The map to find the paths on.
+	 * @param aStar
+	 *            Flat AStar working on the same map. It is used to calculate the paths that can not be found hierarchically.
+	 * @param width
+	 *            Width of the map.
+	 * @param height
+	 *            Height of the map.
+	 */
+	public HierarchicalAStar(IAStarPathMap map, AbstractAStar aStar, short width, short height) {
+		this(map, aStar, width, height, new ClusterGraph(map, width, height));
+	}
+
+	private HierarchicalAStar(IAStarPathMap map, AbstractAStar aStar, short width, short height, ClusterGraph graph) {
+		this.map = map;
+		this.aStar = aStar;
+		this.width = width;
+		this.height = height;
+		this.graph = graph;
+	}
+
+	/**
+	 * Creates a hierarchical AStar that shares the abstract graph with this one but uses the given flat AStar for the paths that can not be found
+	 * hierarchically.
+	 * 
+	 * @param aStar
+	 *            Flat AStar working on the same map.
+	 * @return The new hierarchical AStar. It finds the same paths as this one.
+	 */
+	public HierarchicalAStar withFlatAStar(AbstractAStar aStar) {
+		return new HierarchicalAStar(map, aStar, width, height, graph);
+	}
+
+	/**
+	 * Needs to be called whenever the blocked state of the given position changed.
+	 * 
+	 * @param x
+	 *            x coordinate of the changed position.
+	 * @param y
+	 *            y coordinate of the changed position.
+	 */
+	public void invalidate(int x, int y) {
+		synchronized (graph) {
+			graph.invalidate(x, y);
+		}
+	}
+
+	/**
+	 * Invalidates the abstract graph of the whole map.
+	 */
+	public void invalidateAll() {
+		synchronized (graph) {
+			graph.invalidateAll();
+		}
+	}
+
+	@Override
+	public final Path findPath(IPathCalculatable requester, ShortPoint2D target) {
+		ShortPoint2D pos = requester.getPos();
+		return findPath(requester, pos.x, pos.y, target.x, target.y);
+	}
+
+	@Override
+	public final Path findPath(IPathCalculatable requester, short sx, short sy, short tx, short ty) {
+		if (!isHierarchicalSearchPossible(requester, sx, sy, tx, ty)) {
+			return aStar.findPath(requester, sx, sy, tx, ty);
+		}
+
+		Path path;
+		synchronized (graph) {
+			int[] waypoints = findAbstractPath(sx, sy, tx, ty);
+			path = waypoints != null ? refinePath(waypoints) : null;
+		}
+
+		if (path != null) {
+			return path;
+		} else { // the abstract graph only knows the straight connections between clusters => try it on the flat map
+			return aStar.findPath(requester, sx, sy, tx, ty);
+		}
+	}
+
+	private boolean isHierarchicalSearchPossible(IPathCalculatable requester, int sx, int sy, int tx, int ty) {
+		return !requester.needsPlayersGround()
+				&& isInBounds(sx, sy) && isInBounds(tx, ty)
+				&& ShortPoint2D.getOnGridDist(tx - sx, ty - sy) >= MIN_HIERARCHICAL_DISTANCE
+				&& !map.isBlocked(requester, sx, sy) && !map.isBlocked(requester, tx, ty)
+				&& map.getBlockedPartition(sx, sy) == map.getBlockedPartition(tx, ty);
+	}
+
+	/**
+	 * Searches a path on the abstract graph. The nodes are identified by the index of their cluster and their index in it. The start and target
+	 * position get the two ids after the ones of the nodes.
+	 * 
+	 * @return The flat indexes of the start position, the nodes of the path and the target position or null if no path has been found.
+	 */
+	private int[] findAbstractPath(int sx, int sy, int tx, int ty) {
+		final int startId = graph.getNumberOfClusters() * ClusterGraph.MAX_NODES_PER_CLUSTER;
+		final int targetId = startId + 1;
+		initSearchArrays(targetId + 1);
+
+		final Cluster startCluster = graph.getClusterOf(sx, sy);
+		final float[] startCosts = graph.getCostsToNodes(startCluster, sx, sy);
+		final Cluster targetCluster = graph.getClusterOf(tx, ty);
+		final float[] targetCosts = graph.getCostsToNodes(targetCluster, tx, ty);
+		final int targetIdx = graph.getFlatIdx(tx, ty);
+
+		searchId++;
+		open.clear();
+		reached[startId] = searchId;
+		costs[startId] = 0;
+		parents[startId] = -1;
+		cells[startId] = graph.getFlatIdx(sx, sy);
+		open.push(startId, ClusterGraph.getHeuristicCost(sx, sy, tx, ty), 0);
+
+		while (!open.isEmpty()) {
+			int id = open.pop();
+			if (closed[id] == searchId) {
+				continue; // outdated heap entry
+			}
+			closed[id] = searchId;
+
+			if (id == targetId) {
+				return getWaypoints(targetId);
+			} else if (id == startId) {
+				for (int node = 0; node < startCosts.length; node++) {
+					relax(id, getNodeId(startCluster, node), startCluster.nodes[node], startCosts[node], tx, ty);
+				}
+				continue;
+			}
+
+			final Cluster cluster = graph.getBuiltCluster(id / ClusterGraph.MAX_NODES_PER_CLUSTER);
+			final int node = id % ClusterGraph.MAX_NODES_PER_CLUSTER;
+			final int x = cells[id] % width;
+			final int y = cells[id] / width;
+
+			float[] intraCosts = cluster.intraCosts[node];
+			for (int otherNode = 0; otherNode < intraCosts.length; otherNode++) {
+				if (otherNode != node) {
+					relax(id, getNodeId(cluster, otherNode), cluster.nodes[otherNode], intraCosts[otherNode], tx, ty);
+				}
+			}
+
+			for (int edge = 0; edge < cluster.interFrom.length; edge++) {
+				if (cluster.interFrom[edge] == node) {
+					int neighborCell = cluster.interTo[edge];
+					int neighborX = neighborCell % width;
+					int neighborY = neighborCell / width;
+					Cluster neighborCluster = graph.getClusterOf(neighborX, neighborY);
+					int neighborNode = neighborCluster.getNodeIndex(neighborCell);
+
+					if (neighborNode >= 0) {
+						relax(id, getNodeId(neighborCluster, neighborNode), neighborCell, map.getCost(x, y, neighborX, neighborY), tx, ty);
+					}
+				}
+			}
+
+			if (cluster == targetCluster) {
+				relax(id, targetId, targetIdx, targetCosts[node], tx, ty);
+			}
+		}
+
+		return null;
+	}
+
+	private void initSearchArrays(int size) {
+		if (costs == null || costs.length < size) {
+			costs = new float[size];
+			parents = new int[size];
+			cells = new int[size];
+			reached = new int[size];
+			closed = new int[size];
+		}
+	}
+
+	private static int getNodeId(Cluster cluster, int node) {
+		return cluster.index * ClusterGraph.MAX_NODES_PER_CLUSTER + node;
+	}
+
+	private void relax(int fromId, int toId, int toCell, float edgeCosts, int tx, int ty) {
+		if (edgeCosts == Float.POSITIVE_INFINITY || closed[toId] == searchId) {
+			return;
+		}
+
+		float newCosts = costs[fromId] + edgeCosts;
+		if (reached[toId] != searchId || newCosts < costs[toId]) {
+			reached[toId] = searchId;
+			costs[toId] = newCosts;
+			parents[toId] = fromId;
+			cells[toId] = toCell;
+			open.push(toId, newCosts + ClusterGraph.getHeuristicCost(toCell % width, toCell / width, tx, ty), newCosts);
+		}
+	}
+
+	private int[] getWaypoints(int targetId) {
+		int length = 0;
+		for (int id = targetId; id >= 0; id = parents[id]) {
+			length++;
+		}
+
+		int[] waypoints = new int[length];
+		for (int id = targetId; id >= 0; id = parents[id]) {
+			waypoints[--length] = cells[id];
+		}
+		return waypoints;
+	}
+
+	/**
+	 * Refines the abstract path into the concrete path. Consecutive waypoints are either in the same cluster or neighbors on a cluster border.
+	 * 
+	 * @return The concrete path or null if a segment could not be found.
+	 */
+	private Path refinePath(int[] waypoints) {
+		int length = 0;
+		int[][] segments = new int[waypoints.length - 1][];
+		int[] segmentLengths = new int[segments.length];
+		int[] buffer = new int[ClusterGraph.CLUSTER_SIZE * ClusterGraph.CLUSTER_SIZE];
+
+		for (int i = 0; i < segments.length; i++) {
+			int from = waypoints[i];
+			int to = waypoints[i + 1];
+			Cluster cluster = graph.getClusterOf(from % width, from / width);
+
+			if (from == to) {
+				segments[i] = buffer;
+				segmentLengths[i] = 0;
+			} else if (cluster.index != graph.getClusterIdxOf(to % width, to / width)) { // step over the cluster border
+				segments[i] = new int[] { to };
+				segmentLengths[i] = 1;
+			} else {
+				int segmentLength = graph.findPathInCluster(cluster, from, to, buffer);
+				if (segmentLength < 0) {
+					return null;
+				}
+				segments[i] = Arrays.copyOf(buffer, segmentLength);
+				segmentLengths[i] = segmentLength;
+			}
+			length += segmentLengths[i];
+		}
+
+		Path path = new Path(length);
+		int idx = 0;
+		for (int i = 0; i < segments.length; i++) {
+			for (int step = segmentLengths[i] - 1; step >= 0; step--) { // the segments are stored in reversed order
+				int cell = segments[i][step];
+				path.insertAt(idx++, (short) (cell % width), (short) (cell / width));
+			}
+		}
+		return path;
+	}
+
+	private boolean isInBounds(int x, int y) {
+		return 0 <= x && x < width && 0 <= y && y < height;
+	}
+}
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.path.astar.hierarchical;
+
+import java.util.Arrays;
+
+/**
+ * Binary min heap of int values with float keys. Values with equal keys are ordered by their tie key, the bigger tie key first.
+ * <p>
+ * Changing the key of a value is not supported, the value has to be pushed again and outdated entries need to be skipped by the user.
+ */
+final class NodeHeap {
+	private int[] values;
+	private float[] keys;
+	private float[] tieKeys;
+	private int size;
+
+	NodeHeap(int initialCapacity) {
+		values = new int[initialCapacity];
+		keys = new float[initialCapacity];
+		tieKeys = new float[initialCapacity];
+	}
+
+	void clear() {
+		size = 0;
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	void push(int value, float key, float tieKey) {
+		if (size == values.length) {
+			values = Arrays.copyOf(values, size * 2);
+			keys = Arrays.copyOf(keys, size * 2);
+			tieKeys = Arrays.copyOf(tieKeys, size * 2);
+		}
+
+		int i = size++;
+		while (i > 0) {
+			int parent = (i - 1) / 2;
+			if (!isLess(key, tieKey, keys[parent], tieKeys[parent])) {
+				break;
+			}
+			set(i, values[parent], keys[parent], tieKeys[parent]);
+			i = parent;
+		}
+		set(i, value, key, tieKey);
+	}
+
+	int pop() {
+		int result = values[0];
+		size--;
+		int lastValue = values[size];
+		float lastKey = keys[size];
+		float lastTieKey = tieKeys[size];
+
+		int i = 0;
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= size) {
+				break;
+			}
+			if (child + 1 < size && isLess(keys[child + 1], tieKeys[child + 1], keys[child], tieKeys[child])) {
+				child++;
+			}
+			if (!isLess(keys[child], tieKeys[child], lastKey, lastTieKey)) {
+				break;
+			}
+			set(i, values[child], keys[child], tieKeys[child]);
+			i = child;
+		}
+		set(i, lastValue, lastKey, lastTieKey);
+		return result;
+	}
+
+	private void set(int i, int value, float key, float tieKey) {
+		values[i] = value;
+		keys[i] = key;
+		tieKeys[i] = tieKey;
+	}
+
+	private static boolean isLess(float key1, float tieKey1, float key2, float tieKey2) {
+		return key1 < key2 || (key1 == key2 && tieKey1 > tieKey2);
+	}
+}
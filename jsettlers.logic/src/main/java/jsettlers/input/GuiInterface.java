@@ -68,6 +68,7 @@ import jsettlers.input.tasks.UpgradeSoldiersGuiTask;
 import jsettlers.input.tasks.WorkAreaGuiTask;
 import jsettlers.logic.buildings.Building;
 import jsettlers.logic.buildings.military.occupying.OccupyingBuilding;
+import jsettlers.logic.constants.GameContext;
 import jsettlers.logic.constants.MatchConstants;
 import jsettlers.logic.movable.interfaces.IDebugable;
 import jsettlers.logic.player.Player;
@@ -92,6 +93,7 @@ public class GuiInterface implements IMapInterfaceListener, ITaskExecutorGuiInte
 
 	private final IMapInterfaceConnector connector;
 
+	private final GameContext gameContext;
 	private final IGameClock clock;
 	private final ITaskScheduler taskScheduler;
 	private final IGuiInputGrid grid;
@@ -108,6 +110,7 @@ public class GuiInterface implements IMapInterfaceListener, ITaskExecutorGuiInte
 
 	public GuiInterface(IMapInterfaceConnector connector, IGameClock clock, ITaskScheduler taskScheduler, IGuiInputGrid grid, IGameStoppable gameStoppable, byte playerId, boolean multiplayer) {
 		this.connector = connector;
+		this.gameContext = GameContext.current();
 		this.clock = clock;
 		this.taskScheduler = taskScheduler;
 		this.grid = grid;
@@ -134,8 +137,9 @@ public class GuiInterface implements IMapInterfaceListener, ITaskExecutorGuiInte
 
 	@Override
 	public void action(IAction action) {
+		gameContext.bindToCurrentThread();
 		if (action.getActionType() != EActionType.SCREEN_CHANGE) {
-			System.out.println("action(Action): " + action.getActionType() + "   at game time: " + MatchConstants.clock().getTime());
+			System.out.println("action(Action): " + action.getActionType() + "   at game time: " + clock.getTime());
 		}
 
 		switch (action.getActionType()) {
@@ -385,7 +389,7 @@ public class GuiInterface implements IMapInterfaceListener, ITaskExecutorGuiInte
 			Building next = null;
 			boolean buildingFound = false;
 
-			for (final Building currBuilding : Building.getAllBuildings()) {
+			for (final Building currBuilding : gameContext.getAllBuildings()) {
 				if (currBuilding == building) {
 					buildingFound = true;
 				} else {
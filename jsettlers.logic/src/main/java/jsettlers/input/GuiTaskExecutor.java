@@ -46,6 +46,7 @@ import jsettlers.logic.map.grid.partition.manager.settings.MaterialProductionSet
 import jsettlers.logic.buildings.military.occupying.OccupyingBuilding;
 import jsettlers.logic.buildings.others.StockBuilding;
 import jsettlers.logic.buildings.trading.TradingBuilding;
+import jsettlers.logic.constants.GameContext;
 import jsettlers.logic.movable.Movable;
 import jsettlers.logic.movable.interfaces.ILogicMovable;
 import jsettlers.network.client.task.packets.TaskPacket;
@@ -62,11 +63,13 @@ import java8.util.stream.Collectors;
  */
 public class GuiTaskExecutor implements ITaskExecutor {
 	private static GuiTaskExecutor instance = null;
+	private final GameContext gameContext;
 	private final IGuiInputGrid grid;
 	private final ITaskExecutorGuiInterface guiInterface;
 	private final byte playerId;
 
 	public GuiTaskExecutor(IGuiInputGrid grid, ITaskExecutorGuiInterface guiInterface, byte playerId) {
+		this.gameContext = GameContext.current();
 		this.grid = grid;
 		this.guiInterface = guiInterface;
 		this.playerId = playerId;
@@ -82,6 +85,7 @@ public class GuiTaskExecutor implements ITaskExecutor {
 			return;
 		}
 
+		gameContext.bindToCurrentThread();
 		SimpleGuiTask guiTask = (SimpleGuiTask) iTask;
 
 		System.out.println("executeTask(GuiTask): " + guiTask.getGuiAction());
@@ -1,9 +1,12 @@
 package jsettlers.logic;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
 
 public class SerializationUtils {
 
@@ -33,4 +36,54 @@ public class SerializationUtils {
 		}
 		return data;
 	}
+
+	/**
+	 * Writes the length and the raw content of the array.
+	 */
+	public static void writeArray(DataOutput out, byte[] data) throws IOException {
+		out.writeInt(data.length);
+		out.write(data);
+	}
+
+	public static byte[] readByteArray(DataInput in) throws IOException {
+		byte[] data = new byte[in.readInt()];
+		in.readFully(data);
+		return data;
+	}
+
+	/**
+	 * Writes the length and the raw content of the array in big endian order.
+	 */
+	public static void writeArray(DataOutput out, short[] data) throws IOException {
+		out.writeInt(data.length);
+		ByteBuffer buffer = ByteBuffer.allocate(data.length * Short.BYTES);
+		buffer.asShortBuffer().put(data);
+		out.write(buffer.array());
+	}
+
+	public static short[] readShortArray(DataInput in) throws IOException {
+		short[] data = new short[in.readInt()];
+		byte[] bytes = new byte[data.length * Short.BYTES];
+		in.readFully(bytes);
+		ByteBuffer.wrap(bytes).asShortBuffer().get(data);
+		return data;
+	}
+
+	/**
+	 * Writes the length and the raw content of the array in big endian order.
+	 */
+	public static void writeArray(DataOutput out, long[] data) throws IOException {
+		out.writeInt(data.length);
+		ByteBuffer buffer = ByteBuffer.allocate(data.length * Long.BYTES);
+		buffer.asLongBuffer().put(data);
+		out.write(buffer.array());
+	}
+
+	public static long[] readLongArray(DataInput in) throws IOException {
+		long[] data = new long[in.readInt()];
+		byte[] bytes = new byte[data.length * Long.BYTES];
+		in.readFully(bytes);
+		ByteBuffer.wrap(bytes).asLongBuffer().get(data);
+		return data;
+	}
 }
@@ -48,6 +48,7 @@ import jsettlers.logic.buildings.workers.ResourceBuilding;
 import jsettlers.logic.buildings.workers.SlaughterhouseBuilding;
 import jsettlers.logic.buildings.workers.WorkerBuilding;
 import jsettlers.logic.constants.Constants;
+import jsettlers.logic.constants.GameContext;
 import jsettlers.logic.map.grid.objects.AbstractHexMapObject;
 import jsettlers.logic.map.grid.partition.manager.manageables.interfaces.IConstructableBuilding;
 import jsettlers.logic.map.grid.partition.manager.manageables.interfaces.IDiggerRequester;
@@ -81,8 +82,6 @@ public abstract class Building extends AbstractHexMapObject implements IConstruc
 	private static final EPriority[] SUPPORTED_PRIORITIES_FOR_CONSTRUCTION = new EPriority[] { EPriority.LOW, EPriority.HIGH, EPriority.STOPPED };
 	private static final EPriority[] SUPPORTED_PRIORITIES_FOR_NON_WORKERS = new EPriority[0];
 
-	private static final ConcurrentLinkedQueue<Building> allBuildings = new ConcurrentLinkedQueue<>();
-
 	protected final EBuildingType type;
 	protected final ShortPoint2D pos;
 	protected final IBuildingsGrid grid;
@@ -96,6 +95,7 @@ public abstract class Building extends AbstractHexMapObject implements IConstruc
 
 	private short remainingMaterialActions = 0;
 	private List<? extends IRequestStack> stacks;
+	private long timerHandle = RescheduleTimer.NO_HANDLE;
 
 	private transient boolean selected;
 
@@ -105,17 +105,18 @@ public abstract class Building extends AbstractHexMapObject implements IConstruc
 		this.pos = position;
 		this.grid = buildingsGrid;
 
-		allBuildings.add(this);
+		GameContext.current().getAllBuildings().add(this);
 	}
 	
 	@SuppressWarnings("unchecked")
 	public static void readStaticState(ObjectInputStream ois) throws IOException, ClassNotFoundException {
+		ConcurrentLinkedQueue<Building> allBuildings = GameContext.current().getAllBuildings();
 		allBuildings.clear();
 		allBuildings.addAll((Collection<? extends Building>) ois.readObject());
 	}
 
 	public static void writeStaticState(ObjectOutputStream oos) throws IOException {
-		oos.writeObject(allBuildings);
+		oos.writeObject(GameContext.current().getAllBuildings());
 	}
 
 	@Override
@@ -175,7 +176,14 @@ public abstract class Building extends AbstractHexMapObject implements IConstruc
 		placeAdditionalMapObjects(grid, pos, true);
 
 		this.state = EBuildingState.CREATED;
-		RescheduleTimer.add(this, IS_UNSTOPPED_RECHECK_PERIOD);
+		schedule(IS_UNSTOPPED_RECHECK_PERIOD);
+	}
+
+	/**
+	 * Schedules this building with the {@link RescheduleTimer}. The building must not be scheduled at the moment.
+	 */
+	private void schedule(int delay) {
+		timerHandle = RescheduleTimer.add(this, delay);
 	}
 
 	private List<IRequestStack> createConstructionStacks() {
@@ -369,7 +377,7 @@ public abstract class Building extends AbstractHexMapObject implements IConstruc
 					finishConstruction();
 				} else {
 					state = EBuildingState.WAITING_FOR_MATERIAL;
-					RescheduleTimer.add(this, WAITING_FOR_MATERIAL_PERIOD);
+					schedule(WAITING_FOR_MATERIAL_PERIOD);
 				}
 				return false;
 			}
@@ -405,7 +413,7 @@ public abstract class Building extends AbstractHexMapObject implements IConstruc
 			stacks = new LinkedList<>(); // create a new stacks list
 		}
 		int timerPeriod = constructionFinishedEvent();
-		RescheduleTimer.add(this, timerPeriod);
+		schedule(timerPeriod);
 	}
 
 	protected abstract int constructionFinishedEvent();
@@ -448,6 +456,8 @@ public abstract class Building extends AbstractHexMapObject implements IConstruc
 
 		System.out.println("building killed");
 
+		RescheduleTimer.cancel(timerHandle);
+
 		if (grid != null) {
 			grid.removeBuildingAt(pos);
 			grid.getMapObjectsManager().addSelfDeletingMapObject(pos,
@@ -460,7 +470,7 @@ public abstract class Building extends AbstractHexMapObject implements IConstruc
 		}
 
 		releaseRequestStacks();
-		allBuildings.remove(this);
+		GameContext.current().getAllBuildings().remove(this);
 		this.state = EBuildingState.DESTROYED;
 		this.selected = false;
 	}
@@ -568,11 +578,11 @@ public abstract class Building extends AbstractHexMapObject implements IConstruc
 	}
 
 	public static ConcurrentLinkedQueue<Building> getAllBuildings() {
-		return allBuildings;
+		return GameContext.current().getAllBuildings();
 	}
 
 	public static void clearState() {
-		allBuildings.clear();
+		GameContext.current().getAllBuildings().clear();
 	}
 
 	@Override
@@ -631,7 +641,7 @@ public abstract class Building extends AbstractHexMapObject implements IConstruc
 
 			case BRICKLAYERS_REQUESTED:
 				state = EBuildingState.WAITING_FOR_MATERIAL;
-				RescheduleTimer.add(this, WAITING_FOR_MATERIAL_PERIOD); // we're not scheduled atm => reschedule!
+				schedule(WAITING_FOR_MATERIAL_PERIOD); // we're not scheduled atm => reschedule!
 				break;
 			}
 		}
@@ -17,9 +17,7 @@ package jsettlers.logic.buildings.trading;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.List;
 
 import jsettlers.common.buildings.EBuildingType;
 import jsettlers.common.material.EMaterialType;
@@ -28,6 +26,7 @@ import jsettlers.common.position.ShortPoint2D;
 import jsettlers.common.utils.collections.IteratorFilter;
 import jsettlers.logic.buildings.IBuildingsGrid;
 import jsettlers.logic.buildings.stack.IRequestStack;
+import jsettlers.logic.constants.GameContext;
 import jsettlers.logic.movable.strategies.trading.IDonkeyMarket;
 import jsettlers.logic.player.Player;
 
@@ -39,30 +38,28 @@ import jsettlers.logic.player.Player;
 public class MarketBuilding extends TradingBuilding implements IDonkeyMarket {
 	private static final long serialVersionUID = 4979115926871683024L;
 
-	private static final List<MarketBuilding> ALL_MARKETS = new ArrayList<>();
-
 	public static Iterable<MarketBuilding> getAllMarkets(final Player player) {
-		return new IteratorFilter<>(ALL_MARKETS, building -> building.getPlayer() == player);
+		return new IteratorFilter<>(GameContext.current().getAllMarkets(), building -> building.getPlayer() == player);
 	}
 
 	public static void clearState() {
-		ALL_MARKETS.clear();
+		GameContext.current().getAllMarkets().clear();
 	}
 
 	public MarketBuilding(EBuildingType type, Player player, ShortPoint2D position, IBuildingsGrid buildingsGrid) {
 		super(type, player, position, buildingsGrid, false);
-		ALL_MARKETS.add(this);
+		GameContext.current().getAllMarkets().add(this);
 	}
 
 	private void readObject(ObjectInputStream ois) throws ClassNotFoundException, IOException {
 		ois.defaultReadObject();
-		ALL_MARKETS.add(this);
+		GameContext.current().getAllMarkets().add(this);
 	}
 
 	@Override
 	protected void killedEvent() {
 		super.killedEvent();
-		ALL_MARKETS.remove(this);
+		GameContext.current().getAllMarkets().remove(this);
 	}
 
 	@Override
@@ -44,6 +44,11 @@ public final class Constants {
 
 	public static final short MOVABLE_FLOCK_TO_DECENTRALIZE_MAX_RADIUS = 2;
 
+	/**
+	 * Movables in the same square of 2^MOVABLE_REGION_SIZE_BITS tiles are prepared in the same batch by the parallel timer.
+	 */
+	public static final int MOVABLE_REGION_SIZE_BITS = 5;
+
 	public static final short SOLDIER_SEARCH_RADIUS = 30;
 	public static final short TOWER_SEARCH_RADIUS = 40;
 	public static final int BOWMAN_ATTACK_RADIUS = 15;
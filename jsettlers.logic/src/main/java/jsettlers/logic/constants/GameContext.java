@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2016
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.constants;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import jsettlers.logic.buildings.Building;
+import jsettlers.logic.buildings.trading.MarketBuilding;
+import jsettlers.logic.movable.interfaces.ILogicMovable;
+import jsettlers.logic.timer.RescheduleTimer;
+import jsettlers.network.client.interfaces.IGameClock;
+
+/**
+ * Holds the state of one running match: the game clock, the match settings, the random generators, the {@link RescheduleTimer} and the registries of movables and
+ * buildings. Several matches can be simulated in the same JVM as long as each of them uses its own context.
+ * <p>
+ * The static accessors of the game logic (e.g. {@link MatchConstants#clock()}, {@link RescheduleTimer#add}) use the context that is bound to the
+ * current thread. Every entry point of the game logic (the game thread, the timerables and task executor called by the clock and the helper
+ * threads) binds the context of its match before it touches the game. Threads that have never been bound, e.g. the UI thread, use the context
+ * of the last match that has been started.
+ */
+public final class GameContext {
+	private static final ThreadLocal<GameContext> boundContext = new ThreadLocal<>();
+	private static volatile GameContext defaultContext;
+
+	private final IGameClock clock;
+	private MatchSettings settings;
+	private ExtendedRandom gameRandom;
+	private ExtendedRandom aiRandom;
+	private volatile RescheduleTimer rescheduleTimer;
+	private boolean stopped;
+
+	private final HashMap<Integer, ILogicMovable> movablesByID = new HashMap<>();
+	private final ConcurrentLinkedQueue<ILogicMovable> allMovables = new ConcurrentLinkedQueue<>();
+	private int nextMovableID = Integer.MIN_VALUE;
+
+	private final ConcurrentLinkedQueue<Building> allBuildings = new ConcurrentLinkedQueue<>();
+	private final List<MarketBuilding> allMarkets = new ArrayList<>();
+
+	/**
+	 * Creates a new context for a match.
+	 *
+	 * @param clock
+	 *            The clock of the match. May be <code>null</code> for tests that do not need one.
+	 * @param randomSeed
+	 *            The seed of the random generators.
+	 */
+	public GameContext(IGameClock clock, long randomSeed) {
+		this(clock, randomSeed, MatchSettings.BASIC);
+	}
+
+	/**
+	 * Creates a new context for a match.
+	 *
+	 * @param clock
+	 *            The clock of the match. May be <code>null</code> for tests that do not need one.
+	 * @param randomSeed
+	 *            The seed of the random generators.
+	 * @param settings
+	 *            The settings all participants of the match agreed on.
+	 */
+	public GameContext(IGameClock clock, long randomSeed, MatchSettings settings) {
+		this.clock = clock;
+		this.settings = settings;
+		this.gameRandom = new ExtendedRandom(randomSeed);
+		this.aiRandom = new ExtendedRandom(randomSeed);
+	}
+
+	/**
+	 * @return The context bound to the current thread or the context of the last started match if the thread has not been bound.
+	 */
+	public static GameContext current() {
+		GameContext context = boundContext.get();
+		if (context != null) {
+			return context;
+		}
+
+		context = defaultContext;
+		if (context == null) {
+			synchronized (GameContext.class) {
+				if (defaultContext == null) {
+					defaultContext = new GameContext(null, 0);
+				}
+				context = defaultContext;
+			}
+		}
+		return context;
+	}
+
+	/**
+	 * Binds this context to the current thread. All game logic running on this thread afterwards belongs to this match.
+	 */
+	public void bindToCurrentThread() {
+		boundContext.set(this);
+	}
+
+	/**
+	 * Binds this context to the current thread and makes it the context of all threads that have never been bound.
+	 */
+	public void start() {
+		bindToCurrentThread();
+		defaultContext = this;
+	}
+
+	/**
+	 * Stops the clock of this context (only the first time this is called) and removes the context from the current thread and the default
+	 * context. The timerables and registries are not touched.
+	 */
+	public void stop() {
+		if (clock != null && !stopped) {
+			stopped = true;
+			clock.stopExecution();
+		}
+		if (boundContext.get() == this) {
+			boundContext.remove();
+		}
+		synchronized (GameContext.class) {
+			if (defaultContext == this) {
+				defaultContext = null;
+			}
+		}
+	}
+
+	public IGameClock getClock() {
+		return clock;
+	}
+
+	public MatchSettings getSettings() {
+		return settings;
+	}
+
+	public ExtendedRandom getRandom() {
+		return gameRandom;
+	}
+
+	public ExtendedRandom getAiRandom() {
+		return aiRandom;
+	}
+
+	void setSettings(MatchSettings settings) {
+		this.settings = settings;
+	}
+
+	void setRandoms(ExtendedRandom gameRandom, ExtendedRandom aiRandom) {
+		this.gameRandom = gameRandom;
+		this.aiRandom = aiRandom;
+	}
+
+	/**
+	 * @return The {@link RescheduleTimer} of this match or <code>null</code> if it has not been created yet.
+	 */
+	public RescheduleTimer getRescheduleTimer() {
+		return rescheduleTimer;
+	}
+
+	public void setRescheduleTimer(RescheduleTimer rescheduleTimer) {
+		this.rescheduleTimer = rescheduleTimer;
+	}
+
+	public HashMap<Integer, ILogicMovable> getMovablesByID() {
+		return movablesByID;
+	}
+
+	public ConcurrentLinkedQueue<ILogicMovable> getAllMovables() {
+		return allMovables;
+	}
+
+	/**
+	 * @return A new unique id for a movable of this match.
+	 */
+	public int createMovableID() {
+		return nextMovableID++;
+	}
+
+	public int getNextMovableID() {
+		return nextMovableID;
+	}
+
+	public void setNextMovableID(int nextMovableID) {
+		this.nextMovableID = nextMovableID;
+	}
+
+	public ConcurrentLinkedQueue<Building> getAllBuildings() {
+		return allBuildings;
+	}
+
+	public List<MarketBuilding> getAllMarkets() {
+		return allMarkets;
+	}
+}
@@ -45,51 +45,90 @@ public final class MatchConstants {
 	 */
 	public static boolean ENABLE_DEBUG_COLORS = true;
 
+	/**
+	 * Number of threads used by the {@link jsettlers.logic.timer.RescheduleTimer} to prepare timerables in parallel. New matches are opened with
+	 * {@link MatchSettings#PARALLEL_TIMER_PREPARATION} if this value is greater than 0. <br>
+	 * The number of threads does not change the results of a match. If a match uses the parallel preparation and this value is 0, all available
+	 * processors are used.
+	 */
+	public static int PARALLEL_TIMER_THREADS = 0;
+
+	/**
+	 * Number of threads used by the {@link jsettlers.ai.highlevel.AiExecutor} to apply the rules of the computer players. If this value is 0,
+	 * all available processors are used. The number of threads does not change the results of a match.
+	 */
+	public static int AI_THREADS = 0;
+
+	/**
+	 * If true, new matches are opened with {@link MatchSettings#HIERARCHICAL_PATHFINDING}: Long paths are calculated with the
+	 * {@link jsettlers.algorithms.path.astar.hierarchical.HierarchicalAStar}. It expands far less positions but the found paths can be slightly
+	 * longer.
+	 */
+	public static boolean ENABLE_HIERARCHICAL_PATHFINDING = false;
+
+	/**
+	 * If true, new matches are opened with {@link MatchSettings#BATCHED_BEARER_ASSIGNMENT}: The
+	 * {@link jsettlers.logic.map.grid.partition.manager.materials.MaterialsManager} collects several transport jobs per scheduling period and
+	 * assigns the jobless bearers to them with minimal total walking distance instead of handling one job per material greedily.
+	 */
+	public static boolean ENABLE_BATCHED_BEARER_ASSIGNMENT = false;
+
 	private MatchConstants() {
 	}
 
-	private static IGameClock clock;
-	private static ExtendedRandom gameRandom;
-	private static ExtendedRandom aiRandom;
-
+	/**
+	 * Starts a new match with the {@link MatchSettings#BASIC} settings on the current thread. See {@link GameContext#start()}.
+	 */
 	public static void init(IGameClock clock, long randomSeed) {
+		init(clock, randomSeed, MatchSettings.BASIC);
+	}
+
+	/**
+	 * Starts a new match on the current thread. See {@link GameContext#start()}.
+	 */
+	public static void init(IGameClock clock, long randomSeed, MatchSettings settings) {
 		clearState();
-		MatchConstants.clock = clock;
-		MatchConstants.gameRandom = new ExtendedRandom(randomSeed);
-		MatchConstants.aiRandom = new ExtendedRandom(randomSeed);
+		new GameContext(clock, randomSeed, settings).start();
 	}
 
+	/**
+	 * Stops the match of the current thread. See {@link GameContext#stop()}.
+	 */
 	public static void clearState() {
-		if (clock != null) {
-			clock.stopExecution();
-		}
-		clock = null;
-		gameRandom = null;
-		aiRandom = null;
+		GameContext.current().stop();
 	}
 
 	public static IGameClock clock() {
-		return clock;
+		return GameContext.current().getClock();
 	}
 
 	public static ExtendedRandom random() {
-		return gameRandom;
+		return GameContext.current().getRandom();
 	}
 
 	public static ExtendedRandom aiRandom() {
-		return aiRandom;
+		return GameContext.current().getAiRandom();
 	}
 
 	public static void serialize(ObjectOutputStream oos) throws IOException {
-		oos.writeInt(clock.getTime());
-		oos.writeObject(gameRandom);
-		oos.writeObject(aiRandom);
+		GameContext context = GameContext.current();
+		oos.writeInt(context.getClock().getTime());
+		oos.writeInt(context.getSettings().getFlags());
+		oos.writeObject(context.getRandom());
+		oos.writeObject(context.getAiRandom());
 	}
 
 	public static void deserialize(ObjectInputStream ois) throws IOException, ClassNotFoundException {
-		clock.setTime(ois.readInt());
-		gameRandom = (ExtendedRandom) ois.readObject();
-		aiRandom = (ExtendedRandom) ois.readObject();
+		GameContext context = GameContext.current();
+		context.getClock().setTime(ois.readInt());
+		try {
+			context.setSettings(MatchSettings.fromFlags(ois.readInt())); // a savegame continues with the settings of its match
+		} catch (IllegalArgumentException e) {
+			throw new IOException("The savegame has been written with settings this version does not support.", e);
+		}
+		ExtendedRandom gameRandom = (ExtendedRandom) ois.readObject();
+		ExtendedRandom aiRandom = (ExtendedRandom) ois.readObject();
+		context.setRandoms(gameRandom, aiRandom);
 	}
 
 }
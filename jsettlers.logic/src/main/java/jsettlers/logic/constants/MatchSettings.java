@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2016
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.constants;
+
+/**
+ * The settings of a match that change the results of the game logic. They are agreed on when the match is opened, sent to all participants
+ * with the match information and stored in the header of the replay, so that every participant and every replay of the match simulates it the
+ * same way.
+ */
+public final class MatchSettings {
+	/**
+	 * The timerables are prepared in parallel by the {@link jsettlers.logic.timer.RescheduleTimer}.
+	 */
+	public static final int PARALLEL_TIMER_PREPARATION = 1;
+	/**
+	 * Long paths are calculated with the {@link jsettlers.algorithms.path.astar.hierarchical.HierarchicalAStar}.
+	 */
+	public static final int HIERARCHICAL_PATHFINDING = 2;
+	/**
+	 * The jobless bearers are assigned to several transport jobs at once by the
+	 * {@link jsettlers.logic.map.grid.partition.manager.materials.MaterialsManager}.
+	 */
+	public static final int BATCHED_BEARER_ASSIGNMENT = 4;
+
+	private static final int ALL_FLAGS = PARALLEL_TIMER_PREPARATION | HIERARCHICAL_PATHFINDING | BATCHED_BEARER_ASSIGNMENT;
+
+	/**
+	 * The settings without any optional behavior. Matches that have been recorded before the settings were introduced use these.
+	 */
+	public static final MatchSettings BASIC = new MatchSettings(0);
+
+	private final int flags;
+
+	private MatchSettings(int flags) {
+		this.flags = flags;
+	}
+
+	/**
+	 * Creates the settings from the flags received from another participant or read from a replay.
+	 *
+	 * @param flags
+	 *            The flags as returned by {@link #getFlags()}.
+	 * @return The settings.
+	 * @throws IllegalArgumentException
+	 *             If the flags contain a setting this version does not know. The match can not be simulated the same way as by the other
+	 *             participants then.
+	 */
+	public static MatchSettings fromFlags(int flags) {
+		if ((flags & ~ALL_FLAGS) != 0) {
+			throw new IllegalArgumentException("Unsupported match settings: 0x" + Integer.toHexString(flags & ~ALL_FLAGS));
+		}
+		return new MatchSettings(flags);
+	}
+
+	/**
+	 * @return The settings for a new match as configured by the defaults in {@link MatchConstants}.
+	 */
+	public static MatchSettings createDefaultSettings() {
+		int flags = 0;
+		if (MatchConstants.PARALLEL_TIMER_THREADS > 0) {
+			flags |= PARALLEL_TIMER_PREPARATION;
+		}
+		if (MatchConstants.ENABLE_HIERARCHICAL_PATHFINDING) {
+			flags |= HIERARCHICAL_PATHFINDING;
+		}
+		if (MatchConstants.ENABLE_BATCHED_BEARER_ASSIGNMENT) {
+			flags |= BATCHED_BEARER_ASSIGNMENT;
+		}
+		return new MatchSettings(flags);
+	}
+
+	public int getFlags() {
+		return flags;
+	}
+
+	public boolean isParallelTimerPreparation() {
+		return (flags & PARALLEL_TIMER_PREPARATION) != 0;
+	}
+
+	public boolean isHierarchicalPathfinding() {
+		return (flags & HIERARCHICAL_PATHFINDING) != 0;
+	}
+
+	public boolean isBatchedBearerAssignment() {
+		return (flags & BATCHED_BEARER_ASSIGNMENT) != 0;
+	}
+
+	@Override
+	public int hashCode() {
+		return flags;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof MatchSettings && ((MatchSettings) obj).flags == flags;
+	}
+
+	@Override
+	public String toString() {
+		return "MatchSettings [flags=" + flags + "]";
+	}
+}
@@ -15,6 +15,7 @@
 package jsettlers.logic.map.grid;
 
 import jsettlers.logic.buildings.Building;
+import jsettlers.logic.constants.GameContext;
 import jsettlers.logic.map.loading.MapLoadException;
 import jsettlers.logic.movable.Movable;
 
@@ -24,14 +25,55 @@ import java.io.ObjectOutputStream;
 
 /**
  * This class serializes and deserializes the {@link MainGrid} and therefore the complete game state.
+ * <p>
+ * A savegame starts with {@link #SAVEGAME_MAGIC} and the {@link #SAVEGAME_VERSION} of its format. The grid is written as its object graph
+ * followed by the raw arrays of the landscape, flags and partitions grids, which are not part of that graph.
  *
  * @author Andreas Eberle
  */
 public class GameSerializer {
+	/**
+	 * Marks the start of a savegame.
+	 */
+	public static final int SAVEGAME_MAGIC = 0x4A534156; // "JSAV"
+	/**
+	 * Version of the savegame format. It has to be increased whenever the format or the serialized classes change incompatibly.
+	 * <p>
+	 * Savegames written before version 1 can not be loaded. Besides the new layout of the savegame itself, the fog of war is stored row major, the
+	 * {@link jsettlers.logic.timer.RescheduleTimer} is a timing wheel and the positionable lists are serialized as plain lists. Reading all of
+	 * these old formats is not worth it, so they are rejected by {@link #checkVersion(ObjectInputStream)} instead of failing with a
+	 * serialization error somewhere in the object graph.
+	 */
+	public static final int SAVEGAME_VERSION = 1;
 
 	private static final long SAVE_STACK_SIZE = 1024 * 1024; // size of the save thread's stack
 	private static final long LOAD_STACK_SIZE = 1024 * 1024; // size of the load thread's stack
 
+	/**
+	 * Writes the magic number and the version of the savegame format. This has to be the first thing written to a savegame.
+	 */
+	public static void writeVersion(ObjectOutputStream oos) throws IOException {
+		oos.writeInt(SAVEGAME_MAGIC);
+		oos.writeInt(SAVEGAME_VERSION);
+	}
+
+	/**
+	 * Checks that the savegame has been written with the current format.
+	 *
+	 * @throws MapLoadException
+	 *             If the savegame has been written by an older or newer version of the game.
+	 */
+	public static void checkVersion(ObjectInputStream ois) throws IOException, MapLoadException {
+		if (ois.readInt() != SAVEGAME_MAGIC) { // older savegames directly start with the game time
+			throw new MapLoadException("The savegame has been written by an older version of the game and can't be loaded anymore.");
+		}
+
+		int version = ois.readInt();
+		if (version != SAVEGAME_VERSION) {
+			throw new MapLoadException("Unsupported savegame version " + version + ". Only version " + SAVEGAME_VERSION + " is supported.");
+		}
+	}
+
 	/**
 	 * Saves the grid to the given output file.
 	 *
@@ -42,7 +84,7 @@ public class GameSerializer {
 	 * @throws IOException
 	 */
 	public void save(MainGrid grid, final ObjectOutputStream oos) throws IOException {
-		GameSaveTask runnable = new GameSaveTask(grid, oos);
+		GameSaveTask runnable = new GameSaveTask(GameContext.current(), grid, oos);
 		Thread t = new Thread(null, runnable, "SaveThread", SAVE_STACK_SIZE);
 		t.start();
 		try {
@@ -60,7 +102,7 @@ public class GameSerializer {
 
 	public MainGrid load(final ObjectInputStream ois) throws MapLoadException {
 		try {
-			LoadRunnable runnable = new LoadRunnable(ois);
+			LoadRunnable runnable = new LoadRunnable(GameContext.current(), ois);
 			Thread t = new Thread(null, runnable, "LoadThread", LOAD_STACK_SIZE);
 			t.start();
 			t.join();
@@ -76,21 +118,25 @@ public class GameSerializer {
 	}
 
 	private final class GameSaveTask implements Runnable {
+		private final GameContext gameContext;
 		private final MainGrid grid;
 		private final ObjectOutputStream oos;
 		Throwable exception = null;
 
-		private GameSaveTask(MainGrid grid, ObjectOutputStream oos) {
+		private GameSaveTask(GameContext gameContext, MainGrid grid, ObjectOutputStream oos) {
+			this.gameContext = gameContext;
 			this.grid = grid;
 			this.oos = oos;
 		}
 
 		@Override
 		public void run() {
+			gameContext.bindToCurrentThread();
 			try {
 				Building.writeStaticState(oos);
 				Movable.writeStaticState(oos);
 				oos.writeObject(grid);
+				grid.writeGridArrays(oos);
 			} catch (Throwable t) {
 				t.printStackTrace();
 				this.exception = t;
@@ -99,20 +145,25 @@ public class GameSerializer {
 	}
 
 	private static final class LoadRunnable implements Runnable {
+		private final GameContext gameContext;
 		private final ObjectInputStream ois;
 		MainGrid grid = null;
 		Throwable exception = null;
 
-		private LoadRunnable(ObjectInputStream ois) {
+		private LoadRunnable(GameContext gameContext, ObjectInputStream ois) {
+			this.gameContext = gameContext;
 			this.ois = ois;
 		}
 
 		@Override
 		public void run() {
+			gameContext.bindToCurrentThread();
 			try {
 				Building.readStaticState(ois);
 				Movable.readStaticState(ois);
-				grid = (MainGrid) ois.readObject();
+				MainGrid grid = (MainGrid) ois.readObject();
+				grid.readGridArrays(ois);
+				this.grid = grid;
 			} catch (Throwable t) {
 				t.printStackTrace();
 				this.exception = t;
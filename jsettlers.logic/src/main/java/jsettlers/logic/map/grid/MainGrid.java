@@ -14,13 +14,17 @@
  *******************************************************************************/
 package jsettlers.logic.map.grid;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.BitSet;
 import java.util.Date;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import jsettlers.algorithms.borders.BordersThread;
 import jsettlers.algorithms.borders.IBordersThreadGrid;
@@ -36,7 +40,9 @@ import jsettlers.algorithms.path.area.IInAreaFinderMap;
 import jsettlers.algorithms.path.area.InAreaFinder;
 import jsettlers.algorithms.path.astar.AbstractAStar;
 import jsettlers.algorithms.path.astar.BucketQueueAStar;
+import jsettlers.algorithms.path.astar.ConcurrentAStar;
 import jsettlers.algorithms.path.astar.IAStarPathMap;
+import jsettlers.algorithms.path.astar.hierarchical.HierarchicalAStar;
 import jsettlers.algorithms.path.dijkstra.DijkstraAlgorithm;
 import jsettlers.algorithms.path.dijkstra.IDijkstraPathMap;
 import jsettlers.algorithms.previewimage.PreviewImageCreator;
@@ -50,6 +56,7 @@ import jsettlers.common.landscape.EResourceType;
 import jsettlers.common.map.EDebugColorModes;
 import jsettlers.common.map.IGraphicsBackgroundListener;
 import jsettlers.common.map.IGraphicsGrid;
+import jsettlers.common.map.IGraphicsObjectsListener;
 import jsettlers.common.map.partition.IPartitionData;
 import jsettlers.common.map.shapes.FreeMapArea;
 import jsettlers.common.map.shapes.HexGridArea;
@@ -80,6 +87,7 @@ import jsettlers.logic.buildings.stack.IRequestsStackGrid;
 import jsettlers.logic.buildings.stack.multi.StockSettings;
 import jsettlers.logic.buildings.workers.WorkerBuilding;
 import jsettlers.logic.constants.Constants;
+import jsettlers.logic.constants.GameContext;
 import jsettlers.logic.constants.MatchConstants;
 import jsettlers.logic.map.grid.flags.FlagsGrid;
 import jsettlers.logic.map.grid.landscape.LandscapeGrid;
@@ -101,6 +109,7 @@ import jsettlers.logic.map.grid.partition.manager.materials.interfaces.IOfferEmp
 import jsettlers.logic.map.grid.partition.manager.materials.offers.EOfferPriority;
 import jsettlers.logic.map.grid.partition.manager.materials.requests.MaterialRequestObject;
 import jsettlers.logic.map.grid.partition.manager.settings.MaterialProductionSettings;
+import jsettlers.logic.map.loading.MapLoader;
 import jsettlers.logic.map.loading.data.IMapData;
 import jsettlers.logic.map.loading.data.objects.BuildingMapDataObject;
 import jsettlers.logic.map.loading.data.objects.IPlayerIdProvider;
@@ -120,6 +129,7 @@ import jsettlers.logic.objects.arrow.ArrowObject;
 import jsettlers.logic.objects.stack.StackMapObject;
 import jsettlers.logic.player.Player;
 import jsettlers.logic.player.PlayerSetting;
+import jsettlers.network.client.interfaces.IGameClock;
 
 import java8.util.Optional;
 
@@ -153,6 +163,9 @@ public final class MainGrid implements Serializable {
 	transient BordersThread bordersThread;
 	transient IGuiInputGrid guiInputGrid;
 	private transient IEnclosedBlockedAreaFinderGrid enclosedBlockedAreaFinderGrid;
+	private transient GameContext gameContext;
+	private transient volatile MapLoader lastSavegame;
+	private transient MapChangedListeners mapChangedListeners;
 
 	public MainGrid(String mapId, String mapName, short width, short height, PlayerSetting[] playerSettings) {
 		this.mapId = mapId;
@@ -184,6 +197,7 @@ public final class MainGrid implements Serializable {
 	}
 
 	private void initAdditional() {
+		this.gameContext = GameContext.current();
 		this.graphicsGrid = new GraphicsGrid();
 		this.constructionMarksGrid = new ConstructionMarksGrid();
 		this.bordersThread = new BordersThread(new BordersThreadGrid());
@@ -191,6 +205,7 @@ public final class MainGrid implements Serializable {
 
 		this.partitionsGrid.setPlayerChangedListener(new PlayerChangedListener());
 		this.enclosedBlockedAreaFinderGrid = new EnclosedBlockedAreaFinderGrid();
+		this.flagsGrid.setBlockedChangedListener((x, y, blocked) -> movablePathfinderGrid.hierarchicalAStar.invalidate(x, y));
 	}
 
 	public final short getHeight() {
@@ -201,6 +216,31 @@ public final class MainGrid implements Serializable {
 		return width;
 	}
 
+	/**
+	 * @return The context of the match this grid belongs to.
+	 */
+	public GameContext getGameContext() {
+		return gameContext;
+	}
+
+	/**
+	 * Adds a listener that is informed when the partition, the tower counter, the flags, the landscape, the resources or the map objects of a
+	 * position changed.
+	 *
+	 * @param mapChangedListener
+	 *            The listener to add.
+	 */
+	public synchronized void addMapChangedListener(IMapChangedListener mapChangedListener) {
+		if (mapChangedListeners == null) {
+			mapChangedListeners = new MapChangedListeners();
+			partitionsGrid.setMapChangedListener(mapChangedListeners);
+			flagsGrid.setMapChangedListener(mapChangedListeners);
+			landscapeGrid.setMapChangedListener(mapChangedListeners);
+			objectsGrid.setMapChangedListener(mapChangedListeners);
+		}
+		mapChangedListeners.listeners.add(mapChangedListener);
+	}
+
 	public void initForPlayer(byte playerId, FogOfWar fogOfWar) {
 		if (fogOfWar != null) {
 			this.fogOfWar = fogOfWar;
@@ -211,10 +251,35 @@ public final class MainGrid implements Serializable {
 
 	private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
 		ois.defaultReadObject();
+	}
+
+	/**
+	 * Writes the raw arrays of the grids. They are not part of the serialized object graph.
+	 */
+	void writeGridArrays(DataOutput out) throws IOException {
+		landscapeGrid.writeGridArrays(out);
+		flagsGrid.writeGridArrays(out);
+		partitionsGrid.writeGridArrays(out);
+	}
+
+	/**
+	 * Reads the arrays written by {@link #writeGridArrays(DataOutput)} and completes the deserialization of this grid.
+	 */
+	void readGridArrays(DataInput in) throws IOException {
+		landscapeGrid.readGridArrays(in);
+		flagsGrid.readGridArrays(in);
+		partitionsGrid.readGridArrays(in);
+
 		initAdditional();
 		this.bordersThread.checkArea(0, 0, width, height);
 	}
 
+	private void objectsChangedAt(int x, int y) {
+		if (graphicsGrid != null) { // not yet created while the map is loaded
+			graphicsGrid.objectsChangedAt(x, y);
+		}
+	}
+
 	public void startThreads() {
 		bordersThread.start();
 		if (fogOfWar != null) {
@@ -322,21 +387,45 @@ public final class MainGrid implements Serializable {
 		}
 	}
 
+	/**
+	 * Saves the game and waits until the savegame has been written.
+	 */
 	public void save(Byte playerId, UIState uiState) throws IOException {
-		boolean savedPausingState = MatchConstants.clock().isPausing();
-		MatchConstants.clock().setPausing(true);
+		IGameClock clock = gameContext.getClock();
+		boolean savedPausingState = clock.isPausing();
+		clock.setPausing(true);
 		try {
 			Thread.sleep(300L); // FIXME @Andreas serializer should wait until threads did their work!
 		} catch (InterruptedException e) {
 			e.printStackTrace();
 		}
 
+		try {
+			PlayerState[] playerStates = calculatePlayerStates(playerId, uiState);
+			MapFileHeader header = generateSaveHeader(playerId);
+			lastSavegame = MapList.getDefaultList().saveMap(playerStates, header, MainGrid.this);
+		} finally {
+			clock.setPausing(savedPausingState);
+		}
+	}
+
+	/**
+	 * @return The savegame last written by {@link #save(Byte, UIState)} or <code>null</code> if this game has not been saved yet.
+	 */
+	public MapLoader getLastSavegame() {
+		return lastSavegame;
+	}
+
+	/**
+	 * Captures the game state in memory and writes the savegame in the background, so the game only pauses for the capturing.
+	 * <p />
+	 * This must be called by a timerable of the game clock. The state is then captured between two ticks, so the clock neither needs to be paused
+	 * nor does the game thread need to finish its work.
+	 */
+	public void saveInBackground(Byte playerId, UIState uiState) throws IOException {
 		PlayerState[] playerStates = calculatePlayerStates(playerId, uiState);
 		MapFileHeader header = generateSaveHeader(playerId);
-		MapList list = MapList.getDefaultList();
-		list.saveMap(playerStates, header, MainGrid.this);
-
-		MatchConstants.clock().setPausing(savedPausingState);
+		MapList.getDefaultList().saveMapInBackground(playerStates, header, MainGrid.this);
 	}
 
 	private PlayerState[] calculatePlayerStates(Byte playerId, UIState uiState) {
@@ -357,7 +446,7 @@ public final class MainGrid implements Serializable {
 	}
 
 	private UIState calculateUiStateByTower(byte currPlayerId) {
-		for (Building building : Building.getAllBuildings()) {
+		for (Building building : gameContext.getAllBuildings()) {
 			if (building.getPlayer().playerId == currPlayerId && building instanceof OccupyingBuilding) {
 				return new UIState(building.getPos());
 			}
@@ -739,6 +828,7 @@ public final class MainGrid implements Serializable {
 
 	final class GraphicsGrid implements IGraphicsGrid {
 		private transient BitSet bordersGrid = new BitSet(width * height);
+		private transient volatile IGraphicsObjectsListener objectsListener;
 
 		@Override
 		public final short getHeight() {
@@ -829,6 +919,24 @@ public final class MainGrid implements Serializable {
 		@Override
 		public final void setBackgroundListener(IGraphicsBackgroundListener backgroundListener) {
 			landscapeGrid.setBackgroundListener(backgroundListener);
+			if (fogOfWar != null) {
+				fogOfWar.setBackgroundListener(backgroundListener);
+			}
+		}
+
+		@Override
+		public final boolean setObjectsListener(IGraphicsObjectsListener objectsListener) {
+			this.objectsListener = objectsListener;
+			movableGrid.setObjectsListener(objectsListener);
+			objectsGrid.setObjectsListener(objectsListener);
+			return true;
+		}
+
+		final void objectsChangedAt(int x, int y) {
+			IGraphicsObjectsListener listener = objectsListener;
+			if (listener != null) {
+				listener.objectsChangedAt(x, y);
+			}
 		}
 
 		@Override
@@ -880,6 +988,11 @@ public final class MainGrid implements Serializable {
 			return objectsGrid.removeMapObject(x, y, mapObject);
 		}
 
+		@Override
+		public final void mapObjectChangedAt(int x, int y) {
+			objectsGrid.mapObjectChangedAt(x, y);
+		}
+
 		@Override
 		public final AbstractHexMapObject getMapObject(int x, int y, EMapObjectType mapObjectType) {
 			return objectsGrid.getMapObjectAt(x, y, mapObjectType);
@@ -1099,6 +1212,9 @@ public final class MainGrid implements Serializable {
 
 		private transient PathfinderGrid pathfinderGrid;
 		private transient AbstractAStar aStar;
+		private transient HierarchicalAStar hierarchicalAStar;
+		private transient ConcurrentAStar concurrentAStar;
+		private transient HierarchicalAStar concurrentHierarchicalAStar;
 		transient DijkstraAlgorithm dijkstra; // not private, because it's used by BuildingsGrid
 		private transient InAreaFinder inAreaFinder;
 
@@ -1115,6 +1231,9 @@ public final class MainGrid implements Serializable {
 			pathfinderGrid = new PathfinderGrid();
 
 			aStar = new BucketQueueAStar(pathfinderGrid, width, height);
+			hierarchicalAStar = new HierarchicalAStar(pathfinderGrid, aStar, width, height);
+			concurrentAStar = new ConcurrentAStar(pathfinderGrid, width, height);
+			concurrentHierarchicalAStar = hierarchicalAStar.withFlatAStar(concurrentAStar);
 			dijkstra = new DijkstraAlgorithm(pathfinderGrid, aStar, width, height);
 			inAreaFinder = new InAreaFinder(pathfinderGrid, width, height);
 		}
@@ -1310,12 +1429,21 @@ public final class MainGrid implements Serializable {
 		@Override
 		public void leavePosition(ShortPoint2D position, ILogicMovable movable) {
 			movableGrid.movableLeft(position, movable);
+			viewDistanceChanged(movable);
 		}
 
 		@Override
 		public void enterPosition(ShortPoint2D position, ILogicMovable movable, boolean informFullArea) {
 			movableGrid.movableEntered(position, movable);
 			notifyAttackers(position, movable, informFullArea);
+			viewDistanceChanged(movable);
+		}
+
+		@Override
+		public void viewDistanceChanged(ILogicMovable movable) {
+			if (fogOfWar != null) {
+				fogOfWar.observerChanged(movable);
+			}
 		}
 
 		public void notifyAttackers(ShortPoint2D position, ILogicMovable movable, boolean informFullArea) {
@@ -1327,9 +1455,20 @@ public final class MainGrid implements Serializable {
 
 		@Override
 		public Path calculatePathTo(IPathCalculatable pathRequester, ShortPoint2D targetPos) {
+			if (gameContext.getSettings().isHierarchicalPathfinding()) {
+				return hierarchicalAStar.findPath(pathRequester, targetPos);
+			}
 			return aStar.findPath(pathRequester, targetPos);
 		}
 
+		@Override
+		public Path calculatePathConcurrentlyTo(IPathCalculatable pathRequester, ShortPoint2D targetPos) {
+			if (gameContext.getSettings().isHierarchicalPathfinding()) {
+				return concurrentHierarchicalAStar.findPath(pathRequester, targetPos);
+			}
+			return concurrentAStar.findPath(pathRequester, targetPos);
+		}
+
 		@Override
 		public Path searchDijkstra(IPathCalculatable pathCalculateable, short centerX, short centerY, short radius, ESearchType searchType) {
 			return dijkstra.find(pathCalculateable, centerX, centerY, (short) 0, radius, searchType);
@@ -1466,7 +1605,11 @@ public final class MainGrid implements Serializable {
 
 		@Override
 		public final void setBorderAt(int x, int y, boolean isBorder) {
-			graphicsGrid.bordersGrid.set(x + y * width, isBorder);
+			int index = x + y * width;
+			if (graphicsGrid.bordersGrid.get(index) != isBorder) {
+				graphicsGrid.bordersGrid.set(index, isBorder);
+				graphicsGrid.objectsChangedAt(x, y);
+			}
 		}
 
 		@Override
@@ -1506,6 +1649,7 @@ public final class MainGrid implements Serializable {
 					setProtectedState(protectedArea, true);
 					mapObjectsManager.addBuildingTo(position, newBuilding);
 					objectsGrid.setBuildingArea(protectedArea, newBuilding);
+					protectedArea.stream().forEach(MainGrid.this::objectsChangedAt);
 					return true;
 				} else {
 					return false;
@@ -1542,12 +1686,16 @@ public final class MainGrid implements Serializable {
 			area.stream().filterBounds(width, height).forEach((x, y) -> {
 				StackMapObject stack = (StackMapObject) objectsGrid.getMapObjectAt(x, y, EMapObjectType.STACK_OBJECT);
 				flagsGrid.setBlockedAndProtected(x, y, false, stack != null); // if there is a stack, the position must stay protected
+				objectsChangedAt(x, y);
 			});
 		}
 
 		@Override
 		public final void setBlocked(FreeMapArea area, boolean blocked) {
-			area.stream().filterBounds(width, height).forEach((x, y) -> flagsGrid.setBlockedAndProtected(x, y, blocked));
+			area.stream().filterBounds(width, height).forEach((x, y) -> {
+				flagsGrid.setBlockedAndProtected(x, y, blocked);
+				objectsChangedAt(x, y);
+			});
 		}
 
 		@Override
@@ -1903,6 +2051,7 @@ public final class MainGrid implements Serializable {
 		public void playerChangedAt(int x, int y, byte newPlayerId) {
 			final ShortPoint2D position = new ShortPoint2D(x, y);
 			bordersThread.checkPosition(position);
+			graphicsGrid.objectsChangedAt(x, y);
 
 			Building building = objectsGrid.getBuildingAt(x, y);
 			if (building != null && building.getPlayer().getPlayerId() != newPlayerId) {
@@ -1924,12 +2073,34 @@ public final class MainGrid implements Serializable {
 
 		@Override
 		public final ConcurrentLinkedQueue<? extends IViewDistancable> getMovableViewDistancables() {
-			return Movable.getAllMovables();
+			return gameContext.getAllMovables();
 		}
 
 		@Override
 		public final ConcurrentLinkedQueue<? extends IViewDistancable> getBuildingViewDistancables() {
-			return Building.getAllBuildings();
+			return gameContext.getAllBuildings();
 		}
 	}
+
+	/**
+	 * Informs all listeners added with {@link MainGrid#addMapChangedListener(IMapChangedListener)}.
+	 */
+	private static class MapChangedListeners implements IMapChangedListener {
+		final List<IMapChangedListener> listeners = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void mapChangedAt(int x, int y) {
+			for (IMapChangedListener listener : listeners) {
+				listener.mapChangedAt(x, y);
+			}
+		}
+
+		@Override
+		public void mapChanged() {
+			for (IMapChangedListener listener : listeners) {
+				listener.mapChanged();
+			}
+		}
+	}
+
 }
@@ -14,10 +14,15 @@
  *******************************************************************************/
 package jsettlers.logic.map.grid.flags;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.BitSet;
 
 import jsettlers.algorithms.partitions.IBlockingProvider;
+import jsettlers.logic.SerializationUtils;
+import jsettlers.logic.map.grid.IMapChangedListener;
 
 /**
  * Grid that's storing the blocked information for fast access.
@@ -30,11 +35,14 @@ public final class FlagsGrid implements Serializable, IBlockingProvider, IProtec
 
 	private final short width;
 
-	private final BitSet blockedGrid;
-	private final BitSet markedGrid;
-	private final BitSet protectedGrid;
+	// the bit sets are written by writeGridArrays() and not by the default serialization
+	private transient BitSet blockedGrid;
+	private transient BitSet markedGrid;
+	private transient BitSet protectedGrid;
 
 	private IProtectedChangedListener protectedChangedListener = null;
+	private transient IBlockedChangedListener blockedChangedListener = null;
+	private transient IMapChangedListener mapChangedListener = null;
 
 	public FlagsGrid(final short width, final short height) {
 		this.width = width;
@@ -44,6 +52,24 @@ public final class FlagsGrid implements Serializable, IBlockingProvider, IProtec
 		this.markedGrid = new BitSet(width * height);
 	}
 
+	/**
+	 * Writes the raw content of the grid's bit sets.
+	 */
+	public void writeGridArrays(DataOutput out) throws IOException {
+		SerializationUtils.writeArray(out, blockedGrid.toLongArray());
+		SerializationUtils.writeArray(out, markedGrid.toLongArray());
+		SerializationUtils.writeArray(out, protectedGrid.toLongArray());
+	}
+
+	/**
+	 * Reads the bit sets written by {@link #writeGridArrays(DataOutput)}. This has to be called after the grid has been deserialized.
+	 */
+	public void readGridArrays(DataInput in) throws IOException {
+		blockedGrid = BitSet.valueOf(SerializationUtils.readLongArray(in));
+		markedGrid = BitSet.valueOf(SerializationUtils.readLongArray(in));
+		protectedGrid = BitSet.valueOf(SerializationUtils.readLongArray(in));
+	}
+
 	@Override
 	public boolean isBlocked(int x, int y) {
 		return blockedGrid.get(x + y * width);
@@ -78,6 +104,7 @@ public final class FlagsGrid implements Serializable, IBlockingProvider, IProtec
 	 */
 	public void setBlockedAndProtected(int x, int y, boolean newBlocked, boolean newProtected) {
 		final int idx = x + y * width;
+		boolean oldBlocked = this.blockedGrid.get(idx);
 		boolean oldProtected = this.protectedGrid.get(idx);
 
 		this.blockedGrid.set(idx, newBlocked);
@@ -86,6 +113,12 @@ public final class FlagsGrid implements Serializable, IBlockingProvider, IProtec
 		if (protectedChangedListener != null && oldProtected != newProtected) {
 			this.protectedChangedListener.protectedChanged(x, y, newProtected);
 		}
+		if (blockedChangedListener != null && oldBlocked != newBlocked) {
+			this.blockedChangedListener.blockedChanged(x, y, newBlocked);
+		}
+		if (mapChangedListener != null && (oldBlocked != newBlocked || oldProtected != newProtected)) {
+			this.mapChangedListener.mapChangedAt(x, y);
+		}
 	}
 
 	public boolean isMarked(int x, int y) {
@@ -107,6 +140,9 @@ public final class FlagsGrid implements Serializable, IBlockingProvider, IProtec
 		if (protectedChangedListener != null) {
 			this.protectedChangedListener.protectedChanged(x, y, newProtected);
 		}
+		if (mapChangedListener != null) {
+			this.mapChangedListener.mapChangedAt(x, y);
+		}
 	}
 
 	public boolean isPioneerBlocked(int x, int y) {
@@ -118,4 +154,22 @@ public final class FlagsGrid implements Serializable, IBlockingProvider, IProtec
 	public void setProtectedChangedListener(IProtectedChangedListener protectedChangedListener) {
 		this.protectedChangedListener = protectedChangedListener;
 	}
+
+	public void setBlockedChangedListener(IBlockedChangedListener blockedChangedListener) {
+		this.blockedChangedListener = blockedChangedListener;
+	}
+
+	public void setMapChangedListener(IMapChangedListener mapChangedListener) {
+		this.mapChangedListener = mapChangedListener;
+	}
+
+	/**
+	 * Listener informed when the blocked state of a position changed.
+	 *
+	 * @author Andreas Eberle
+	 *
+	 */
+	public interface IBlockedChangedListener {
+		void blockedChanged(int x, int y, boolean newBlockedState);
+	}
 }
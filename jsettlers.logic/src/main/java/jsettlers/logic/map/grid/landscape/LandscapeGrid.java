@@ -14,6 +14,8 @@
  *******************************************************************************/
 package jsettlers.logic.map.grid.landscape;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
@@ -26,8 +28,10 @@ import jsettlers.common.map.IGraphicsBackgroundListener;
 import jsettlers.common.map.shapes.HexGridArea;
 import jsettlers.common.position.RelativePoint;
 import jsettlers.common.position.ShortPoint2D;
+import jsettlers.logic.SerializationUtils;
 import jsettlers.logic.constants.Constants;
 import jsettlers.logic.constants.MatchConstants;
+import jsettlers.logic.map.grid.IMapChangedListener;
 import jsettlers.logic.map.grid.flags.IProtectedProvider;
 import jsettlers.logic.map.grid.flags.IProtectedProvider.IProtectedChangedListener;
 
@@ -52,12 +56,13 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 		}
 	}
 
-	private final byte[] heightGrid;
-	private final byte[] landscapeGrid;
-	private final byte[] resourceAmount;
-	private final byte[] temporaryFlatened;
-	private final byte[] resourceType;
-	private final short[] blockedPartitions;
+	// the arrays are written by writeGridArrays() and not by the default serialization
+	private transient byte[] heightGrid;
+	private transient byte[] landscapeGrid;
+	private transient byte[] resourceAmount;
+	private transient byte[] temporaryFlatened;
+	private transient byte[] resourceType;
+	private transient short[] blockedPartitions;
 
 	private final short width;
 	private final short height;
@@ -67,6 +72,7 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 
 	public transient int[] debugColors;
 	private transient IGraphicsBackgroundListener backgroundListener;
+	private transient IMapChangedListener mapChangedListener;
 
 	public LandscapeGrid(short width, short height, IProtectedProvider protectedProvider) {
 		this.width = width;
@@ -95,6 +101,30 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 		initDebugColors();
 	}
 
+	/**
+	 * Writes the raw content of the grid's arrays.
+	 */
+	public void writeGridArrays(DataOutput out) throws IOException {
+		SerializationUtils.writeArray(out, heightGrid);
+		SerializationUtils.writeArray(out, landscapeGrid);
+		SerializationUtils.writeArray(out, resourceAmount);
+		SerializationUtils.writeArray(out, temporaryFlatened);
+		SerializationUtils.writeArray(out, resourceType);
+		SerializationUtils.writeArray(out, blockedPartitions);
+	}
+
+	/**
+	 * Reads the arrays written by {@link #writeGridArrays(DataOutput)}. This has to be called after the grid has been deserialized.
+	 */
+	public void readGridArrays(DataInput in) throws IOException {
+		heightGrid = SerializationUtils.readByteArray(in);
+		landscapeGrid = SerializationUtils.readByteArray(in);
+		resourceAmount = SerializationUtils.readByteArray(in);
+		temporaryFlatened = SerializationUtils.readByteArray(in);
+		resourceType = SerializationUtils.readByteArray(in);
+		blockedPartitions = SerializationUtils.readShortArray(in);
+	}
+
 	private final void initDebugColors() {
 		if (MatchConstants.ENABLE_DEBUG_COLORS) {
 			this.debugColors = new int[width * height];
@@ -159,6 +189,7 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 
 		this.landscapeGrid[x + y * width] = landscapeType.ordinal;
 		backgroundListener.backgroundChangedAt(x, y);
+		notifyMapChangedListener(x, y);
 	}
 
 	public final void setHeightAt(short x, short y, byte height) {
@@ -174,6 +205,7 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 		this.temporaryFlatened[index] = Byte.MAX_VALUE; // cancel the flattening
 
 		backgroundListener.backgroundChangedAt(x, y);
+		notifyMapChangedListener(x, y);
 	}
 
 	public final void setBackgroundListener(IGraphicsBackgroundListener backgroundListener) {
@@ -184,9 +216,26 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 		}
 	}
 
+	/**
+	 * Sets the listener that is informed when the landscape, the resources or the blocked partition of a position changed.
+	 *
+	 * @param mapChangedListener
+	 *            The listener or <code>null</code>.
+	 */
+	public void setMapChangedListener(IMapChangedListener mapChangedListener) {
+		this.mapChangedListener = mapChangedListener;
+	}
+
+	private void notifyMapChangedListener(int x, int y) {
+		if (mapChangedListener != null) {
+			mapChangedListener.mapChangedAt(x, y);
+		}
+	}
+
 	public final void setResourceAt(short x, short y, EResourceType resourceType, byte amount) {
 		this.resourceType[x + y * width] = resourceType.ordinal;
 		this.resourceAmount[x + y * width] = (byte) Math.min(amount, Constants.MAX_RESOURCE_AMOUNT_PER_POSITION);
+		notifyMapChangedListener(x, y);
 	}
 
 	/**
@@ -219,6 +268,9 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 		int idx = position.x + position.y * width;
 		if (resourceType[idx] == resource.ordinal && resourceAmount[idx] > 0) {
 			resourceAmount[idx]--;
+			if (resourceAmount[idx] == 0) {
+				notifyMapChangedListener(position.x, position.y);
+			}
 			return true;
 		} else {
 			return false;
@@ -275,7 +327,11 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 	}
 
 	public void setBlockedPartition(short x, short y, short blockedPartition) {
-		this.blockedPartitions[x + y * width] = blockedPartition;
+		int index = x + y * width;
+		if (this.blockedPartitions[index] != blockedPartition) {
+			this.blockedPartitions[index] = blockedPartition;
+			notifyMapChangedListener(x, y);
+		}
 	}
 
 	public short getBlockedPartitionAt(int x, int y) {
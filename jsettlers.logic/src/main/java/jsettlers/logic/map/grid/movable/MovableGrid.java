@@ -19,6 +19,7 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 
+import jsettlers.common.map.IGraphicsObjectsListener;
 import jsettlers.common.map.shapes.HexGridArea;
 import jsettlers.common.movable.EMovableType;
 import jsettlers.common.movable.IMovable;
@@ -46,6 +47,8 @@ public final class MovableGrid implements Serializable {
 
 	private final short height;
 
+	private transient volatile IGraphicsObjectsListener objectsListener;
+
 	public MovableGrid(short width, short height, IWalkableGround ground) {
 		this.width = width;
 		this.height = height;
@@ -71,6 +74,7 @@ public final class MovableGrid implements Serializable {
 		int idx = position.x + position.y * width;
 		if (this.movableGrid[idx] == movable) {
 			this.movableGrid[idx] = null;
+			notifyObjectsListener(position.x, position.y);
 		}
 	}
 
@@ -90,6 +94,24 @@ public final class MovableGrid implements Serializable {
 		if (movable != null && movable.getMovableType() == EMovableType.BEARER) {
 			ground.walkOn(x, y);
 		}
+		notifyObjectsListener(x, y);
+	}
+
+	private void notifyObjectsListener(int x, int y) {
+		IGraphicsObjectsListener listener = objectsListener;
+		if (listener != null) {
+			listener.objectsChangedAt(x, y);
+		}
+	}
+
+	/**
+	 * Sets the listener that is informed when a movable enters or leaves a position.
+	 * 
+	 * @param objectsListener
+	 *            The listener or <code>null</code>.
+	 */
+	public void setObjectsListener(IGraphicsObjectsListener objectsListener) {
+		this.objectsListener = objectsListener;
 	}
 
 	/**
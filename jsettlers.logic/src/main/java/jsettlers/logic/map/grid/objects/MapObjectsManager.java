@@ -92,6 +92,7 @@ public final class MapObjectsManager implements IScheduledTimerable, Serializabl
 				removeMapObject(curr.mapObject.getX(), curr.mapObject.getY(), curr.mapObject);
 			} else {
 				curr.getMapObject().changeState();
+				grid.mapObjectChangedAt(curr.mapObject.getX(), curr.mapObject.getY());
 			}
 
 			curr = timingQueue.peek();
@@ -175,6 +176,7 @@ public final class MapObjectsManager implements IScheduledTimerable, Serializabl
 		if (grid.isInBounds(x, y)) {
 			AbstractObjectsManagerObject tree = (AbstractObjectsManagerObject) grid.getMapObject(x, y, EMapObjectType.TREE_ADULT);
 			if (tree != null && tree.cutOff()) {
+				grid.mapObjectChangedAt(x, y);
 				schedule(tree, Tree.DECOMPOSE_DURATION, true);
 				return true;
 			}
@@ -197,6 +199,7 @@ public final class MapObjectsManager implements IScheduledTimerable, Serializabl
 		if (grid.isInBounds(x, y)) {
 			AbstractObjectsManagerObject corn = (AbstractObjectsManagerObject) grid.getMapObject(x, y, EMapObjectType.CORN_ADULT);
 			if (corn != null && corn.cutOff()) {
+				grid.mapObjectChangedAt(x, y);
 				schedule(corn, Corn.REMOVE_DURATION, true);
 				return true;
 			}
@@ -219,6 +222,7 @@ public final class MapObjectsManager implements IScheduledTimerable, Serializabl
 		if (grid.isInBounds(x, y)) {
 			AbstractObjectsManagerObject wine = (AbstractObjectsManagerObject) grid.getMapObject(x, y, EMapObjectType.WINE_HARVESTABLE);
 			if (wine != null && wine.cutOff()) {
+				grid.mapObjectChangedAt(x, y);
 				schedule(wine, Wine.REMOVE_DURATION, true);
 				return true;
 			}
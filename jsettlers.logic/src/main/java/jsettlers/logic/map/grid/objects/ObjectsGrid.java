@@ -20,6 +20,7 @@ import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.Set;
 
+import jsettlers.common.map.IGraphicsObjectsListener;
 import jsettlers.common.map.shapes.FreeMapArea;
 import jsettlers.common.map.shapes.HexGridArea;
 import jsettlers.common.mapobject.EMapObjectType;
@@ -29,6 +30,7 @@ import jsettlers.common.utils.coordinates.CoordinateStream;
 import jsettlers.logic.SerializationUtils;
 import jsettlers.logic.buildings.Building;
 import jsettlers.logic.constants.Constants;
+import jsettlers.logic.map.grid.IMapChangedListener;
 import jsettlers.logic.movable.interfaces.IAttackable;
 import jsettlers.logic.movable.interfaces.IInformable;
 
@@ -47,6 +49,9 @@ public final class ObjectsGrid implements Serializable {
 	private transient AbstractHexMapObject[] objectsGrid;
 	private transient Building[] buildingsGrid;
 
+	private transient volatile IGraphicsObjectsListener objectsListener;
+	private transient IMapChangedListener mapChangedListener;
+
 	public ObjectsGrid(short width, short height) {
 		this.width = width;
 		this.height = height;
@@ -123,7 +128,10 @@ public final class ObjectsGrid implements Serializable {
 
 		if (mapObjectHead != null) {
 			mapObjectHead.removeMapObjectTypes(mapObjectTypes);
+		} else {
+			notifyObjectsListener(x, y);
 		}
+		mapObjectChangedAt(x, y);
 	}
 
 	public final boolean removeMapObject(int x, int y, AbstractHexMapObject mapObject) {
@@ -134,10 +142,16 @@ public final class ObjectsGrid implements Serializable {
 			if (mapObjectHead == mapObject) {
 				objectsGrid[idx] = mapObjectHead.getNextObject();
 				removed = true;
+				if (objectsGrid[idx] == null) {
+					notifyObjectsListener(x, y);
+				}
 			} else {
 				removed = mapObjectHead.removeMapObject(mapObject);
 			}
 
+			if (removed) {
+				mapObjectChangedAt(x, y);
+			}
 			return removed;
 		} else
 			return false;
@@ -150,9 +164,46 @@ public final class ObjectsGrid implements Serializable {
 
 		if (mapObjectHead == null) {
 			objectsGrid[idx] = mapObject;
+			notifyObjectsListener(x, y);
 		} else {
 			mapObjectHead.addMapObject(mapObject);
 		}
+		mapObjectChangedAt(x, y);
+	}
+
+	/**
+	 * Informs the {@link IMapChangedListener} that a map object at the given position has been added, removed or has changed its state.
+	 * 
+	 * @param x
+	 *            x coordinate
+	 * @param y
+	 *            y coordinate
+	 */
+	public void mapObjectChangedAt(int x, int y) {
+		if (mapChangedListener != null) {
+			mapChangedListener.mapChangedAt(x, y);
+		}
+	}
+
+	public void setMapChangedListener(IMapChangedListener mapChangedListener) {
+		this.mapChangedListener = mapChangedListener;
+	}
+
+	private void notifyObjectsListener(int x, int y) {
+		IGraphicsObjectsListener listener = objectsListener;
+		if (listener != null) {
+			listener.objectsChangedAt(x, y);
+		}
+	}
+
+	/**
+	 * Sets the listener that is informed when a position gets its first or loses its last map object.
+	 * 
+	 * @param objectsListener
+	 *            The listener or <code>null</code>.
+	 */
+	public void setObjectsListener(IGraphicsObjectsListener objectsListener) {
+		this.objectsListener = objectsListener;
 	}
 
 	public final boolean hasCuttableObject(int x, int y, EMapObjectType mapObjectType) {
@@ -16,6 +16,8 @@ package jsettlers.logic.map.grid.partition;
 
 import static java8.util.stream.StreamSupport.stream;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
@@ -44,6 +46,8 @@ import jsettlers.common.position.ShortPoint2D;
 import jsettlers.common.utils.Tuple;
 import jsettlers.common.utils.coordinates.CoordinateStream;
 import jsettlers.common.utils.mutables.MutableInt;
+import jsettlers.logic.SerializationUtils;
+import jsettlers.logic.map.grid.IMapChangedListener;
 import jsettlers.logic.map.grid.partition.manager.settings.MaterialProductionSettings;
 import jsettlers.logic.map.grid.partition.PartitionsListingBorderVisitor.BorderPartitionInfo;
 import jsettlers.logic.map.grid.partition.manager.PartitionManager;
@@ -76,13 +80,15 @@ public final class PartitionsGrid implements Serializable {
 	private final Player[] players;
 	private final IBlockingProvider blockingProvider;
 
-	final short[] partitions;
-	private final byte[] towers;
+	// the arrays are written by writeGridArrays() and not by the default serialization
+	transient short[] partitions;
+	private transient byte[] towers;
 
 	private final short[] blockedPartitionsForPlayers;
 	Partition[] partitionObjects = new Partition[NUMBER_OF_START_PARTITION_OBJECTS];
 
 	private transient IPlayerChangedListener playerChangedListener = IPlayerChangedListener.DEFAULT_IMPLEMENTATION;
+	private transient IMapChangedListener mapChangedListener;
 
 	public PartitionsGrid(short width, short height, PlayerSetting[] playerSettings, IBlockingProvider blockingProvider) {
 		this.width = width;
@@ -138,6 +144,22 @@ public final class PartitionsGrid implements Serializable {
 		ois.defaultReadObject();
 	}
 
+	/**
+	 * Writes the raw content of the grid's arrays. The partitions have been normalized when the grid itself was written before.
+	 */
+	public void writeGridArrays(DataOutput out) throws IOException {
+		SerializationUtils.writeArray(out, partitions);
+		SerializationUtils.writeArray(out, towers);
+	}
+
+	/**
+	 * Reads the arrays written by {@link #writeGridArrays(DataOutput)}. This has to be called after the grid has been deserialized.
+	 */
+	public void readGridArrays(DataInput in) throws IOException {
+		partitions = SerializationUtils.readShortArray(in);
+		towers = SerializationUtils.readByteArray(in);
+	}
+
 	public boolean isDefaultPartition(short partitionId) {
 		return partitionId == NO_PLAYER_PARTITION_ID;
 	}
@@ -240,6 +262,7 @@ public final class PartitionsGrid implements Serializable {
 		// reduce the tower counter
 		changeTowerCounter(tower.playerId, tower.area.stream(), -1);
 		checkOtherTowersInArea(tower);
+		notifyMapChangedListener(tower.area);
 	}
 
 	/**
@@ -277,6 +300,7 @@ public final class PartitionsGrid implements Serializable {
 
 		// recalculate the tower counter for the ground area
 		recalculateTowerCounter(tower, tower.groundArea);
+		notifyMapChangedListener(tower.area);
 	}
 
 	public void changePlayerAt(ShortPoint2D position, byte playerId) {
@@ -535,6 +559,9 @@ public final class PartitionsGrid implements Serializable {
 		smallerPartitionObject.stopManager();
 
 		partitionObjects[smallerPartition] = biggerPartitionObject;
+		if (mapChangedListener != null) {
+			mapChangedListener.mapChanged(); // the positions of the smaller partition are not known
+		}
 
 		/**
 		 * Flatten all hierarchies: <br>
@@ -621,6 +648,9 @@ public final class PartitionsGrid implements Serializable {
 		synchronized (this) {
 			partitions[idx] = newPartition;
 		}
+		if (mapChangedListener != null) {
+			mapChangedListener.mapChangedAt(x, y);
+		}
 
 		return newPartitionObject.playerId;
 	}
@@ -629,6 +659,12 @@ public final class PartitionsGrid implements Serializable {
 		playerChangedListener.playerChangedAt(x, y, newPlayer);
 	}
 
+	private void notifyMapChangedListener(IMapArea towerArea) {
+		if (mapChangedListener != null) {
+			towerArea.stream().forEach(mapChangedListener::mapChangedAt);
+		}
+	}
+
 	short createNewPartition(byte playerId) { // package private for tests
 		checkNormalizePartitions(NUMBER_OF_START_PARTITION_OBJECTS / 2);
 
@@ -679,6 +715,16 @@ public final class PartitionsGrid implements Serializable {
 		}
 	}
 
+	/**
+	 * Sets the given listener. The listener will then be informed of any positions that change their partition or their tower counter.
+	 * 
+	 * @param listener
+	 *            The listener to be set or null if no listener should be set.
+	 */
+	public void setMapChangedListener(IMapChangedListener listener) {
+		this.mapChangedListener = listener;
+	}
+
 	public byte getNumberOfPlayers() {
 		return (byte) players.length;
 	}
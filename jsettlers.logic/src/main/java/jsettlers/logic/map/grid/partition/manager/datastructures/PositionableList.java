@@ -15,44 +15,101 @@
 package jsettlers.logic.map.grid.partition.manager.datastructures;
 
 import java8.util.function.Consumer;
+import java8.util.function.Predicate;
 import jsettlers.common.position.ILocatable;
 import jsettlers.common.position.ShortPoint2D;
-import jsettlers.common.utils.MathUtils;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.NoSuchElementException;
 
 /**
  * This is a data structure for storing and retrieving objects at given positions.<br>
  * It is also possible to find the nearest object around a given position.
+ * <p/>
+ * The objects are kept in insertion order and are additionally indexed by a uniform grid of cells. The nearest neighbor search looks at the cells
+ * in rings around the given position. Of all objects with the smallest distance, the one inserted first is returned, so the results are the same
+ * as those of a linear scan. Objects that can change their position while being stored must implement {@link IObservableLocatable}.
  *
  * @param <T>
  * @author Andreas Eberle
  */
 public class PositionableList<T extends ILocatable> implements Serializable {
 	private static final long serialVersionUID = 414099060331344505L;
+	/**
+	 * The list is serialized as the plain {@link LinkedList} of its objects, the index is rebuilt when loading.
+	 */
+	private static final ObjectStreamField[] serialPersistentFields = { new ObjectStreamField("data", LinkedList.class) };
+
+	private static final int CELL_SHIFT = 4;
+	private static final int CELL_SIZE = 1 << CELL_SHIFT;
+	private static final int CELLS_GROWTH = 2;
+	private static final int LINEAR_SEARCH_THRESHOLD = 24;
+
+	private transient Node first;
+	private transient Node last;
+	private transient int size;
+	private transient long nextSequence;
+	private transient IdentityHashMap<T, Node> nodesByObject;
 
-	protected final LinkedList<T> data;
+	private transient Node[] cells;
+	private transient int cellsOriginX;
+	private transient int cellsOriginY;
+	private transient int cellsWidth;
+	private transient int cellsHeight;
 
 	public PositionableList() {
-		data = new LinkedList<>();
 	}
 
 	public void insert(T object) {
-		data.add(object);
+		if (nodesByObject == null) {
+			nodesByObject = new IdentityHashMap<>();
+		}
+
+		Node node = new Node(object);
+		node.sequence = nextSequence++;
+		node.prev = last;
+		if (last == null) {
+			first = node;
+		} else {
+			last.next = node;
+		}
+		last = node;
+		size++;
+
+		Node sameObject = nodesByObject.get(object);
+		if (sameObject == null) {
+			nodesByObject.put(object, node);
+			setChangeListener(object, node);
+		} else {
+			while (sameObject.nextSameObject != null) {
+				sameObject = sameObject.nextSameObject;
+			}
+			sameObject.nextSameObject = node;
+		}
+
+		ShortPoint2D position = object.getPos();
+		node.x = position.x;
+		node.y = position.y;
+		addToCell(node);
+
+		entryChanged(object);
 	}
 
 	public T removeObjectAt(ShortPoint2D position) {
-		Iterator<T> iterator = data.iterator();
-		while (iterator.hasNext()) {
-			T curr = iterator.next();
-			if (curr.getPos().equals(position)) {
-				iterator.remove();
-				return curr;
-			}
+		Node node = getNodeAt(position);
+		if (node == null) {
+			return null;
 		}
-		return null;
+		removeNode(node);
+		return node.object;
 	}
 
 	/**
@@ -63,12 +120,8 @@ public class PositionableList<T extends ILocatable> implements Serializable {
 	 * @return Returns the found object at the given position or null if no object has been found.
 	 */
 	public T getObjectAt(ShortPoint2D position) {
-		for (T curr : data) {
-			if (curr.getPos().equals(position)) {
-				return curr;
-			}
-		}
-		return null;
+		Node node = getNodeAt(position);
+		return node == null ? null : node.object;
 	}
 
 	/**
@@ -82,68 +135,407 @@ public class PositionableList<T extends ILocatable> implements Serializable {
 		T currBest = getObjectCloseTo(position);
 
 		if (currBest != null) {
-			data.remove(currBest);
+			remove(currBest);
 		}
 
 		return currBest;
 	}
 
 	protected T getObjectCloseTo(ShortPoint2D position) {
-		int bestDistance = Integer.MAX_VALUE;
-		T currBest = null;
+		return getObjectCloseTo(position, null);
+	}
+
+	/**
+	 * Finds the object closest to the given position that is accepted by the given predicate. If multiple objects have the same distance, the one
+	 * inserted first is returned.
+	 *
+	 * @param position
+	 * 		position to be used to find the nearest accepted neighbor around it.
+	 * @param acceptor
+	 * 		if acceptor != null => the result is accepted by the acceptor. <br>
+	 * 		if acceptor == null every entry is accepted.
+	 * @return accepted object that's nearest to position or null if there is none.
+	 */
+	protected final T getObjectCloseTo(ShortPoint2D position, Predicate<T> acceptor) {
+		if (size <= LINEAR_SEARCH_THRESHOLD) {
+			return getObjectCloseToLinear(position, acceptor);
+		}
 
-		for (T currEntry : data) {
-			int currDist = MathUtils.squareHypot(position, currEntry.getPos());
+		NearestSearch search = new NearestSearch(position, acceptor);
+		int centerX = (position.x >> CELL_SHIFT) - cellsOriginX;
+		int centerY = (position.y >> CELL_SHIFT) - cellsOriginY;
+		int maxRing = Math.max(Math.max(Math.abs(centerX), Math.abs(cellsWidth - 1 - centerX)), Math.max(Math.abs(centerY), Math.abs(cellsHeight - 1 - centerY)));
 
-			if (bestDistance > currDist) {
-				bestDistance = currDist;
-				currBest = currEntry;
+		for (int ring = 0; ring <= maxRing; ring++) {
+			if (ring > 0 && search.best != null) {
+				long minRingDistance = (ring - 1) * CELL_SIZE + 1;
+				if (minRingDistance * minRingDistance > search.bestDistance) {
+					break; // no object in this or further rings can be closer or have the same distance
+				}
+			}
+
+			int minY = Math.max(0, centerY - ring);
+			int maxY = Math.min(cellsHeight - 1, centerY + ring);
+			for (int y = minY; y <= maxY; y++) {
+				int rowOffset = y * cellsWidth;
+				if (y == centerY - ring || y == centerY + ring) {
+					int minX = Math.max(0, centerX - ring);
+					int maxX = Math.min(cellsWidth - 1, centerX + ring);
+					for (int x = minX; x <= maxX; x++) {
+						search.visit(cells[rowOffset + x]);
+					}
+				} else {
+					if (centerX - ring >= 0 && centerX - ring < cellsWidth) {
+						search.visit(cells[rowOffset + centerX - ring]);
+					}
+					if (ring > 0 && centerX + ring >= 0 && centerX + ring < cellsWidth) {
+						search.visit(cells[rowOffset + centerX + ring]);
+					}
+				}
 			}
 		}
-		return currBest;
+
+		return search.best == null ? null : search.best.object;
+	}
+
+	private T getObjectCloseToLinear(ShortPoint2D position, Predicate<T> acceptor) {
+		NearestSearch search = new NearestSearch(position, acceptor);
+		for (Node node = first; node != null; node = node.next) {
+			search.test(node);
+		}
+		return search.best == null ? null : search.best.object;
+	}
+
+	/**
+	 * Called when an object has been inserted or an {@link IObservableLocatable} reported a change.
+	 *
+	 * @param object
+	 * 		The inserted or changed object.
+	 */
+	protected void entryChanged(T object) {
+	}
+
+	/**
+	 * @return An iterator over the objects in insertion order that supports removal.
+	 */
+	protected final Iterator<T> iterator() {
+		return new Iterator<T>() {
+			private Node nextNode = first;
+			private Node lastReturned;
+
+			@Override
+			public boolean hasNext() {
+				return nextNode != null;
+			}
+
+			@Override
+			public T next() {
+				if (nextNode == null) {
+					throw new NoSuchElementException();
+				}
+				lastReturned = nextNode;
+				nextNode = nextNode.next;
+				return lastReturned.object;
+			}
+
+			@Override
+			public void remove() {
+				if (lastReturned == null) {
+					throw new IllegalStateException();
+				}
+				removeNode(lastReturned);
+				lastReturned = null;
+			}
+		};
 	}
 
 	@Override
 	public String toString() {
-		return data.toString();
+		return toLinkedList().toString();
 	}
 
 	public void moveAll(PositionableList<T> otherList) {
-		LinkedList<T> othersData = otherList.data;
-		data.addAll(othersData);
-		othersData.clear();
+		for (T object : otherList.clear()) {
+			insert(object);
+		}
 	}
 
 	public void moveAll(PositionableList<T> otherList, Consumer<T> movedVisitor) {
-		LinkedList<T> othersData = otherList.data;
-		for (T othersDatum : othersData) {
-			movedVisitor.accept(othersDatum);
-			data.add(othersDatum);
+		for (T object : otherList.clear()) {
+			movedVisitor.accept(object);
+			insert(object);
 		}
-		othersData.clear();
 	}
 
 	public void remove(T object) {
-		this.data.remove(object);
+		if (nodesByObject != null) {
+			Node node = nodesByObject.get(object);
+			if (node != null) {
+				removeNode(node);
+			}
+		}
+	}
+
+	public boolean contains(T object) {
+		return nodesByObject != null && nodesByObject.containsKey(object);
 	}
 
 	public boolean isEmpty() {
-		return data.isEmpty();
+		return size == 0;
 	}
 
 	public void moveObjectsAtPositionTo(ShortPoint2D position, PositionableList<T> newList, Consumer<T> movedVisitor) {
-		Iterator<T> iterator = data.iterator();
-		while (iterator.hasNext()) {
-			T curr = iterator.next();
-			if (curr.getPos().equals(position)) {
-				iterator.remove();
-				movedVisitor.accept(curr);
-				newList.data.add(curr);
-			}
+		Node node;
+		while ((node = getNodeAt(position)) != null) {
+			removeNode(node);
+			movedVisitor.accept(node.object);
+			newList.insert(node.object);
 		}
 	}
 
 	public int size() {
-		return data.size();
+		return size;
+	}
+
+	private Node getNodeAt(ShortPoint2D position) {
+		if (cells == null) {
+			return null;
+		}
+
+		int cellX = (position.x >> CELL_SHIFT) - cellsOriginX;
+		int cellY = (position.y >> CELL_SHIFT) - cellsOriginY;
+		if (cellX < 0 || cellX >= cellsWidth || cellY < 0 || cellY >= cellsHeight) {
+			return null;
+		}
+
+		Node found = null;
+		for (Node node = cells[cellY * cellsWidth + cellX]; node != null; node = node.cellNext) {
+			if (node.x == position.x && node.y == position.y && (found == null || node.sequence < found.sequence)) {
+				found = node;
+			}
+		}
+		return found;
+	}
+
+	private void removeNode(Node node) {
+		if (node.prev == null) {
+			first = node.next;
+		} else {
+			node.prev.next = node.next;
+		}
+		if (node.next == null) {
+			last = node.prev;
+		} else {
+			node.next.prev = node.prev;
+		}
+		size--;
+
+		removeFromCell(node);
+
+		Node sameObject = nodesByObject.get(node.object);
+		if (sameObject == node) {
+			if (node.nextSameObject == null) {
+				nodesByObject.remove(node.object);
+				setChangeListener(node.object, null);
+			} else {
+				nodesByObject.put(node.object, node.nextSameObject);
+				setChangeListener(node.object, node.nextSameObject);
+			}
+		} else {
+			while (sameObject.nextSameObject != node) {
+				sameObject = sameObject.nextSameObject;
+			}
+			sameObject.nextSameObject = node.nextSameObject;
+		}
+		node.nextSameObject = null;
+
+		if (size == 0) {
+			cells = null;
+		}
+	}
+
+	private ArrayList<T> clear() {
+		ArrayList<T> objects = new ArrayList<>(size);
+		for (Node node = first; node != null; node = node.next) {
+			objects.add(node.object);
+			setChangeListener(node.object, null);
+		}
+
+		first = null;
+		last = null;
+		size = 0;
+		cells = null;
+		if (nodesByObject != null) {
+			nodesByObject.clear();
+		}
+		return objects;
+	}
+
+	private static void setChangeListener(ILocatable object, IObservableLocatable.IChangeListener changeListener) {
+		if (object instanceof IObservableLocatable) {
+			((IObservableLocatable) object).setChangeListener(changeListener);
+		}
+	}
+
+	private void addToCell(Node node) {
+		int cellX = node.x >> CELL_SHIFT;
+		int cellY = node.y >> CELL_SHIFT;
+
+		if (cells == null) {
+			cellsOriginX = cellX;
+			cellsOriginY = cellY;
+			cellsWidth = 1;
+			cellsHeight = 1;
+			cells = new PositionableList.Node[1];
+		} else if (cellX < cellsOriginX || cellX >= cellsOriginX + cellsWidth || cellY < cellsOriginY || cellY >= cellsOriginY + cellsHeight) {
+			growCells(cellX, cellY);
+		}
+
+		int index = (cellY - cellsOriginY) * cellsWidth + cellX - cellsOriginX;
+		Node head = cells[index];
+		node.cellIndex = index;
+		node.cellPrev = null;
+		node.cellNext = head;
+		if (head != null) {
+			head.cellPrev = node;
+		}
+		cells[index] = node;
+	}
+
+	private void removeFromCell(Node node) {
+		if (node.cellPrev == null) {
+			cells[node.cellIndex] = node.cellNext;
+		} else {
+			node.cellPrev.cellNext = node.cellNext;
+		}
+		if (node.cellNext != null) {
+			node.cellNext.cellPrev = node.cellPrev;
+		}
+		node.cellPrev = null;
+		node.cellNext = null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void growCells(int cellX, int cellY) {
+		int newOriginX = cellX < cellsOriginX ? Math.max(0, cellX - CELLS_GROWTH) : cellsOriginX;
+		int newOriginY = cellY < cellsOriginY ? Math.max(0, cellY - CELLS_GROWTH) : cellsOriginY;
+		int newEndX = Math.max(cellsOriginX + cellsWidth, cellX + 1 + (cellX >= cellsOriginX + cellsWidth ? CELLS_GROWTH : 0));
+		int newEndY = Math.max(cellsOriginY + cellsHeight, cellY + 1 + (cellY >= cellsOriginY + cellsHeight ? CELLS_GROWTH : 0));
+		int newWidth = newEndX - newOriginX;
+		int newHeight = newEndY - newOriginY;
+
+		Node[] newCells = new PositionableList.Node[newWidth * newHeight];
+		for (int y = 0; y < cellsHeight; y++) {
+			for (int x = 0; x < cellsWidth; x++) {
+				Node head = cells[y * cellsWidth + x];
+				if (head != null) {
+					int newIndex = (y + cellsOriginY - newOriginY) * newWidth + x + cellsOriginX - newOriginX;
+					newCells[newIndex] = head;
+					for (Node node = head; node != null; node = node.cellNext) {
+						node.cellIndex = newIndex;
+					}
+				}
+			}
+		}
+
+		cells = newCells;
+		cellsOriginX = newOriginX;
+		cellsOriginY = newOriginY;
+		cellsWidth = newWidth;
+		cellsHeight = newHeight;
+	}
+
+	private LinkedList<T> toLinkedList() {
+		LinkedList<T> objects = new LinkedList<>();
+		for (Node node = first; node != null; node = node.next) {
+			objects.add(node.object);
+		}
+		return objects;
+	}
+
+	private void writeObject(ObjectOutputStream oos) throws IOException {
+		ObjectOutputStream.PutField fields = oos.putFields();
+		fields.put("data", toLinkedList());
+		oos.writeFields();
+	}
+
+	private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
+		@SuppressWarnings("unchecked")
+		final LinkedList<T> data = (LinkedList<T>) ois.readFields().get("data", null);
+
+		// the positions of the objects can only be read when the whole object graph has been deserialized
+		ois.registerValidation(() -> {
+			for (T object : data) {
+				insert(object);
+			}
+		}, 0);
+	}
+
+	private final class Node implements IObservableLocatable.IChangeListener {
+		final T object;
+		long sequence;
+		int x;
+		int y;
+
+		Node prev;
+		Node next;
+		Node nextSameObject;
+
+		int cellIndex;
+		Node cellPrev;
+		Node cellNext;
+
+		Node(T object) {
+			this.object = object;
+		}
+
+		@Override
+		public void changed() {
+			ShortPoint2D position = object.getPos();
+			for (Node node = this; node != null; node = node.nextSameObject) {
+				if (node.x != position.x || node.y != position.y) {
+					removeFromCell(node);
+					node.x = position.x;
+					node.y = position.y;
+					addToCell(node);
+				}
+			}
+			entryChanged(object);
+		}
+	}
+
+	private final class NearestSearch {
+		private final int x;
+		private final int y;
+		private final Predicate<T> acceptor;
+
+		Node best;
+		int bestDistance = Integer.MAX_VALUE;
+
+		NearestSearch(ShortPoint2D position, Predicate<T> acceptor) {
+			this.x = position.x;
+			this.y = position.y;
+			this.acceptor = acceptor;
+		}
+
+		void visit(Node cellHead) {
+			for (Node node = cellHead; node != null; node = node.cellNext) {
+				test(node);
+			}
+		}
+
+		void test(Node node) {
+			if (acceptor != null && !acceptor.test(node.object)) {
+				return;
+			}
+
+			int dx = node.x - x;
+			int dy = node.y - y;
+			int distance = dx * dx + dy * dy;
+			if (distance < bestDistance || (distance == bestDistance && node.sequence < best.sequence)) {
+				bestDistance = distance;
+				best = node;
+			}
+		}
 	}
 }
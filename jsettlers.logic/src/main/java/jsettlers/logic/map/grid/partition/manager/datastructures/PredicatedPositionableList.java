@@ -17,7 +17,6 @@ package jsettlers.logic.map.grid.partition.manager.datastructures;
 import java8.util.function.Predicate;
 import jsettlers.common.position.ILocatable;
 import jsettlers.common.position.ShortPoint2D;
-import jsettlers.common.utils.MathUtils;
 
 /**
  * This is a data structure for storing and retrieving objects at given positions.<br>
@@ -27,6 +26,7 @@ import jsettlers.common.utils.MathUtils;
  * @author Andreas Eberle
  */
 public class PredicatedPositionableList<T extends ILocatable> extends PositionableList<T> {
+	private static final long serialVersionUID = -6199382087145343986L;
 
 	/**
 	 * Finds the object that's closest to the given position and removes it.
@@ -42,28 +42,9 @@ public class PredicatedPositionableList<T extends ILocatable> extends Positionab
 		T currBest = getObjectCloseTo(position, predicate);
 
 		if (currBest != null) {
-			data.remove(currBest);
+			remove(currBest);
 		}
 
 		return currBest;
 	}
-
-	private T getObjectCloseTo(ShortPoint2D position, Predicate<T> acceptor) {
-		int bestDistance = Integer.MAX_VALUE;
-		T currBest = null;
-
-		for (T currEntry : data) {
-			if (acceptor != null && !acceptor.test(currEntry)) {
-				continue;
-			}
-
-			int currDist = MathUtils.squareHypot(position, currEntry.getPos());
-
-			if (bestDistance > currDist) {
-				bestDistance = currDist;
-				currBest = currEntry;
-			}
-		}
-		return currBest;
-	}
 }
@@ -14,8 +14,8 @@
  *******************************************************************************/
 package jsettlers.logic.map.grid.partition.manager.manageables;
 
-import jsettlers.common.position.ILocatable;
+import jsettlers.logic.map.grid.partition.manager.datastructures.IObservableLocatable;
 
-public interface IManageable extends ILocatable {
+public interface IManageable extends IObservableLocatable {
 
 }
@@ -15,10 +15,14 @@
 package jsettlers.logic.map.grid.partition.manager.materials;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 
+import jsettlers.algorithms.assignment.MinCostAssignment;
 import jsettlers.common.map.partition.IPartitionSettings;
 import jsettlers.common.material.EMaterialType;
 import jsettlers.common.position.ShortPoint2D;
+import jsettlers.logic.constants.GameContext;
+import jsettlers.logic.constants.MatchSettings;
 import jsettlers.logic.map.grid.partition.manager.materials.interfaces.IJoblessSupplier;
 import jsettlers.logic.map.grid.partition.manager.materials.interfaces.IManagerBearer;
 import jsettlers.logic.map.grid.partition.manager.materials.offers.EOfferPriority;
@@ -38,6 +42,12 @@ import jsettlers.logic.map.grid.partition.manager.settings.PartitionManagerSetti
 public final class MaterialsManager implements Serializable {
 	private static final long serialVersionUID = 6395951461349453696L;
 
+	/**
+	 * Maximum number of transport jobs assigned together in one scheduling period if the match uses
+	 * {@link MatchSettings#BATCHED_BEARER_ASSIGNMENT}. The assignment needs O(n³) time.
+	 */
+	private static final int MAX_BATCH_SIZE = 24;
+
 	private final OffersList offersList;
 	private final AbstractMaterialRequestPriorityQueue[] requestQueues;
 	private final IJoblessSupplier joblessSupplier;
@@ -83,6 +93,11 @@ public final class MaterialsManager implements Serializable {
 	}
 
 	public void distributeJobs() {
+		if (GameContext.current().getSettings().isBatchedBearerAssignment()) {
+			distributeJobsBatched();
+			return;
+		}
+
 		for (int i = 0; i < EMaterialType.NUMBER_OF_DROPPABLE_MATERIALS && !joblessSupplier.isEmpty(); i++) {
 			if (joblessSupplier.isEmpty()) // no jobless? just return
 				break;
@@ -118,6 +133,78 @@ public final class MaterialsManager implements Serializable {
 		jobless.deliver(materialType, offer, request);
 	}
 
+	/**
+	 * Collects transport jobs for the materials in the order of their priorities and takes the jobless bearer closest to each job's offer. Then
+	 * the collected bearers are assigned to the jobs, so that their total walking distance to the offers is minimal.
+	 */
+	private void distributeJobsBatched() {
+		ArrayList<TransportJob> jobs = new ArrayList<>();
+		ArrayList<IManagerBearer> bearers = new ArrayList<>();
+
+		for (int i = 0; i < EMaterialType.NUMBER_OF_DROPPABLE_MATERIALS && jobs.size() < MAX_BATCH_SIZE && !joblessSupplier.isEmpty(); i++) {
+			EMaterialType materialType = settings.getMaterialTypeForPriority(i);
+
+			TransportJob job;
+			while (jobs.size() < MAX_BATCH_SIZE && !joblessSupplier.isEmpty() && (job = reserveJobForMaterial(materialType)) != null) {
+				IManagerBearer jobless = joblessSupplier.removeJoblessCloseTo(job.offer.getPos());
+
+				assert jobless != null : "The jobless can't be null here!";
+
+				jobs.add(job);
+				bearers.add(jobless);
+			}
+		}
+
+		if (jobs.isEmpty()) {
+			return;
+		}
+
+		int[][] distances = new int[bearers.size()][jobs.size()];
+		for (int bearerIndex = 0; bearerIndex < bearers.size(); bearerIndex++) {
+			ShortPoint2D bearerPosition = bearers.get(bearerIndex).getPos();
+			for (int jobIndex = 0; jobIndex < jobs.size(); jobIndex++) {
+				distances[bearerIndex][jobIndex] = bearerPosition.getOnGridDistTo(jobs.get(jobIndex).offer.getPos());
+			}
+		}
+
+		int[] assignment = MinCostAssignment.solve(distances);
+		for (int bearerIndex = 0; bearerIndex < bearers.size(); bearerIndex++) {
+			TransportJob job = jobs.get(assignment[bearerIndex]);
+			job.releaseReservation();
+			bearers.get(bearerIndex).deliver(job.materialType, job.offer, job.request);
+		}
+	}
+
+	/**
+	 * Finds the highest request for the given material and the offer closest to it, like {@link #distributeJobForMaterial(EMaterialType)} does.
+	 * The offer and the request are reserved until the job is handed to a bearer, so that following searches don't find them again.
+	 *
+	 * @return The reserved job or null if there is none.
+	 */
+	private TransportJob reserveJobForMaterial(EMaterialType materialType) {
+		if (offersList.isEmpty(materialType, EOfferPriority.LOWEST)) {
+			return null;
+		}
+
+		MaterialRequestObject request = requestQueues[materialType.ordinal].getHighestRequest();
+		if (request == null) {
+			return null;
+		}
+
+		EOfferPriority minimumIncludedOfferPriority = request.getMinimumAcceptedOfferPriority();
+		if (offersList.isEmpty(materialType, minimumIncludedOfferPriority)) {
+			return null;
+		}
+
+		MaterialOffer offer = offersList.getOfferCloseTo(materialType, minimumIncludedOfferPriority, request.getPos());
+
+		assert offer != null : "The offer can't be null here!";
+
+		offer.distributionAccepted();
+		request.deliveryAccepted();
+		return new TransportJob(materialType, offer, request);
+	}
+
 	public void movePositionTo(ShortPoint2D position, MaterialsManager newManager) {
 		for (int i = 0; i < EMaterialType.NUMBER_OF_MATERIALS; i++) {
 			requestQueues[i].moveObjectsOfPositionTo(position, newManager.requestQueues[i]);
@@ -129,4 +216,24 @@ public final class MaterialsManager implements Serializable {
 			requestQueues[i].mergeInto(newManager.requestQueues[i]);
 		}
 	}
+
+	private static final class TransportJob {
+		final EMaterialType materialType;
+		final MaterialOffer offer;
+		final MaterialRequestObject request;
+
+		TransportJob(EMaterialType materialType, MaterialOffer offer, MaterialRequestObject request) {
+			this.materialType = materialType;
+			this.offer = offer;
+			this.request = request;
+		}
+
+		/**
+		 * The bearer accepts the offer and the request again when he gets the job.
+		 */
+		void releaseReservation() {
+			offer.distributionAborted();
+			request.deliveryAborted();
+		}
+	}
 }
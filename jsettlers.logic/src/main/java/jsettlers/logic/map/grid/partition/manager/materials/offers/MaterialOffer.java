@@ -17,6 +17,7 @@ package jsettlers.logic.map.grid.partition.manager.materials.offers;
 import jsettlers.common.material.EMaterialType;
 import jsettlers.common.position.ILocatable;
 import jsettlers.common.position.ShortPoint2D;
+import jsettlers.logic.map.grid.partition.manager.datastructures.IObservableLocatable.IChangeListener;
 import jsettlers.logic.map.grid.partition.manager.materials.MaterialsManager;
 import jsettlers.logic.map.grid.partition.manager.materials.interfaces.IMaterialOffer;
 import jsettlers.logic.map.grid.partition.manager.materials.offers.list.IListManageable;
@@ -30,6 +31,8 @@ import java.io.Serializable;
  * @author Andreas Eberle
  */
 public class MaterialOffer implements Serializable, ILocatable, IPrioritizable<EOfferPriority>, IListManageable, IMaterialOffer {
+	private static final long serialVersionUID = -5165137002224737562L;
+
 	private final ShortPoint2D position;
 	private final EMaterialType materialType;
 
@@ -38,6 +41,8 @@ public class MaterialOffer implements Serializable, ILocatable, IPrioritizable<E
 	private byte amount = 0;
 	private byte inDistribution = 0;
 
+	private transient IChangeListener changeListener;
+
 	MaterialOffer(ShortPoint2D position, EMaterialType materialType, IOffersCountListener countChangedListener, EOfferPriority priority, byte amount) {
 		this.position = position;
 		this.materialType = materialType;
@@ -113,6 +118,15 @@ public class MaterialOffer implements Serializable, ILocatable, IPrioritizable<E
 	public void offerTaken() {
 		inDistribution--;
 		amount--;
+
+		if (changeListener != null && canBeRemoved()) {
+			changeListener.changed();
+		}
+	}
+
+	@Override
+	public void setChangeListener(IChangeListener changeListener) {
+		this.changeListener = changeListener;
 	}
 
 	@Override
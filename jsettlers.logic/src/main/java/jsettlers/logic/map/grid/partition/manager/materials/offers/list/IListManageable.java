@@ -14,10 +14,12 @@
  *******************************************************************************/
 package jsettlers.logic.map.grid.partition.manager.materials.offers.list;
 
+import jsettlers.logic.map.grid.partition.manager.datastructures.IObservableLocatable;
+
 /**
  * Created by Andreas Eberle on 03.03.2017.
  */
-public interface IListManageable {
+public interface IListManageable extends IObservableLocatable {
 	boolean isActive();
 
 	boolean canBeRemoved();
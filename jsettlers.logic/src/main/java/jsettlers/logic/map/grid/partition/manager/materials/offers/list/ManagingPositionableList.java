@@ -16,9 +16,9 @@ package jsettlers.logic.map.grid.partition.manager.materials.offers.list;
 
 import jsettlers.common.position.ILocatable;
 import jsettlers.common.position.ShortPoint2D;
-import jsettlers.common.utils.MathUtils;
 import jsettlers.logic.map.grid.partition.manager.datastructures.PositionableList;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 
 /**
@@ -29,32 +29,21 @@ import java.util.Iterator;
  * @author Andreas Eberle
  */
 public class ManagingPositionableList<T extends ILocatable & IListManageable> extends PositionableList<T> {
+	private static final long serialVersionUID = 5373491460834642792L;
+
+	/**
+	 * Entries that could be removed the last time they changed. They are removed before the next search.
+	 */
+	private transient ArrayList<T> removalCandidates;
 
 	@Override
 	protected T getObjectCloseTo(ShortPoint2D position) {
-		int bestDistance = Integer.MAX_VALUE;
-		T currBest = null;
-
-		for (Iterator<T> iterator = data.iterator(); iterator.hasNext(); ) {
-			T currEntry = iterator.next();
-
-			if (currEntry.canBeRemoved()) { // remove old entries no longer needed
-				iterator.remove();
-
-			} else if (currEntry.isActive()) { // only use the active ones
-				int currDist = MathUtils.squareHypot(position, currEntry.getPos());
-
-				if (bestDistance > currDist) {
-					bestDistance = currDist;
-					currBest = currEntry;
-				}
-			}
-		}
-		return currBest;
+		removeOldEntries();
+		return getObjectCloseTo(position, IListManageable::isActive); // only use the active ones
 	}
 
 	public boolean hasNoActive() {
-		for (Iterator<T> iterator = data.iterator(); iterator.hasNext(); ) {
+		for (Iterator<T> iterator = iterator(); iterator.hasNext(); ) {
 			T datum = iterator.next();
 
 			if (datum.canBeRemoved()) {
@@ -66,4 +55,32 @@ public class ManagingPositionableList<T extends ILocatable & IListManageable> ex
 		}
 		return true;
 	}
+
+	@Override
+	protected void entryChanged(T entry) {
+		if (entry.canBeRemoved()) {
+			if (removalCandidates == null) {
+				removalCandidates = new ArrayList<>();
+			}
+			removalCandidates.add(entry);
+		}
+	}
+
+	/**
+	 * Removes old entries no longer needed.
+	 */
+	private void removeOldEntries() {
+		if (removalCandidates == null || removalCandidates.isEmpty()) {
+			return;
+		}
+
+		for (T candidate : removalCandidates) {
+			if (candidate.canBeRemoved()) {
+				while (contains(candidate)) {
+					remove(candidate);
+				}
+			}
+		}
+		removalCandidates.clear();
+	}
 }
@@ -26,6 +26,8 @@ import java8.util.function.Consumer;
  * Created by Andreas Eberle on 23.08.2016.
  */
 public class PrioritizedPositionableList<P extends Enum, T extends ILocatable & IPrioritizable<P> & IListManageable> implements Serializable {
+	private static final long serialVersionUID = 394190964384458836L;
+
 	private final ManagingPositionableList<T>[] lists;
 
 	@SuppressWarnings("unchecked")
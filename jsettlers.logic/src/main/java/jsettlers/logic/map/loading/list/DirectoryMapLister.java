@@ -99,7 +99,7 @@ public class DirectoryMapLister implements IMapLister {
 	}
 
 	@Override
-	public OutputStream getOutputStream(MapFileHeader header) throws IOException {
+	public ListedMapOutputStream getOutputStream(MapFileHeader header) throws IOException {
 		String name = header.getName().toLowerCase(Locale.ENGLISH).replaceAll("^\\W+|\\W+$", "").replaceAll("\\W+", "_");
 		if (name.isEmpty()) {
 			name = "map";
@@ -147,10 +147,11 @@ public class DirectoryMapLister implements IMapLister {
 				ZipEntry zipEntry = new ZipEntry(actualName + MapLoader.MAP_EXTENSION);
 				zipOutputStream.putNextEntry(zipEntry);
 
-				return zipOutputStream;
+				// the deflater is slow on the small writes of the serialization
+				return new ListedMapOutputStream(new BufferedOutputStream(zipOutputStream), new ListedMapFile(file));
 			} else {
 				System.out.println("No savegame compression!");
-				return outputStream;
+				return new ListedMapOutputStream(outputStream, new ListedMapFile(file));
 			}
 		} catch (FileNotFoundException e) {
 			throw new IOException(e);
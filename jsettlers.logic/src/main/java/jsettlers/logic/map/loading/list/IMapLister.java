@@ -15,7 +15,6 @@
 package jsettlers.logic.map.loading.list;
 
 import java.io.IOException;
-import java.io.OutputStream;
 
 import jsettlers.logic.map.loading.newmap.MapFileHeader;
 
@@ -31,8 +30,8 @@ public interface IMapLister {
 	 * 
 	 * @param header
 	 *            The header to create the file name from. It is not written to the stream.
-	 * @return A output stream to a fresh generated file.
+	 * @return A output stream to a fresh generated file. It gives the {@link IListedMap} of that file.
 	 * @throws IOException
 	 */
-	OutputStream getOutputStream(MapFileHeader header) throws IOException;
+	ListedMapOutputStream getOutputStream(MapFileHeader header) throws IOException;
 }
@@ -14,6 +14,7 @@
  *******************************************************************************/
 package jsettlers.logic.map.loading.list;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -21,6 +22,13 @@ import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import jsettlers.common.CommonConstants;
 import jsettlers.common.logging.MilliStopWatch;
@@ -29,6 +37,7 @@ import jsettlers.input.PlayerState;
 import jsettlers.logic.constants.MatchConstants;
 import jsettlers.logic.map.grid.GameSerializer;
 import jsettlers.logic.map.grid.MainGrid;
+import jsettlers.logic.map.loading.MapLoadException;
 import jsettlers.logic.map.loading.MapLoader;
 import jsettlers.logic.map.loading.data.IMapData;
 import jsettlers.logic.map.loading.list.IMapLister.IMapListerCallable;
@@ -49,6 +58,22 @@ import jsettlers.logic.timer.RescheduleTimer;
  * @author Andreas Eberle
  */
 public class MapList implements IMapListerCallable {
+	private static final int SAVEGAME_SNAPSHOT_INITIAL_SIZE = 4 * 1024 * 1024;
+
+	/**
+	 * Writes the savegames one after the other. The thread is not a daemon, so a savegame is completed when the game is closed while writing.
+	 */
+	private static final ThreadPoolExecutor SAVE_EXECUTOR = new ThreadPoolExecutor(1, 1, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+			new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					return new Thread(runnable, "SaveThread");
+				}
+			});
+
+	static {
+		SAVE_EXECUTOR.allowCoreThreadTimeOut(true);
+	}
 
 	/**
 	 * Gives the currently used map extension for saving a map.
@@ -190,19 +215,40 @@ public class MapList implements IMapListerCallable {
 	}
 
 	/**
-	 * Saves a map to disk. The map logic should be paused while calling this method.
+	 * Saves a map to disk and waits until the savegame has been written. The map logic should be paused while calling this method.
 	 * 
 	 * @param playerStates
 	 * @param grid
+	 * @return The savegame that has been written.
 	 * @throws IOException
 	 */
-	public synchronized void saveMap(PlayerState[] playerStates, MapFileHeader header, MainGrid grid) throws IOException {
-		MilliStopWatch watch = new MilliStopWatch();
-		OutputStream outStream = saveDirectory.getOutputStream(header);
+	public MapLoader saveMap(PlayerState[] playerStates, MapFileHeader header, MainGrid grid) throws IOException {
+		Future<MapLoader> writing = saveMapInBackground(playerStates, header, grid);
+		try {
+			return writing.get();
+		} catch (InterruptedException e) {
+			throw new IOException(e);
+		} catch (ExecutionException e) {
+			throw new IOException("Error writing savegame.", e.getCause());
+		}
+	}
 
-		header.writeTo(outStream);
+	/**
+	 * Captures the game state in memory and writes it to disk in the background. The map logic only needs to be paused while this method
+	 * runs; the game can continue while the savegame is written.
+	 * 
+	 * @param playerStates
+	 * @param header
+	 * @param grid
+	 * @return A future that is done when the savegame has been written. It gives the written savegame.
+	 * @throws IOException
+	 */
+	public synchronized Future<MapLoader> saveMapInBackground(PlayerState[] playerStates, final MapFileHeader header, MainGrid grid) throws IOException {
+		MilliStopWatch watch = new MilliStopWatch();
+		final ByteArrayOutputStream snapshot = new ByteArrayOutputStream(SAVEGAME_SNAPSHOT_INITIAL_SIZE);
 
-		ObjectOutputStream oos = new ObjectOutputStream(outStream);
+		ObjectOutputStream oos = new ObjectOutputStream(snapshot);
+		GameSerializer.writeVersion(oos);
 		MatchConstants.serialize(oos);
 		oos.writeObject(playerStates);
 		GameSerializer gameSerializer = new GameSerializer();
@@ -210,9 +256,35 @@ public class MapList implements IMapListerCallable {
 		RescheduleTimer.saveTo(oos);
 
 		oos.close();
-		watch.stop("Writing savegame required");
-
-		loadFileList();
+		watch.stop("Capturing savegame required");
+
+		return SAVE_EXECUTOR.submit(new Callable<MapLoader>() {
+			@Override
+			public MapLoader call() throws IOException {
+				MilliStopWatch watch = new MilliStopWatch();
+				IListedMap savegameFile;
+				try (ListedMapOutputStream outStream = saveDirectory.getOutputStream(header)) {
+					header.writeTo(outStream);
+					snapshot.writeTo(outStream);
+					savegameFile = outStream.getListedMap();
+				}
+				watch.stop("Writing savegame required");
+
+				MapLoader savegame;
+				try {
+					savegame = MapLoader.getLoaderForListedMap(savegameFile);
+				} catch (MapLoadException e) {
+					throw new IOException("The written savegame " + savegameFile.getFileName() + " could not be read.", e);
+				}
+
+				synchronized (MapList.this) {
+					if (fileListLoaded) { // otherwise the savegame is found when the list is loaded
+						savedMaps.add((RemakeMapLoader) savegame);
+					}
+				}
+				return savegame;
+			}
+		});
 	}
 
 	public ArrayList<MapLoader> getSavedMultiplayerMaps() {
@@ -87,7 +87,7 @@ public abstract class RemakeMapLoader extends MapLoader {
 					zipInputStream.close();
 					throw new IOException("Invalid compressed map format!");
 				}
-				inputStream = zipInputStream;
+				inputStream = new BufferedInputStream(zipInputStream); // the inflater is slow on the small reads of the deserialization
 			}
 			return inputStream;
 		} catch (Exception ex) {
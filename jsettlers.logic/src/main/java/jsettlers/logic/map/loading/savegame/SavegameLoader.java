@@ -49,6 +49,7 @@ public class SavegameLoader extends RemakeMapLoader {
 		@Override
 	public MainGridWithUiSettings loadMainGrid(PlayerSetting[] playerSettings, EMapStartResources startResources) throws MapLoadException {
 		try (ObjectInputStream ois = new ObjectInputStream(super.getMapDataStream())) {
+			GameSerializer.checkVersion(ois);
 			MatchConstants.deserialize(ois);
 			PlayerState[] playerStates = (PlayerState[]) ois.readObject();
 			GameSerializer gameSerializer = new GameSerializer();
@@ -28,6 +28,7 @@ import jsettlers.common.menu.messages.SimpleMessage;
 import jsettlers.logic.buildings.military.IBuildingOccupyableMovable;
 import jsettlers.logic.buildings.military.occupying.IOccupyableBuilding;
 import jsettlers.logic.constants.Constants;
+import jsettlers.logic.constants.GameContext;
 import jsettlers.logic.constants.MatchConstants;
 import jsettlers.logic.movable.interfaces.AbstractMovableGrid;
 import jsettlers.logic.movable.interfaces.IAttackable;
@@ -35,13 +36,14 @@ import jsettlers.logic.movable.interfaces.ILogicMovable;
 import jsettlers.logic.movable.strategies.FleeStrategy;
 import jsettlers.logic.movable.strategies.soldiers.SoldierStrategy;
 import jsettlers.logic.player.Player;
+import jsettlers.logic.timer.IParallelScheduledTimerable;
 import jsettlers.logic.timer.RescheduleTimer;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
@@ -50,11 +52,8 @@ import java.util.concurrent.ConcurrentLinkedQueue;
  *
  * @author Andreas Eberle
  */
-public final class Movable implements ILogicMovable {
+public final class Movable implements ILogicMovable, IParallelScheduledTimerable {
 	private static final long serialVersionUID = 2472076796407425256L;
-	private static final HashMap<Integer, ILogicMovable> movablesByID = new HashMap<>();
-	private static final ConcurrentLinkedQueue<ILogicMovable> allMovables = new ConcurrentLinkedQueue<>();
-	private static int nextID = Integer.MIN_VALUE;
 
 	protected final AbstractMovableGrid grid;
 	private final int id;
@@ -84,12 +83,23 @@ public final class Movable implements ILogicMovable {
 
 	private boolean isRightstep = false;
 	private int flockDelay = 700;
+	private final long timerHandle;
 
 	private EMaterialType takeDropMaterial;
 
 	private transient boolean selected = false;
 	private transient boolean soundPlayed = false;
 
+	private transient int preparedPathTime = -1;
+	private transient ShortPoint2D preparedPathStart;
+	private transient ShortPoint2D preparedPathTarget;
+	private transient EMovableType preparedPathMovableType;
+	private transient Path preparedPath;
+	/**
+	 * Strategies of this movable that are stored in lists indexed by position. This can include strategies that have been replaced already.
+	 */
+	private transient ArrayList<MovableStrategy> observedStrategies;
+
 	public Movable(AbstractMovableGrid grid, EMovableType movableType, ShortPoint2D position, Player player) {
 		this.grid = grid;
 		this.position = position;
@@ -100,27 +110,30 @@ public final class Movable implements ILogicMovable {
 
 		this.direction = EDirection.VALUES[MatchConstants.random().nextInt(EDirection.NUMBER_OF_DIRECTIONS)];
 
-		RescheduleTimer.add(this, Constants.MOVABLE_INTERRUPT_PERIOD);
+		this.timerHandle = RescheduleTimer.add(this, Constants.MOVABLE_INTERRUPT_PERIOD);
 
-		this.id = nextID++;
-		movablesByID.put(this.id, this);
-		allMovables.offer(this);
+		GameContext gameContext = GameContext.current();
+		this.id = gameContext.createMovableID();
+		gameContext.getMovablesByID().put(this.id, this);
+		gameContext.getAllMovables().offer(this);
 
 		grid.enterPosition(position, this, true);
 	}
 
 	@SuppressWarnings("unchecked")
 	public static void readStaticState(ObjectInputStream ois) throws IOException, ClassNotFoundException {
-		nextID = ois.readInt();
-		allMovables.clear();
-		allMovables.addAll((Collection<? extends ILogicMovable>) ois.readObject());
-		movablesByID.putAll((Map<? extends Integer, ? extends ILogicMovable>) ois.readObject());
+		GameContext gameContext = GameContext.current();
+		gameContext.setNextMovableID(ois.readInt());
+		gameContext.getAllMovables().clear();
+		gameContext.getAllMovables().addAll((Collection<? extends ILogicMovable>) ois.readObject());
+		gameContext.getMovablesByID().putAll((Map<? extends Integer, ? extends ILogicMovable>) ois.readObject());
 	}
 
 	public static void writeStaticState(ObjectOutputStream oos) throws IOException {
-		oos.writeInt(nextID);
-		oos.writeObject(allMovables);
-		oos.writeObject(movablesByID);
+		GameContext gameContext = GameContext.current();
+		oos.writeInt(gameContext.getNextMovableID());
+		oos.writeObject(gameContext.getAllMovables());
+		oos.writeObject(gameContext.getMovablesByID());
 	}
 
 	/**
@@ -158,6 +171,60 @@ public final class Movable implements ILogicMovable {
 		}
 	}
 
+	@Override
+	public int getRegionKey() {
+		return (position.x >> Constants.MOVABLE_REGION_SIZE_BITS) | (position.y >> Constants.MOVABLE_REGION_SIZE_BITS) << 16;
+	}
+
+	@Override
+	public void prepareTimerEvent() {
+		preparedPathTime = -1;
+		preparedPath = null;
+		if (state == EMovableState.DEAD) {
+			return;
+		}
+
+		boolean animationFinished = state == EMovableState.DOING_NOTHING
+				|| animationStartTime + animationDuration <= MatchConstants.clock().getTime();
+		ShortPoint2D requestedTarget = requestedTargetPosition;
+		if (requestedTarget != null) {
+			if (animationFinished && strategy.canBeControlledByPlayer()) {
+				preparePathTo(requestedTarget);
+			}
+		} else {
+			if (animationFinished && state == EMovableState.PATHING && path != null && path.hasNextStep()
+					&& grid.getMovableAt(path.nextX(), path.nextY()) == null
+					&& !grid.isValidNextPathPosition(this, path.getNextPos(), path.getTargetPos())) {
+				preparePathTo(path.getTargetPos()); // the next step is blocked => a new path will be needed
+			}
+			strategy.prepareAction();
+		}
+	}
+
+	private void preparePathTo(ShortPoint2D targetPos) {
+		preparedPath = grid.calculatePathConcurrentlyTo(this, targetPos);
+		preparedPathStart = position;
+		preparedPathTarget = targetPos;
+		preparedPathMovableType = movableType;
+		preparedPathTime = MatchConstants.clock().getTime();
+	}
+
+	/**
+	 * Calculates a path to the given target. If a path to the target has been prepared in parallel for this time slot, the prepared path is used.
+	 */
+	private Path calculatePathTo(ShortPoint2D targetPos) {
+		Path path;
+		if (preparedPathTime == MatchConstants.clock().getTime() && position.equals(preparedPathStart) && targetPos.equals(preparedPathTarget)
+				&& movableType == preparedPathMovableType) {
+			path = preparedPath;
+		} else {
+			path = grid.calculatePathTo(this, targetPos);
+		}
+		preparedPathTime = -1;
+		preparedPath = null;
+		return path;
+	}
+
 	@Override
 	public int timerEvent() {
 		if (state == EMovableState.DEAD) {
@@ -296,7 +363,7 @@ public final class Movable implements ILogicMovable {
 			} else { // next position is invalid
 				movableAction = EMovableAction.NO_ACTION;
 				animationDuration = Constants.MOVABLE_INTERRUPT_PERIOD; // recheck shortly
-				Path newPath = grid.calculatePathTo(this, path.getTargetPos()); // try to find a new path
+				Path newPath = calculatePathTo(path.getTargetPos()); // try to find a new path
 
 				if (newPath == null) { // no path found
 					setState(EMovableState.DOING_NOTHING);
@@ -345,6 +412,7 @@ public final class Movable implements ILogicMovable {
 		grid.leavePosition(this.position, this);
 		grid.enterPosition(position, this, false);
 		this.position = position;
+		notifyPositionChanged();
 		isRightstep = !isRightstep;
 	}
 
@@ -599,7 +667,7 @@ public final class Movable implements ILogicMovable {
 	final boolean goToPos(ShortPoint2D targetPos) {
 		assert state == EMovableState.DOING_NOTHING : "can't do goToPos() if state isn't DOING_NOTHING. curr state: " + state;
 
-		Path path = grid.calculatePathTo(this, targetPos);
+		Path path = calculatePathTo(targetPos);
 		if (path == null) {
 			return false;
 		} else {
@@ -655,6 +723,26 @@ public final class Movable implements ILogicMovable {
 		}
 
 		this.position = position;
+		notifyPositionChanged();
+	}
+
+	final void addObservedStrategy(MovableStrategy strategy) {
+		if (observedStrategies == null) {
+			observedStrategies = new ArrayList<>(2);
+		}
+		if (!observedStrategies.contains(strategy)) {
+			observedStrategies.add(strategy);
+		}
+	}
+
+	private void notifyPositionChanged() {
+		if (observedStrategies != null) {
+			for (int i = observedStrategies.size() - 1; i >= 0; i--) {
+				if (!observedStrategies.get(i).positionChanged()) {
+					observedStrategies.remove(i);
+				}
+			}
+		}
 	}
 
 	final void setVisible(boolean visible) {
@@ -733,17 +821,18 @@ public final class Movable implements ILogicMovable {
 	 * or null if the id can not be found
 	 */
 	public static ILogicMovable getMovableByID(int id) {
-		return movablesByID.get(id);
+		return GameContext.current().getMovablesByID().get(id);
 	}
 
 	public static ConcurrentLinkedQueue<ILogicMovable> getAllMovables() {
-		return allMovables;
+		return GameContext.current().getAllMovables();
 	}
 
 	public static void resetState() {
-		allMovables.clear();
-		movablesByID.clear();
-		nextID = Integer.MIN_VALUE;
+		GameContext gameContext = GameContext.current();
+		gameContext.getAllMovables().clear();
+		gameContext.getMovablesByID().clear();
+		gameContext.setNextMovableID(Integer.MIN_VALUE);
 	}
 
 	/**
@@ -755,14 +844,17 @@ public final class Movable implements ILogicMovable {
 			return; // this movable already died.
 		}
 
+		RescheduleTimer.cancel(timerHandle);
 		grid.leavePosition(this.position, this);
 		this.health = -200;
 		this.strategy.strategyKilledEvent(path != null ? path.getTargetPos() : null);
 		this.state = EMovableState.DEAD;
 		this.selected = false;
+		grid.viewDistanceChanged(this);
 
-		movablesByID.remove(this.getID());
-		allMovables.remove(this);
+		GameContext gameContext = GameContext.current();
+		gameContext.getMovablesByID().remove(this.getID());
+		gameContext.getAllMovables().remove(this);
 
 		grid.addSelfDeletingMapObject(position, EMapObjectType.GHOST, Constants.GHOST_PLAY_DURATION, player);
 	}
@@ -858,6 +950,9 @@ public final class Movable implements ILogicMovable {
 
 	@Override
 	public final short getViewDistance() {
+		if (state == EMovableState.DEAD) {
+			return 0;
+		}
 		return Constants.MOVABLE_VIEW_DISTANCE;
 	}
 
@@ -25,6 +25,7 @@ import jsettlers.common.movable.EDirection;
 import jsettlers.common.movable.EMovableAction;
 import jsettlers.common.movable.EMovableType;
 import jsettlers.common.position.ShortPoint2D;
+import jsettlers.logic.map.grid.partition.manager.datastructures.IObservableLocatable.IChangeListener;
 import jsettlers.logic.movable.interfaces.AbstractMovableGrid;
 import jsettlers.logic.movable.interfaces.IAttackable;
 import jsettlers.logic.movable.interfaces.ILogicMovable;
@@ -49,6 +50,8 @@ public abstract class MovableStrategy implements Serializable {
 
 	protected final Movable movable;
 
+	private transient IChangeListener changeListener;
+
 	protected MovableStrategy(Movable movable) {
 		this.movable = movable;
 	}
@@ -116,6 +119,13 @@ public abstract class MovableStrategy implements Serializable {
 	protected void action() {
 	}
 
+	/**
+	 * Called concurrently to other movables if the timer runs in parallel mode. Strategies may run read only queries for their next {@link #action()}
+	 * here. The results must only be used if they are still valid when {@link #action()} is called.
+	 */
+	protected void prepareAction() {
+	}
+
 	protected final EMaterialType setMaterial(EMaterialType materialType) {
 		return movable.setMaterial(materialType);
 	}
@@ -200,6 +210,27 @@ public abstract class MovableStrategy implements Serializable {
 		return movable.getPos();
 	}
 
+	public final void setChangeListener(IChangeListener changeListener) {
+		this.changeListener = changeListener;
+		if (changeListener != null) {
+			movable.addObservedStrategy(this);
+		}
+	}
+
+	/**
+	 * Informs the listener of the list this strategy is stored in (e.g. the jobless bearers of a partition) that the position has changed.
+	 *
+	 * @return true if this strategy is still observed.
+	 */
+	final boolean positionChanged() {
+		if (changeListener != null) {
+			changeListener.changed();
+			return true;
+		} else {
+			return false;
+		}
+	}
+
 	protected final void abortPath() {
 		movable.abortPath();
 	}
@@ -57,10 +57,30 @@ public abstract class AbstractMovableGrid extends AbstractStrategyGrid {
 	 */
 	public abstract void enterPosition(ShortPoint2D position, ILogicMovable movable, boolean informFullArea);
 
+	/**
+	 * Informs the grid that the view distance of the given movable changed without it changing its position.
+	 *
+	 * @param movable
+	 *            Movable whose view distance changed.
+	 */
+	public abstract void viewDistanceChanged(ILogicMovable movable);
+
 	public abstract void notifyAttackers(ShortPoint2D position, ILogicMovable movable, boolean informFullArea);
 
 	public abstract Path calculatePathTo(IPathCalculatable pathCalculatable, ShortPoint2D targetPos);
 
+	/**
+	 * Calculates a path like {@link #calculatePathTo(IPathCalculatable, ShortPoint2D)}, but may be called concurrently by several threads while the
+	 * grid is not changed. Every thread uses its own pathfinder workspace.
+	 *
+	 * @param pathCalculatable
+	 *            The requester of the path.
+	 * @param targetPos
+	 *            The target of the path.
+	 * @return The path or null if no path could be found.
+	 */
+	public abstract Path calculatePathConcurrentlyTo(IPathCalculatable pathCalculatable, ShortPoint2D targetPos);
+
 	public abstract Path searchDijkstra(IPathCalculatable pathCalculateable, short centerX, short centerY, short radius, ESearchType searchType);
 
 	public abstract Path searchInArea(IPathCalculatable pathCalculateable, short centerX, short centerY, short radius, ESearchType searchType);
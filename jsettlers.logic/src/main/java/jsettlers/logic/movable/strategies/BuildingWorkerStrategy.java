@@ -16,6 +16,7 @@ package jsettlers.logic.movable.strategies;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.io.ObjectInputValidation;
 import java.io.ObjectOutputStream;
 
 import jsettlers.common.buildings.EBuildingType;
@@ -62,11 +63,17 @@ public final class BuildingWorkerStrategy extends MovableStrategy implements IMa
 
 	private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
 		ois.defaultReadObject();
-		String currentJobName = ois.readUTF();
+		final String currentJobName = ois.readUTF();
 		if (currentJobName.equals("null")) {
 			currentJob = null;
 		} else {
-			currentJob = building.getBuildingType().getJobByName(currentJobName);
+			// the building may not be completely read yet, because it references this worker. Therefore resolve the job when the whole graph is read.
+			ois.registerValidation(new ObjectInputValidation() {
+				@Override
+				public void validateObject() {
+					currentJob = building.getBuildingType().getJobByName(currentJobName);
+				}
+			}, 0);
 		}
 	}
 
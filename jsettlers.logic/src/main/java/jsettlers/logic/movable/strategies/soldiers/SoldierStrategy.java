@@ -23,6 +23,7 @@ import jsettlers.common.position.ShortPoint2D;
 import jsettlers.logic.buildings.military.IBuildingOccupyableMovable;
 import jsettlers.logic.buildings.military.occupying.IOccupyableBuilding;
 import jsettlers.logic.constants.MatchConstants;
+import jsettlers.logic.map.grid.movable.MovableGrid;
 import jsettlers.logic.movable.EGoInDirectionMode;
 import jsettlers.logic.movable.Movable;
 import jsettlers.logic.movable.MovableStrategy;
@@ -61,11 +62,49 @@ public abstract class SoldierStrategy extends MovableStrategy implements IBuildi
 
 	private boolean defending;
 
+	private transient int preparedTime = -1;
+	private transient ShortPoint2D preparedAttackPosition;
+	private transient boolean preparedInTower;
+	private transient boolean preparedDefending;
+	private transient IAttackable preparedEnemy;
+	private transient ShortPoint2D preparedEnemyPosition;
+
 	public SoldierStrategy(Movable movable, EMovableType movableType) {
 		super(movable);
 		this.movableType = movableType;
 	}
 
+	@Override
+	protected void prepareAction() {
+		preparedTime = -1;
+		if (state == ESoldierState.SEARCH_FOR_ENEMIES) {
+			preparedAttackPosition = getAttackPosition();
+			preparedInTower = isInTower;
+			preparedDefending = defending;
+			preparedEnemy = super.getGrid().getEnemyInSearchArea(preparedAttackPosition, movable, getMinSearchDistance(),
+					getMaxSearchDistance(isInTower), !defending);
+			preparedEnemyPosition = preparedEnemy != null ? preparedEnemy.getPos() : null;
+			preparedTime = MatchConstants.clock().getTime();
+		}
+	}
+
+	private IAttackable searchEnemy(short minSearchDistance) {
+		ShortPoint2D attackPosition = getAttackPosition();
+		if (preparedTime == MatchConstants.clock().getTime() && attackPosition.equals(preparedAttackPosition) && preparedInTower == isInTower
+				&& preparedDefending == defending && isPreparedEnemyValid()) {
+			preparedTime = -1;
+			return preparedEnemy;
+		}
+
+		preparedTime = -1;
+		return super.getGrid().getEnemyInSearchArea(attackPosition, movable, minSearchDistance, getMaxSearchDistance(isInTower), !defending);
+	}
+
+	private boolean isPreparedEnemyValid() {
+		return preparedEnemy == null || preparedEnemy.getHealth() > 0 && preparedEnemy.getPos().equals(preparedEnemyPosition)
+				&& MovableGrid.isEnemy(movable.getPlayer(), preparedEnemy);
+	}
+
 	@Override
 	protected void action() {
 		switch (state) {
@@ -92,7 +131,7 @@ public abstract class SoldierStrategy extends MovableStrategy implements IBuildi
 		case SEARCH_FOR_ENEMIES:
 			final short minSearchDistance = getMinSearchDistance();
 			IAttackable oldEnemy = enemy;
-			enemy = super.getGrid().getEnemyInSearchArea(getAttackPosition(), movable, minSearchDistance, getMaxSearchDistance(isInTower), !defending);
+			enemy = searchEnemy(minSearchDistance);
 
 			// check if we have a new enemy. If so, go in unsafe mode again.
 			if (oldEnemy != null && oldEnemy != enemy) {
@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.timer;
+
+/**
+ * An {@link IScheduledTimerable} that is able to prepare its next {@link #timerEvent()} in parallel to other timerables.
+ * <p>
+ * If the {@link RescheduleTimer} runs in parallel mode, {@link #prepareTimerEvent()} is called for all timerables of a time slot concurrently
+ * before their {@link #timerEvent()}s are executed one after the other in the usual order. As all preparations see the same game state, the
+ * results stay deterministic.
+ */
+public interface IParallelScheduledTimerable extends IScheduledTimerable {
+
+	/**
+	 * Timerables with the same region key are prepared in the same batch. Timerables that access the same area of the map should return the same
+	 * key.
+	 * 
+	 * @return The key of the map region this timerable is located in. Must not be negative.
+	 */
+	int getRegionKey();
+
+	/**
+	 * Prepares the next call of {@link #timerEvent()}. This method is called concurrently to other timerables and must therefore only read the
+	 * game state. It may only write state of this object that is exclusively used by its next {@link #timerEvent()}.
+	 * <p>
+	 * Any changes of the game state must be done in {@link #timerEvent()}, which is called in a deterministic order.
+	 */
+	void prepareTimerEvent();
+}
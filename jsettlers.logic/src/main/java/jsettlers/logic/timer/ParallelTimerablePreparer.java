@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.timer;
+
+import java.util.Arrays;
+
+import jsettlers.logic.constants.GameContext;
+
+import java8.util.concurrent.ForkJoinPool;
+import java8.util.concurrent.RecursiveAction;
+
+/**
+ * Calls {@link IParallelScheduledTimerable#prepareTimerEvent()} for a set of timerables on a fork join pool. The timerables are sorted by their
+ * region keys and split into batches of spatially close timerables.
+ */
+final class ParallelTimerablePreparer {
+	private static final int MIN_BATCH_SIZE = 32;
+
+	private final GameContext gameContext;
+	private final ForkJoinPool pool;
+
+	private IParallelScheduledTimerable[] timerables = new IParallelScheduledTimerable[256];
+	/**
+	 * Region key in the upper and index into {@link #timerables} in the lower 32 bits.
+	 */
+	private long[] sortKeys = new long[256];
+	private int count = 0;
+
+	ParallelTimerablePreparer(GameContext gameContext, int parallelism) {
+		this.gameContext = gameContext;
+		this.pool = new ForkJoinPool(parallelism);
+	}
+
+	void add(IParallelScheduledTimerable timerable) {
+		if (count == timerables.length) {
+			timerables = Arrays.copyOf(timerables, count * 2);
+			sortKeys = Arrays.copyOf(sortKeys, count * 2);
+		}
+		sortKeys[count] = ((long) timerable.getRegionKey() << 32) | count;
+		timerables[count] = timerable;
+		count++;
+	}
+
+	/**
+	 * Prepares all added timerables and blocks until all preparations are finished.
+	 */
+	void prepareAll() {
+		if (count == 0) {
+			return;
+		}
+
+		if (count < MIN_BATCH_SIZE) {
+			prepareBatch(0, count);
+		} else {
+			Arrays.sort(sortKeys, 0, count);
+			pool.invoke(new PrepareBatchAction(0, count));
+		}
+
+		Arrays.fill(timerables, 0, count, null);
+		count = 0;
+	}
+
+	void shutdown() {
+		pool.shutdown();
+	}
+
+	private void prepareBatch(int from, int to) {
+		gameContext.bindToCurrentThread();
+		for (int i = from; i < to; i++) {
+			IParallelScheduledTimerable timerable = timerables[(int) sortKeys[i]];
+			try {
+				timerable.prepareTimerEvent();
+			} catch (Throwable t) {
+				System.err.println("ParallelTimerablePreparer catched: ");
+				t.printStackTrace();
+			}
+		}
+	}
+
+	private int getRegionKey(int index) {
+		return (int) (sortKeys[index] >>> 32);
+	}
+
+	/**
+	 * Splits the given range at region borders until the batches are small enough.
+	 */
+	private class PrepareBatchAction extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int from;
+		private final int to;
+
+		PrepareBatchAction(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from >= 2 * MIN_BATCH_SIZE) {
+				int split = findRegionBorder((from + to) / 2);
+				if (split > from && split < to) {
+					invokeAll(new PrepareBatchAction(from, split), new PrepareBatchAction(split, to));
+					return;
+				}
+			}
+			prepareBatch(from, to);
+		}
+
+		private int findRegionBorder(int middle) {
+			int regionKey = getRegionKey(middle);
+			int split = middle;
+			while (split < to && getRegionKey(split) == regionKey) {
+				split++;
+			}
+			if (split == to) { // the upper half is a single region, try the lower half
+				split = middle;
+				while (split > from && getRegionKey(split - 1) == regionKey) {
+					split--;
+				}
+			}
+			return split;
+		}
+	}
+}
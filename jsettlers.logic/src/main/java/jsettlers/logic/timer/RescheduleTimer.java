@@ -18,38 +18,98 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.util.Arrays;
 
-import jsettlers.logic.map.loading.MapLoadException;
+import jsettlers.logic.constants.GameContext;
 import jsettlers.logic.constants.MatchConstants;
+import jsettlers.logic.constants.MatchSettings;
+import jsettlers.logic.map.loading.MapLoadException;
 import jsettlers.network.client.interfaces.IGameClock;
 import jsettlers.network.synchronic.timer.INetworkTimerable;
 
+/**
+ * Hierarchical timing wheel scheduling {@link IScheduledTimerable}s with a granularity of {@link #TIME_SLICE} milliseconds.
+ * <p>
+ * The first level has one slot per time slice for the next {@link #FUTURE_TIME} milliseconds. Every further level has {@link #LEVEL_SLOTS} slots,
+ * each covering a whole turn of the level below. Entries scheduled further in the future are placed on the higher levels and cascaded down once
+ * their slot comes up, so arbitrarily long delays are supported.
+ * <p>
+ * The slots are intrusive linked lists stored in primitive node arrays, so the timer does not allocate any objects per tick. Inserting and
+ * cancelling is O(1): a cancelled node is only marked and is recycled when its slot comes up. The order of execution inside a slot is the order of
+ * insertion, which keeps the game deterministic.
+ * <p>
+ * Optionally, the timer prepares the {@link IParallelScheduledTimerable}s of a slot in parallel before executing the slot (see
+ * {@link MatchSettings#PARALLEL_TIMER_PREPARATION}).
+ * <p>
+ * Every match has its own timer, which is held by its {@link GameContext}. The static methods use the timer of {@link GameContext#current()}.
+ *
+ * @author Andreas Eberle
+ */
 public final class RescheduleTimer implements INetworkTimerable, Serializable {
-	private static final long serialVersionUID = -1962430988827211391L;
+	private static final long serialVersionUID = 4658167457251718429L;
 
 	private static final int FUTURE_TIME = 32000;
 	private static final short TIME_SLICE = 25; // ms
 	private static final int TIME_SLOTS = FUTURE_TIME / TIME_SLICE;
 
-	private static RescheduleTimer uniIns;
+	private static final int LEVEL_SLOTS = 64;
+	private static final int LEVEL_MASK = LEVEL_SLOTS - 1;
+	private static final int UPPER_LEVELS = 3;
+	/**
+	 * Number of ticks covered by one slot of each upper level.
+	 */
+	private static final long[] LEVEL_GRANULARITIES = { TIME_SLOTS, TIME_SLOTS * LEVEL_SLOTS, (long) TIME_SLOTS * LEVEL_SLOTS * LEVEL_SLOTS };
 
-	@SuppressWarnings("unchecked")
-	private final ArrayList<IScheduledTimerable> timerables[] = new ArrayList[TIME_SLOTS];
-	private int currTimeSlot = 0;
+	private static final int INITIAL_CAPACITY = 1024;
+	private static final int NONE = -1;
 
-	protected RescheduleTimer() {
-		for (int i = 0; i < TIME_SLOTS; i++) {
-			timerables[i] = new ArrayList<>();
-		}
+	/**
+	 * Handle returned for timerables that have not been scheduled.
+	 */
+	public static final long NO_HANDLE = -1L;
+
+	/**
+	 * First and last node of each slot. The slots of level 0 come first, followed by {@link #LEVEL_SLOTS} slots for each upper level.
+	 */
+	private final int[] slotHeads = new int[TIME_SLOTS + UPPER_LEVELS * LEVEL_SLOTS];
+	private final int[] slotTails = new int[TIME_SLOTS + UPPER_LEVELS * LEVEL_SLOTS];
+
+	private IScheduledTimerable[] nodeTimerables = new IScheduledTimerable[INITIAL_CAPACITY];
+	private int[] nodeNext = new int[INITIAL_CAPACITY];
+	private int[] nodeGenerations = new int[INITIAL_CAPACITY];
+	private long[] nodeExpiries = new long[INITIAL_CAPACITY];
+
+	private int freeNodes = NONE;
+	private int usedNodes = 0;
+	private int scheduledNodes = 0;
+
+	private long currentTick = 0;
+	private int currentSlot = 0;
+
+	private transient GameContext gameContext;
+	private transient ParallelTimerablePreparer parallelPreparer;
+	private transient volatile boolean stopped;
+
+	RescheduleTimer(GameContext gameContext) {
+		this.gameContext = gameContext;
+		Arrays.fill(slotHeads, NONE);
+		Arrays.fill(slotTails, NONE);
 	}
 
-	public static synchronized void stopAndClear() {
-		if (uniIns != null) {
-			if (MatchConstants.clock() != null) {
-				MatchConstants.clock().remove(uniIns);
+	public static void stopAndClear() {
+		GameContext context = GameContext.current();
+		RescheduleTimer timer;
+		synchronized (context) {
+			timer = context.getRescheduleTimer();
+			context.setRescheduleTimer(null);
+		}
+
+		if (timer != null) {
+			if (context.getClock() != null) {
+				context.getClock().remove(timer);
 			}
-			uniIns = null;
+			timer.stopped = true;
+			timer.setParallelism(0);
 			try {
 				Thread.sleep(100L); // stopping takes some time
 			} catch (InterruptedException e) {
@@ -58,50 +118,242 @@ public final class RescheduleTimer implements INetworkTimerable, Serializable {
 	}
 
 	/**
-	 * Schedules the given {@link IScheduledTimerable} in max delay milliseconds.
+	 * Schedules the given {@link IScheduledTimerable} in delay milliseconds.
 	 * 
 	 * @param t
+	 *            The timerable to schedule.
 	 * @param delay
+	 *            The delay in milliseconds. If the delay is zero or negative, the timerable is not scheduled.
+	 * @return A handle that can be used to {@link #cancel(long)} the scheduling or {@link #NO_HANDLE} if the timerable has not been scheduled. The
+	 *         handle stays valid as long as the timerable reschedules itself with the return value of {@link IScheduledTimerable#timerEvent()}.
+	 */
+	public static long add(IScheduledTimerable t, int delay) {
+		return get().addTimerable(t, delay);
+	}
+
+	/**
+	 * Cancels the scheduling identified by the given handle. After this call, the timerable will not be called by the timer any more.
+	 * 
+	 * @param handle
+	 *            A handle returned by {@link #add(IScheduledTimerable, int)}.
+	 * @return true if the scheduling has been cancelled,<br>
+	 *         false if the handle was not valid any more.
 	 */
-	public static void add(IScheduledTimerable t, int delay) {
-		get().addTimerable(t, delay);
+	public static boolean cancel(long handle) {
+		return get().cancelTimerable(handle);
 	}
 
-	private void addTimerable(IScheduledTimerable t, int delay) {
+	long addTimerable(IScheduledTimerable t, int delay) {
 		if (delay <= 0) {
-			return; // don't schedule if requested delay is negative or zero
+			return NO_HANDLE; // don't schedule if requested delay is negative or zero
+		}
+
+		int node = allocateNode();
+		nodeTimerables[node] = t;
+		insertNode(node, getDelaySlots(delay));
+		return ((long) nodeGenerations[node] << 32) | node;
+	}
+
+	boolean cancelTimerable(long handle) {
+		int node = (int) handle;
+		if (handle == NO_HANDLE || node >= usedNodes || nodeGenerations[node] != (int) (handle >>> 32) || nodeTimerables[node] == null) {
+			return false;
 		}
 
+		// the node stays in its slot and is recycled when the slot comes up
+		nodeTimerables[node] = null;
+		nodeGenerations[node]++;
+		scheduledNodes--;
+		return true;
+	}
+
+	/**
+	 * @return The number of currently scheduled timerables.
+	 */
+	int getScheduledCount() {
+		return scheduledNodes;
+	}
+
+	private static int getDelaySlots(int delay) {
 		int delaySlots = delay / TIME_SLICE;
-		delaySlots = delaySlots > 0 ? delaySlots : 1; // ensure at least one slot delay
+		return delaySlots > 0 ? delaySlots : 1; // ensure at least one slot delay
+	}
 
-		assert delaySlots < TIME_SLOTS : "SCHEDULED TO FAR IN THE FUTURE! " + delay + "ms";
+	private int allocateNode() {
+		int node;
+		if (freeNodes != NONE) {
+			node = freeNodes;
+			freeNodes = nodeNext[node];
+		} else {
+			if (usedNodes == nodeTimerables.length) {
+				int capacity = usedNodes * 2;
+				nodeTimerables = Arrays.copyOf(nodeTimerables, capacity);
+				nodeNext = Arrays.copyOf(nodeNext, capacity);
+				nodeGenerations = Arrays.copyOf(nodeGenerations, capacity);
+				nodeExpiries = Arrays.copyOf(nodeExpiries, capacity);
+			}
+			node = usedNodes++;
+		}
+		scheduledNodes++;
+		return node;
+	}
 
-		timerables[(currTimeSlot + delaySlots) % TIME_SLOTS].add(t);
+	/**
+	 * Releases a node that has been removed from its slot. If the node has not been cancelled before, the scheduling ends now.
+	 */
+	private void releaseNode(int node) {
+		if (nodeTimerables[node] != null) {
+			nodeTimerables[node] = null;
+			nodeGenerations[node]++;
+			scheduledNodes--;
+		}
+		nodeNext[node] = freeNodes;
+		freeNodes = node;
 	}
 
-	private static synchronized RescheduleTimer get() {
-		if (uniIns == null) {
-			uniIns = new RescheduleTimer();
+	private void insertNode(int node, long remaining) {
+		int slot;
+		if (remaining < TIME_SLOTS) {
+			slot = currentSlot + (int) remaining;
+			if (slot >= TIME_SLOTS) {
+				slot -= TIME_SLOTS;
+			}
+		} else {
+			long expiry = currentTick + remaining;
+			nodeExpiries[node] = expiry;
+
+			int level = 0;
+			while (level < UPPER_LEVELS - 1 && remaining >= LEVEL_GRANULARITIES[level + 1]) {
+				level++;
+			}
+			long granularity = LEVEL_GRANULARITIES[level];
+			long turn = remaining < granularity * LEVEL_SLOTS ? expiry / granularity : currentTick / granularity + LEVEL_MASK;
+			slot = TIME_SLOTS + level * LEVEL_SLOTS + (int) (turn & LEVEL_MASK);
+		}
+
+		nodeNext[node] = NONE;
+		int tail = slotTails[slot];
+		if (tail == NONE) {
+			slotHeads[slot] = node;
+		} else {
+			nodeNext[tail] = node;
 		}
-		return uniIns;
+		slotTails[slot] = node;
+	}
+
+	/**
+	 * Removes all nodes from the given slot.
+	 * 
+	 * @return The first node of the removed list.
+	 */
+	private int takeSlot(int slot) {
+		int head = slotHeads[slot];
+		slotHeads[slot] = NONE;
+		slotTails[slot] = NONE;
+		return head;
+	}
+
+	/**
+	 * Moves the entries of all upper levels that reach a new turn to the lower levels, starting with the highest level.
+	 */
+	private void cascade() {
+		for (int level = UPPER_LEVELS - 1; level >= 0; level--) {
+			long granularity = LEVEL_GRANULARITIES[level];
+			if (currentTick % granularity != 0) {
+				continue;
+			}
+
+			int node = takeSlot(TIME_SLOTS + level * LEVEL_SLOTS + (int) ((currentTick / granularity) & LEVEL_MASK));
+			while (node != NONE) {
+				int next = nodeNext[node];
+				if (nodeTimerables[node] == null) {
+					releaseNode(node);
+				} else {
+					insertNode(node, nodeExpiries[node] - currentTick);
+				}
+				node = next;
+			}
+		}
+	}
+
+	static RescheduleTimer get() {
+		GameContext context = GameContext.current();
+		RescheduleTimer timer = context.getRescheduleTimer();
+		if (timer == null) {
+			synchronized (context) {
+				timer = context.getRescheduleTimer();
+				if (timer == null) {
+					timer = new RescheduleTimer(context);
+					context.setRescheduleTimer(timer);
+				}
+			}
+		}
+		return timer;
+	}
+
+	/**
+	 * Enables or disables the parallel preparation of {@link IParallelScheduledTimerable}s.
+	 * 
+	 * @param parallelism
+	 *            The number of threads used to prepare the timerables or 0 to disable the parallel preparation.
+	 */
+	void setParallelism(int parallelism) {
+		if (parallelPreparer != null) {
+			parallelPreparer.shutdown();
+			parallelPreparer = null;
+		}
+		if (parallelism > 0) {
+			parallelPreparer = new ParallelTimerablePreparer(gameContext, parallelism);
+		}
+	}
+
+	private void prepareSlot(int slot) {
+		for (int node = slotHeads[slot]; node != NONE; node = nodeNext[node]) {
+			IScheduledTimerable timerable = nodeTimerables[node];
+			if (timerable instanceof IParallelScheduledTimerable) {
+				parallelPreparer.add((IParallelScheduledTimerable) timerable);
+			}
+		}
+		parallelPreparer.prepareAll();
 	}
 
 	@Override
 	public void timerEvent() {
-		ArrayList<IScheduledTimerable> queue = timerables[currTimeSlot];
+		gameContext.bindToCurrentThread();
+
+		if (currentSlot == 0) {
+			cascade();
+		}
+
+		if (parallelPreparer != null) {
+			prepareSlot(currentSlot);
+		}
 
-		for (IScheduledTimerable curr : queue) {
-			if (uniIns != this) { // fast stop when stopAndClear() is called.
+		int node = takeSlot(currentSlot);
+		while (node != NONE) {
+			if (stopped) { // fast stop when stopAndClear() is called.
 				return;
 			}
 
+			int next = nodeNext[node];
+			IScheduledTimerable curr = nodeTimerables[node];
+			if (curr == null) { // cancelled
+				releaseNode(node);
+				node = next;
+				continue;
+			}
+
 			try {
 				int delay = curr.timerEvent();
-				addTimerable(curr, delay);
+				if (delay > 0 && nodeTimerables[node] != null) {
+					insertNode(node, getDelaySlots(delay));
+				} else {
+					releaseNode(node);
+				}
 			} catch (Throwable t) {
 				System.err.println("RescheduleTimer catched: ");
 				t.printStackTrace();
+				releaseNode(node);
 				try {
 					curr.kill();
 				} catch (Throwable t2) {
@@ -109,27 +361,38 @@ public final class RescheduleTimer implements INetworkTimerable, Serializable {
 					t2.printStackTrace();
 				}
 			}
+			node = next;
 		}
 
-		queue.clear();
-		currTimeSlot = (currTimeSlot + 1) % TIME_SLOTS;
+		currentTick++;
+		currentSlot = currentSlot + 1 < TIME_SLOTS ? currentSlot + 1 : 0;
 	}
 
 	public static void loadFrom(ObjectInputStream ois) throws MapLoadException {
 		try {
 			stopAndClear();
-			uniIns = (RescheduleTimer) ois.readObject();
+			RescheduleTimer timer = (RescheduleTimer) ois.readObject();
+			GameContext context = GameContext.current();
+			timer.gameContext = context;
+			context.setRescheduleTimer(timer);
 		} catch (Throwable t) {
 			throw new MapLoadException(t);
 		}
 	}
 
 	public static void saveTo(ObjectOutputStream oos) throws IOException {
-		oos.writeObject(uniIns);
+		oos.writeObject(get());
 		oos.flush();
 	}
 
 	public static void schedule(IGameClock gameClock) {
-		gameClock.schedule(get(), TIME_SLICE);
+		RescheduleTimer timer = get();
+		if (GameContext.current().getSettings().isParallelTimerPreparation()) {
+			int threads = MatchConstants.PARALLEL_TIMER_THREADS;
+			timer.setParallelism(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+		} else {
+			timer.setParallelism(0);
+		}
+		gameClock.schedule(timer, TIME_SLICE);
 	}
 }
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.main;
+
+import java.io.IOException;
+
+import jsettlers.input.GuiInterface;
+import jsettlers.logic.map.grid.MainGrid;
+import jsettlers.network.client.interfaces.IGameClock;
+import jsettlers.network.synchronic.timer.INetworkTimerable;
+
+/**
+ * Periodically saves the game. The game state is captured between two ticks of the game clock and written to disk in the background, so the
+ * game only pauses for the capturing.
+ */
+public class AutosaveTimerable implements INetworkTimerable {
+	/**
+	 * Period in ms in which the timerable checks if an autosave is due.
+	 */
+	public static final short CHECK_PERIOD = 10000;
+
+	private final IGameClock gameClock;
+	private final MainGrid mainGrid;
+	private final GuiInterface guiInterface;
+	private final byte playerId;
+	private final int interval;
+
+	private int nextSaveTime;
+
+	/**
+	 * 
+	 * @param gameClock
+	 *            The clock of the game.
+	 * @param mainGrid
+	 *            The grid to be saved.
+	 * @param guiInterface
+	 *            Supplies the UI state that is stored in the savegame.
+	 * @param playerId
+	 *            The id of the local player.
+	 * @param intervalMinutes
+	 *            Minutes of game time between two autosaves.
+	 */
+	public AutosaveTimerable(IGameClock gameClock, MainGrid mainGrid, GuiInterface guiInterface, byte playerId, int intervalMinutes) {
+		this.gameClock = gameClock;
+		this.mainGrid = mainGrid;
+		this.guiInterface = guiInterface;
+		this.playerId = playerId;
+		this.interval = intervalMinutes * 60 * 1000;
+		this.nextSaveTime = gameClock.getTime() + interval;
+	}
+
+	@Override
+	public void timerEvent() {
+		int time = gameClock.getTime();
+		if (time < nextSaveTime) {
+			return;
+		}
+
+		nextSaveTime = time + interval;
+		mainGrid.getGameContext().bindToCurrentThread();
+		try {
+			mainGrid.saveInBackground(playerId, guiInterface.getUIState());
+		} catch (IOException e) {
+			System.err.println("Autosave failed: ");
+			e.printStackTrace();
+		}
+	}
+}
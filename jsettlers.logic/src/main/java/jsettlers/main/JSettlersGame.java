@@ -43,7 +43,9 @@ import jsettlers.input.IGameStoppable;
 import jsettlers.input.PlayerState;
 import jsettlers.logic.buildings.Building;
 import jsettlers.logic.buildings.trading.MarketBuilding;
+import jsettlers.logic.constants.GameContext;
 import jsettlers.logic.constants.MatchConstants;
+import jsettlers.logic.constants.MatchSettings;
 import jsettlers.logic.map.grid.MainGrid;
 import jsettlers.logic.map.grid.partition.PartitionsGrid;
 import jsettlers.logic.map.loading.IGameCreator;
@@ -56,6 +58,7 @@ import jsettlers.logic.player.PlayerSetting;
 import jsettlers.logic.timer.RescheduleTimer;
 import jsettlers.main.replay.ReplayUtils;
 import jsettlers.network.client.OfflineNetworkConnector;
+import jsettlers.network.client.interfaces.IGameClock;
 import jsettlers.network.client.interfaces.INetworkConnector;
 
 /**
@@ -70,6 +73,7 @@ public class JSettlersGame {
 	private final long randomSeed;
 	private final byte playerId;
 	private final PlayerSetting[] playerSettings;
+	private final MatchSettings matchSettings;
 	private final INetworkConnector networkConnector;
 	private final boolean multiplayer;
 	private final DataInputStream replayFileInputStream;
@@ -79,19 +83,20 @@ public class JSettlersGame {
 	private boolean started = false;
 	private boolean stopped = false;
 	private boolean shutdownFinished;
+	private boolean headless = false;
 
 	private PrintStream systemErrorStream;
 	private PrintStream systemOutStream;
 
 	private JSettlersGame(IGameCreator mapCreator, long randomSeed, INetworkConnector networkConnector, byte playerId,
-			PlayerSetting[] playerSettings, boolean controlAll, boolean multiplayer, DataInputStream replayFileInputStream) {
+			PlayerSetting[] playerSettings, MatchSettings matchSettings, boolean controlAll, boolean multiplayer, DataInputStream replayFileInputStream) {
 		configureLogging(mapCreator);
 
 		System.out.println("OS version: " + System.getProperty("os.name") + " " + System.getProperty("os.arch") + " "
 				+ System.getProperty("os.version"));
 		System.out.println("Java version: " + System.getProperty("java.vendor") + " " + System.getProperty("java.version"));
 		System.out.println("JsettlersGame(): seed: " + randomSeed + " playerId: " + playerId + " availablePlayers: "
-				+ Arrays.toString(playerSettings) + " multiplayer: " + multiplayer + " mapCreator: " + mapCreator);
+				+ Arrays.toString(playerSettings) + " matchSettings: " + matchSettings + " multiplayer: " + multiplayer + " mapCreator: " + mapCreator);
 
 		if (mapCreator == null) {
 			throw new NullPointerException("mapCreator");
@@ -102,6 +107,7 @@ public class JSettlersGame {
 		this.networkConnector = networkConnector;
 		this.playerId = playerId;
 		this.playerSettings = playerSettings;
+		this.matchSettings = matchSettings;
 		this.multiplayer = multiplayer;
 		this.replayFileInputStream = replayFileInputStream;
 
@@ -120,18 +126,32 @@ public class JSettlersGame {
 	 * @param playerId
 	 */
 	public JSettlersGame(IGameCreator mapCreator, long randomSeed, INetworkConnector networkConnector, byte playerId, PlayerSetting[] playerSettings) {
-		this(mapCreator, randomSeed, networkConnector, playerId, playerSettings, CommonConstants.CONTROL_ALL, true, null);
+		this(mapCreator, randomSeed, networkConnector, playerId, playerSettings, MatchSettings.createDefaultSettings());
 	}
 
 	/**
-	 * Creates a new {@link JSettlersGame} object with an {@link OfflineNetworkConnector}.
+	 * @param mapCreator
+	 * @param randomSeed
+	 * @param networkConnector
+	 * @param playerId
+	 * @param matchSettings
+	 *            The settings all participants of the match agreed on. A savegame continues with the settings stored in it instead.
+	 */
+	public JSettlersGame(IGameCreator mapCreator, long randomSeed, INetworkConnector networkConnector, byte playerId, PlayerSetting[] playerSettings,
+			MatchSettings matchSettings) {
+		this(mapCreator, randomSeed, networkConnector, playerId, playerSettings, matchSettings, CommonConstants.CONTROL_ALL, true, null);
+	}
+
+	/**
+	 * Creates a new {@link JSettlersGame} object with an {@link OfflineNetworkConnector}. A savegame continues with the match settings stored in it.
 	 *
 	 * @param mapCreator
 	 * @param randomSeed
 	 * @param playerId
 	 */
 	public JSettlersGame(IGameCreator mapCreator, long randomSeed, byte playerId, PlayerSetting[] playerSettings) {
-		this(mapCreator, randomSeed, new OfflineNetworkConnector(), playerId, playerSettings, CommonConstants.CONTROL_ALL, false, null);
+		this(mapCreator, randomSeed, new OfflineNetworkConnector(), playerId, playerSettings, MatchSettings.createDefaultSettings(),
+				CommonConstants.CONTROL_ALL, false, null);
 	}
 
 	public static JSettlersGame loadFromReplayFile(ReplayUtils.IReplayStreamProvider loadableReplayFile, INetworkConnector networkConnector, ReplayStartInformation replayStartInformation)
@@ -142,7 +162,7 @@ public class JSettlersGame {
 
 			MapLoader mapCreator = loadableReplayFile.getMap(replayStartInformation);
 			return new JSettlersGame(mapCreator, replayStartInformation.getRandomSeed(), networkConnector, (byte) replayStartInformation.getPlayerId(),
-					replayStartInformation.getReplayablePlayerSettings(), true, false, replayFileInputStream);
+					replayStartInformation.getReplayablePlayerSettings(), replayStartInformation.getMatchSettings(), true, false, replayFileInputStream);
 		} catch (IOException e) {
 			throw new MapLoadException("Could not deserialize " + loadableReplayFile, e);
 		}
@@ -156,7 +176,7 @@ public class JSettlersGame {
 
 			MapLoader mapCreator = loadableReplayFile.getMap(replayStartInformation);
 			return new JSettlersGame(mapCreator, replayStartInformation.getRandomSeed(), networkConnector, (byte) replayStartInformation.getPlayerId(), replayStartInformation.getPlayerSettings(),
-					true, false, null);
+					replayStartInformation.getMatchSettings(), true, false, null);
 		} catch (IOException e) {
 			throw new MapLoadException("Could not deserialize " + loadableReplayFile, e);
 		}
@@ -175,6 +195,17 @@ public class JSettlersGame {
 		return gameRunner;
 	}
 
+	/**
+	 * Runs the game without the threads and files only needed for playing it: The borders and the fog of war are not calculated and no replay
+	 * file is written. Must be called before {@link #start()}.
+	 *
+	 * @param headless
+	 *            true to run the game headless.
+	 */
+	public void setHeadless(boolean headless) {
+		this.headless = headless;
+	}
+
 	public void stop() {
 		synchronized (stopMutex) {
 			printEndgameStatistic();
@@ -209,6 +240,7 @@ public class JSettlersGame {
 		private IGameExitListener exitListener;
 		private boolean gameRunning;
 		private AiExecutor aiExecutor;
+		private GameContext gameContext;
 
 		@Override
 		public void run() {
@@ -218,14 +250,9 @@ public class JSettlersGame {
 				}
 				updateProgressListener(EProgressState.LOADING, 0.1f);
 
-				clearState();
-				MatchConstants.init(networkConnector.getGameClock(), randomSeed);
-				try {
-					MatchConstants.clock().setReplayLogStream(createReplayFileStream());
-				} catch (IOException e) {
-					// TODO: log that we do not have write access to resources.
-					System.out.println("Cannot write jsettlers.integration.replay file.");
-				}
+				gameContext = new GameContext(networkConnector.getGameClock(), randomSeed, matchSettings);
+				gameContext.start();
+				IGameClock clock = gameContext.getClock();
 
 				updateProgressListener(EProgressState.LOADING_MAP, 0.3f);
 
@@ -233,13 +260,26 @@ public class JSettlersGame {
 				mainGrid = gridWithUiState.getMainGrid();
 				PlayerState playerState = gridWithUiState.getPlayerState(playerId);
 
-				RescheduleTimer.schedule(MatchConstants.clock()); // schedule timer
+				if (!headless) { // after loading the map, because a savegame replaces the match settings by its own
+					try {
+						clock.setReplayLogStream(createReplayFileStream());
+					} catch (IOException e) {
+						// TODO: log that we do not have write access to resources.
+						System.out.println("Cannot write jsettlers.integration.replay file.");
+					}
+				}
+
+				RescheduleTimer.schedule(clock); // schedule timer
 
 				updateProgressListener(EProgressState.LOADING_IMAGES, 0.7f);
-				gameTimeProvider = new GameTimeProvider(MatchConstants.clock());
+				gameTimeProvider = new GameTimeProvider(clock);
 
 				mainGrid.initForPlayer(playerId, playerState.getFogOfWar());
-				mainGrid.startThreads();
+				if (headless) {
+					mainGrid.stopThreads(); // drops the border calculations queued while loading the map
+				} else {
+					mainGrid.startThreads();
+				}
 
 				waitForStartingGameListener();
 				startingGameListener.waitForPreloading();
@@ -247,22 +287,27 @@ public class JSettlersGame {
 				updateProgressListener(EProgressState.WAITING_FOR_OTHER_PLAYERS, 0.98f);
 
 				if (replayFileInputStream != null) {
-					MatchConstants.clock().loadReplayLogFromStream(replayFileInputStream);
+					clock.loadReplayLogFromStream(replayFileInputStream);
 				}
 
 				networkConnector.setStartFinished(true);
 				waitForAllPlayersStartFinished(networkConnector);
 
 				final IMapInterfaceConnector connector = startingGameListener.preLoadFinished(this);
-				GuiInterface guiInterface = new GuiInterface(connector, MatchConstants.clock(), networkConnector.getTaskScheduler(),
+				GuiInterface guiInterface = new GuiInterface(connector, clock, networkConnector.getTaskScheduler(),
 						mainGrid.getGuiInputGrid(), this, playerId, multiplayer);
 				connector.loadUIState(playerState.getUiState()); // This is required after the GuiInterface instantiation so that
 				// ConstructionMarksThread has it's mapArea variable initialized via the EActionType.SCREEN_CHANGE event.
 
 				aiExecutor = new AiExecutor(playerSettings, mainGrid, networkConnector.getTaskScheduler());
-				networkConnector.getGameClock().schedule(aiExecutor, (short) 10000);
+				clock.schedule(aiExecutor, (short) 10000);
+
+				if (CommonConstants.AUTOSAVE_INTERVAL_MINUTES > 0) {
+					clock.schedule(new AutosaveTimerable(clock, mainGrid, guiInterface, playerId, CommonConstants.AUTOSAVE_INTERVAL_MINUTES),
+							AutosaveTimerable.CHECK_PERIOD);
+				}
 
-				MatchConstants.clock().startExecution(); // WARNING: GAME CLOCK IS STARTED!
+				clock.startExecution(); // WARNING: GAME CLOCK IS STARTED!
 				// NO CONFIGURATION AFTER THIS POINT! =================================
 				gameRunning = true;
 
@@ -279,6 +324,7 @@ public class JSettlersGame {
 
 				networkConnector.shutdown();
 				mainGrid.stopThreads();
+				aiExecutor.shutdown();
 				connector.shutdown();
 				guiInterface.stop();
 				clearState();
@@ -304,11 +350,18 @@ public class JSettlersGame {
 			return aiExecutor;
 		}
 
+		/**
+		 * @return The context of this game or <code>null</code> if the game has not been started yet.
+		 */
+		public GameContext getGameContext() {
+			return gameContext;
+		}
+
 		private DataOutputStream createReplayFileStream() throws IOException {
 			DataOutputStream replayFileStream = new DataOutputStream(createReplayWriteStream());
 
 			ReplayStartInformation replayInfo = new ReplayStartInformation(randomSeed, mapCreator.getMapName(), mapCreator.getMapId(), playerId,
-					playerSettings);
+					playerSettings, gameContext.getSettings());
 			replayInfo.serialize(replayFileStream);
 			replayFileStream.flush();
 
@@ -427,6 +480,9 @@ public class JSettlersGame {
 		return new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss");
 	}
 
+	/**
+	 * Clears the state of the match bound to the current thread (see {@link GameContext}).
+	 */
 	public static void clearState() {
 		RescheduleTimer.stopAndClear();
 		Movable.resetState();
@@ -31,6 +31,7 @@ import jsettlers.common.menu.IMultiplayerPlayer;
 import jsettlers.common.menu.IOpenMultiplayerGameInfo;
 import jsettlers.common.player.ECivilisation;
 import jsettlers.common.utils.collections.ChangingList;
+import jsettlers.logic.constants.MatchSettings;
 import jsettlers.logic.map.loading.MapLoader;
 import jsettlers.logic.map.loading.list.MapList;
 import jsettlers.logic.player.PlayerSetting;
@@ -86,8 +87,9 @@ public class MultiplayerGame {
 				IMapDefinition mapDefintion = gameInfo.getMapDefinition();
 				MapInfoPacket mapInfo = new MapInfoPacket(mapDefintion.getMapId(), mapDefintion.getMapName(), "", "", mapDefintion.getMaxPlayers());
 
-				networkClient.openNewMatch(gameInfo.getMatchName(), gameInfo.getMaxPlayers(), mapInfo, 4711L, generateMatchStartedListener(),
-						generateMatchInfoUpdatedListener(), generateChatMessageReceiver());
+				networkClient.openNewMatch(gameInfo.getMatchName(), gameInfo.getMaxPlayers(), mapInfo, 4711L,
+						MatchSettings.createDefaultSettings().getFlags(), generateMatchStartedListener(), generateMatchInfoUpdatedListener(),
+						generateChatMessageReceiver());
 			}
 		}.start();
 		return generateJoiningGame();
@@ -124,11 +126,13 @@ public class MultiplayerGame {
 
 			MapLoader mapLoader = MapList.getDefaultList().getMapById(packet.getMatchInfo().getMapInfo().getId());
 			long randomSeed = packet.getRandomSeed();
+			MatchSettings matchSettings = MatchSettings.fromFlags(packet.getMatchInfo().getMatchSettings());
 			boolean[] availablePlayers = new boolean[mapLoader.getMaxPlayers()];
 			byte ownPlayerId = calculatePlayerInfos(availablePlayers);
 			PlayerSetting[] playerSettings = determinePlayerSettings(availablePlayers);
 
-			JSettlersGame game = new JSettlersGame(mapLoader, randomSeed, networkClient.getNetworkConnector(), ownPlayerId, playerSettings);
+			JSettlersGame game = new JSettlersGame(mapLoader, randomSeed, networkClient.getNetworkConnector(), ownPlayerId, playerSettings,
+					matchSettings);
 
 			multiplayerListener.gameIsStarting(game.start());
 		};
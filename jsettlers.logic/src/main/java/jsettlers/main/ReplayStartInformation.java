@@ -20,28 +20,37 @@ import java.io.IOException;
 import java.io.Serializable;
 
 import jsettlers.common.ai.EPlayerType;
+import jsettlers.logic.constants.MatchSettings;
 import jsettlers.logic.player.PlayerSetting;
 
 /**
  * @author Andreas Eberle
  */
 public class ReplayStartInformation implements Serializable {
+	/**
+	 * Written instead of the number of players to mark that the {@link MatchSettings} follow. Replays recorded before the settings were
+	 * introduced directly start with the number of players and use {@link MatchSettings#BASIC}.
+	 */
+	private static final int MATCH_SETTINGS_MARKER = -1;
 
 	private long randomSeed;
 	private String mapName;
 	private String mapId;
 	private int playerId;
 	private PlayerSetting[] playerSettings;
+	private MatchSettings matchSettings;
 
 	public ReplayStartInformation() {
 	}
 
-	public ReplayStartInformation(long randomSeed, String mapName, String mapId, int playerId, PlayerSetting[] playerSettings) {
+	public ReplayStartInformation(long randomSeed, String mapName, String mapId, int playerId, PlayerSetting[] playerSettings,
+			MatchSettings matchSettings) {
 		this.randomSeed = randomSeed;
 		this.playerId = playerId;
 		this.mapName = mapName;
 		this.mapId = mapId;
 		this.playerSettings = playerSettings;
+		this.matchSettings = matchSettings;
 	}
 
 	public long getRandomSeed() {
@@ -64,12 +73,19 @@ public class ReplayStartInformation implements Serializable {
 		return playerSettings;
 	}
 
+	public MatchSettings getMatchSettings() {
+		return matchSettings;
+	}
+
 	public void serialize(DataOutputStream dos) throws IOException {
 		dos.writeLong(randomSeed);
 		dos.writeByte(playerId);
 		dos.writeUTF(mapName);
 		dos.writeUTF(mapId);
 
+		dos.writeInt(MATCH_SETTINGS_MARKER);
+		dos.writeInt(matchSettings.getFlags());
+
 		dos.writeInt(playerSettings.length);
 		for (PlayerSetting playerSetting : playerSettings) {
 			playerSetting.writeTo(dos);
@@ -82,7 +98,19 @@ public class ReplayStartInformation implements Serializable {
 		mapName = dis.readUTF();
 		mapId = dis.readUTF();
 
-		playerSettings = new PlayerSetting[dis.readInt()];
+		int numberOfPlayers = dis.readInt();
+		if (numberOfPlayers == MATCH_SETTINGS_MARKER) {
+			try {
+				matchSettings = MatchSettings.fromFlags(dis.readInt());
+			} catch (IllegalArgumentException e) {
+				throw new IOException("The replay has been recorded with settings this version does not support.", e);
+			}
+			numberOfPlayers = dis.readInt();
+		} else {
+			matchSettings = MatchSettings.BASIC;
+		}
+
+		playerSettings = new PlayerSetting[numberOfPlayers];
 		for (int i = 0; i < playerSettings.length; i++) {
 			playerSettings[i] = PlayerSetting.readFromStream(dis);
 		}
@@ -29,7 +29,6 @@ import jsettlers.common.resources.ResourceManager;
 import jsettlers.common.utils.mutables.MutableInt;
 import jsettlers.input.tasks.EGuiAction;
 import jsettlers.input.tasks.SimpleGuiTask;
-import jsettlers.logic.constants.MatchConstants;
 import jsettlers.logic.map.loading.MapLoadException;
 import jsettlers.logic.map.loading.MapLoader;
 import jsettlers.logic.map.loading.list.MapList;
@@ -56,7 +55,7 @@ public class ReplayUtils {
 		JSettlersGame game = loadGameFromReplay(replayFile, networkConnector, replayStartInformation);
 
 		IStartedGame startedGame = startGame(game); // before we can save the clock reference, the game must be started
-		IGameClock gameClock = MatchConstants.clock(); // after the game, the clock cannot be accessed any more => save reference before the game
+		IGameClock gameClock = networkConnector.getGameClock();
 		MapLoader newSavegame = playGameToTargetTimeAndGetSavegames(startedGame, networkConnector, targetGameTimeMinutes)[0];
 
 		// create a jsettlers.integration.replay basing on the savegame and containing the remaining tasks.
@@ -102,8 +101,8 @@ public class ReplayUtils {
 
 			networkConnector.scheduleTaskAt(targetGameTimeMs / NetworkConstants.Client.LOCKSTEP_PERIOD,
 					new SimpleGuiTask(EGuiAction.QUICK_SAVE, (byte) 0));
-			MatchConstants.clock().fastForwardTo(targetGameTimeMs);
-			savegames[i] = getNewestSavegame();
+			networkConnector.getGameClock().fastForwardTo(targetGameTimeMs);
+			savegames[i] = getLastSavegame(startedGame);
 		}
 
 		awaitShutdown(startedGame);
@@ -120,6 +119,18 @@ public class ReplayUtils {
 		return targetGameTimesMs;
 	}
 
+	/**
+	 * Gives the savegame last written by the given game. Other games running in parallel may write their savegames into the same directory, so
+	 * the newest savegame of the directory is not necessarily the one of this game.
+	 */
+	private static MapLoader getLastSavegame(IStartedGame startedGame) {
+		MapLoader savegame = ((GameRunner) startedGame).getMainGrid().getLastSavegame();
+		if (savegame == null) {
+			throw new RuntimeException("The game has not been saved.");
+		}
+		return savegame;
+	}
+
 	public static MapLoader getNewestSavegame() {
 		List<? extends MapLoader> savedMaps = MapList.getDefaultList().getSavedMaps().getItems();
 		if (savedMaps.isEmpty()) {
@@ -178,7 +189,7 @@ public class ReplayUtils {
 		System.out.println("Creating new jsettlers.integration.replay file (" + newReplayFile + ")...");
 
 		ReplayStartInformation replayInfo = new ReplayStartInformation(0, newSavegame.getMapName(), newSavegame.getMapId(), replayStartInformation.getPlayerId(),
-				replayStartInformation.getPlayerSettings());
+				replayStartInformation.getPlayerSettings(), replayStartInformation.getMatchSettings());
 
 		DataOutputStream dos = new DataOutputStream(ResourceManager.writeUserFile(newReplayFile));
 		replayInfo.serialize(dos);
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2017
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.ai.highlevel;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Test;
+
+import jsettlers.common.ai.EPlayerType;
+import jsettlers.common.menu.IStartedGame;
+import jsettlers.common.player.ECivilisation;
+import jsettlers.logic.constants.MatchConstants;
+import jsettlers.logic.map.loading.MapLoadException;
+import jsettlers.logic.map.loading.MapLoader;
+import jsettlers.logic.player.PlayerSetting;
+import jsettlers.main.JSettlersGame;
+import jsettlers.main.replay.ReplayUtils;
+import jsettlers.network.client.OfflineNetworkConnector;
+import jsettlers.testutils.TestUtils;
+import jsettlers.testutils.map.MapUtils;
+
+/**
+ * Test that the computer players schedule the same tasks no matter how many threads apply their rules.
+ */
+public class AiExecutorTest {
+	private static final int GAME_TIME = 6 * 60 * 1000;
+	private static final int NUMBER_OF_AI_PLAYERS = 4;
+	private static final long RANDOM_SEED = 4711L;
+
+	static {
+		TestUtils.setupTempResourceManager();
+	}
+
+	private final int savedAiThreads = MatchConstants.AI_THREADS;
+
+	@After
+	public void restoreAiThreads() {
+		MatchConstants.AI_THREADS = savedAiThreads;
+	}
+
+	@Test
+	public void testParallelRulesScheduleTheSameTasksAsOneThread() throws MapLoadException {
+		MatchConstants.AI_THREADS = 1;
+		byte[] sequentialReplay = playAndRecordReplay();
+
+		MatchConstants.AI_THREADS = NUMBER_OF_AI_PLAYERS;
+		byte[] firstParallelReplay = playAndRecordReplay();
+		byte[] secondParallelReplay = playAndRecordReplay();
+
+		assertArrayEquals(sequentialReplay, firstParallelReplay);
+		assertArrayEquals(sequentialReplay, secondParallelReplay);
+	}
+
+	/**
+	 * Plays a match of computer players and records the tasks they scheduled in the replay.
+	 */
+	private static byte[] playAndRecordReplay() throws MapLoadException {
+		MapLoader map = MapUtils.getSpezialSumpf();
+		PlayerSetting[] playerSettings = new PlayerSetting[map.getMaxPlayers()];
+		Arrays.fill(playerSettings, new PlayerSetting());
+		for (byte playerId = 0; playerId < NUMBER_OF_AI_PLAYERS; playerId++) {
+			playerSettings[playerId] = new PlayerSetting(EPlayerType.AI_VERY_HARD, ECivilisation.ROMAN, playerId);
+		}
+
+		final ByteArrayOutputStream replay = new ByteArrayOutputStream();
+		OfflineNetworkConnector networkConnector = ReplayUtils.createPausingOfflineNetworkConnector();
+		JSettlersGame game = new JSettlersGame(map, RANDOM_SEED, networkConnector, (byte) 0, playerSettings) {
+			@Override
+			protected OutputStream createReplayWriteStream() {
+				return replay;
+			}
+		};
+		IStartedGame startedGame = ReplayUtils.waitForGameStartup(game.start());
+		networkConnector.getGameClock().fastForwardTo(GAME_TIME);
+		ReplayUtils.awaitShutdown(startedGame);
+
+		byte[] replayBytes = replay.toByteArray();
+		assertTrue("the computer players did not schedule any tasks", replayBytes.length > 1000);
+		return replayBytes;
+	}
+}
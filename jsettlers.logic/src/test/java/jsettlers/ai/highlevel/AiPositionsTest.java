@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * Copyright (c) 2017
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.ai.highlevel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import jsettlers.ai.highlevel.AiPositions.AiPositionFilter;
+import jsettlers.ai.highlevel.AiPositions.CombinedAiPositionFilter;
+import jsettlers.common.position.ShortPoint2D;
+
+/**
+ * Test for the class {@link AiPositions}.
+ */
+public class AiPositionsTest {
+	private static final int SIZE = 200;
+
+	@Test
+	public void testAddRemoveContains() {
+		AiPositions positions = new AiPositions();
+		assertTrue(positions.isEmpty());
+		assertFalse(positions.contains(3, 4));
+
+		positions.add(3, 4);
+		positions.add(3, 4);
+		positions.add(150, 4);
+		assertEquals(2, positions.size());
+		assertTrue(positions.contains(3, 4));
+		assertTrue(positions.contains(new ShortPoint2D(150, 4)));
+		assertFalse(positions.contains(4, 3));
+		assertFalse(positions.contains(1000, 1000));
+		assertFalse(positions.contains(-1, 4));
+
+		positions.remove(3, 4);
+		positions.remove(3, 4);
+		positions.remove(1000, 1000);
+		positions.remove(-1, 4);
+		assertEquals(1, positions.size());
+		assertFalse(positions.contains(3, 4));
+		assertTrue(positions.contains(150, 4));
+
+		positions.clear();
+		assertTrue(positions.isEmpty());
+		assertFalse(positions.contains(150, 4));
+	}
+
+	@Test
+	public void testAddNegativePositionIsRejected() {
+		AiPositions positions = new AiPositions();
+		positions.add(20, 20);
+
+		assertAddRejected(positions, -1, 5);
+		assertAddRejected(positions, 5, -1);
+		assertAddRejected(positions, -8, -8);
+		assertAddRejected(positions, Short.MAX_VALUE + 1, 5);
+
+		assertEquals(1, positions.size());
+		assertFalse(positions.contains(0, 5));
+		assertFalse(positions.contains(5, 0));
+		assertFalse(positions.contains(0, 0));
+		assertEquals(new ShortPoint2D(20, 20), positions.get(0));
+	}
+
+	private static void assertAddRejected(AiPositions positions, int x, int y) {
+		try {
+			positions.add(x, y);
+		} catch (IllegalArgumentException e) {
+			return;
+		}
+		throw new AssertionError("(" + x + "|" + y + ") has been added.");
+	}
+
+	@Test
+	public void testMapOrderAfterChanges() {
+		Random random = new Random(4711);
+		AiPositions positions = new AiPositions();
+		TreeSet<ShortPoint2D> expected = new TreeSet<>((first, second) -> first.x != second.x ? first.x - second.x : first.y - second.y);
+
+		for (int round = 0; round < 50; round++) {
+			for (int i = 0; i < 40; i++) {
+				ShortPoint2D position = new ShortPoint2D(random.nextInt(SIZE), random.nextInt(SIZE));
+				if (random.nextInt(3) == 0) {
+					positions.remove(position.x, position.y);
+					expected.remove(position);
+				} else {
+					positions.add(position.x, position.y);
+					expected.add(position);
+				}
+			}
+
+			assertEquals(expected.size(), positions.size());
+			List<ShortPoint2D> expectedList = new ArrayList<>(expected);
+			assertEquals(expectedList, toList(positions));
+			for (int i = 0; i < expectedList.size(); i++) {
+				assertEquals(expectedList.get(i), positions.get(i));
+			}
+			List<ShortPoint2D> streamed = new ArrayList<>();
+			positions.stream().forEach((x, y) -> streamed.add(new ShortPoint2D(x, y)));
+			assertEquals(expectedList, streamed);
+		}
+	}
+
+	@Test
+	public void testGetNearestPointPrefersFirstInMapOrder() {
+		AiPositions positions = new AiPositions();
+		ShortPoint2D center = new ShortPoint2D(50, 50);
+		positions.add(50, 53);
+		positions.add(53, 50);
+		positions.add(47, 50);
+		positions.add(50, 47);
+
+		assertEquals(new ShortPoint2D(47, 50), positions.getNearestPoint(center, 10));
+
+		positions.remove(47, 50);
+		assertEquals(new ShortPoint2D(50, 47), positions.getNearestPoint(center, 10));
+	}
+
+	@Test
+	public void testGetNearestPointMaxDistance() {
+		AiPositions positions = new AiPositions();
+		ShortPoint2D center = new ShortPoint2D(30, 30);
+		positions.add(30, 35);
+
+		assertNull(positions.getNearestPoint(center, 5));
+		assertEquals(new ShortPoint2D(30, 35), positions.getNearestPoint(center, 6));
+		assertNull(new AiPositions().getNearestPoint(center, Integer.MAX_VALUE));
+	}
+
+	@Test
+	public void testGetNearestPointMatchesLinearSearch() {
+		Random random = new Random(1234);
+		for (int round = 0; round < 100; round++) {
+			AiPositions positions = new AiPositions();
+			int numberOfPositions = 1 + random.nextInt(200);
+			for (int i = 0; i < numberOfPositions; i++) {
+				positions.add(random.nextInt(SIZE), random.nextInt(SIZE));
+			}
+
+			ShortPoint2D center = new ShortPoint2D(random.nextInt(SIZE + 20), random.nextInt(SIZE + 20));
+			int maxDistance = 1 + random.nextInt(SIZE);
+			int filterModulo = 1 + random.nextInt(3);
+			AiPositionFilter filter = (x, y) -> (x + y) % filterModulo == 0;
+
+			assertEquals(findNearestPoint(positions, center, maxDistance, null), positions.getNearestPoint(center, maxDistance));
+			assertEquals(findNearestPoint(positions, center, maxDistance, filter), positions.getNearestPoint(center, maxDistance, filter));
+		}
+	}
+
+	@Test
+	public void testGetNearestPointWithFilters() {
+		AiPositions positions = new AiPositions();
+		ShortPoint2D center = new ShortPoint2D(10, 10);
+		positions.add(11, 10);
+		positions.add(13, 10);
+		positions.add(16, 10);
+
+		AiPositionFilter notNext = (x, y) -> x != 11;
+		AiPositionFilter notSecond = (x, y) -> x != 13;
+		assertEquals(new ShortPoint2D(13, 10), positions.getNearestPoint(center, 20, notNext));
+		assertEquals(new ShortPoint2D(16, 10), positions.getNearestPoint(center, 20, new CombinedAiPositionFilter(notNext, notSecond)));
+		assertNull(positions.getNearestPoint(center, 20, (x, y) -> false));
+	}
+
+	@Test
+	public void testAddAllNoCollision() {
+		AiPositions positions = new AiPositions();
+		positions.add(1, 1);
+		positions.add(5, 5);
+
+		AiPositions other = new AiPositions();
+		other.add(5, 5);
+		other.add(190, 3);
+		other.add(7, 180);
+
+		positions.addAllNoCollision(other);
+		positions.addAllNoCollision(new AiPositions());
+
+		assertEquals(4, positions.size());
+		List<ShortPoint2D> expected = new ArrayList<>();
+		expected.add(new ShortPoint2D(1, 1));
+		expected.add(new ShortPoint2D(5, 5));
+		expected.add(new ShortPoint2D(7, 180));
+		expected.add(new ShortPoint2D(190, 3));
+		assertEquals(expected, toList(positions));
+		assertEquals(3, other.size());
+
+		AiPositions empty = new AiPositions();
+		empty.addAllNoCollision(positions);
+		assertEquals(expected, toList(empty));
+	}
+
+	private static ShortPoint2D findNearestPoint(AiPositions positions, ShortPoint2D center, int maxDistance, AiPositionFilter filter) {
+		ShortPoint2D nearest = null;
+		int nearestDistance = maxDistance;
+		for (ShortPoint2D position : positions) {
+			int distance = center.getOnGridDistTo(position);
+			if (distance < nearestDistance && (filter == null || filter.contains(position.x, position.y))) {
+				nearest = position;
+				nearestDistance = distance;
+			}
+		}
+		return nearest;
+	}
+
+	private static List<ShortPoint2D> toList(AiPositions positions) {
+		List<ShortPoint2D> list = new ArrayList<>();
+		for (ShortPoint2D position : positions) {
+			list.add(position);
+		}
+		return list;
+	}
+}
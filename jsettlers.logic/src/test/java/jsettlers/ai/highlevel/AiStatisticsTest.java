@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2016
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.ai.highlevel;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import jsettlers.common.ai.EPlayerType;
+import jsettlers.common.landscape.EResourceType;
+import jsettlers.common.mapobject.EMapObjectType;
+import jsettlers.common.menu.IStartedGame;
+import jsettlers.common.player.ECivilisation;
+import jsettlers.common.position.ShortPoint2D;
+import jsettlers.logic.map.grid.MainGrid;
+import jsettlers.logic.map.loading.MapLoadException;
+import jsettlers.logic.map.loading.MapLoader;
+import jsettlers.logic.player.PlayerSetting;
+import jsettlers.main.JSettlersGame;
+import jsettlers.main.replay.ReplayUtils;
+import jsettlers.network.client.OfflineNetworkConnector;
+import jsettlers.network.synchronic.timer.INetworkTimerable;
+import jsettlers.testutils.TestUtils;
+import jsettlers.testutils.map.MapUtils;
+
+/**
+ * Test for the incremental updates of the {@link AiStatistics}.
+ */
+public class AiStatisticsTest {
+	private static final short CHECK_PERIOD = 5000;
+	private static final int GAME_TIME = 8 * 60 * 1000;
+	private static final int NUMBER_OF_AI_PLAYERS = 4;
+
+	static {
+		TestUtils.setupTempResourceManager();
+	}
+
+	@Test
+	public void testIncrementalUpdatesMatchTheEvaluationOfTheWholeMap() throws Throwable {
+		MapLoader map = MapUtils.getSpezialSumpf();
+		PlayerSetting[] playerSettings = new PlayerSetting[map.getMaxPlayers()];
+		Arrays.fill(playerSettings, new PlayerSetting());
+		for (byte playerId = 0; playerId < NUMBER_OF_AI_PLAYERS; playerId++) {
+			playerSettings[playerId] = new PlayerSetting(EPlayerType.AI_VERY_HARD, ECivilisation.ROMAN, playerId);
+		}
+
+		OfflineNetworkConnector networkConnector = ReplayUtils.createPausingOfflineNetworkConnector();
+		JSettlersGame.GameRunner startingGame = (JSettlersGame.GameRunner) new JSettlersGame(map, 0L, networkConnector, (byte) 0, playerSettings).start();
+		IStartedGame startedGame = ReplayUtils.waitForGameStartup(startingGame);
+
+		StatisticsComparator comparator = new StatisticsComparator(startingGame.getMainGrid(), playerSettings.length);
+		networkConnector.getGameClock().schedule(comparator, CHECK_PERIOD);
+		networkConnector.getGameClock().fastForwardTo(GAME_TIME);
+		ReplayUtils.awaitShutdown(startedGame);
+
+		if (comparator.failure != null) {
+			throw comparator.failure;
+		}
+		assertTrue(comparator.comparisons > GAME_TIME / CHECK_PERIOD / 2);
+	}
+
+	/**
+	 * Compares statistics that are updated incrementally with statistics that evaluate the whole map on every update. It runs on the game clock,
+	 * so the map does not change during the comparison.
+	 */
+	private static class StatisticsComparator implements INetworkTimerable {
+		private final MainGrid mainGrid;
+		private final int numberOfPlayers;
+
+		private AiStatistics incremental;
+		private AiStatistics full;
+		volatile Throwable failure;
+		volatile int comparisons;
+
+		StatisticsComparator(MainGrid mainGrid, int numberOfPlayers) {
+			this.mainGrid = mainGrid;
+			this.numberOfPlayers = numberOfPlayers;
+		}
+
+		@Override
+		public void timerEvent() {
+			if (failure != null) {
+				return;
+			}
+
+			mainGrid.getGameContext().bindToCurrentThread();
+			try {
+				if (incremental == null) {
+					incremental = new AiStatistics(mainGrid);
+					full = new AiStatistics(mainGrid);
+				}
+				incremental.updateStatistics();
+				full.invalidateMapStatistics();
+				full.updateStatistics();
+
+				assertEqualStatistics();
+				comparisons++;
+			} catch (Throwable t) {
+				failure = t;
+			}
+		}
+
+		private void assertEqualStatistics() {
+			for (byte playerId = 0; playerId < numberOfPlayers; playerId++) {
+				assertEqualPositions("stones", full.getStonesForPlayer(playerId), incremental.getStonesForPlayer(playerId));
+				assertEqualPositions("stones near by", full.getStonesNearBy(playerId), incremental.getStonesNearBy(playerId));
+				assertEqualPositions("trees", full.getTreesForPlayer(playerId), incremental.getTreesForPlayer(playerId));
+				assertEqualPositions("rivers", full.getRiversForPlayer(playerId), incremental.getRiversForPlayer(playerId));
+				assertEqualPositions("land", full.getLandForPlayer(playerId), incremental.getLandForPlayer(playerId));
+				assertEqualPositions("border", full.getBorderIngestibleByPioneersOf(playerId), incremental.getBorderIngestibleByPioneersOf(playerId));
+				assertEqualPositions("other partition border", full.getOtherPartitionBorderOf(playerId), incremental.getOtherPartitionBorderOf(playerId));
+				assertEquals("wine of player " + playerId, full.getTotalWineCountForPlayer(playerId), incremental.getTotalWineCountForPlayer(playerId));
+				for (EResourceType resourceType : EResourceType.VALUES) {
+					assertEquals(resourceType + " of player " + playerId, full.resourceCountOfPlayer(resourceType, playerId),
+							incremental.resourceCountOfPlayer(resourceType, playerId));
+				}
+			}
+
+			for (EResourceType resourceType : EResourceType.VALUES) {
+				assertEqualPositions(resourceType + " in default partition", full.getResourcesInDefaultPartition(resourceType),
+						incremental.getResourcesInDefaultPartition(resourceType));
+				assertEquals(resourceType + " in default partition", full.resourceCountInDefaultPartition(resourceType),
+						incremental.resourceCountInDefaultPartition(resourceType));
+			}
+			for (EMapObjectType cuttableObject : new EMapObjectType[] { EMapObjectType.TREE_ADULT, EMapObjectType.STONE }) {
+				assertEqualPositions(cuttableObject + " in default partition", full.getCuttableObjectsInDefaultPartition(cuttableObject),
+						incremental.getCuttableObjectsInDefaultPartition(cuttableObject));
+			}
+			assertEqualPositions("rivers in default partition", full.getRiversInDefaultPartition(), incremental.getRiversInDefaultPartition());
+
+			long[][] expectedResourceAndGrassCount = full.getAiMapInformation().resourceAndGrassCount;
+			long[][] actualResourceAndGrassCount = incremental.getAiMapInformation().resourceAndGrassCount;
+			for (int playerId = 0; playerId < expectedResourceAndGrassCount.length; playerId++) {
+				assertArrayEquals("resources and grass of " + playerId, expectedResourceAndGrassCount[playerId], actualResourceAndGrassCount[playerId]);
+			}
+		}
+
+		private void assertEqualPositions(String message, AiPositions expected, AiPositions actual) {
+			assertEquals(message + " at " + mainGrid.getGameContext().getClock().getTime(), toList(expected), toList(actual));
+		}
+
+		private static List<ShortPoint2D> toList(AiPositions positions) {
+			List<ShortPoint2D> list = new ArrayList<>(positions.size());
+			for (ShortPoint2D position : positions) {
+				list.add(position);
+			}
+			return list;
+		}
+	}
+}
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.assignment;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link MinCostAssignment} against a brute force search.
+ */
+public class MinCostAssignmentTest {
+
+	@Test
+	public void testEmpty() {
+		assertEquals(0, MinCostAssignment.solve(new int[0][0]).length);
+	}
+
+	@Test
+	public void testSimpleSwap() {
+		int[][] costs = {
+				{ 10, 1 },
+				{ 1, 10 } };
+		assertArrayEquals(new int[] { 1, 0 }, MinCostAssignment.solve(costs));
+	}
+
+	@Test
+	public void testRandomMatricesAreSolvedOptimally() {
+		Random random = new Random(7);
+
+		for (int test = 0; test < 500; test++) {
+			int rows = 1 + random.nextInt(6);
+			int columns = rows + random.nextInt(3);
+			int[][] costs = new int[rows][columns];
+			for (int row = 0; row < rows; row++) {
+				for (int column = 0; column < columns; column++) {
+					costs[row][column] = random.nextInt(100);
+				}
+			}
+
+			int[] assignment = MinCostAssignment.solve(costs);
+
+			boolean[] usedColumns = new boolean[columns];
+			int totalCosts = 0;
+			for (int row = 0; row < rows; row++) {
+				assertEquals(false, usedColumns[assignment[row]]);
+				usedColumns[assignment[row]] = true;
+				totalCosts += costs[row][assignment[row]];
+			}
+			assertEquals(bruteForce(costs, 0, new boolean[columns]), totalCosts);
+		}
+	}
+
+	private static int bruteForce(int[][] costs, int row, boolean[] usedColumns) {
+		if (row == costs.length) {
+			return 0;
+		}
+
+		int best = Integer.MAX_VALUE;
+		for (int column = 0; column < usedColumns.length; column++) {
+			if (!usedColumns[column]) {
+				usedColumns[column] = true;
+				best = Math.min(best, costs[row][column] + bruteForce(costs, row + 1, usedColumns));
+				usedColumns[column] = false;
+			}
+		}
+		return best;
+	}
+}
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2016
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.fogofwar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import jsettlers.common.CommonConstants;
+import jsettlers.common.player.IPlayer;
+
+/**
+ * Test for the incremental snapshots of the {@link FogOfWar}.
+ */
+public class FogOfWarTest {
+	private static final short SIZE = 100;
+	private static final int OBSERVERS = 30;
+
+	@Test
+	public void testIncrementalSnapshotsMatchTheSight() {
+		FogOfWar fogOfWar = new FogOfWar(SIZE, SIZE, new IPlayer.DummyPlayer());
+		fogOfWar.setEnabled(true);
+
+		byte[] reported = new byte[SIZE * SIZE];
+		fogOfWar.setBackgroundListener((x, y) -> reported[x + y * SIZE] = fogOfWar.getVisibleStatus(x, y));
+
+		FogOfWar.CircleDrawer drawer = fogOfWar.new CircleDrawer();
+		Random random = new Random(4711);
+		int[] xs = new int[OBSERVERS];
+		int[] ys = new int[OBSERVERS];
+		CachedViewCircle[] circles = new CachedViewCircle[OBSERVERS];
+		for (int i = 0; i < OBSERVERS; i++) {
+			xs[i] = random.nextInt(SIZE);
+			ys[i] = random.nextInt(SIZE);
+			circles[i] = drawer.getCachedCircle(1 + random.nextInt(8));
+			drawer.addCircle(xs[i], ys[i], circles[i]);
+		}
+
+		for (int update = 0; update < 200; update++) {
+			if (update % 3 == 0) {
+				fogOfWar.stepDimTime();
+			}
+			for (int i = 0; i < 5; i++) {
+				int observer = random.nextInt(OBSERVERS);
+				drawer.removeCircle(xs[observer], ys[observer], circles[observer]);
+				xs[observer] = Math.max(0, Math.min(SIZE - 1, xs[observer] + random.nextInt(7) - 3));
+				ys[observer] = Math.max(0, Math.min(SIZE - 1, ys[observer] + random.nextInt(7) - 3));
+				drawer.addCircle(xs[observer], ys[observer], circles[observer]);
+			}
+			fogOfWar.publishSnapshot();
+
+			assertSnapshot(fogOfWar, reported);
+		}
+
+		for (int i = 0; i < OBSERVERS; i++) {
+			drawer.removeCircle(xs[i], ys[i], circles[i]);
+		}
+		for (int step = 0; step < CommonConstants.FOG_OF_WAR_VISIBLE; step++) {
+			fogOfWar.stepDimTime();
+			fogOfWar.publishSnapshot();
+			assertSnapshot(fogOfWar, reported);
+		}
+		for (int index = 0; index < reported.length; index++) {
+			assertTrue(reported[index] <= CommonConstants.FOG_OF_WAR_EXPLORED);
+		}
+	}
+
+	private static void assertSnapshot(FogOfWar fogOfWar, byte[] reported) {
+		for (int y = 0; y < SIZE; y++) {
+			for (int x = 0; x < SIZE; x++) {
+				int index = x + y * SIZE;
+				assertEquals(fogOfWar.getSight(index), fogOfWar.getVisibleStatus(x, y));
+				assertEquals(fogOfWar.getVisibleStatus(x, y), reported[index]);
+			}
+		}
+	}
+}
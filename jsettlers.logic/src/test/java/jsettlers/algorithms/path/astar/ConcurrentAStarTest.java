@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.path.astar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import jsettlers.algorithms.path.IPathCalculatable;
+import jsettlers.algorithms.path.Path;
+import jsettlers.common.player.IPlayer;
+import jsettlers.common.position.ShortPoint2D;
+
+public class ConcurrentAStarTest {
+	private static final short WIDTH = 200;
+	private static final short HEIGHT = 200;
+	private static final int PATHS = 400;
+	private static final int THREADS = 4;
+
+	@Test
+	public void testConcurrentPathsEqualSequentialPaths() throws Exception {
+		DummyEmptyAStarMap map = new DummyEmptyAStarMap(WIDTH, HEIGHT);
+		Random random = new Random(1);
+		for (int i = 0; i < WIDTH * HEIGHT / 5; i++) {
+			map.setBlocked(random.nextInt(WIDTH), random.nextInt(HEIGHT), true);
+		}
+
+		final ShortPoint2D[] starts = new ShortPoint2D[PATHS];
+		final ShortPoint2D[] targets = new ShortPoint2D[PATHS];
+		for (int i = 0; i < PATHS; i++) {
+			do {
+				starts[i] = new ShortPoint2D(random.nextInt(WIDTH), random.nextInt(HEIGHT));
+				targets[i] = new ShortPoint2D(random.nextInt(WIDTH), random.nextInt(HEIGHT));
+			} while (map.isBlocked(null, starts[i].x, starts[i].y) || map.isBlocked(null, targets[i].x, targets[i].y));
+		}
+
+		BucketQueueAStar sequentialAStar = new BucketQueueAStar(map, WIDTH, HEIGHT);
+		final ConcurrentAStar concurrentAStar = new ConcurrentAStar(map, WIDTH, HEIGHT);
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<Path>> futures = new ArrayList<>();
+			for (int i = 0; i < PATHS; i++) {
+				final int index = i;
+				futures.add(executor.submit(new Callable<Path>() {
+					@Override
+					public Path call() {
+						return concurrentAStar.findPath(getPathable(starts[index]), targets[index]);
+					}
+				}));
+			}
+
+			for (int i = 0; i < PATHS; i++) {
+				Path expected = sequentialAStar.findPath(getPathable(starts[i]), targets[i]);
+				Path actual = futures.get(i).get();
+				if (expected == null) {
+					assertEquals(null, actual);
+				} else {
+					assertNotNull(actual);
+					assertEquals(expected.getLength(), actual.getLength());
+					while (expected.hasNextStep()) {
+						assertEquals(expected.getNextPos(), actual.getNextPos());
+						expected.goToNextStep();
+						actual.goToNextStep();
+					}
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testWorkspacesDoNotMarkTheMap() {
+		DummyEmptyAStarMap map = new DummyEmptyAStarMap(WIDTH, HEIGHT) {
+			@Override
+			public void markAsOpen(int x, int y) {
+				fail("marked " + x + "|" + y + " as open");
+			}
+
+			@Override
+			public void markAsClosed(int x, int y) {
+				fail("marked " + x + "|" + y + " as closed");
+			}
+		};
+
+		ConcurrentAStar concurrentAStar = new ConcurrentAStar(map, WIDTH, HEIGHT);
+		assertNotNull(concurrentAStar.findPath(getPathable(new ShortPoint2D(10, 10)), new ShortPoint2D(150, 180)));
+	}
+
+	private static IPathCalculatable getPathable(final ShortPoint2D position) {
+		return new IPathCalculatable() {
+			@Override
+			public ShortPoint2D getPos() {
+				return position;
+			}
+
+			@Override
+			public IPlayer getPlayer() {
+				return new IPlayer.DummyPlayer();
+			}
+
+			@Override
+			public boolean needsPlayersGround() {
+				return false;
+			}
+		};
+	}
+}
@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.path.astar.hierarchical;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import jsettlers.algorithms.path.IPathCalculatable;
+import jsettlers.algorithms.path.Path;
+import jsettlers.algorithms.path.astar.BucketQueueAStar;
+import jsettlers.algorithms.path.astar.ConcurrentAStar;
+import jsettlers.algorithms.path.astar.DummyEmptyAStarMap;
+import jsettlers.common.player.IPlayer;
+import jsettlers.common.position.ShortPoint2D;
+
+/**
+ * Tests for the class {@link HierarchicalAStar}.
+ */
+public class HierarchicalAStarTest {
+	private static final short WIDTH = 200;
+	private static final short HEIGHT = 200;
+	private static final float MAX_DETOUR_FACTOR = 1.3f;
+	private static final int PATHS = 200;
+	private static final int THREADS = 4;
+
+	private final DummyEmptyAStarMap map = new DummyEmptyAStarMap(WIDTH, HEIGHT);
+	private final BucketQueueAStar flatAStar = new BucketQueueAStar(map, WIDTH, HEIGHT);
+	private final HierarchicalAStar aStar = new HierarchicalAStar(map, flatAStar, WIDTH, HEIGHT);
+
+	@Test
+	public void testPathsOnEmptyMap() {
+		Random random = new Random(1);
+		for (int i = 0; i < 200; i++) {
+			ShortPoint2D start = randomPoint(random);
+			ShortPoint2D target = randomPoint(random);
+			if (start.equals(target)) {
+				continue;
+			}
+
+			Path path = aStar.findPath(getPathable(start), target);
+			assertValidPath(start, target, path);
+			assertTrue(path.getLength() <= MAX_DETOUR_FACTOR * start.getOnGridDistTo(target) + 2);
+		}
+	}
+
+	@Test
+	public void testPathsWithObstacles() {
+		Random random = new Random(2);
+		for (int x = 0; x < WIDTH; x++) {
+			for (int y = 0; y < HEIGHT; y++) {
+				map.setBlocked(x, y, random.nextFloat() < 0.25f);
+			}
+		}
+
+		for (int i = 0; i < 200; i++) {
+			ShortPoint2D start = randomPoint(random);
+			ShortPoint2D target = randomPoint(random);
+			if (start.equals(target) || map.isBlocked(null, start.x, start.y) || map.isBlocked(null, target.x, target.y)) {
+				continue;
+			}
+
+			Path flatPath = flatAStar.findPath(getPathable(start), target);
+			Path path = aStar.findPath(getPathable(start), target);
+
+			if (flatPath == null) {
+				assertNull(path);
+			} else {
+				assertValidPath(start, target, path);
+				assertTrue(path.getLength() <= MAX_DETOUR_FACTOR * flatPath.getLength() + 2);
+			}
+		}
+	}
+
+	@Test
+	public void testInvalidation() {
+		ShortPoint2D start = new ShortPoint2D(20, 100);
+		ShortPoint2D target = new ShortPoint2D(180, 100);
+		assertValidPath(start, target, aStar.findPath(getPathable(start), target));
+
+		for (int y = 0; y < HEIGHT; y++) { // build a wall with a single gap
+			if (y != 10) {
+				map.setBlocked(100, y, true);
+				aStar.invalidate(100, y);
+			}
+		}
+
+		assertValidPath(start, target, aStar.findPath(getPathable(start), target));
+		assertTrue(containsPosition(aStar.findPath(getPathable(start), target), 100, 10));
+
+		map.setBlocked(100, 10, true);
+		aStar.invalidate(100, 10);
+		assertNull(aStar.findPath(getPathable(start), target));
+	}
+
+	@Test
+	public void testConcurrentSearchesFindTheSamePaths() throws Exception {
+		Random random = new Random(3);
+		for (int x = 0; x < WIDTH; x++) {
+			for (int y = 0; y < HEIGHT; y++) {
+				map.setBlocked(x, y, random.nextFloat() < 0.2f);
+			}
+		}
+
+		final ShortPoint2D[] starts = new ShortPoint2D[PATHS];
+		final ShortPoint2D[] targets = new ShortPoint2D[PATHS];
+		for (int i = 0; i < PATHS; i++) {
+			do {
+				starts[i] = randomPoint(random);
+				targets[i] = randomPoint(random);
+			} while (map.isBlocked(null, starts[i].x, starts[i].y) || map.isBlocked(null, targets[i].x, targets[i].y));
+		}
+
+		final HierarchicalAStar concurrentAStar = aStar.withFlatAStar(new ConcurrentAStar(map, WIDTH, HEIGHT));
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<Path>> futures = new ArrayList<>();
+			for (int i = 0; i < PATHS; i++) {
+				final int index = i;
+				futures.add(executor.submit(() -> concurrentAStar.findPath(getPathable(starts[index]), targets[index])));
+			}
+
+			for (int i = 0; i < PATHS; i++) {
+				Path expected = aStar.findPath(getPathable(starts[i]), targets[i]);
+				Path actual = futures.get(i).get();
+				if (expected == null) {
+					assertNull(actual);
+				} else {
+					assertNotNull(actual);
+					assertEquals(expected.getLength(), actual.getLength());
+					while (expected.hasNextStep()) {
+						assertEquals(expected.getNextPos(), actual.getNextPos());
+						expected.goToNextStep();
+						actual.goToNextStep();
+					}
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private void assertValidPath(ShortPoint2D start, ShortPoint2D target, Path path) {
+		assertNotNull(path);
+		assertEquals(target, path.getTargetPos());
+
+		ShortPoint2D previous = start;
+		while (path.hasNextStep()) {
+			ShortPoint2D next = path.getNextPos();
+			assertEquals(1, previous.getOnGridDistTo(next));
+			assertTrue(!map.isBlocked(null, next.x, next.y));
+			previous = next;
+			path.goToNextStep();
+		}
+	}
+
+	private static boolean containsPosition(Path path, int x, int y) {
+		while (path.hasNextStep()) {
+			if (path.nextX() == x && path.nextY() == y) {
+				return true;
+			}
+			path.goToNextStep();
+		}
+		return false;
+	}
+
+	private static ShortPoint2D randomPoint(Random random) {
+		return new ShortPoint2D(random.nextInt(WIDTH), random.nextInt(HEIGHT));
+	}
+
+	private static IPathCalculatable getPathable(final ShortPoint2D position) {
+		return new IPathCalculatable() {
+			@Override
+			public ShortPoint2D getPos() {
+				return position;
+			}
+
+			@Override
+			public IPlayer getPlayer() {
+				return new IPlayer.DummyPlayer();
+			}
+
+			@Override
+			public boolean needsPlayersGround() {
+				return false;
+			}
+		};
+	}
+}
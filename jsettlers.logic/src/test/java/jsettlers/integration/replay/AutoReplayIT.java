@@ -15,7 +15,12 @@
 package jsettlers.integration.replay;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java8.util.stream.Collectors;
 
 import jsettlers.common.CommonConstants;
@@ -35,6 +40,7 @@ import static java8.util.stream.StreamSupport.stream;
 
 @RunWith(Parameterized.class)
 public class AutoReplayIT {
+	private static final int CONCURRENT_GAMES = 2;
 
 	@BeforeClass
 	public static void setupConstants() {
@@ -46,8 +52,6 @@ public class AutoReplayIT {
 		TestUtils.setupTempResourceManager();
 	}
 
-	private static final Object ONLY_ONE_TEST_AT_A_TIME_LOCK = new Object();
-
 	@Parameters(name = "{index}: {0}")
 	public static Collection<Object[]> replaySets() {
 		return stream( AutoReplaySetting.getDefaultSettings()).map(s -> new Object[] { s }).collect(Collectors.toList());
@@ -61,9 +65,25 @@ public class AutoReplayIT {
 
 	@Test
 	public void testReplay() throws IOException, MapLoadException, ClassNotFoundException {
-		synchronized (ONLY_ONE_TEST_AT_A_TIME_LOCK) {
-			MapLoader[] actualSaveGames = ReplayUtils.replayAndCreateSavegames(setting.getReplayFile(), setting.getTimeMinutes());
-			setting.compareSaveGamesAndDelete(actualSaveGames);
+		MapLoader[] actualSaveGames = ReplayUtils.replayAndCreateSavegames(setting.getReplayFile(), setting.getTimeMinutes());
+		setting.compareSaveGamesAndDelete(actualSaveGames);
+	}
+
+	@Test
+	public void testConcurrentReplays() throws Exception {
+		// every game has its own GameContext, so the games must not influence each other
+		ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_GAMES);
+		try {
+			List<Future<MapLoader[]>> replays = new ArrayList<>();
+			for (int i = 0; i < CONCURRENT_GAMES; i++) {
+				replays.add(executor.submit(() -> ReplayUtils.replayAndCreateSavegames(setting.getReplayFile(), setting.getTimeMinutes())));
+			}
+
+			for (Future<MapLoader[]> replay : replays) {
+				setting.compareSaveGamesAndDelete(replay.get());
+			}
+		} finally {
+			executor.shutdownNow();
 		}
 	}
 }
@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2016
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.constants;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.After;
+import org.junit.Test;
+
+import jsettlers.network.synchronic.timer.NetworkTimer;
+
+/**
+ * Test for the serialization of the match state in {@link MatchConstants}.
+ */
+public class MatchConstantsTest {
+
+	@After
+	public void clearState() {
+		MatchConstants.clearState();
+	}
+
+	@Test
+	public void testDeserializeRestoresTheMatchSettings() throws IOException, ClassNotFoundException {
+		MatchSettings settings = MatchSettings.fromFlags(MatchSettings.HIERARCHICAL_PATHFINDING | MatchSettings.BATCHED_BEARER_ASSIGNMENT);
+		MatchConstants.init(new NetworkTimer(true), 4711L, settings);
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(buffer)) {
+			MatchConstants.serialize(oos);
+		}
+		long expectedRandom = MatchConstants.random().nextLong();
+
+		MatchConstants.init(new NetworkTimer(true), 0L, MatchSettings.BASIC);
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(buffer.toByteArray()))) {
+			MatchConstants.deserialize(ois);
+		}
+
+		assertEquals(settings, GameContext.current().getSettings());
+		assertEquals(expectedRandom, MatchConstants.random().nextLong());
+	}
+}
@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2017
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.map.grid;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.Test;
+
+import jsettlers.logic.map.loading.MapLoadException;
+
+/**
+ * Test for the version check of the savegames written by the {@link GameSerializer}.
+ */
+public class GameSerializerTest {
+
+	@Test
+	public void testCurrentVersionIsAccepted() throws IOException, MapLoadException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(buffer)) {
+			GameSerializer.writeVersion(oos);
+		}
+
+		GameSerializer.checkVersion(open(buffer));
+	}
+
+	@Test(expected = MapLoadException.class)
+	public void testSavegameWithoutVersionIsRejected() throws IOException, MapLoadException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(buffer)) {
+			oos.writeInt(4711); // older savegames start with the game time
+		}
+
+		GameSerializer.checkVersion(open(buffer));
+	}
+
+	@Test(expected = MapLoadException.class)
+	public void testNewerVersionIsRejected() throws IOException, MapLoadException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(buffer)) {
+			oos.writeInt(GameSerializer.SAVEGAME_MAGIC);
+			oos.writeInt(GameSerializer.SAVEGAME_VERSION + 1);
+		}
+
+		GameSerializer.checkVersion(open(buffer));
+	}
+
+	private static ObjectInputStream open(ByteArrayOutputStream buffer) throws IOException {
+		return new ObjectInputStream(new ByteArrayInputStream(buffer.toByteArray()));
+	}
+}
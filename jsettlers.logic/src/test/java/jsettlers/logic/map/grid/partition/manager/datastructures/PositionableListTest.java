@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.map.grid.partition.manager.datastructures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Random;
+
+import jsettlers.common.position.ShortPoint2D;
+import jsettlers.common.utils.MathUtils;
+import jsettlers.testutils.TestUtils;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link PositionableList} against a plain linear search.
+ */
+public class PositionableListTest {
+	private static final int MAP_SIZE = 300;
+
+	@Test
+	public void testEmptyList() {
+		PositionableList<TestObject> list = new PositionableList<>();
+
+		assertTrue(list.isEmpty());
+		assertNull(list.removeObjectNextTo(new ShortPoint2D(10, 10)));
+		assertNull(list.getObjectAt(new ShortPoint2D(10, 10)));
+	}
+
+	@Test
+	public void testFirstInsertedWinsOnEqualDistance() {
+		PositionableList<TestObject> list = new PositionableList<>();
+		TestObject[] objects = new TestObject[40];
+		for (int i = 0; i < objects.length; i++) {
+			objects[i] = new TestObject(100 + (i % 2 == 0 ? 10 : -10), 100);
+			list.insert(objects[i]);
+		}
+
+		for (TestObject object : objects) {
+			assertSame(object, list.removeObjectNextTo(new ShortPoint2D(100, 100)));
+		}
+		assertTrue(list.isEmpty());
+	}
+
+	@Test
+	public void testRandomOperationsMatchLinearSearch() {
+		Random random = new Random(42);
+		PositionableList<TestObject> list = new PositionableList<>();
+		ArrayList<TestObject> reference = new ArrayList<>();
+
+		for (int i = 0; i < 20000; i++) {
+			int operation = random.nextInt(10);
+			ShortPoint2D position = randomPosition(random);
+
+			if (operation < 4) {
+				TestObject object = new TestObject(position.x, position.y);
+				list.insert(object);
+				reference.add(object);
+
+			} else if (operation < 6 && !reference.isEmpty()) {
+				TestObject object = reference.get(random.nextInt(reference.size()));
+				object.moveTo(randomPosition(random));
+
+			} else if (operation < 8) {
+				TestObject expected = findClosest(reference, position);
+				reference.remove(expected);
+				assertSame(expected, list.removeObjectNextTo(position));
+
+			} else if (!reference.isEmpty()) {
+				TestObject object = reference.get(random.nextInt(reference.size()));
+				assertSame(findFirstAt(reference, object.getPos()), list.getObjectAt(object.getPos()));
+			}
+
+			assertEquals(reference.size(), list.size());
+		}
+	}
+
+	@Test
+	public void testMoveObjectsAtPosition() {
+		PositionableList<TestObject> list = new PositionableList<>();
+		PositionableList<TestObject> otherList = new PositionableList<>();
+		TestObject first = new TestObject(5, 5);
+		TestObject second = new TestObject(5, 5);
+		TestObject other = new TestObject(6, 5);
+		list.insert(first);
+		list.insert(other);
+		list.insert(second);
+
+		ArrayList<TestObject> moved = new ArrayList<>();
+		list.moveObjectsAtPositionTo(new ShortPoint2D(5, 5), otherList, moved::add);
+
+		assertEquals(2, moved.size());
+		assertSame(first, moved.get(0));
+		assertSame(second, moved.get(1));
+		assertEquals(1, list.size());
+		assertSame(first, otherList.getObjectAt(new ShortPoint2D(5, 5)));
+
+		first.moveTo(new ShortPoint2D(200, 200));
+		assertSame(second, otherList.getObjectAt(new ShortPoint2D(5, 5)));
+		assertSame(first, otherList.getObjectAt(new ShortPoint2D(200, 200)));
+	}
+
+	@Test
+	public void testSerialization() throws IOException, ClassNotFoundException {
+		Random random = new Random(1);
+		PositionableList<TestObject> list = new PositionableList<>();
+		for (int i = 0; i < 100; i++) {
+			list.insert(new TestObject(randomPosition(random)));
+		}
+
+		PositionableList<TestObject> deserialized = TestUtils.serializeAndDeserialize(list);
+
+		assertEquals(list.toString(), deserialized.toString());
+		for (int i = 0; i < 100; i++) {
+			ShortPoint2D position = randomPosition(random);
+			assertEquals(String.valueOf(list.removeObjectNextTo(position)), String.valueOf(deserialized.removeObjectNextTo(position)));
+		}
+		assertTrue(deserialized.isEmpty());
+	}
+
+	private static ShortPoint2D randomPosition(Random random) {
+		return new ShortPoint2D(random.nextInt(MAP_SIZE), random.nextInt(MAP_SIZE));
+	}
+
+	private static TestObject findClosest(ArrayList<TestObject> objects, ShortPoint2D position) {
+		int bestDistance = Integer.MAX_VALUE;
+		TestObject best = null;
+		for (TestObject object : objects) {
+			int distance = MathUtils.squareHypot(position, object.getPos());
+			if (bestDistance > distance) {
+				bestDistance = distance;
+				best = object;
+			}
+		}
+		return best;
+	}
+
+	private static TestObject findFirstAt(ArrayList<TestObject> objects, ShortPoint2D position) {
+		for (TestObject object : objects) {
+			if (object.getPos().equals(position)) {
+				return object;
+			}
+		}
+		return null;
+	}
+
+	private static class TestObject implements IObservableLocatable, Serializable {
+		private static final long serialVersionUID = 1L;
+
+		private ShortPoint2D position;
+		private transient IChangeListener changeListener;
+
+		TestObject(int x, int y) {
+			this(new ShortPoint2D(x, y));
+		}
+
+		TestObject(ShortPoint2D position) {
+			this.position = position;
+		}
+
+		void moveTo(ShortPoint2D position) {
+			this.position = position;
+			if (changeListener != null) {
+				changeListener.changed();
+			}
+		}
+
+		@Override
+		public ShortPoint2D getPos() {
+			return position;
+		}
+
+		@Override
+		public void setChangeListener(IChangeListener changeListener) {
+			this.changeListener = changeListener;
+		}
+
+		@Override
+		public String toString() {
+			return "TestObject" + position;
+		}
+	}
+}
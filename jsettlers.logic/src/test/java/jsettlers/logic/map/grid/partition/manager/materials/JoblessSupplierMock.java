@@ -28,6 +28,10 @@ public class JoblessSupplierMock implements IJoblessSupplier {
 
 	private LinkedList<IManagerBearer> jobless = new LinkedList<>();
 
+	public void addJobless(IManagerBearer bearer) {
+		jobless.add(bearer);
+	}
+
 	public void addJoblessAt(final ShortPoint2D pos) {
 		jobless.add(new IManagerBearer() {
 			private static final long serialVersionUID = 3833820381369081344L;
@@ -65,6 +69,7 @@ public class JoblessSupplierMock implements IJoblessSupplier {
 			}
 		}
 
+		jobless.remove(closest);
 		return closest;
 	}
 
@@ -14,15 +14,28 @@
  *******************************************************************************/
 package jsettlers.logic.map.grid.partition.manager.materials;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import jsettlers.common.buildings.EBuildingType;
 import jsettlers.common.material.EMaterialType;
 import jsettlers.common.position.ShortPoint2D;
+import jsettlers.logic.constants.GameContext;
+import jsettlers.logic.constants.MatchSettings;
+import jsettlers.logic.map.grid.partition.manager.materials.interfaces.IManagerBearer;
+import jsettlers.logic.map.grid.partition.manager.materials.interfaces.IMaterialOffer;
+import jsettlers.logic.map.grid.partition.manager.materials.interfaces.IMaterialRequest;
 import jsettlers.logic.map.grid.partition.manager.materials.offers.EOfferPriority;
 import jsettlers.logic.map.grid.partition.manager.materials.offers.OffersList;
+import jsettlers.logic.map.grid.partition.manager.materials.requests.MaterialRequestObject;
 import jsettlers.logic.map.grid.partition.manager.settings.PartitionManagerSettings;
 import jsettlers.testutils.TestUtils;
+import org.junit.After;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * This is a test for the {@link MaterialsManager} class.
@@ -34,6 +47,16 @@ public class MaterialsManagerTest {
 	private final OffersList offersList = new OffersList(null);
 	private final JoblessSupplierMock joblessSupplier = new JoblessSupplierMock();
 	private final MaterialsManager manager = new MaterialsManager(joblessSupplier, offersList, new PartitionManagerSettings());
+	private final List<IMaterialRequest> deliveries = new ArrayList<>();
+
+	private GameContext gameContext;
+
+	@After
+	public void stopGameContext() {
+		if (gameContext != null) {
+			gameContext.stop();
+		}
+	}
 
 	@Test
 	public void testSerialization() throws IOException, ClassNotFoundException {
@@ -48,8 +71,139 @@ public class MaterialsManagerTest {
 		TestUtils.serializeAndDeserialize(manager);
 	}
 
+	@Test
+	public void testWithoutBatchedAssignmentOneJobPerMaterialIsAssigned() {
+		startMatch(MatchSettings.BASIC);
+		TestMaterialRequest request = addPlanksAndRequest(5);
+		addBearers(3);
+
+		manager.distributeJobs();
+
+		assertEquals(1, deliveries.size());
+		assertEquals(1, request.getInDelivery());
+		assertEquals(2, offersList.getMaterialCounts().getAmountOf(EMaterialType.PLANK));
+	}
+
+	@Test
+	public void testBatchedAssignmentAcceptsEveryOfferAndRequestOnce() {
+		startMatch(MatchSettings.fromFlags(MatchSettings.BATCHED_BEARER_ASSIGNMENT));
+		TestMaterialRequest request = addPlanksAndRequest(5);
+		addBearers(3);
+
+		manager.distributeJobs();
+
+		assertEquals(3, deliveries.size());
+		assertTrue(joblessSupplier.isEmpty());
+		assertEquals(3, request.getInDelivery());
+		assertEquals(0, offersList.getOfferObjectAt(pos(20, 20), EMaterialType.PLANK, EOfferPriority.OFFER_TO_ALL).getAvailable());
+		assertEquals(0, offersList.getOfferObjectAt(pos(40, 40), EMaterialType.PLANK, EOfferPriority.OFFER_TO_ALL).getAvailable());
+		assertEquals(0, offersList.getMaterialCounts().getAmountOf(EMaterialType.PLANK));
+	}
+
+	@Test
+	public void testBatchedAssignmentReleasesTheReservationsWithoutBearers() {
+		startMatch(MatchSettings.fromFlags(MatchSettings.BATCHED_BEARER_ASSIGNMENT));
+		TestMaterialRequest request = addPlanksAndRequest(2);
+		addBearers(1);
+
+		manager.distributeJobs();
+
+		assertEquals(1, deliveries.size());
+		assertEquals(1, request.getInDelivery());
+		assertEquals(2, offersList.getMaterialCounts().getAmountOf(EMaterialType.PLANK));
+
+		addBearers(3);
+		manager.distributeJobs();
+
+		assertEquals(2, deliveries.size()); // the request only needs two planks
+		assertEquals(2, request.getInDelivery());
+		assertEquals(1, offersList.getMaterialCounts().getAmountOf(EMaterialType.PLANK));
+	}
+
+	private void startMatch(MatchSettings settings) {
+		gameContext = new GameContext(null, 0, settings);
+		gameContext.start();
+	}
+
+	/**
+	 * Offers two planks at (20, 20) and one plank at (40, 40) and requests planks at (30, 30).
+	 */
+	private TestMaterialRequest addPlanksAndRequest(int neededPlanks) {
+		offersList.addOffer(pos(20, 20), EMaterialType.PLANK, EOfferPriority.OFFER_TO_ALL);
+		offersList.addOffer(pos(20, 20), EMaterialType.PLANK, EOfferPriority.OFFER_TO_ALL);
+		offersList.addOffer(pos(40, 40), EMaterialType.PLANK, EOfferPriority.OFFER_TO_ALL);
+
+		TestMaterialRequest request = new TestMaterialRequest(pos(30, 30), neededPlanks);
+		manager.addRequestObject(EMaterialType.PLANK, request);
+		return request;
+	}
+
+	/**
+	 * Adds bearers that accept their jobs like real bearers, but never carry the materials.
+	 */
+	private void addBearers(int count) {
+		for (int i = 0; i < count; i++) {
+			final ShortPoint2D position = pos(25 + 5 * i, 25 + 5 * i);
+			joblessSupplier.addJobless(new IManagerBearer() {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public ShortPoint2D getPos() {
+					return position;
+				}
+
+				@Override
+				public void deliver(EMaterialType materialType, IMaterialOffer offer, IMaterialRequest request) {
+					offer.distributionAccepted();
+					request.deliveryAccepted();
+					deliveries.add(request);
+				}
+			});
+		}
+	}
+
 	private ShortPoint2D pos(int x, int y) {
 		return new ShortPoint2D(x, y);
 	}
 
+	private static class TestMaterialRequest extends MaterialRequestObject {
+		private static final long serialVersionUID = 1L;
+
+		private final ShortPoint2D position;
+		private final short stillRequired;
+
+		TestMaterialRequest(ShortPoint2D position, int stillRequired) {
+			this.position = position;
+			this.stillRequired = (short) stillRequired;
+		}
+
+		@Override
+		protected short getStillNeeded() {
+			return (short) (stillRequired - getInDelivery());
+		}
+
+		@Override
+		protected int getInDeliveryable() {
+			return 8;
+		}
+
+		@Override
+		public ShortPoint2D getPos() {
+			return position;
+		}
+
+		@Override
+		protected void materialDelivered() {
+		}
+
+		@Override
+		protected boolean isRoundRobinRequest() {
+			return false;
+		}
+
+		@Override
+		protected EBuildingType getBuildingType() {
+			return null;
+		}
+	}
 }
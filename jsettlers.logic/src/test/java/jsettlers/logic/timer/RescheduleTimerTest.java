@@ -0,0 +1,253 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.timer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link RescheduleTimer}.
+ */
+public class RescheduleTimerTest {
+	private static final int TIME_SLICE = 25;
+
+	private RescheduleTimer timer;
+	private final List<TestTimerable> executed = new ArrayList<>();
+	private int tick;
+
+	@Before
+	public void setUp() {
+		RescheduleTimer.stopAndClear();
+		timer = RescheduleTimer.get();
+		tick = 0;
+	}
+
+	@After
+	public void tearDown() {
+		RescheduleTimer.stopAndClear();
+	}
+
+	@Test
+	public void testExecutionInInsertionOrder() {
+		TestTimerable[] timerables = new TestTimerable[10];
+		for (int i = 0; i < timerables.length; i++) {
+			timerables[i] = new TestTimerable(-1);
+			RescheduleTimer.add(timerables[i], 100);
+		}
+
+		runTicks(4);
+		assertEquals(0, executed.size());
+
+		runTicks(1);
+		assertEquals(timerables.length, executed.size());
+		for (int i = 0; i < timerables.length; i++) {
+			assertTrue(timerables[i] == executed.get(i));
+			assertEquals(4, timerables[i].lastTick);
+		}
+		assertEquals(0, timer.getScheduledCount());
+	}
+
+	@Test
+	public void testRescheduling() {
+		TestTimerable timerable = new TestTimerable(50);
+		RescheduleTimer.add(timerable, 10); // less than one slice is scheduled in the next slice
+
+		runTicks(11);
+		assertEquals(5, timerable.executions);
+		assertEquals(9, timerable.lastTick);
+		assertEquals(1, timer.getScheduledCount());
+	}
+
+	@Test
+	public void testLongDelays() {
+		int[] delays = { 31975, 32000, 32025, 60 * 60 * 1000, 5 * 60 * 60 * 1000, 40 * 60 * 60 * 1000 };
+		TestTimerable[] timerables = new TestTimerable[delays.length];
+		for (int i = 0; i < delays.length; i++) {
+			timerables[i] = new TestTimerable(-1);
+			RescheduleTimer.add(timerables[i], delays[i]);
+		}
+
+		runTicks(delays[delays.length - 1] / TIME_SLICE + 1);
+
+		for (int i = 0; i < delays.length; i++) {
+			assertEquals(1, timerables[i].executions);
+			assertEquals(delays[i] / TIME_SLICE, timerables[i].lastTick);
+		}
+		assertEquals(0, timer.getScheduledCount());
+	}
+
+	@Test
+	public void testLongRescheduling() {
+		TestTimerable timerable = new TestTimerable(100000);
+		RescheduleTimer.add(timerable, 100000);
+
+		runTicks(20 * 100000 / TIME_SLICE + 1);
+		assertEquals(20, timerable.executions);
+		assertEquals(20 * 100000 / TIME_SLICE, timerable.lastTick);
+	}
+
+	@Test
+	public void testCancel() {
+		TestTimerable first = new TestTimerable(25);
+		TestTimerable second = new TestTimerable(25);
+		long firstHandle = RescheduleTimer.add(first, 25);
+		RescheduleTimer.add(second, 25);
+
+		runTicks(4);
+		assertEquals(3, first.executions);
+
+		assertTrue(RescheduleTimer.cancel(firstHandle));
+		assertFalse(RescheduleTimer.cancel(firstHandle));
+		assertEquals(1, timer.getScheduledCount());
+
+		runTicks(3);
+		assertEquals(3, first.executions);
+		assertEquals(6, second.executions);
+	}
+
+	@Test
+	public void testCancelLongDelay() {
+		TestTimerable timerable = new TestTimerable(-1);
+		long handle = RescheduleTimer.add(timerable, 60 * 60 * 1000);
+
+		runTicks(1000);
+		assertTrue(RescheduleTimer.cancel(handle));
+		runTicks(60 * 60 * 1000 / TIME_SLICE);
+		assertEquals(0, timerable.executions);
+	}
+
+	@Test
+	public void testCancelDuringExecution() {
+		final long[] handles = new long[2];
+		TestTimerable cancelled = new TestTimerable(25);
+		TestTimerable cancelling = new TestTimerable(25) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public int timerEvent() {
+				RescheduleTimer.cancel(handles[0]);
+				RescheduleTimer.cancel(handles[1]);
+				return super.timerEvent();
+			}
+		};
+		handles[1] = RescheduleTimer.add(cancelling, 25);
+		handles[0] = RescheduleTimer.add(cancelled, 25);
+
+		runTicks(5);
+		assertEquals(1, cancelling.executions);
+		assertEquals(0, cancelled.executions);
+		assertEquals(0, timer.getScheduledCount());
+	}
+
+	@Test
+	public void testInvalidDelays() {
+		assertEquals(RescheduleTimer.NO_HANDLE, RescheduleTimer.add(new TestTimerable(-1), 0));
+		assertEquals(RescheduleTimer.NO_HANDLE, RescheduleTimer.add(new TestTimerable(-1), -10));
+		assertFalse(RescheduleTimer.cancel(RescheduleTimer.NO_HANDLE));
+		assertEquals(0, timer.getScheduledCount());
+	}
+
+	@Test
+	public void testParallelPreparation() {
+		timer.setParallelism(4);
+
+		List<ParallelTestTimerable> timerables = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			ParallelTestTimerable timerable = new ParallelTestTimerable(i % 7, 50);
+			timerables.add(timerable);
+			RescheduleTimer.add(timerable, 25 + 25 * (i % 3));
+		}
+
+		runTicks(20);
+
+		for (ParallelTestTimerable timerable : timerables) {
+			assertTrue(timerable.executions > 0);
+			assertEquals(timerable.executions, timerable.preparedExecutions);
+		}
+		for (int i = 0; i < 3; i++) { // the first executions are still in insertion order
+			assertTrue(timerables.get(i * 3) == executed.get(i));
+		}
+	}
+
+	private void runTicks(int ticks) {
+		for (int i = 0; i < ticks; i++) {
+			timer.timerEvent();
+			tick++;
+		}
+	}
+
+	private class ParallelTestTimerable extends TestTimerable implements IParallelScheduledTimerable {
+		private static final long serialVersionUID = 1L;
+
+		private final int regionKey;
+		private int preparedTick = -1;
+		private int preparedExecutions;
+
+		ParallelTestTimerable(int regionKey, int rescheduleDelay) {
+			super(rescheduleDelay);
+			this.regionKey = regionKey;
+		}
+
+		@Override
+		public int getRegionKey() {
+			return regionKey;
+		}
+
+		@Override
+		public void prepareTimerEvent() {
+			preparedTick = tick;
+		}
+
+		@Override
+		public int timerEvent() {
+			if (preparedTick == tick) {
+				preparedExecutions++;
+			}
+			return super.timerEvent();
+		}
+	}
+
+	private class TestTimerable implements IScheduledTimerable {
+		private static final long serialVersionUID = 1L;
+
+		private final int rescheduleDelay;
+		int executions;
+		int lastTick = -1;
+
+		TestTimerable(int rescheduleDelay) {
+			this.rescheduleDelay = rescheduleDelay;
+		}
+
+		@Override
+		public int timerEvent() {
+			executions++;
+			lastTick = tick;
+			executed.add(this);
+			return rescheduleDelay;
+		}
+
+		@Override
+		public void kill() {
+		}
+	}
+}
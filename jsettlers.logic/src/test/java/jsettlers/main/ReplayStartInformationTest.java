@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2016
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.main;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import jsettlers.common.ai.EPlayerType;
+import jsettlers.common.player.ECivilisation;
+import jsettlers.logic.constants.MatchSettings;
+import jsettlers.logic.player.PlayerSetting;
+
+/**
+ * Test for the class {@link ReplayStartInformation}.
+ */
+public class ReplayStartInformationTest {
+	private static final PlayerSetting[] PLAYER_SETTINGS = {
+			new PlayerSetting(EPlayerType.HUMAN, ECivilisation.ROMAN, (byte) 0),
+			new PlayerSetting(EPlayerType.AI_HARD, ECivilisation.ROMAN, (byte) 1)
+	};
+
+	@Test
+	public void testSerializationWithMatchSettings() throws IOException {
+		MatchSettings matchSettings = MatchSettings.fromFlags(MatchSettings.PARALLEL_TIMER_PREPARATION);
+		ReplayStartInformation written = new ReplayStartInformation(4711L, "mapName", "mapId", 1, PLAYER_SETTINGS, matchSettings);
+
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		written.serialize(new DataOutputStream(buffer));
+
+		ReplayStartInformation read = new ReplayStartInformation();
+		read.deserialize(new DataInputStream(new ByteArrayInputStream(buffer.toByteArray())));
+
+		assertEquals(4711L, read.getRandomSeed());
+		assertEquals(1, read.getPlayerId());
+		assertEquals("mapName", read.getMapName());
+		assertEquals("mapId", read.getMapId());
+		assertEquals(PLAYER_SETTINGS.length, read.getPlayerSettings().length);
+		assertEquals(matchSettings, read.getMatchSettings());
+	}
+
+	@Test
+	public void testReplayWithoutMatchSettingsUsesBasicSettings() throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		DataOutputStream dos = new DataOutputStream(buffer);
+		dos.writeLong(4711L);
+		dos.writeByte(1);
+		dos.writeUTF("mapName");
+		dos.writeUTF("mapId");
+		dos.writeInt(PLAYER_SETTINGS.length);
+		for (PlayerSetting playerSetting : PLAYER_SETTINGS) {
+			playerSetting.writeTo(dos);
+		}
+
+		ReplayStartInformation read = new ReplayStartInformation();
+		read.deserialize(new DataInputStream(new ByteArrayInputStream(buffer.toByteArray())));
+
+		assertEquals(PLAYER_SETTINGS.length, read.getPlayerSettings().length);
+		assertEquals(MatchSettings.BASIC, read.getMatchSettings());
+	}
+
+	@Test(expected = IOException.class)
+	public void testUnsupportedMatchSettingsAreRejected() throws IOException {
+		ReplayStartInformation written = new ReplayStartInformation(4711L, "mapName", "mapId", 1, PLAYER_SETTINGS, MatchSettings.BASIC);
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		written.serialize(new DataOutputStream(buffer));
+
+		byte[] bytes = buffer.toByteArray();
+		int flagsOffset = 8 + 1 + (2 + "mapName".length()) + (2 + "mapId".length()) + 4;
+		bytes[flagsOffset] = (byte) 0x80; // set the highest bit of the flags
+
+		new ReplayStartInformation().deserialize(new DataInputStream(new ByteArrayInputStream(bytes)));
+	}
+}
@@ -17,11 +17,11 @@ package jsettlers.main.android.core.resources;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 
 import jsettlers.logic.map.loading.MapLoader;
 import jsettlers.logic.map.loading.list.IListedMap;
 import jsettlers.logic.map.loading.list.IMapLister;
+import jsettlers.logic.map.loading.list.ListedMapOutputStream;
 import jsettlers.logic.map.loading.newmap.MapFileHeader;
 
 import android.content.res.AssetManager;
@@ -85,7 +85,7 @@ public class AndroidAssetsMapLister implements IMapLister {
 	}
 
 	@Override
-	public OutputStream getOutputStream(MapFileHeader header) throws IOException {
+	public ListedMapOutputStream getOutputStream(MapFileHeader header) throws IOException {
 		throw new UnsupportedOperationException();
 	}
 }
@@ -74,11 +74,21 @@ public class SwingManagedJSettlers {
 		CommonConstants.ENABLE_AI = !options.isOptionSet("disable-ai");
 		CommonConstants.ALL_AI = options.isOptionSet("all-ai");
 		CommonConstants.DISABLE_ORIGINAL_MAPS = options.isOptionSet("disable-original-maps");
+		MatchConstants.ENABLE_HIERARCHICAL_PATHFINDING = options.isOptionSet("hierarchical-pathfinding");
+		MatchConstants.ENABLE_BATCHED_BEARER_ASSIGNMENT = options.isOptionSet("batched-bearer-assignment");
 
 		if (options.containsKey("fixed-ai-type")) {
 			CommonConstants.FIXED_AI_TYPE = EPlayerType.valueOf(options.getProperty("fixed-ai-type"));
 		}
 
+		if (options.containsKey("parallel-timer-threads")) {
+			MatchConstants.PARALLEL_TIMER_THREADS = Integer.parseInt(options.getProperty("parallel-timer-threads"));
+		}
+
+		if (options.containsKey("autosave-interval")) {
+			CommonConstants.AUTOSAVE_INTERVAL_MINUTES = Integer.parseInt(options.getProperty("autosave-interval"));
+		}
+
 		if (options.containsKey("server")) {
 			CommonConstants.DEFAULT_SERVER_ADDRESS = options.getProperty("server");
 		}
@@ -15,7 +15,6 @@
 package jsettlers.main.swing.resources;
 
 import java.io.IOException;
-import java.io.OutputStream;
 import java.net.URL;
 import java.security.CodeSource;
 import java.util.zip.ZipEntry;
@@ -23,6 +22,7 @@ import java.util.zip.ZipInputStream;
 
 import jsettlers.logic.map.loading.MapLoader;
 import jsettlers.logic.map.loading.list.IMapLister;
+import jsettlers.logic.map.loading.list.ListedMapOutputStream;
 import jsettlers.logic.map.loading.newmap.MapFileHeader;
 import jsettlers.logic.map.loading.list.MapList.ListedResourceMap;
 
@@ -69,7 +69,7 @@ public class ResourceMapLister implements IMapLister {
 	}
 
 	@Override
-	public OutputStream getOutputStream(MapFileHeader header) throws IOException {
+	public ListedMapOutputStream getOutputStream(MapFileHeader header) throws IOException {
 		throw new UnsupportedOperationException();
 	}
 
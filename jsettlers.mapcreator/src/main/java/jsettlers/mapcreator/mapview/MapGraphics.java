@@ -20,6 +20,7 @@ import jsettlers.common.landscape.ELandscapeType;
 import jsettlers.common.map.EDebugColorModes;
 import jsettlers.common.map.IGraphicsBackgroundListener;
 import jsettlers.common.map.IGraphicsGrid;
+import jsettlers.common.map.IGraphicsObjectsListener;
 import jsettlers.common.map.partition.IPartitionData;
 import jsettlers.common.mapobject.IMapObject;
 import jsettlers.common.movable.IMovable;
@@ -119,6 +120,11 @@ public class MapGraphics implements IGraphicsGrid {
 		data.setListener(backgroundListener);
 	}
 
+	@Override
+	public boolean setObjectsListener(IGraphicsObjectsListener objectsListener) {
+		return false;
+	}
+
 	/**
 	 * @param showResources
 	 *            Display resources in the game map
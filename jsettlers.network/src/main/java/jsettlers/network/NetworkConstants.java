@@ -34,6 +34,16 @@ public final class NetworkConstants {
 	public static final int RTT_LOGGING_THRESHOLD = 800;
 	public static final int JITTER_LOGGING_THRESHOLD = 200;
 
+	/**
+	 * Every packet is sent as a frame consisting of a one byte key, a four byte length and the packet data.
+	 */
+	public static final int FRAME_HEADER_LENGTH = 5;
+	/**
+	 * Size of the pooled direct buffers used by the NIO channels for sending and receiving.
+	 */
+	public static final int NIO_BUFFER_SIZE = 8 * 1024;
+	public static final int NIO_MAX_POOLED_BUFFERS = 256;
+
 	/**
 	 * This class contains constants used by the Server part of network library.
 	 * 
@@ -45,7 +55,12 @@ public final class NetworkConstants {
 		}
 
 		// public static final int SERVER_PORT = 10213; // VERSION 1
-		public static final int SERVER_PORT = 10214; // VERSION 2
+		// public static final int SERVER_PORT = 10214; // VERSION 2
+		public static final int SERVER_PORT = 10215; // VERSION 3: compact lockstep encoding
+		/**
+		 * If true, the server handles all clients with a single selector thread instead of one blocking thread per client.
+		 */
+		public static final boolean USE_NIO_CHANNELS = true;
 
 		public static final int BROADCAST_PORT = 10233;
 		public static final String BROADCAST_MESSAGE = "JSETTLERS-LAN-SERVER-BROADCAST-V1";
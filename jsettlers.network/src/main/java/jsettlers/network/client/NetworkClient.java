@@ -115,6 +115,8 @@ public class NetworkClient implements ITaskScheduler, INetworkConnector, INetwor
 	 * @param matchName
 	 * @param maxPlayers
 	 * @param mapInfo
+	 * @param randomSeed
+	 * @param matchSettings
 	 * @param matchStartedListener
 	 * @param matchInfoUpdatedListener
 	 *            This listener will receive all further updates on the match.
@@ -122,11 +124,13 @@ public class NetworkClient implements ITaskScheduler, INetworkConnector, INetwor
 	 * @throws IllegalStateException
 	 */
 	@Override
-	public void openNewMatch(String matchName, int maxPlayers, MapInfoPacket mapInfo, long randomSeed, IPacketReceiver<MatchStartPacket> matchStartedListener,
-			IPacketReceiver<MatchInfoUpdatePacket> matchInfoUpdatedListener, IPacketReceiver<ChatMessagePacket> chatMessageReceiver) throws IllegalStateException {
+	public void openNewMatch(String matchName, int maxPlayers, MapInfoPacket mapInfo, long randomSeed, int matchSettings,
+			IPacketReceiver<MatchStartPacket> matchStartedListener, IPacketReceiver<MatchInfoUpdatePacket> matchInfoUpdatedListener,
+			IPacketReceiver<ChatMessagePacket> chatMessageReceiver) throws IllegalStateException {
 		EPlayerState.assertState(state, EPlayerState.LOGGED_IN);
 		registerMatchStartListeners(matchStartedListener, matchInfoUpdatedListener, chatMessageReceiver);
-		channel.sendPacketAsync(NetworkConstants.ENetworkKey.REQUEST_OPEN_NEW_MATCH, new OpenNewMatchPacket(matchName, maxPlayers, mapInfo, randomSeed));
+		channel.sendPacketAsync(NetworkConstants.ENetworkKey.REQUEST_OPEN_NEW_MATCH, new OpenNewMatchPacket(matchName, maxPlayers, mapInfo, randomSeed,
+				matchSettings));
 	}
 
 	@Override
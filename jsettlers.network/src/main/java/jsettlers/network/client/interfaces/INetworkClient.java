@@ -60,6 +60,9 @@ public interface INetworkClient {
 	 *            The map of the match.
 	 * @param randomSeed
 	 *            The random seed used for the match.
+	 * @param matchSettings
+	 *            The settings of the game logic all participants of the match have to use. They are passed to them with the
+	 *            {@link MatchInfoPacket}.
 	 * @param matchStartedListener
 	 *            The listener that will be called, when the match starts.
 	 * @param matchInfoUpdatedListener
@@ -71,7 +74,7 @@ public interface INetworkClient {
 	 *             This exception might be thrown, if the client is either not logged in to the server (see
 	 *             {@link #logIn(String, String, IPacketReceiver)}) or if the client is already in a match.
 	 */
-	void openNewMatch(String matchName, int maxPlayers, MapInfoPacket mapInfo, long randomSeed,
+	void openNewMatch(String matchName, int maxPlayers, MapInfoPacket mapInfo, long randomSeed, int matchSettings,
 			IPacketReceiver<MatchStartPacket> matchStartedListener, IPacketReceiver<MatchInfoUpdatePacket> matchInfoUpdatedListener,
 			IPacketReceiver<ChatMessagePacket> chatMessageReceiver)
 			throws IllegalStateException;
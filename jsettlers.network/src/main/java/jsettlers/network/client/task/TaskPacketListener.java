@@ -18,8 +18,8 @@ import java.io.IOException;
 
 import jsettlers.network.NetworkConstants;
 import jsettlers.network.NetworkConstants.ENetworkKey;
+import jsettlers.network.client.task.packets.SyncTasksDecoder;
 import jsettlers.network.client.task.packets.SyncTasksPacket;
-import jsettlers.network.infrastructure.channel.GenericDeserializer;
 import jsettlers.network.infrastructure.channel.listeners.PacketChannelListener;
 
 /**
@@ -32,7 +32,7 @@ public class TaskPacketListener extends PacketChannelListener<SyncTasksPacket> {
 	private final ISyncTasksPacketScheduler receiver;
 
 	public TaskPacketListener(ISyncTasksPacketScheduler receiver) {
-		super(NetworkConstants.ENetworkKey.SYNCHRONOUS_TASK, new GenericDeserializer<>(SyncTasksPacket.class));
+		super(NetworkConstants.ENetworkKey.SYNCHRONOUS_TASK, new SyncTasksDecoder());
 		this.receiver = receiver;
 	}
 
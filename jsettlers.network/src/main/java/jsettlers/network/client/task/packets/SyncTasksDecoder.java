@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.client.task.packets;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+import jsettlers.network.NetworkConstants.ENetworkKey;
+import jsettlers.network.infrastructure.channel.IDeserializingable;
+import jsettlers.network.infrastructure.utils.VarInts;
+
+/**
+ * Decodes the compact lockstep format written by the server's SyncTasksEncoder into {@link SyncTasksPacket}s. The decoder keeps the previous
+ * lockstep and the dictionary of task types, so it has to receive all locksteps of a match in order.
+ */
+public class SyncTasksDecoder implements IDeserializingable<SyncTasksPacket> {
+	private final ArrayList<Class<? extends TaskPacket>> taskTypes = new ArrayList<>();
+
+	private int lastLockstep = -1;
+
+	@Override
+	public SyncTasksPacket deserialize(ENetworkKey key, DataInputStream dis) throws IOException {
+		int header = VarInts.readVarInt(dis);
+		int lockstep = lastLockstep + (header >>> 1);
+		lastLockstep = lockstep;
+
+		if ((header & 1) == 0) {
+			return new SyncTasksPacket(lockstep, Collections.<TaskPacket> emptyList());
+		}
+
+		int numberOfTasks = VarInts.readVarInt(dis);
+		List<TaskPacket> tasks = new LinkedList<>();
+		for (int i = 0; i < numberOfTasks; i++) {
+			tasks.add(decodeTask(dis));
+		}
+		return new SyncTasksPacket(lockstep, tasks);
+	}
+
+	private TaskPacket decodeTask(DataInputStream dis) throws IOException {
+		int typeId = VarInts.readVarInt(dis);
+		Class<? extends TaskPacket> taskType;
+		if (typeId == 0) {
+			taskType = loadTaskType(dis.readUTF());
+			taskTypes.add(taskType);
+		} else if (typeId <= taskTypes.size()) {
+			taskType = taskTypes.get(typeId - 1);
+		} else {
+			throw new IOException("Unknown task type id: " + typeId);
+		}
+
+		byte[] taskData = new byte[VarInts.readVarInt(dis)];
+		dis.readFully(taskData);
+
+		try {
+			TaskPacket task = taskType.newInstance();
+			task.deserializeTask(new DataInputStream(new ByteArrayInputStream(taskData)));
+			return task;
+		} catch (InstantiationException | IllegalAccessException e) {
+			throw new IOException(e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Class<? extends TaskPacket> loadTaskType(String className) throws IOException {
+		try {
+			return (Class<? extends TaskPacket>) Class.forName(className);
+		} catch (ClassNotFoundException e) {
+			throw new IOException(e);
+		}
+	}
+}
@@ -33,16 +33,18 @@ public class MatchInfoPacket extends Packet {
 	private int maxPlayers;
 	private MapInfoPacket mapInfo;
 	private PlayerInfoPacket[] players;
+	private int matchSettings;
 
 	public MatchInfoPacket() {
 	}
 
-	public MatchInfoPacket(String id, String matchName, int maxPlayers, MapInfoPacket mapInfo, PlayerInfoPacket[] players) {
+	public MatchInfoPacket(String id, String matchName, int maxPlayers, MapInfoPacket mapInfo, PlayerInfoPacket[] players, int matchSettings) {
 		this.id = id;
 		this.matchName = matchName;
 		this.maxPlayers = maxPlayers;
 		this.mapInfo = mapInfo;
 		this.players = players;
+		this.matchSettings = matchSettings;
 	}
 
 	public MatchInfoPacket(Match match) {
@@ -52,6 +54,7 @@ public class MatchInfoPacket extends Packet {
 		maxPlayers = match.getMaxPlayers();
 		mapInfo = match.getMap();
 		players = match.getPlayerInfos();
+		matchSettings = match.getMatchSettings();
 	}
 
 	@Override
@@ -66,6 +69,7 @@ public class MatchInfoPacket extends Packet {
 		for (PlayerInfoPacket curr : players) {
 			curr.serialize(dos);
 		}
+		dos.writeInt(matchSettings);
 	}
 
 	@Override
@@ -84,6 +88,7 @@ public class MatchInfoPacket extends Packet {
 			players[i] = curr;
 		}
 		this.players = players;
+		matchSettings = dis.readInt();
 	}
 
 	public String getId() {
@@ -106,6 +111,13 @@ public class MatchInfoPacket extends Packet {
 		return maxPlayers;
 	}
 
+	/**
+	 * @return The settings of the game logic all participants of the match have to use. They are not interpreted by the server.
+	 */
+	public int getMatchSettings() {
+		return matchSettings;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -113,6 +125,7 @@ public class MatchInfoPacket extends Packet {
 		result = prime * result + ((id == null) ? 0 : id.hashCode());
 		result = prime * result + ((mapInfo == null) ? 0 : mapInfo.hashCode());
 		result = prime * result + ((matchName == null) ? 0 : matchName.hashCode());
+		result = prime * result + matchSettings;
 		result = prime * result + maxPlayers;
 		result = prime * result + Arrays.hashCode(players);
 		return result;
@@ -142,6 +155,8 @@ public class MatchInfoPacket extends Packet {
 				return false;
 		} else if (!matchName.equals(other.matchName))
 			return false;
+		if (matchSettings != other.matchSettings)
+			return false;
 		if (maxPlayers != other.maxPlayers)
 			return false;
 		return Arrays.equals(players, other.players);
@@ -150,6 +165,6 @@ public class MatchInfoPacket extends Packet {
 	@Override
 	public String toString() {
 		return "MatchInfoPacket [id=" + id + ", matchName=" + matchName + ", maxPlayers=" + maxPlayers + ", mapInfo=" + mapInfo + ", players="
-				+ Arrays.toString(players) + "]";
+				+ Arrays.toString(players) + ", matchSettings=" + matchSettings + "]";
 	}
 }
@@ -30,15 +30,17 @@ public class OpenNewMatchPacket extends Packet {
 	private int maxPlayers;
 	private MapInfoPacket mapInfo;
 	private long randomSeed;
+	private int matchSettings;
 
 	public OpenNewMatchPacket() {
 	}
 
-	public OpenNewMatchPacket(String matchName, int maxPlayers, MapInfoPacket mapInfo, long randomSeed) {
+	public OpenNewMatchPacket(String matchName, int maxPlayers, MapInfoPacket mapInfo, long randomSeed, int matchSettings) {
 		this.matchName = matchName;
 		this.maxPlayers = maxPlayers;
 		this.mapInfo = mapInfo;
 		this.randomSeed = randomSeed;
+		this.matchSettings = matchSettings;
 	}
 
 	@Override
@@ -47,6 +49,7 @@ public class OpenNewMatchPacket extends Packet {
 		dos.writeInt(maxPlayers);
 		mapInfo.serialize(dos);
 		dos.writeLong(randomSeed);
+		dos.writeInt(matchSettings);
 	}
 
 	@Override
@@ -56,6 +59,7 @@ public class OpenNewMatchPacket extends Packet {
 		mapInfo = new MapInfoPacket();
 		mapInfo.deserialize(dis);
 		randomSeed = dis.readLong();
+		matchSettings = dis.readInt();
 	}
 
 	public String getMatchName() {
@@ -74,12 +78,20 @@ public class OpenNewMatchPacket extends Packet {
 		return randomSeed;
 	}
 
+	/**
+	 * @return The settings of the game logic all participants of the match have to use. They are not interpreted by the server.
+	 */
+	public int getMatchSettings() {
+		return matchSettings;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((mapInfo == null) ? 0 : mapInfo.hashCode());
 		result = prime * result + ((matchName == null) ? 0 : matchName.hashCode());
+		result = prime * result + matchSettings;
 		result = prime * result + maxPlayers;
 		result = prime * result + (int) (randomSeed ^ (randomSeed >>> 32));
 		return result;
@@ -104,6 +116,8 @@ public class OpenNewMatchPacket extends Packet {
 				return false;
 		} else if (!matchName.equals(other.matchName))
 			return false;
+		if (matchSettings != other.matchSettings)
+			return false;
 		if (maxPlayers != other.maxPlayers)
 			return false;
 		return randomSeed == other.randomSeed;
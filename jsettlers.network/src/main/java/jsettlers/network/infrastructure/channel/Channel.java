@@ -53,8 +53,8 @@ public class Channel implements Runnable, IRoundTripTimeSupplier {
 	private final DataOutputStream outStream;
 	private final DataInputStream inStream;
 
-	private final ByteArrayOutputStream byteBufferOutStream = new ByteArrayOutputStream();
-	private final DataOutputStream bufferDataOutStream = new DataOutputStream(byteBufferOutStream);
+	private final FrameOutputStream frameOutStream = new FrameOutputStream();
+	private final DataOutputStream frameDataOutStream = new DataOutputStream(frameOutStream);
 
 	private final HashMap<ENetworkKey, IChannelListener> listenerRegistry = new HashMap<>();
 
@@ -92,6 +92,25 @@ public class Channel implements Runnable, IRoundTripTimeSupplier {
 		thread = new Thread(this, "ChannelForSocket_" + socket);
 	}
 
+	/**
+	 * Creates a {@link Channel} without a blocking socket and receiver thread. Subclasses using this constructor have to override
+	 * {@link #sendPacket(ENetworkKey, Packet)}, {@link #sendData(ENetworkKey, byte[])}, {@link #close()} and {@link #isClosed()} and hand received
+	 * packets to {@link #dispatchPacket(ENetworkKey, int, DataInputStream)}.
+	 * 
+	 * @param logger
+	 *            The logger to be used by this channel.
+	 */
+	protected Channel(Logger logger) {
+		this.logger = new SwitchableLogger(logger);
+		this.socket = null;
+		this.outStream = null;
+		this.inStream = null;
+		this.thread = null;
+
+		pingPacketListener = new PingPacketListener(this.logger, this);
+		registerListener(pingPacketListener);
+	}
+
 	/**
 	 * Starts the message receiving of this {@link Channel}.
 	 * <p />
@@ -104,7 +123,9 @@ public class Channel implements Runnable, IRoundTripTimeSupplier {
 	 */
 	public void start() {
 		started = true;
-		thread.start();
+		if (thread != null) {
+			thread.start();
+		}
 	}
 
 	public synchronized void sendPacket(ENetworkKey key, Packet packet) {
@@ -117,18 +138,46 @@ public class Channel implements Runnable, IRoundTripTimeSupplier {
 		}
 	}
 
+	/**
+	 * Sends data that has already been serialized in the format the partner's deserializer for the given key expects. This allows to send data
+	 * that is encoded specifically for this channel without wrapping it into a {@link Packet}.
+	 * 
+	 * @param key
+	 *            The key of the data.
+	 * @param data
+	 *            The serialized data.
+	 */
+	public synchronized void sendData(ENetworkKey key, byte[] data) {
+		if (socket.isClosed())
+			return;
+
+		try {
+			startFrame(key);
+			frameDataOutStream.write(data);
+			finishFrame();
+		} catch (IOException e) {
+		}
+	}
+
 	private void sendPacketData(ENetworkKey key, Packet packet) throws IOException {
-		bufferDataOutStream.flush();
-		byteBufferOutStream.reset();
+		startFrame(key);
+		packet.serialize(frameDataOutStream);
+		finishFrame();
+	}
+
+	private void startFrame(ENetworkKey key) throws IOException {
+		frameDataOutStream.flush();
+		frameOutStream.reset();
 
-		packet.serialize(bufferDataOutStream); // write packet to buffer to calculate length
-		bufferDataOutStream.flush();
-		final int length = byteBufferOutStream.size();
+		key.writeTo(frameDataOutStream); // reserve the header and write the data behind it to calculate the length
+		frameDataOutStream.writeInt(0);
+	}
 
-		key.writeTo(outStream); // write key, length and the data
-		outStream.writeInt(length);
-		byteBufferOutStream.writeTo(outStream);
+	private void finishFrame() throws IOException {
+		frameDataOutStream.flush();
+		frameOutStream.patchInt(1, frameOutStream.size() - NetworkConstants.FRAME_HEADER_LENGTH);
 
+		frameOutStream.writeTo(outStream); // key, length and data go to the socket with a single write
 		outStream.flush();
 	}
 
@@ -158,26 +207,7 @@ public class Channel implements Runnable, IRoundTripTimeSupplier {
 
 				DataInputStream bufferIn = readBytesToBuffer(inStream, length);
 
-				IChannelListener listener = listenerRegistry.get(key);
-
-				if (listener != null) {
-					try {
-						listener.receive(key, length, bufferIn);
-						if (bufferIn.available() > 0) {
-							logger.warn("Deserialization did not read all bytes of input: " + key + " " + length + " " + bufferIn.available());
-						}
-					} catch (Exception e) { // ignore exceptions thrown in receive
-						e.printStackTrace();
-					}
-				} else {
-					logger.warn("NO LISTENER FOUND for key: " + key + "   (" + socket + ")");
-
-					if (key != NetworkConstants.ENetworkKey.REJECT_PACKET) { // prevent endless loop
-						sendPacket(NetworkConstants.ENetworkKey.REJECT_PACKET,
-								new RejectPacket(NetworkConstants.ENetworkMessage.NO_LISTENER_FOUND, key));
-					}
-				}
-
+				dispatchPacket(key, length, bufferIn);
 			} catch (Exception e) {
 				try {
 					socket.close();
@@ -188,10 +218,55 @@ public class Channel implements Runnable, IRoundTripTimeSupplier {
 
 		close(); // release the resources
 
+		notifyChannelClosed();
+		logger.info("Channel listener shut down: " + socket);
+	}
+
+	/**
+	 * Hands a received packet to the listener registered for its key. If no listener is registered, a {@link RejectPacket} is sent back.
+	 * 
+	 * @param key
+	 *            The key of the received packet.
+	 * @param length
+	 *            The length of the packet's data.
+	 * @param bufferIn
+	 *            A stream containing exactly the packet's data.
+	 * @throws IOException
+	 *             If reading the available bytes fails.
+	 */
+	protected void dispatchPacket(ENetworkKey key, int length, DataInputStream bufferIn) throws IOException {
+		IChannelListener listener = listenerRegistry.get(key);
+
+		if (listener != null) {
+			try {
+				listener.receive(key, length, bufferIn);
+				if (bufferIn.available() > 0) {
+					logger.warn("Deserialization did not read all bytes of input: " + key + " " + length + " " + bufferIn.available());
+				}
+			} catch (Exception e) { // ignore exceptions thrown in receive
+				e.printStackTrace();
+			}
+		} else {
+			logger.warn("NO LISTENER FOUND for key: " + key + "   (" + this + ")");
+
+			if (key != NetworkConstants.ENetworkKey.REJECT_PACKET) { // prevent endless loop
+				sendPacket(NetworkConstants.ENetworkKey.REJECT_PACKET,
+						new RejectPacket(NetworkConstants.ENetworkMessage.NO_LISTENER_FOUND, key));
+			}
+		}
+	}
+
+	/**
+	 * Informs the registered {@link IChannelClosedListener}, if there is one.
+	 */
+	protected void notifyChannelClosed() {
 		if (channelClosedListener != null) {
 			channelClosedListener.channelClosed();
 		}
-		logger.info("Channel listener shut down: " + socket);
+	}
+
+	protected Logger getLogger() {
+		return logger;
 	}
 
 	private DataInputStream readBytesToBuffer(DataInputStream inStream, int length) throws IOException {
@@ -278,4 +353,21 @@ public class Channel implements Runnable, IRoundTripTimeSupplier {
 	public void setLogger(Logger newLogger) {
 		this.logger.setLogger(newLogger);
 	}
+
+	@Override
+	public String toString() {
+		return "Channel(" + socket + ")";
+	}
+
+	/**
+	 * {@link ByteArrayOutputStream} that allows to patch the reserved length field of a frame after the packet has been serialized behind it.
+	 */
+	private static final class FrameOutputStream extends ByteArrayOutputStream {
+		void patchInt(int position, int value) {
+			buf[position] = (byte) (value >>> 24);
+			buf[position + 1] = (byte) (value >>> 16);
+			buf[position + 2] = (byte) (value >>> 8);
+			buf[position + 3] = (byte) value;
+		}
+	}
 }
@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.infrastructure.channel.nio;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import jsettlers.network.NetworkConstants;
+
+/**
+ * A single thread serving the reading and writing of any number of {@link NioChannel}s.
+ */
+public final class ChannelSelector extends Thread {
+	private final Selector selector;
+	private final DirectBufferPool bufferPool = new DirectBufferPool(NetworkConstants.NIO_BUFFER_SIZE, NetworkConstants.NIO_MAX_POOLED_BUFFERS);
+
+	private final ConcurrentLinkedQueue<NioChannel> registrationRequests = new ConcurrentLinkedQueue<>();
+	private final ConcurrentLinkedQueue<NioChannel> flushRequests = new ConcurrentLinkedQueue<>();
+	private final ConcurrentLinkedQueue<NioChannel> releaseRequests = new ConcurrentLinkedQueue<>();
+
+	private volatile boolean canceled = false;
+
+	public ChannelSelector() throws IOException {
+		super("ChannelSelector");
+		this.selector = Selector.open();
+		this.setDaemon(true);
+	}
+
+	DirectBufferPool getBufferPool() {
+		return bufferPool;
+	}
+
+	void register(NioChannel channel) {
+		registrationRequests.offer(channel);
+		selector.wakeup();
+	}
+
+	void requestFlush(NioChannel channel) {
+		flushRequests.offer(channel);
+		selector.wakeup();
+	}
+
+	void requestRelease(NioChannel channel) {
+		releaseRequests.offer(channel);
+		selector.wakeup();
+	}
+
+	@Override
+	public void run() {
+		while (!canceled) {
+			try {
+				selector.select();
+			} catch (IOException e) {
+				e.printStackTrace();
+				break;
+			}
+
+			handleRegistrations();
+			handleSelectedKeys();
+			handleFlushRequests();
+			handleReleaseRequests();
+		}
+
+		for (SelectionKey key : selector.keys()) {
+			((NioChannel) key.attachment()).close();
+		}
+		handleReleaseRequests();
+		try {
+			selector.close();
+		} catch (IOException e) {
+		}
+	}
+
+	private void handleRegistrations() {
+		NioChannel channel;
+		while ((channel = registrationRequests.poll()) != null) {
+			try {
+				SelectionKey key = channel.getSocketChannel().register(selector, SelectionKey.OP_READ, channel);
+				channel.setSelectionKey(key);
+				if (!channel.flush()) { // write the packets sent before the channel was started
+					key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+				}
+			} catch (IOException | CancelledKeyException e) {
+				channel.close();
+			}
+		}
+	}
+
+	private void handleSelectedKeys() {
+		Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+		while (iterator.hasNext()) {
+			SelectionKey key = iterator.next();
+			iterator.remove();
+			NioChannel channel = (NioChannel) key.attachment();
+
+			try {
+				if (key.isReadable() && !channel.read()) {
+					channel.close();
+				}
+				if (key.isValid() && key.isWritable() && channel.flush()) {
+					key.interestOps(SelectionKey.OP_READ);
+				}
+			} catch (IOException | CancelledKeyException e) {
+				channel.close();
+			}
+		}
+	}
+
+	private void handleFlushRequests() {
+		NioChannel channel;
+		while ((channel = flushRequests.poll()) != null) {
+			SelectionKey key = channel.getSelectionKey();
+			if (key == null) { // not yet registered, the packets will be written on registration
+				continue;
+			}
+
+			try {
+				if (!channel.flush() && key.isValid()) {
+					key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+				}
+			} catch (IOException | CancelledKeyException e) {
+				channel.close();
+			}
+		}
+	}
+
+	private void handleReleaseRequests() {
+		NioChannel channel;
+		while ((channel = releaseRequests.poll()) != null) {
+			SelectionKey key = channel.getSelectionKey();
+			if (key != null) {
+				key.cancel();
+			}
+			channel.releaseResources();
+		}
+	}
+
+	/**
+	 * Stops the selector thread and closes all channels served by it.
+	 */
+	public void shutdown() {
+		canceled = true;
+		selector.wakeup();
+	}
+}
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.infrastructure.channel.nio;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A thread safe pool of direct {@link ByteBuffer}s of a fixed size. Direct buffers are expensive to allocate but can be handed to the socket
+ * without copying them into a temporary native buffer first.
+ */
+public final class DirectBufferPool {
+	private final ConcurrentLinkedQueue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger pooledBuffers = new AtomicInteger();
+
+	private final int bufferSize;
+	private final int maxPooledBuffers;
+
+	public DirectBufferPool(int bufferSize, int maxPooledBuffers) {
+		this.bufferSize = bufferSize;
+		this.maxPooledBuffers = maxPooledBuffers;
+	}
+
+	/**
+	 * @return A cleared buffer of the pool's buffer size.
+	 */
+	public ByteBuffer acquire() {
+		ByteBuffer buffer = buffers.poll();
+		if (buffer == null) {
+			return ByteBuffer.allocateDirect(bufferSize);
+		}
+		pooledBuffers.decrementAndGet();
+		return buffer;
+	}
+
+	/**
+	 * Returns the given buffer to the pool. Buffers of a different size and buffers exceeding the pool's capacity are left to the garbage
+	 * collector.
+	 * 
+	 * @param buffer
+	 *            The buffer that is no longer used.
+	 */
+	public void release(ByteBuffer buffer) {
+		if (buffer.capacity() != bufferSize || !buffer.isDirect()) {
+			return;
+		}
+		if (pooledBuffers.incrementAndGet() > maxPooledBuffers) {
+			pooledBuffers.decrementAndGet();
+			return;
+		}
+		buffer.clear();
+		buffers.offer(buffer);
+	}
+
+	public int getBufferSize() {
+		return bufferSize;
+	}
+}
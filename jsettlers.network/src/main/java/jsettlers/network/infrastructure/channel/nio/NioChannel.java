@@ -0,0 +1,278 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.infrastructure.channel.nio;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jsettlers.network.NetworkConstants;
+import jsettlers.network.NetworkConstants.ENetworkKey;
+import jsettlers.network.infrastructure.channel.Channel;
+import jsettlers.network.infrastructure.channel.packet.Packet;
+import jsettlers.network.infrastructure.log.Logger;
+
+/**
+ * A {@link Channel} using a non blocking {@link SocketChannel} that is served by a shared {@link ChannelSelector} instead of an own thread.
+ * <p />
+ * Sent packets are serialized directly into pooled direct buffers. All packets sent until the selector thread gets to flush the channel are
+ * written to the socket with a single gathering write. Received packets are deserialized directly from the read buffer. The registered listeners
+ * are called on the selector thread.
+ */
+public class NioChannel extends Channel {
+	private final SocketChannel socketChannel;
+	private final ChannelSelector selector;
+	private final DirectBufferPool bufferPool;
+
+	private final PooledBufferOutputStream frameOutStream;
+	private final DataOutputStream frameDataOutStream;
+	private final AtomicBoolean flushScheduled = new AtomicBoolean();
+	private final AtomicBoolean closed = new AtomicBoolean();
+
+	// only accessed by the selector thread
+	private final ArrayDeque<ByteBuffer> pendingWrites = new ArrayDeque<>();
+	private ByteBuffer[] writeBatch = new ByteBuffer[16];
+	private final ByteBufferInputStream frameInStream = new ByteBufferInputStream();
+	private final DataInputStream frameDataInStream = new DataInputStream(frameInStream);
+	private ByteBuffer readBuffer;
+	private SelectionKey selectionKey;
+
+	/**
+	 * Creates a new {@link NioChannel} for the given connected {@link SocketChannel}.
+	 * 
+	 * @param logger
+	 *            The logger to be used by this channel.
+	 * @param socketChannel
+	 *            The connected socket channel. It will be switched to non blocking mode.
+	 * @param selector
+	 *            The selector serving this channel.
+	 * @throws IOException
+	 *             If the socket channel could not be configured.
+	 */
+	public NioChannel(Logger logger, SocketChannel socketChannel, ChannelSelector selector) throws IOException {
+		super(logger);
+		this.socketChannel = socketChannel;
+		this.selector = selector;
+		this.bufferPool = selector.getBufferPool();
+
+		socketChannel.configureBlocking(false);
+		socketChannel.socket().setTcpNoDelay(true); // packets are already batched by the channel
+
+		frameOutStream = new PooledBufferOutputStream(bufferPool);
+		frameDataOutStream = new DataOutputStream(frameOutStream);
+	}
+
+	/**
+	 * Registers this channel at its {@link ChannelSelector} to start receiving packets.
+	 * <p />
+	 * NOTE: This method may only be called once!
+	 */
+	@Override
+	public void start() {
+		super.start();
+		selector.register(this);
+	}
+
+	@Override
+	public synchronized void sendPacket(ENetworkKey key, Packet packet) {
+		if (closed.get()) {
+			return;
+		}
+
+		frameOutStream.startFrame(key);
+		try {
+			packet.serialize(frameDataOutStream);
+		} catch (IOException e) {
+			frameOutStream.abortFrame();
+			return;
+		}
+		frameOutStream.finishFrame();
+		scheduleFlush();
+	}
+
+	@Override
+	public synchronized void sendData(ENetworkKey key, byte[] data) {
+		if (closed.get()) {
+			return;
+		}
+
+		frameOutStream.startFrame(key);
+		try {
+			frameDataOutStream.write(data);
+		} catch (IOException e) {
+			frameOutStream.abortFrame();
+			return;
+		}
+		frameOutStream.finishFrame();
+		scheduleFlush();
+	}
+
+	private void scheduleFlush() {
+		if (flushScheduled.compareAndSet(false, true)) {
+			selector.requestFlush(this);
+		}
+	}
+
+	@Override
+	public void close() {
+		if (closed.compareAndSet(false, true)) {
+			try {
+				socketChannel.close();
+			} catch (IOException e) {
+			}
+			selector.requestRelease(this);
+		}
+	}
+
+	@Override
+	public boolean isClosed() {
+		return closed.get();
+	}
+
+	SocketChannel getSocketChannel() {
+		return socketChannel;
+	}
+
+	void setSelectionKey(SelectionKey selectionKey) {
+		this.selectionKey = selectionKey;
+	}
+
+	SelectionKey getSelectionKey() {
+		return selectionKey;
+	}
+
+	/**
+	 * Writes all packets sent so far to the socket. Called by the selector thread.
+	 * 
+	 * @return true if everything has been written, false if the socket's send buffer is full.
+	 * @throws IOException
+	 *             If writing to the socket failed.
+	 */
+	boolean flush() throws IOException {
+		flushScheduled.set(false);
+		synchronized (this) {
+			if (closed.get()) {
+				return true;
+			}
+			frameOutStream.drainTo(pendingWrites);
+		}
+
+		while (!pendingWrites.isEmpty()) {
+			int numberOfBuffers = pendingWrites.size();
+			writeBatch = pendingWrites.toArray(writeBatch);
+			socketChannel.write(writeBatch, 0, numberOfBuffers);
+
+			while (!pendingWrites.isEmpty() && !pendingWrites.peekFirst().hasRemaining()) {
+				bufferPool.release(pendingWrites.pollFirst());
+			}
+			if (pendingWrites.size() == numberOfBuffers) {
+				return false; // nothing could be written
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Reads the available bytes from the socket and dispatches all completely received packets. Called by the selector thread.
+	 * 
+	 * @return false if the end of the stream has been reached.
+	 * @throws IOException
+	 *             If reading from the socket failed or a received frame is invalid.
+	 */
+	boolean read() throws IOException {
+		if (readBuffer == null) {
+			readBuffer = bufferPool.acquire();
+		}
+
+		if (socketChannel.read(readBuffer) < 0) {
+			return false;
+		}
+		readBuffer.flip();
+
+		while (readBuffer.remaining() >= NetworkConstants.FRAME_HEADER_LENGTH) {
+			int frameStart = readBuffer.position();
+			int length = readBuffer.getInt(frameStart + 1);
+			if (length < 0) {
+				throw new IOException("Received invalid frame length: " + length);
+			}
+
+			int frameEnd = frameStart + NetworkConstants.FRAME_HEADER_LENGTH + length;
+			if (frameEnd > readBuffer.limit()) {
+				if (NetworkConstants.FRAME_HEADER_LENGTH + length > readBuffer.capacity()) {
+					growReadBuffer(NetworkConstants.FRAME_HEADER_LENGTH + length);
+					return true;
+				}
+				break;
+			}
+
+			int limit = readBuffer.limit();
+			readBuffer.limit(frameEnd);
+			frameInStream.setBuffer(readBuffer);
+			ENetworkKey key = ENetworkKey.readFrom(frameDataInStream);
+			frameDataInStream.readInt();
+
+			dispatchPacket(key, length, frameDataInStream);
+
+			if (closed.get()) {
+				return true; // a listener closed the channel, the buffers will be released by the selector
+			}
+			readBuffer.limit(limit);
+			readBuffer.position(frameEnd);
+		}
+
+		readBuffer.compact();
+		if (readBuffer.position() == 0 && readBuffer.capacity() != bufferPool.getBufferSize()) {
+			readBuffer = bufferPool.acquire(); // drop the grown buffer after the big frame has been processed
+		}
+		return true;
+	}
+
+	private void growReadBuffer(int frameLength) {
+		ByteBuffer grownBuffer = ByteBuffer.allocateDirect(frameLength);
+		grownBuffer.put(readBuffer);
+		bufferPool.release(readBuffer);
+		readBuffer = grownBuffer;
+	}
+
+	/**
+	 * Returns all buffers of this closed channel to the pool and informs the closed listener. Called by the selector thread.
+	 */
+	void releaseResources() {
+		synchronized (this) {
+			frameOutStream.release();
+		}
+		for (ByteBuffer buffer : pendingWrites) {
+			bufferPool.release(buffer);
+		}
+		pendingWrites.clear();
+		if (readBuffer != null) {
+			bufferPool.release(readBuffer);
+			readBuffer = null;
+		}
+
+		notifyChannelClosed();
+		getLogger().info("Channel shut down: " + this);
+	}
+
+	@Override
+	public String toString() {
+		return "NioChannel(" + socketChannel + ")";
+	}
+}
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.infrastructure.channel.nio;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Collection;
+
+import jsettlers.network.NetworkConstants;
+import jsettlers.network.NetworkConstants.ENetworkKey;
+
+/**
+ * {@link OutputStream} writing frames directly into a chain of pooled direct buffers. Consecutive frames share the buffers, so that all frames
+ * sent between two flushes can be written to the socket with a single gathering write.
+ * <p />
+ * This class is not thread safe.
+ */
+final class PooledBufferOutputStream extends OutputStream {
+	private final DirectBufferPool pool;
+	private final ArrayDeque<ByteBuffer> filledBuffers = new ArrayDeque<>();
+
+	private ByteBuffer current;
+
+	private ByteBuffer frameStartBuffer;
+	private int frameStartPosition;
+	private long frameStartWritten;
+	private long written;
+
+	PooledBufferOutputStream(DirectBufferPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Writes the key of a new frame and reserves the space for its length.
+	 */
+	void startFrame(ENetworkKey key) {
+		if (current == null) {
+			current = pool.acquire();
+		} else if (current.remaining() < NetworkConstants.FRAME_HEADER_LENGTH) {
+			filledBuffers.add(current);
+			current = pool.acquire();
+		}
+
+		frameStartBuffer = current;
+		frameStartPosition = current.position();
+		frameStartWritten = written;
+
+		current.put((byte) key.ordinal());
+		current.putInt(0);
+		written += NetworkConstants.FRAME_HEADER_LENGTH;
+	}
+
+	/**
+	 * Writes the length of the data written since {@link #startFrame(ENetworkKey)} into the frame's header.
+	 */
+	void finishFrame() {
+		int length = (int) (written - frameStartWritten - NetworkConstants.FRAME_HEADER_LENGTH);
+		frameStartBuffer.putInt(frameStartPosition + 1, length);
+		frameStartBuffer = null;
+	}
+
+	/**
+	 * Drops everything written since {@link #startFrame(ENetworkKey)}.
+	 */
+	void abortFrame() {
+		if (current != frameStartBuffer) {
+			pool.release(current);
+			while (filledBuffers.peekLast() != frameStartBuffer) {
+				pool.release(filledBuffers.pollLast());
+			}
+			current = filledBuffers.pollLast();
+		}
+		current.position(frameStartPosition);
+		written = frameStartWritten;
+		frameStartBuffer = null;
+	}
+
+	/**
+	 * Moves all written buffers ready for reading to the given collection. May only be called between frames.
+	 */
+	void drainTo(Collection<ByteBuffer> target) {
+		for (ByteBuffer buffer : filledBuffers) {
+			buffer.flip();
+			target.add(buffer);
+		}
+		filledBuffers.clear();
+
+		if (current != null && current.position() > 0) {
+			current.flip();
+			target.add(current);
+			current = null;
+		}
+	}
+
+	/**
+	 * Returns all buffers to the pool.
+	 */
+	void release() {
+		for (ByteBuffer buffer : filledBuffers) {
+			pool.release(buffer);
+		}
+		filledBuffers.clear();
+		if (current != null) {
+			pool.release(current);
+			current = null;
+		}
+	}
+
+	@Override
+	public void write(int b) {
+		ensureRemaining();
+		current.put((byte) b);
+		written++;
+	}
+
+	@Override
+	public void write(byte[] bytes, int offset, int length) {
+		while (length > 0) {
+			ensureRemaining();
+			int chunk = Math.min(length, current.remaining());
+			current.put(bytes, offset, chunk);
+			offset += chunk;
+			length -= chunk;
+			written += chunk;
+		}
+	}
+
+	private void ensureRemaining() {
+		if (!current.hasRemaining()) {
+			filledBuffers.add(current);
+			current = pool.acquire();
+		}
+	}
+}
@@ -15,12 +15,16 @@
 package jsettlers.network.server;
 
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketException;
+import java.nio.channels.ServerSocketChannel;
 
 import jsettlers.network.NetworkConstants;
 import jsettlers.network.infrastructure.channel.Channel;
+import jsettlers.network.infrastructure.channel.nio.ChannelSelector;
+import jsettlers.network.infrastructure.channel.nio.NioChannel;
 import jsettlers.network.infrastructure.channel.socket.ISocketFactory;
 import jsettlers.network.infrastructure.log.Logger;
 import jsettlers.network.infrastructure.log.LoggerManager;
@@ -39,6 +43,7 @@ public final class GameServerThread extends Thread {
 	private static final Logger LOGGER = LoggerManager.ROOT_LOGGER;
 
 	private final ServerSocket serverSocket;
+	private final ChannelSelector channelSelector;
 	private final ServerManager manager;
 	private final LanServerBroadcastThread lanBroadcastThread;
 
@@ -46,8 +51,30 @@ public final class GameServerThread extends Thread {
 	private boolean canceled = false;
 
 	public GameServerThread(boolean lan) throws IOException {
+		this(lan, NetworkConstants.Server.USE_NIO_CHANNELS);
+	}
+
+	/**
+	 * 
+	 * @param lan
+	 *            If true, the server's address is broadcasted in the local network.
+	 * @param useNioChannels
+	 *            If true, all clients are served by a single {@link ChannelSelector} thread. Otherwise every client gets its own blocking
+	 *            {@link Channel}.
+	 * @throws IOException
+	 */
+	public GameServerThread(boolean lan, boolean useNioChannels) throws IOException {
 		super("GameServer");
-		this.serverSocket = new ServerSocket(NetworkConstants.Server.SERVER_PORT);
+		if (useNioChannels) {
+			ServerSocketChannel serverSocketChannel = ServerSocketChannel.open();
+			this.serverSocket = serverSocketChannel.socket();
+			this.serverSocket.setReuseAddress(true);
+			this.serverSocket.bind(new InetSocketAddress(NetworkConstants.Server.SERVER_PORT));
+			this.channelSelector = new ChannelSelector();
+		} else {
+			this.serverSocket = new ServerSocket(NetworkConstants.Server.SERVER_PORT);
+			this.channelSelector = null;
+		}
 		this.manager = new ServerManager(new InMemoryDB());
 
 		this.setDaemon(true);
@@ -68,18 +95,28 @@ public final class GameServerThread extends Thread {
 			try {
 				Socket clientSocket = serverSocket.accept();
 
-				Channel clientChannel = new Channel(LOGGER, ISocketFactory.DEFAULT_FACTORY.generateSocket(clientSocket));
+				Channel clientChannel = createChannel(clientSocket);
 				manager.identifyNewChannel(clientChannel);
 				clientChannel.start();
 
 				LOGGER.log("accepted new client (" + ++counter + "): " + clientSocket);
 			} catch (SocketException e) {
 			} catch (IOException e) {
-				e.printStackTrace();
+				if (!canceled) { // closing the server socket channel interrupts the accept
+					e.printStackTrace();
+				}
 			}
 		}
 	}
 
+	private Channel createChannel(Socket clientSocket) throws IOException {
+		if (channelSelector != null) {
+			return new NioChannel(LOGGER, clientSocket.getChannel(), channelSelector);
+		} else {
+			return new Channel(LOGGER, ISocketFactory.DEFAULT_FACTORY.generateSocket(clientSocket));
+		}
+	}
+
 	/**
 	 * NOTE: THIS METHOD IS BLOCKING for the given time
 	 * 
@@ -114,6 +151,9 @@ public final class GameServerThread extends Thread {
 
 	@Override
 	public synchronized void start() {
+		if (channelSelector != null) {
+			channelSelector.start();
+		}
 		super.start();
 		manager.start();
 	}
@@ -128,6 +168,9 @@ public final class GameServerThread extends Thread {
 		if (lanBroadcastThread != null)
 			lanBroadcastThread.shutdown();
 
+		if (channelSelector != null)
+			channelSelector.shutdown();
+
 		manager.shutdown();
 	}
 
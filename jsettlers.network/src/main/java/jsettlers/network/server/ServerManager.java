@@ -108,7 +108,8 @@ public class ServerManager implements IServerManager {
 
 	@Override
 	public void createNewMatch(OpenNewMatchPacket matchInfo, Player player) {
-		Match match = new Match(matchInfo.getMatchName(), matchInfo.getMaxPlayers(), matchInfo.getMapInfo(), matchInfo.getRandomSeed());
+		Match match = new Match(matchInfo.getMatchName(), matchInfo.getMaxPlayers(), matchInfo.getMapInfo(), matchInfo.getRandomSeed(),
+				matchInfo.getMatchSettings());
 		database.storeMatch(match);
 
 		joinMatch(match, player);
@@ -14,8 +14,10 @@
  *******************************************************************************/
 package jsettlers.network.server.match;
 
+import java.io.IOException;
 import java.util.Date;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Timer;
 import java.util.UUID;
 
@@ -34,6 +36,7 @@ import jsettlers.network.infrastructure.log.LoggerManager;
 import jsettlers.network.server.exceptions.NotAllPlayersReadyException;
 import jsettlers.network.server.match.lockstep.TaskCollectingListener;
 import jsettlers.network.server.match.lockstep.TaskSendingTimerTask;
+import jsettlers.network.server.packets.ServersideTaskPacket;
 
 /**
  * 
@@ -51,16 +54,18 @@ public class Match {
 	private final MapInfoPacket map;
 	private final String name;
 	private final long randomSeed;
+	private final int matchSettings;
 
 	private EMatchState state = EMatchState.OPENED;
 	private TaskCollectingListener taskCollectingListener;
 	private TaskSendingTimerTask taskSendingTimerTask;
 
-	public Match(String name, int maxPlayers, MapInfoPacket map, long randomSeed) {
+	public Match(String name, int maxPlayers, MapInfoPacket map, long randomSeed, int matchSettings) {
 		this.maxPlayers = maxPlayers;
 		this.map = map;
 		this.name = name;
 		this.randomSeed = randomSeed;
+		this.matchSettings = matchSettings;
 		this.id = UUID.randomUUID().toString();
 		this.players = new LinkedList<>();
 		this.leftPlayers = new LinkedList<>();
@@ -109,6 +114,10 @@ public class Match {
 		return randomSeed;
 	}
 
+	public int getMatchSettings() {
+		return matchSettings;
+	}
+
 	public boolean isRunning() {
 		return state == EMatchState.RUNNING;
 	}
@@ -171,6 +180,18 @@ public class Match {
 		}
 	}
 
+	/**
+	 * Sends the tasks of a lockstep to all players of the running match. Every player gets them encoded for its own connection, so players that
+	 * joined later can decode them, too.
+	 */
+	public void sendLockstep(int lockstep, List<ServersideTaskPacket> tasks) throws IOException {
+		synchronized (players) {
+			for (Player curr : players) {
+				curr.sendLockstep(lockstep, tasks);
+			}
+		}
+	}
+
 	public void join(Player player) {
 		synchronized (players) {
 			players.add(player);
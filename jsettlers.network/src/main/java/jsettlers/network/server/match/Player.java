@@ -14,6 +14,8 @@
  *******************************************************************************/
 package jsettlers.network.server.match;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.Timer;
 
 import jsettlers.network.NetworkConstants;
@@ -26,7 +28,9 @@ import jsettlers.network.infrastructure.channel.Channel;
 import jsettlers.network.infrastructure.channel.packet.Packet;
 import jsettlers.network.infrastructure.log.LoggerManager;
 import jsettlers.network.server.exceptions.NotAllPlayersReadyException;
+import jsettlers.network.server.match.lockstep.SyncTasksEncoder;
 import jsettlers.network.server.match.lockstep.TaskCollectingListener;
+import jsettlers.network.server.packets.ServersideTaskPacket;
 
 /**
  * 
@@ -39,6 +43,7 @@ public class Player {
 
 	private EPlayerState state = EPlayerState.LOGGED_IN;
 	private Match match;
+	private SyncTasksEncoder lockstepEncoder;
 
 	public Player(PlayerInfoPacket playerInfo, Channel channel) {
 		this.playerInfo = playerInfo;
@@ -92,9 +97,17 @@ public class Player {
 
 	void matchStarted(TaskCollectingListener taskListener) {
 		state = EPlayerState.IN_RUNNING_MATCH;
+		lockstepEncoder = new SyncTasksEncoder();
 		channel.registerListener(taskListener);
 	}
 
+	/**
+	 * Sends the tasks of a lockstep encoded with the state of this player's connection.
+	 */
+	void sendLockstep(int lockstep, List<ServersideTaskPacket> tasks) throws IOException {
+		channel.sendData(ENetworkKey.SYNCHRONOUS_TASK, lockstepEncoder.encode(lockstep, tasks));
+	}
+
 	public void forwardChatMessage(ChatMessagePacket packet) throws IllegalStateException {
 		EPlayerState.assertState(state, EPlayerState.IN_MATCH, EPlayerState.IN_RUNNING_MATCH);
 		match.broadcastMessage(ENetworkKey.CHAT_MESSAGE, packet);
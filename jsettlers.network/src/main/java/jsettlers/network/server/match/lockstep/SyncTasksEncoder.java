@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.server.match.lockstep;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+
+import jsettlers.network.client.task.packets.SyncTasksDecoder;
+import jsettlers.network.infrastructure.utils.VarInts;
+import jsettlers.network.server.packets.ServersideTaskPacket;
+
+/**
+ * Encodes the tasks of consecutive locksteps of one match into the compact wire format read by the {@link SyncTasksDecoder}.
+ * <p />
+ * The format of a lockstep is:
+ * <ul>
+ * <li>var int: (lockstep - previous lockstep) &lt;&lt; 1 | (has tasks ? 1 : 0). A lockstep without tasks only consists of this heartbeat byte.</li>
+ * <li>var int: number of tasks</li>
+ * <li>for every task: var int type id, the type's class name if the id is 0 (new type), var int length and the task data.</li>
+ * </ul>
+ * Type ids index a dictionary of task classes that is built up while the locksteps are sent. As the encoder keeps state, every client needs its
+ * own encoder and has to receive all locksteps encoded by it in order. A client that joins a running match starts with a new encoder: Its first
+ * lockstep contains the absolute lockstep number and every task type is sent again.
+ */
+public class SyncTasksEncoder {
+	private final HashMap<String, Integer> taskTypes = new HashMap<>();
+	private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+	private final DataOutputStream bufferOut = new DataOutputStream(buffer);
+
+	private int lastLockstep = -1;
+
+	public byte[] encode(int lockstep, List<ServersideTaskPacket> tasks) throws IOException {
+		if (lockstep <= lastLockstep) {
+			throw new IllegalArgumentException("Locksteps must be encoded in ascending order: " + lockstep + " after " + lastLockstep);
+		}
+
+		buffer.reset();
+
+		int lockstepDelta = lockstep - lastLockstep;
+		lastLockstep = lockstep;
+		VarInts.writeVarInt(bufferOut, lockstepDelta << 1 | (tasks.isEmpty() ? 0 : 1));
+
+		if (!tasks.isEmpty()) {
+			VarInts.writeVarInt(bufferOut, tasks.size());
+			for (ServersideTaskPacket task : tasks) {
+				encodeTask(task.getData());
+			}
+		}
+
+		bufferOut.flush();
+		return buffer.toByteArray();
+	}
+
+	/**
+	 * Encodes the data of a task. The data starts with the UTF encoded class name of the task, followed by the task's own data.
+	 */
+	private void encodeTask(byte[] data) throws IOException {
+		DataInputStream dataIn = new DataInputStream(new ByteArrayInputStream(data));
+		String className = dataIn.readUTF();
+		int taskDataLength = dataIn.available();
+
+		Integer typeId = taskTypes.get(className);
+		if (typeId == null) {
+			taskTypes.put(className, taskTypes.size() + 1);
+			VarInts.writeVarInt(bufferOut, 0);
+			bufferOut.writeUTF(className);
+		} else {
+			VarInts.writeVarInt(bufferOut, typeId);
+		}
+
+		VarInts.writeVarInt(bufferOut, taskDataLength);
+		bufferOut.write(data, data.length - taskDataLength, taskDataLength);
+	}
+}
@@ -14,6 +14,7 @@
  *******************************************************************************/
 package jsettlers.network.server.match.lockstep;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Locale;
 import java.util.TimerTask;
@@ -23,7 +24,6 @@ import jsettlers.network.infrastructure.channel.ping.IPingUpdateListener;
 import jsettlers.network.infrastructure.log.Logger;
 import jsettlers.network.infrastructure.utils.MaximumSlotBuffer;
 import jsettlers.network.server.match.Match;
-import jsettlers.network.server.packets.ServersideSyncTasksPacket;
 import jsettlers.network.server.packets.ServersideTaskPacket;
 
 /**
@@ -55,8 +55,11 @@ public class TaskSendingTimerTask extends TimerTask {
 		}
 
 		List<ServersideTaskPacket> tasksList = taskCollectingListener.getAndResetTasks();
-		ServersideSyncTasksPacket syncTasksPacket = new ServersideSyncTasksPacket(lockstepCounter++, tasksList);
-		match.broadcastMessage(NetworkConstants.ENetworkKey.SYNCHRONOUS_TASK, syncTasksPacket);
+		try {
+			match.sendLockstep(lockstepCounter++, tasksList);
+		} catch (IOException e) {
+			logger.error(e);
+		}
 	}
 
 	public void receivedLockstepAcknowledge(int acknowledgedLockstep) {
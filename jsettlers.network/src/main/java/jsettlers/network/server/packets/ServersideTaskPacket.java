@@ -60,6 +60,13 @@ public final class ServersideTaskPacket extends Packet {
 		}
 	}
 
+	/**
+	 * @return The serialized task consisting of the task's class name and its data.
+	 */
+	public byte[] getData() {
+		return data;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
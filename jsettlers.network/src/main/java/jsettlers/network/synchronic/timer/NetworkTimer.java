@@ -21,9 +21,11 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
 
@@ -63,6 +65,12 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 
 	private boolean scheduled = false;
 
+	/**
+	 * If true, the executed tasks are not logged and the time needed by the tasks and the timerables is measured.
+	 */
+	private boolean headless = false;
+	private long taskExecutionNanos = 0;
+
 	private ITaskExecutor taskExecutor;
 	private DataOutputStream replayLogStream;
 
@@ -115,11 +123,13 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 			time += TIME_SLICE;
 			final int lockstep = time / NetworkConstants.Client.LOCKSTEP_PERIOD;
 
-			// check if the lockstep is allowed
-			synchronized (lockstepLock) {
-				while (lockstep > maxAllowedLockstep) {
-					System.out.println("WAITING for lockstep!");
-					lockstepLock.wait();
+			// check if the lockstep is allowed; maxAllowedLockstep only grows, so an outdated value only leads to the synchronized check
+			if (lockstep > maxAllowedLockstep) {
+				synchronized (lockstepLock) {
+					while (lockstep > maxAllowedLockstep) {
+						System.out.println("WAITING for lockstep!");
+						lockstepLock.wait();
+					}
 				}
 			}
 
@@ -131,14 +141,20 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 			while (tasksPacket != null && tasksPacket.getLockstepNumber() <= lockstep) {
 				assert tasksPacket.getLockstepNumber() == lockstep : "FOUND TasksPacket FOR older lockstep!";
 
-				System.out.println("Executing SyncTaskPacket(" + tasksPacket + ") in " + getLockstepText(lockstep));
+				if (!headless) {
+					System.out.println("Executing SyncTaskPacket(" + tasksPacket + ") in " + getLockstepText(lockstep));
+				}
 
+				long start = headless ? System.nanoTime() : 0;
 				try {
 					executeTasksPacket(tasksPacket);
 				} catch (Throwable t) {
 					System.err.println("Error during execution of scheduled task:");
 					t.printStackTrace();
 				}
+				if (headless) {
+					taskExecutionNanos += System.nanoTime() - start;
+				}
 
 				synchronized (tasks) {// remove the executed tasksPacket and retrieve the next one to check it.
 					tasks.pollFirst();
@@ -149,8 +165,14 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 			addNewTimerables();
 			handleRemovedTimerables();
 
-			for (ScheduledTimerable curr : timerables) {
-				curr.checkExecution(TIME_SLICE);
+			if (headless) {
+				for (ScheduledTimerable curr : timerables) {
+					curr.checkExecutionMeasured(TIME_SLICE);
+				}
+			} else {
+				for (ScheduledTimerable curr : timerables) {
+					curr.checkExecution(TIME_SLICE);
+				}
 			}
 		} catch (Throwable t) {
 			System.err.println("WARNING: Networking Timer catched Throwable!!!");
@@ -237,13 +259,47 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 	public synchronized void fastForwardTo(int targetGameTime) {
 		this.setPausing(true);
 
-		System.out.println("Playing game forward to game time: " + targetGameTime);
+		if (!headless) {
+			System.out.println("Playing game forward to game time: " + targetGameTime);
+		}
 
 		while (time < targetGameTime) {
 			executeRun();
 		}
 	}
 
+	/**
+	 * Enables or disables the headless mode. In the headless mode, the scheduled and executed {@link SyncTasksPacket}s are not logged and the time
+	 * needed to execute the tasks and the timerables is measured. This is meant for simulations without a user interface.
+	 *
+	 * @param headless
+	 *            true to enable the headless mode.
+	 */
+	public void setHeadless(boolean headless) {
+		this.headless = headless;
+	}
+
+	/**
+	 * @return The nanoseconds needed to execute the tasks since the headless mode has been enabled.
+	 */
+	public synchronized long getTaskExecutionNanos() {
+		return taskExecutionNanos;
+	}
+
+	/**
+	 * @return The nanoseconds the scheduled timerables needed since the headless mode has been enabled, summed up by the class names of the
+	 *         timerables.
+	 */
+	public synchronized Map<String, Long> getTimerableExecutionNanos() {
+		Map<String, Long> executionNanos = new LinkedHashMap<>();
+		for (ScheduledTimerable timerable : timerables) {
+			String name = timerable.getTimerable().getClass().getSimpleName();
+			Long nanos = executionNanos.get(name);
+			executionNanos.put(name, (nanos == null ? 0 : nanos) + timerable.getExecutionNanos());
+		}
+		return executionNanos;
+	}
+
 	// methods for pausing
 
 	@Override
@@ -290,7 +346,9 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 
 		if (!tasksPacket.getTasks().isEmpty()) {
 			synchronized (tasks) {
-				System.out.println("Scheduled SyncTasksPacket(" + tasksPacket + " for " + getLockstepText(tasksPacket.getLockstepNumber()));
+				if (!headless) {
+					System.out.println("Scheduled SyncTasksPacket(" + tasksPacket + " for " + getLockstepText(tasksPacket.getLockstepNumber()));
+				}
 				tasks.addLast(tasksPacket);
 				Collections.sort(tasks, tasksByTimeComparator);
 				saveReplayIfNeeded(tasksPacket);
@@ -25,6 +25,7 @@ public final class ScheduledTimerable {
 	private final INetworkTimerable timerable;
 	private final short delay;
 	private short currDelay;
+	private long executionNanos;
 
 	public ScheduledTimerable(INetworkTimerable timerable, short delay) {
 		this.timerable = timerable;
@@ -49,4 +50,24 @@ public final class ScheduledTimerable {
 			timerable.timerEvent();
 		}
 	}
+
+	/**
+	 * Same as {@link #checkExecution(short)}, but adds the time needed by the timerable to {@link #getExecutionNanos()}.
+	 * 
+	 * @param timeSlice
+	 *            number of milliseconds of the game time that expired since the last call.
+	 */
+	public void checkExecutionMeasured(short timeSlice) {
+		currDelay -= timeSlice;
+		while (currDelay <= 0) {
+			currDelay += delay;
+			long start = System.nanoTime();
+			timerable.timerEvent();
+			executionNanos += System.nanoTime() - start;
+		}
+	}
+
+	public long getExecutionNanos() {
+		return executionNanos;
+	}
 }
@@ -14,15 +14,28 @@
  *******************************************************************************/
 package jsettlers.network;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 
+import jsettlers.network.client.task.packets.TaskPacket;
 import jsettlers.network.infrastructure.channel.AsyncChannel;
 import jsettlers.network.infrastructure.channel.Channel;
+import jsettlers.network.infrastructure.channel.nio.ChannelSelector;
+import jsettlers.network.infrastructure.channel.nio.NioChannel;
+import jsettlers.network.infrastructure.log.ConsoleLogger;
+import jsettlers.network.server.packets.ServersideTaskPacket;
 import jsettlers.network.infrastructure.channel.socket.ISocketFactory;
 
 public final class TestUtils {
@@ -57,6 +70,37 @@ public final class TestUtils {
 		return channels;
 	}
 
+	public static Channel[] setUpNioLoopbackChannels(ChannelSelector selector) throws IOException {
+		final Channel[] channels = new Channel[2];
+
+		try (ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+			serverChannel.socket().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+			SocketChannel clientChannel = SocketChannel.open(serverChannel.socket().getLocalSocketAddress());
+			SocketChannel acceptedChannel = serverChannel.accept();
+
+			channels[0] = new NioChannel(new ConsoleLogger("nio-client"), clientChannel, selector);
+			channels[1] = new NioChannel(new ConsoleLogger("nio-server"), acceptedChannel, selector);
+		}
+
+		channels[0].start();
+		channels[1].start();
+		channels[0].initPinging();
+
+		return channels;
+	}
+
+	/**
+	 * Converts the given task into the representation the server receives it in.
+	 */
+	public static ServersideTaskPacket toServersideTaskPacket(TaskPacket task) throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		task.serialize(new DataOutputStream(buffer));
+
+		ServersideTaskPacket serversideTask = new ServersideTaskPacket();
+		serversideTask.deserialize(new DataInputStream(new ByteArrayInputStream(buffer.toByteArray())));
+		return serversideTask;
+	}
+
 	private static Socket[] setUpLoppbackSockets() throws IOException {
 		Socket[] sockets = new Socket[2];
 
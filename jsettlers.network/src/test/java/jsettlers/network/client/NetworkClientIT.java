@@ -143,19 +143,19 @@ public class NetworkClientIT {
 
 	@Test(expected = IllegalStateException.class)
 	public void testRequestOpenNewMatchInStateUnconnected() throws IllegalStateException {
-		client1.openNewMatch(null, (byte) 0, null, 4711L, null, null, null);
+		client1.openNewMatch(null, (byte) 0, null, 4711L, 0, null, null, null);
 	}
 
 	@Test(expected = IllegalStateException.class)
 	public void testRequestOpenNewMatchInStateInMatch() throws IllegalStateException, InterruptedException {
 		testOpenMatchWithLogin();
-		client1.openNewMatch(null, (byte) 0, null, 4711L, null, null, null);
+		client1.openNewMatch(null, (byte) 0, null, 4711L, 0, null, null, null);
 	}
 
 	@Test(expected = IllegalStateException.class)
 	public void testRequestOpenNewMatchInStateInRunningMatch() throws IllegalStateException, InterruptedException {
 		testOpenAndStartNewMatch();
-		client1.openNewMatch(null, (byte) 0, null, 4711L, null, null, null);
+		client1.openNewMatch(null, (byte) 0, null, 4711L, 0, null, null, null);
 	}
 
 	@Test(expected = IllegalStateException.class)
@@ -264,7 +264,7 @@ public class NetworkClientIT {
 		final String matchName = "TestMatch";
 		final byte maxPlayers = (byte) 5;
 		final MapInfoPacket mapInfo = new MapInfoPacket("mapid92329", "mapName", "authorId", "authorName", 5);
-		client.openNewMatch(matchName, maxPlayers, mapInfo, -4712L, null, matchUpdateListener, null);
+		client.openNewMatch(matchName, maxPlayers, mapInfo, -4712L, 0, null, matchUpdateListener, null);
 
 		Thread.sleep(100L);
 
@@ -293,7 +293,7 @@ public class NetworkClientIT {
 		testLogIn();
 
 		BufferingPacketReceiver<ChatMessagePacket> chatReceiver = new BufferingPacketReceiver<>();
-		client1.openNewMatch("TestMatch", 4, new MapInfoPacket("", "", "", "", 9), 923409340394293842L, null, null, chatReceiver);
+		client1.openNewMatch("TestMatch", 4, new MapInfoPacket("", "", "", "", 9), 923409340394293842L, 0, null, null, chatReceiver);
 
 		Thread.sleep(80L);
 		assertEquals(EPlayerState.IN_MATCH, client1.getState());
@@ -360,7 +360,7 @@ public class NetworkClientIT {
 		logIn(client1, "player1", "player1");
 		logIn(client2, "player2", "player2");
 
-		client1.openNewMatch("TestMatch", 4, new MapInfoPacket("", "", "", "", 4), 34L, null, null, null);
+		client1.openNewMatch("TestMatch", 4, new MapInfoPacket("", "", "", "", 4), 34L, 0, null, null, null);
 
 		Thread.sleep(150L);
 		assertEquals(EPlayerState.IN_MATCH, client1.getState());
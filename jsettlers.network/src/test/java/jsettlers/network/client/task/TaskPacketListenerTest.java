@@ -25,6 +25,7 @@ import jsettlers.network.TestUtils;
 import jsettlers.network.client.task.packets.SyncTasksPacket;
 import jsettlers.network.client.task.packets.TaskPacket;
 import jsettlers.network.infrastructure.channel.Channel;
+import jsettlers.network.server.match.lockstep.SyncTasksEncoder;
 
 import org.junit.After;
 import org.junit.Before;
@@ -55,7 +56,7 @@ public class TaskPacketListenerTest {
 	}
 
 	@Test
-	public void testSendAndReceive() throws InterruptedException {
+	public void testSendAndReceive() throws InterruptedException, IOException {
 		SyncTasksPacketSchedulerMock taskReceiver = new SyncTasksPacketSchedulerMock();
 		TaskPacketListener listener = new TaskPacketListener(taskReceiver);
 		c1.registerListener(listener);
@@ -63,9 +64,10 @@ public class TaskPacketListenerTest {
 		TaskPacket testPacket1 = new TestTaskPacket("tesdfk��l9u8u23jo", 23424, (byte) -2);
 		TaskPacket testPacket2 = new TestTaskPacket("?=?=O\"K�#'*'::�;;�", -2342342, (byte) -67);
 		int lockstep = 23;
-		SyncTasksPacket syncTasksPacket = new SyncTasksPacket(lockstep, Arrays.asList(testPacket1, testPacket2));
+		SyncTasksEncoder encoder = new SyncTasksEncoder();
 
-		c2.sendPacket(NetworkConstants.ENetworkKey.SYNCHRONOUS_TASK, syncTasksPacket);
+		c2.sendData(NetworkConstants.ENetworkKey.SYNCHRONOUS_TASK,
+				encoder.encode(lockstep, Arrays.asList(TestUtils.toServersideTaskPacket(testPacket1), TestUtils.toServersideTaskPacket(testPacket2))));
 
 		Thread.sleep(30L);
 		List<SyncTasksPacket> packets = taskReceiver.popBufferedPackets();
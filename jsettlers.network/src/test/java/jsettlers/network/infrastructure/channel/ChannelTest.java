@@ -40,16 +40,20 @@ import jsettlers.network.infrastructure.channel.reject.RejectPacket;
  * 
  */
 public class ChannelTest {
-	private Channel c1;
-	private Channel c2;
+	protected Channel c1;
+	protected Channel c2;
 
 	@Before
 	public void setUp() throws IOException {
-		Channel[] channels = TestUtils.setUpLoopbackChannels();
+		Channel[] channels = setUpChannels();
 		c1 = channels[0];
 		c2 = channels[1];
 	}
 
+	protected Channel[] setUpChannels() throws IOException {
+		return TestUtils.setUpLoopbackChannels();
+	}
+
 	@After
 	public void tearDown() {
 		c1.close();
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.infrastructure.channel.nio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+/**
+ * Test for the {@link DirectBufferPool}.
+ */
+public class DirectBufferPoolTest {
+	private static final int BUFFER_SIZE = 64;
+
+	@Test
+	public void testForeignBuffersDoNotReduceTheCapacity() {
+		DirectBufferPool pool = new DirectBufferPool(BUFFER_SIZE, 2);
+
+		for (int i = 0; i < 10; i++) {
+			pool.release(ByteBuffer.allocate(BUFFER_SIZE)); // not direct
+			pool.release(ByteBuffer.allocateDirect(BUFFER_SIZE + 1)); // wrong size
+		}
+
+		ByteBuffer first = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		ByteBuffer second = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		ByteBuffer third = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		pool.release(first);
+		pool.release(second);
+		pool.release(third); // exceeds the capacity
+
+		assertSame(first, pool.acquire());
+		assertSame(second, pool.acquire());
+		ByteBuffer allocated = pool.acquire();
+		assertNotSame(third, allocated);
+		assertNotSame(first, allocated);
+		assertNotSame(second, allocated);
+	}
+
+	@Test
+	public void testReleasedBuffersAreCleared() {
+		DirectBufferPool pool = new DirectBufferPool(BUFFER_SIZE, 2);
+		ByteBuffer buffer = pool.acquire();
+		buffer.putInt(4711);
+		buffer.flip();
+
+		pool.release(buffer);
+
+		ByteBuffer acquired = pool.acquire();
+		assertSame(buffer, acquired);
+		assertEquals(0, acquired.position());
+		assertEquals(BUFFER_SIZE, acquired.limit());
+	}
+}
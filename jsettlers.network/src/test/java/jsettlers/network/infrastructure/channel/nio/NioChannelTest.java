@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.infrastructure.channel.nio;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Test;
+
+import jsettlers.network.NetworkConstants;
+import jsettlers.network.NetworkConstants.ENetworkKey;
+import jsettlers.network.TestUtils;
+import jsettlers.network.infrastructure.channel.Channel;
+import jsettlers.network.infrastructure.channel.ChannelTest;
+import jsettlers.network.infrastructure.channel.TestPacket;
+import jsettlers.network.infrastructure.channel.TestPacketListener;
+
+/**
+ * Runs the tests of {@link ChannelTest} on {@link NioChannel}s connected by a real loopback connection and served by a single
+ * {@link ChannelSelector}.
+ */
+public class NioChannelTest extends ChannelTest {
+	private ChannelSelector selector;
+
+	@Override
+	protected Channel[] setUpChannels() throws IOException {
+		selector = new ChannelSelector();
+		selector.start();
+		return TestUtils.setUpNioLoopbackChannels(selector);
+	}
+
+	@After
+	public void shutdownSelector() {
+		selector.shutdown();
+	}
+
+	@Test
+	public void testPacketsLargerThanBuffers() throws Exception {
+		TestPacketListener listener = new TestPacketListener(ENetworkKey.TEST_PACKET);
+		c2.registerListener(listener);
+
+		StringBuilder builder = new StringBuilder();
+		while (builder.length() < 3 * NetworkConstants.NIO_BUFFER_SIZE) {
+			builder.append("large packet ");
+		}
+		TestPacket largePacket = new TestPacket(builder.toString(), 42);
+
+		c1.sendPacket(ENetworkKey.TEST_PACKET, new TestPacket("before", 1));
+		c1.sendPacket(ENetworkKey.TEST_PACKET, largePacket);
+		c1.sendPacket(ENetworkKey.TEST_PACKET, new TestPacket("after", 2));
+
+		Thread.sleep(100L);
+
+		assertEquals(3, listener.packets.size());
+		assertEquals(new TestPacket("before", 1), listener.packets.get(0));
+		assertEquals(largePacket, listener.packets.get(1));
+		assertEquals(new TestPacket("after", 2), listener.packets.get(2));
+	}
+
+	@Test
+	public void testManyChannelsOnOneSelector() throws Exception {
+		final int NUMBER_OF_CONNECTIONS = 20;
+		final int NUMBER_OF_PACKETS = 100;
+
+		Channel[][] connections = new Channel[NUMBER_OF_CONNECTIONS][];
+		TestPacketListener[] listeners = new TestPacketListener[NUMBER_OF_CONNECTIONS];
+		for (int i = 0; i < NUMBER_OF_CONNECTIONS; i++) {
+			connections[i] = TestUtils.setUpNioLoopbackChannels(selector);
+			listeners[i] = new TestPacketListener(ENetworkKey.TEST_PACKET);
+			connections[i][1].registerListener(listeners[i]);
+		}
+
+		for (int packet = 0; packet < NUMBER_OF_PACKETS; packet++) {
+			for (int i = 0; i < NUMBER_OF_CONNECTIONS; i++) {
+				connections[i][0].sendPacket(ENetworkKey.TEST_PACKET, new TestPacket("connection " + i, packet));
+			}
+		}
+
+		Thread.sleep(200L);
+
+		for (int i = 0; i < NUMBER_OF_CONNECTIONS; i++) {
+			assertEquals(NUMBER_OF_PACKETS, listeners[i].packets.size());
+			for (int packet = 0; packet < NUMBER_OF_PACKETS; packet++) {
+				assertEquals(new TestPacket("connection " + i, packet), listeners[i].packets.get(packet));
+			}
+			connections[i][0].close();
+			connections[i][1].close();
+		}
+	}
+}
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.server.lockstep;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import jsettlers.network.NetworkConstants.ENetworkKey;
+import jsettlers.network.TestUtils;
+import jsettlers.network.client.task.TestTaskPacket;
+import jsettlers.network.client.task.packets.SyncTasksDecoder;
+import jsettlers.network.client.task.packets.SyncTasksPacket;
+import jsettlers.network.client.task.packets.TaskPacket;
+import jsettlers.network.server.match.lockstep.SyncTasksEncoder;
+import jsettlers.network.server.packets.ServersideSyncTasksPacket;
+import jsettlers.network.server.packets.ServersideTaskPacket;
+
+/**
+ * Tests the compact lockstep encoding of the {@link SyncTasksEncoder} and the {@link SyncTasksDecoder}.
+ */
+public class SyncTasksEncoderTest {
+	private final SyncTasksEncoder encoder = new SyncTasksEncoder();
+	private final SyncTasksDecoder decoder = new SyncTasksDecoder();
+
+	@Test
+	public void testEmptyLockstepIsOneByte() throws IOException {
+		for (int lockstep = 0; lockstep < 100; lockstep++) {
+			byte[] packet = encoder.encode(lockstep, Collections.<ServersideTaskPacket> emptyList());
+			assertEquals(1, packet.length);
+
+			SyncTasksPacket decoded = decode(packet);
+			assertEquals(lockstep, decoded.getLockstepNumber());
+			assertTrue(decoded.getTasks().isEmpty());
+		}
+	}
+
+	@Test
+	public void testTaskTypeIsOnlySentOnce() throws IOException {
+		TestTaskPacket task = new TestTaskPacket("task", 42, (byte) 3);
+		ServersideTaskPacket serversideTask = TestUtils.toServersideTaskPacket(task);
+
+		byte[] first = encoder.encode(0, Collections.singletonList(serversideTask));
+		byte[] second = encoder.encode(1, Collections.singletonList(serversideTask));
+
+		assertEquals(TestTaskPacket.class.getName().length() + 2, first.length - second.length);
+		assertEquals(Collections.<TaskPacket> singletonList(task), decode(first).getTasks());
+		assertEquals(Collections.<TaskPacket> singletonList(task), decode(second).getTasks());
+	}
+
+	@Test
+	public void testRandomLocksteps() throws IOException {
+		Random random = new Random(4711);
+		int encodedSize = 0;
+		int legacySize = 0;
+
+		for (int lockstep = 0; lockstep < 1000; lockstep++) {
+			List<TaskPacket> tasks = new ArrayList<>();
+			List<ServersideTaskPacket> serversideTasks = new ArrayList<>();
+			if (random.nextInt(10) == 0) {
+				for (int i = random.nextInt(4); i >= 0; i--) {
+					TestTaskPacket task = new TestTaskPacket("task" + random.nextInt(), random.nextInt(), (byte) random.nextInt());
+					tasks.add(task);
+					serversideTasks.add(TestUtils.toServersideTaskPacket(task));
+				}
+			}
+
+			byte[] packet = encoder.encode(lockstep, serversideTasks);
+			encodedSize += packet.length;
+			legacySize += serializedLength(new ServersideSyncTasksPacket(lockstep, serversideTasks));
+
+			SyncTasksPacket decoded = decode(packet);
+			assertEquals(lockstep, decoded.getLockstepNumber());
+			assertEquals(tasks, decoded.getTasks());
+		}
+
+		assertTrue(encodedSize + " vs " + legacySize, encodedSize * 3 < legacySize);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testLockstepsMustAscend() throws IOException {
+		encoder.encode(3, Collections.<ServersideTaskPacket> emptyList());
+		encoder.encode(3, Collections.<ServersideTaskPacket> emptyList());
+	}
+
+	private SyncTasksPacket decode(byte[] packet) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(packet));
+		SyncTasksPacket decoded = decoder.deserialize(ENetworkKey.SYNCHRONOUS_TASK, in);
+		assertEquals(0, in.available());
+		return decoded;
+	}
+
+	private static int serializedLength(ServersideSyncTasksPacket packet) throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		packet.serialize(new DataOutputStream(buffer));
+		return buffer.size();
+	}
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.server.match;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import org.junit.After;
+import org.junit.Test;
+
+import jsettlers.network.TestUtils;
+import jsettlers.network.client.task.SyncTasksPacketSchedulerMock;
+import jsettlers.network.client.task.TaskPacketListener;
+import jsettlers.network.client.task.TestTaskPacket;
+import jsettlers.network.client.task.packets.SyncTasksPacket;
+import jsettlers.network.client.task.packets.TaskPacket;
+import jsettlers.network.common.packets.MapInfoPacket;
+import jsettlers.network.common.packets.PlayerInfoPacket;
+import jsettlers.network.infrastructure.channel.Channel;
+import jsettlers.network.server.packets.ServersideTaskPacket;
+
+/**
+ * Tests that the locksteps of a {@link Match} can be decoded by players joining the running match.
+ */
+public class MatchTest {
+	private static final List<ServersideTaskPacket> NO_TASKS = Collections.emptyList();
+
+	private final List<Channel> channels = new LinkedList<>();
+	private final Timer timer = new Timer() {
+		@Override
+		public void schedule(TimerTask task, long delay, long period) {
+			// the test sends the locksteps itself
+		}
+	};
+
+	@After
+	public void tearDown() {
+		timer.cancel();
+		for (Channel channel : channels) {
+			channel.close();
+		}
+	}
+
+	@Test
+	public void testPlayersJoiningTheRunningMatchDecodeTheLocksteps() throws Exception {
+		TaskPacket task = new TestTaskPacket("task", 42, (byte) 3);
+		List<ServersideTaskPacket> tasks = Collections.singletonList(TestUtils.toServersideTaskPacket(task));
+
+		Match match = new Match("match", 3, new MapInfoPacket("mapId", "map", "authorId", "author", 3), 0L, 0);
+		SyncTasksPacketSchedulerMock first = new SyncTasksPacketSchedulerMock();
+		Player firstPlayer = joinMatch(match, "first", first);
+		firstPlayer.startMatch(timer);
+
+		match.sendLockstep(0, tasks);
+		match.sendLockstep(1, NO_TASKS);
+
+		SyncTasksPacketSchedulerMock second = new SyncTasksPacketSchedulerMock();
+		Player secondPlayer = joinMatch(match, "second", second);
+		match.sendLockstep(2, tasks);
+		match.sendLockstep(3, NO_TASKS);
+
+		Thread.sleep(100L);
+		secondPlayer.leaveMatch();
+		SyncTasksPacketSchedulerMock rejoined = new SyncTasksPacketSchedulerMock();
+		joinMatch(match, "second", rejoined);
+		match.sendLockstep(4, tasks);
+		match.sendLockstep(5, NO_TASKS);
+
+		Thread.sleep(100L);
+		assertReceived(first, 5, task, 0, 2, 4);
+		assertReceived(second, 3, task, 2);
+		assertReceived(rejoined, 5, task, 4);
+	}
+
+	private Player joinMatch(Match match, String playerId, SyncTasksPacketSchedulerMock scheduler) throws IOException {
+		Channel[] channels = TestUtils.setUpLoopbackChannels();
+		this.channels.add(channels[0]);
+		this.channels.add(channels[1]);
+		channels[1].registerListener(new TaskPacketListener(scheduler));
+
+		Player player = new Player(new PlayerInfoPacket(playerId, playerId, true), channels[0]);
+		player.joinMatch(match);
+		return player;
+	}
+
+	private static void assertReceived(SyncTasksPacketSchedulerMock scheduler, int unlockedLockstep, TaskPacket task, int... tasksLocksteps) {
+		assertEquals(unlockedLockstep, scheduler.getUnlockedLockstepNumber());
+
+		List<SyncTasksPacket> packets = scheduler.popBufferedPackets();
+		assertEquals(tasksLocksteps.length, packets.size());
+		for (int i = 0; i < tasksLocksteps.length; i++) {
+			assertEquals(tasksLocksteps[i], packets.get(i).getLockstepNumber());
+			assertEquals(Collections.singletonList(task), packets.get(i).getTasks());
+		}
+	}
+}
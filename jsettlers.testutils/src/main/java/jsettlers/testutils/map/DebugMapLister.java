@@ -2,9 +2,9 @@ package jsettlers.testutils.map;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.OutputStream;
 
 import jsettlers.logic.map.loading.list.DirectoryMapLister;
+import jsettlers.logic.map.loading.list.ListedMapOutputStream;
 import jsettlers.logic.map.loading.newmap.MapFileHeader;
 
 /**
@@ -19,7 +19,8 @@ public class DebugMapLister extends DirectoryMapLister {
 	}
 
 	@Override
-	public OutputStream getOutputStream(MapFileHeader header) throws IOException {
-		return new DebugOutputStream(super.getOutputStream(header));
+	public ListedMapOutputStream getOutputStream(MapFileHeader header) throws IOException {
+		ListedMapOutputStream outputStream = super.getOutputStream(header);
+		return new ListedMapOutputStream(new DebugOutputStream(outputStream), outputStream.getListedMap());
 	}
 }
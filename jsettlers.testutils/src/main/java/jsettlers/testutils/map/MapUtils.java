@@ -23,7 +23,10 @@ import java.io.ObjectInputStream;
 
 import jsettlers.common.menu.UIState;
 import jsettlers.logic.constants.ExtendedRandom;
+import jsettlers.logic.constants.GameContext;
 import jsettlers.logic.constants.MatchConstants;
+import jsettlers.logic.constants.MatchSettings;
+import jsettlers.logic.map.grid.GameSerializer;
 import jsettlers.logic.map.grid.MainGrid;
 import jsettlers.logic.map.loading.MapLoadException;
 import jsettlers.logic.map.loading.MapLoader;
@@ -52,20 +55,27 @@ public final class MapUtils {
 				CountingInputStream actualStream = new CountingInputStream(RemakeMapLoader.getMapInputStream(actualSavegame.getListedMap()))) {
 			MapFileHeader expectedHeader = MapFileHeader.readFromStream(expectedStream);
 			MatchConstants.init(new NetworkTimer(true), 0L);
-			MatchConstants.deserialize(new ObjectInputStream(expectedStream));
+			ObjectInputStream expectedObjects = new ObjectInputStream(expectedStream);
+			GameSerializer.checkVersion(expectedObjects);
+			MatchConstants.deserialize(expectedObjects);
 			int expectedTime = MatchConstants.clock().getTime();
 			ExtendedRandom expectedRandom = MatchConstants.random();
+			MatchSettings expectedSettings = GameContext.current().getSettings();
 			MatchConstants.clearState();
 
 			MapFileHeader actualHeader = MapFileHeader.readFromStream(actualStream);
 			MatchConstants.init(new NetworkTimer(true), 1L);
-			MatchConstants.deserialize(new ObjectInputStream(actualStream));
+			ObjectInputStream actualObjects = new ObjectInputStream(actualStream);
+			GameSerializer.checkVersion(actualObjects);
+			MatchConstants.deserialize(actualObjects);
 			int actualTime = MatchConstants.clock().getTime();
 			ExtendedRandom actualRandom = MatchConstants.random();
+			MatchSettings actualSettings = GameContext.current().getSettings();
 			MatchConstants.clearState();
 
 			assertEquals("Map ID", expectedHeader.getBaseMapId(), actualHeader.getBaseMapId());
 			assertEquals("Map time", expectedTime, actualTime);
+			assertEquals("Match settings", expectedSettings, actualSettings);
 			// Test the random behavior a bit to have a high probability of equality. An equals method does not exist for Random.
 			assertEquals("Random number state", expectedRandom.nextLong(), actualRandom.nextLong());
 			assertEquals("Random number state", expectedRandom.nextLong(), actualRandom.nextLong());
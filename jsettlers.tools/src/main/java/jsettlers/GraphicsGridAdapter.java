@@ -19,6 +19,7 @@ import jsettlers.common.landscape.ELandscapeType;
 import jsettlers.common.map.EDebugColorModes;
 import jsettlers.common.map.IGraphicsBackgroundListener;
 import jsettlers.common.map.IGraphicsGrid;
+import jsettlers.common.map.IGraphicsObjectsListener;
 import jsettlers.common.map.partition.IPartitionData;
 import jsettlers.common.mapobject.IMapObject;
 import jsettlers.common.movable.IMovable;
@@ -87,6 +88,11 @@ public class GraphicsGridAdapter implements IGraphicsGrid {
 	public void setBackgroundListener(IGraphicsBackgroundListener backgroundListener) {
 	}
 
+	@Override
+	public boolean setObjectsListener(IGraphicsObjectsListener objectsListener) {
+		return false;
+	}
+
 	@Override
 	public int nextDrawableX(int x, int y, int maxX) {
 		return x + 1;
@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2017
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.ai.highlevel;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import jsettlers.common.landscape.EResourceType;
+import jsettlers.common.position.ShortPoint2D;
+import jsettlers.common.utils.MainUtils;
+import jsettlers.logic.constants.MatchConstants;
+import jsettlers.logic.map.grid.MainGrid;
+import jsettlers.logic.map.grid.landscape.LandscapeGrid;
+import jsettlers.logic.map.loading.MapLoadException;
+import jsettlers.logic.map.loading.MapLoader;
+import jsettlers.logic.map.loading.list.MapList;
+import jsettlers.main.swing.SwingManagedJSettlers;
+import jsettlers.main.swing.resources.SwingResourceLoader;
+import jsettlers.network.synchronic.timer.NetworkTimer;
+
+/**
+ * Measures {@link AiPositions} with the resource distributions of the bundled maps: filling the positions, nearest point queries with the
+ * search distance the {@link jsettlers.ai.highlevel.pioneers.PioneerAi} uses and removing all positions again. The nearest points are checked
+ * against a linear scan, whose time is printed for comparison.
+ */
+public class AiPositionsBenchmark {
+	private static final int ROUNDS = 5;
+	private static final int QUERIES = 10000;
+
+	public static void main(String[] args) throws IOException, SwingResourceLoader.ResourceSetupException, MapLoadException {
+		SwingManagedJSettlers.setupResourceManagers(MainUtils.loadOptions(args));
+		MatchConstants.init(new NetworkTimer(true), 0);
+
+		for (MapLoader map : MapList.getDefaultList().getFreshMaps().getItems()) {
+			MainGrid mainGrid = map.loadMainGrid(null).getMainGrid();
+			for (EResourceType resourceType : EResourceType.VALUES) {
+				List<ShortPoint2D> resourcePositions = getResourcePositions(mainGrid.getLandscapeGrid(), mainGrid.getWidth(), mainGrid.getHeight(),
+						resourceType);
+				if (!resourcePositions.isEmpty()) {
+					benchmark(map.getMapName() + " " + resourceType, resourcePositions, mainGrid.getWidth(), mainGrid.getHeight());
+				}
+			}
+		}
+		MatchConstants.clearState();
+	}
+
+	private static List<ShortPoint2D> getResourcePositions(LandscapeGrid landscapeGrid, int width, int height, EResourceType resourceType) {
+		List<ShortPoint2D> positions = new ArrayList<>();
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				if (landscapeGrid.getResourceTypeAt(x, y) == resourceType && landscapeGrid.getResourceAmountAt(x, y) > 0) {
+					positions.add(new ShortPoint2D(x, y));
+				}
+			}
+		}
+		return positions;
+	}
+
+	private static void benchmark(String name, List<ShortPoint2D> positions, int width, int height) {
+		Random random = new Random(0);
+		ShortPoint2D[] centers = new ShortPoint2D[QUERIES];
+		for (int i = 0; i < QUERIES; i++) {
+			centers[i] = new ShortPoint2D(random.nextInt(width), random.nextInt(height));
+		}
+		int searchDistance = width / 2;
+
+		long addTime = 0;
+		long queryTime = 0;
+		long linearScanTime = 0;
+		long removeTime = 0;
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			AiPositions aiPositions = new AiPositions();
+			for (ShortPoint2D position : positions) {
+				aiPositions.add(position.x, position.y);
+			}
+			aiPositions.ensureSorted();
+			addTime += System.nanoTime() - start;
+
+			ShortPoint2D[] results = new ShortPoint2D[QUERIES];
+			start = System.nanoTime();
+			for (int i = 0; i < QUERIES; i++) {
+				results[i] = aiPositions.getNearestPoint(centers[i], searchDistance);
+			}
+			queryTime += System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < QUERIES; i++) {
+				if (!equalDistance(centers[i], results[i], getNearestPointByLinearScan(positions, centers[i], searchDistance))) {
+					throw new IllegalStateException(name + ": wrong nearest point for " + centers[i]);
+				}
+			}
+			linearScanTime += System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (ShortPoint2D position : positions) {
+				aiPositions.remove(position.x, position.y);
+			}
+			removeTime += System.nanoTime() - start;
+		}
+
+		System.out.println(String.format("%s (%d positions): add %.3fms, %d queries %.3fms (linear scan %.3fms), remove %.3fms", name,
+				positions.size(), toMillis(addTime), QUERIES, toMillis(queryTime), toMillis(linearScanTime), toMillis(removeTime)));
+	}
+
+	private static ShortPoint2D getNearestPointByLinearScan(List<ShortPoint2D> positions, ShortPoint2D center, int maxDistance) {
+		ShortPoint2D nearest = null;
+		for (ShortPoint2D position : positions) {
+			int distance = position.getOnGridDistTo(center);
+			if (distance < maxDistance) {
+				nearest = position;
+				maxDistance = distance;
+			}
+		}
+		return nearest;
+	}
+
+	private static boolean equalDistance(ShortPoint2D center, ShortPoint2D first, ShortPoint2D second) {
+		if (first == null || second == null) {
+			return first == second;
+		}
+		return first.getOnGridDistTo(center) == second.getOnGridDistTo(center);
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / (ROUNDS * 1000000.0);
+	}
+}
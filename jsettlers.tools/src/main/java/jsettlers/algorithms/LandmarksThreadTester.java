@@ -26,6 +26,7 @@ import jsettlers.common.landscape.ELandscapeType;
 import jsettlers.common.map.EDebugColorModes;
 import jsettlers.common.map.IGraphicsBackgroundListener;
 import jsettlers.common.map.IGraphicsGrid;
+import jsettlers.common.map.IGraphicsObjectsListener;
 import jsettlers.common.map.partition.IPartitionData;
 import jsettlers.common.mapobject.IMapObject;
 import jsettlers.common.menu.IMapInterfaceConnector;
@@ -216,6 +217,11 @@ public class LandmarksThreadTester {
 		public void setBackgroundListener(IGraphicsBackgroundListener backgroundListener) {
 		}
 
+		@Override
+		public boolean setObjectsListener(IGraphicsObjectsListener objectsListener) {
+			return false;
+		}
+
 		@Override
 		public IPartitionData getPartitionData(int x, int y) {
 			return null;
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.fogofwar;
+
+import java.util.Random;
+
+import jsettlers.common.logging.MilliStopWatch;
+import jsettlers.common.player.IPlayer;
+
+/**
+ * Measures the incremental updates of the {@link FogOfWar} with many moving observers and the queries of the visible status of a whole map.
+ */
+public class FogOfWarBenchmark {
+	private static final short SIZE = 1024;
+	private static final int OBSERVERS = 5000;
+	private static final int MOVED_OBSERVERS = OBSERVERS / 10;
+	private static final int VIEW_DISTANCE = 10;
+	private static final int UPDATES = 20;
+	private static final int QUERY_ROUNDS = 20;
+	private static final int ROUNDS = 3;
+
+	public static void main(String[] args) {
+		for (int round = 0; round < ROUNDS; round++) {
+			Random random = new Random(round);
+			int[] xs = new int[OBSERVERS];
+			int[] ys = new int[OBSERVERS];
+			for (int i = 0; i < OBSERVERS; i++) {
+				xs[i] = random.nextInt(SIZE);
+				ys[i] = random.nextInt(SIZE);
+			}
+
+			FogOfWar fogOfWar = new FogOfWar(SIZE, SIZE, new IPlayer.DummyPlayer());
+			fogOfWar.setEnabled(true);
+			FogOfWar.CircleDrawer drawer = fogOfWar.new CircleDrawer();
+			CachedViewCircle circle = drawer.getCachedCircle(VIEW_DISTANCE);
+			for (int i = 0; i < OBSERVERS; i++) {
+				drawer.addCircle(xs[i], ys[i], circle);
+			}
+
+			MilliStopWatch watch = new MilliStopWatch();
+			for (int update = 0; update < UPDATES; update++) {
+				for (int i = 0; i < MOVED_OBSERVERS; i++) {
+					int observer = random.nextInt(OBSERVERS);
+					drawer.removeCircle(xs[observer], ys[observer], circle);
+					xs[observer] = Math.min(SIZE - 1, xs[observer] + 1);
+					drawer.addCircle(xs[observer], ys[observer], circle);
+				}
+				fogOfWar.publishSnapshot();
+			}
+			printResult("incremental update", UPDATES, watch.getDiff());
+
+			watch.restart();
+			long sum = 0;
+			for (int query = 0; query < QUERY_ROUNDS; query++) {
+				for (int y = 0; y < SIZE; y++) {
+					for (int x = 0; x < SIZE; x++) {
+						sum += fogOfWar.getVisibleStatus(x, y);
+					}
+				}
+			}
+			printResult("full map queries (" + sum + ")", QUERY_ROUNDS, watch.getDiff());
+		}
+	}
+
+	private static void printResult(String name, int repetitions, long millis) {
+		System.out.println(name + ": " + repetitions + " repetitions on " + SIZE + "x" + SIZE + " in " + millis + " ms ("
+				+ (millis / (float) repetitions) + " ms each)");
+	}
+}
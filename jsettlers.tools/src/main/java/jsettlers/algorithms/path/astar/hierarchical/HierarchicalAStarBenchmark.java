@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.path.astar.hierarchical;
+
+import java.util.Random;
+
+import jsettlers.algorithms.path.IPathCalculatable;
+import jsettlers.algorithms.path.Path;
+import jsettlers.algorithms.path.astar.AbstractAStar;
+import jsettlers.algorithms.path.astar.BucketQueueAStar;
+import jsettlers.algorithms.path.astar.DummyEmptyAStarMap;
+import jsettlers.common.logging.MilliStopWatch;
+import jsettlers.common.player.IPlayer;
+import jsettlers.common.position.ShortPoint2D;
+
+/**
+ * Compares the expanded positions and the time needed for long paths of the {@link HierarchicalAStar} and the flat {@link BucketQueueAStar}.
+ */
+public class HierarchicalAStarBenchmark {
+	private static final short SIZE = 1024;
+	private static final int PATHS = 200;
+	private static final int MIN_DISTANCE = 300;
+	private static final int ROUNDS = 3;
+	private static final int LAKES = 400;
+
+	public static void main(String[] args) {
+		DummyEmptyAStarMap map = new DummyEmptyAStarMap(SIZE, SIZE);
+		Random random = new Random(0);
+		for (int i = 0; i < LAKES; i++) { // lakes and mountains
+			int centerX = random.nextInt(SIZE);
+			int centerY = random.nextInt(SIZE);
+			int radius = 4 + random.nextInt(20);
+			for (int x = Math.max(0, centerX - radius); x < Math.min(SIZE, centerX + radius); x++) {
+				for (int y = Math.max(0, centerY - radius); y < Math.min(SIZE, centerY + radius); y++) {
+					if ((x - centerX) * (x - centerX) + (y - centerY) * (y - centerY) < radius * radius) {
+						map.setBlocked(x, y, true);
+					}
+				}
+			}
+		}
+		for (int x = 0; x < SIZE; x++) { // trees and stones
+			for (int y = 0; y < SIZE; y++) {
+				if (random.nextFloat() < 0.05f) {
+					map.setBlocked(x, y, true);
+				}
+			}
+		}
+
+		BucketQueueAStar flatAStar = new BucketQueueAStar(map, SIZE, SIZE);
+		HierarchicalAStar hierarchicalAStar = new HierarchicalAStar(map, flatAStar, SIZE, SIZE);
+
+		for (int round = 0; round < ROUNDS; round++) {
+			ShortPoint2D[] starts = new ShortPoint2D[PATHS];
+			ShortPoint2D[] targets = new ShortPoint2D[PATHS];
+			for (int i = 0; i < PATHS; i++) {
+				do {
+					starts[i] = new ShortPoint2D(random.nextInt(SIZE), random.nextInt(SIZE));
+					targets[i] = new ShortPoint2D(random.nextInt(SIZE), random.nextInt(SIZE));
+				} while (starts[i].getOnGridDistTo(targets[i]) < MIN_DISTANCE || map.isBlocked(null, starts[i].x, starts[i].y)
+						|| map.isBlocked(null, targets[i].x, targets[i].y));
+			}
+
+			run("hierarchical AStar", hierarchicalAStar, starts, targets);
+			run("flat AStar", flatAStar, starts, targets);
+		}
+	}
+
+	private static void run(String name, AbstractAStar aStar, ShortPoint2D[] starts, ShortPoint2D[] targets) {
+		long pathLengths = 0;
+
+		MilliStopWatch watch = new MilliStopWatch();
+		for (int i = 0; i < starts.length; i++) {
+			Path path = aStar.findPath(getPathable(starts[i]), targets[i]);
+			pathLengths += path == null ? 0 : path.getLength();
+		}
+		long millis = watch.getDiff();
+
+		System.out.println(name + ": " + starts.length + " paths (total length " + pathLengths + ") in " + millis + " ms");
+	}
+
+	private static IPathCalculatable getPathable(final ShortPoint2D position) {
+		return new IPathCalculatable() {
+			@Override
+			public ShortPoint2D getPos() {
+				return position;
+			}
+
+			@Override
+			public IPlayer getPlayer() {
+				return new IPlayer.DummyPlayer();
+			}
+
+			@Override
+			public boolean needsPlayersGround() {
+				return false;
+			}
+		};
+	}
+}
@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.debug;
+
+import java.io.File;
+import java.io.IOException;
+
+import jsettlers.common.logging.MilliStopWatch;
+import jsettlers.common.resources.ResourceManager;
+import jsettlers.common.utils.MainUtils;
+import jsettlers.graphics.map.draw.ImagePreloadTask;
+import jsettlers.graphics.map.draw.ImageProvider;
+import jsettlers.main.swing.SwingManagedJSettlers;
+import jsettlers.main.swing.resources.SwingResourceLoader;
+
+/**
+ * Measures the time the images need to be ready for the first frame, once with a cold image cache and once with a warm one. The settlers folder
+ * is configured like for the game.
+ * <p>
+ * Uploading the textures needs an OpenGL context and is not part of the measurement.
+ */
+public class ImagePreloadBenchmark {
+	private static final int ROUNDS = 3;
+
+	public static void main(String[] args) throws IOException, SwingResourceLoader.ResourceSetupException {
+		SwingManagedJSettlers.setupResourceManagers(MainUtils.loadOptions(args));
+		ImageProvider.getInstance().waitForPreloadingFinish();
+
+		for (int round = 0; round < ROUNDS; round++) {
+			deleteImageCache();
+			System.out.println("cold cache: " + preload() + "ms");
+			System.out.println("warm cache: " + preload() + "ms");
+		}
+	}
+
+	private static long preload() {
+		ImageProvider.getInstance().invalidateAll();
+		MilliStopWatch watch = new MilliStopWatch();
+		new ImagePreloadTask().run();
+		return watch.getDiff();
+	}
+
+	private static void deleteImageCache() {
+		File[] cacheFiles = new File(ResourceManager.getResourcesDirectory(), "cache").listFiles();
+		if (cacheFiles != null) {
+			for (File cacheFile : cacheFiles) {
+				if (cacheFile.getName().startsWith("cache-")) {
+					cacheFile.delete();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.map.grid;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import jsettlers.common.logging.MilliStopWatch;
+import jsettlers.integration.replay.AutoReplaySetting;
+import jsettlers.logic.buildings.Building;
+import jsettlers.logic.constants.MatchConstants;
+import jsettlers.logic.map.loading.MapLoader;
+import jsettlers.logic.map.loading.list.MapList;
+import jsettlers.logic.movable.Movable;
+import jsettlers.logic.player.PlayerSetting;
+import jsettlers.main.JSettlersGame;
+import jsettlers.network.synchronic.timer.NetworkTimer;
+import jsettlers.testutils.TestUtils;
+import jsettlers.testutils.map.MapUtils;
+
+/**
+ * Measures the size and the save and load times of the savegames written by the {@link GameSerializer} for the bundled maps and a savegame of a
+ * running game.
+ */
+public class GameSerializerBenchmark {
+	private static final int ROUNDS = 3;
+
+	public static void main(String[] args) throws Exception {
+		TestUtils.setupTempResourceManager();
+
+		AutoReplaySetting replaySetting = AutoReplaySetting.getDefaultSettings().iterator().next();
+		int lastSavegame = replaySetting.getTimeMinutes().length - 1;
+		MapLoader savegame = MapLoader.getLoaderForListedMap(new MapList.ListedResourceMap(replaySetting.getReplayPath(lastSavegame)));
+
+		run("mountainlake", MapUtils.getMountainlake());
+		run("fullproduction", replaySetting.getMap());
+		run(replaySetting.getPath(lastSavegame), savegame);
+	}
+
+	private static void run(String name, MapLoader map) throws Exception {
+		PlayerSetting[] playerSettings = PlayerSetting.createDefaultSettings((byte) 0, (byte) map.getMaxPlayers());
+
+		for (boolean compressed : new boolean[] { false, true }) {
+			for (int round = 0; round < ROUNDS; round++) {
+				// loading a game replaces the static state of the buildings and movables => start with a fresh grid every round
+				JSettlersGame.clearState();
+				NetworkTimer timer = new NetworkTimer(true);
+				MatchConstants.init(timer, 0);
+				MainGrid grid = map.loadMainGrid(playerSettings).getMainGrid();
+				if (round == 0 && !compressed) {
+					System.out.println(name + " (" + Movable.getAllMovables().size() + " movables, " + Building.getAllBuildings().size() + " buildings)");
+				}
+
+				saveAndLoad(grid, compressed);
+				timer.stopExecution();
+			}
+		}
+	}
+
+	private static void saveAndLoad(MainGrid grid, boolean compressed) throws Exception {
+		GameSerializer serializer = new GameSerializer();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		MilliStopWatch watch = new MilliStopWatch();
+		OutputStream out = compressed ? new DeflaterOutputStream(bytes) : bytes;
+		try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+			serializer.save(grid, oos);
+		}
+		long saveMillis = watch.getDiff();
+
+		watch.restart();
+		InputStream in = new ByteArrayInputStream(bytes.toByteArray());
+		try (ObjectInputStream ois = new ObjectInputStream(compressed ? new InflaterInputStream(in) : in)) {
+			serializer.load(ois);
+		}
+		long loadMillis = watch.getDiff();
+
+		System.out.println("\t" + (compressed ? "compressed  " : "uncompressed") + ": " + bytes.size() / 1024 + " kB, save " + saveMillis + " ms, load "
+				+ loadMillis + " ms");
+	}
+}
@@ -26,6 +26,7 @@ import jsettlers.common.logging.MilliStopWatch;
 import jsettlers.common.map.EDebugColorModes;
 import jsettlers.common.map.IGraphicsBackgroundListener;
 import jsettlers.common.map.IGraphicsGrid;
+import jsettlers.common.map.IGraphicsObjectsListener;
 import jsettlers.common.map.partition.IPartitionData;
 import jsettlers.common.map.shapes.FreeMapArea;
 import jsettlers.common.map.shapes.IMapArea;
@@ -155,6 +156,11 @@ public class PartitionsGridTestingWnd {
 			public void setBackgroundListener(IGraphicsBackgroundListener backgroundListener) {
 			}
 
+			@Override
+			public boolean setObjectsListener(IGraphicsObjectsListener objectsListener) {
+				return false;
+			}
+
 			@Override
 			public int nextDrawableX(int x, int y, int maxX) {
 				return x + 1;
@@ -27,6 +27,7 @@ import jsettlers.common.landscape.EResourceType;
 import jsettlers.common.map.EDebugColorModes;
 import jsettlers.common.map.IGraphicsBackgroundListener;
 import jsettlers.common.map.IGraphicsGrid;
+import jsettlers.common.map.IGraphicsObjectsListener;
 import jsettlers.common.map.partition.IPartitionData;
 import jsettlers.common.mapobject.EMapObjectType;
 import jsettlers.common.mapobject.IMapObject;
@@ -135,6 +136,11 @@ public class MovableTestsMap implements IGraphicsGrid, IAStarPathMap {
 	public void setBackgroundListener(IGraphicsBackgroundListener backgroundListener) {
 	}
 
+	@Override
+	public boolean setObjectsListener(IGraphicsObjectsListener objectsListener) {
+		return false;
+	}
+
 	private final AbstractMovableGrid movableGrid = new AbstractMovableGrid() {
 		private static final long serialVersionUID = 610513829074598238L;
 
@@ -168,6 +174,13 @@ public class MovableTestsMap implements IGraphicsGrid, IAStarPathMap {
 			return aStar.findPath(pathRequester, targetPos);
 		}
 
+		@Override
+		public Path calculatePathConcurrentlyTo(IPathCalculatable pathRequester, ShortPoint2D targetPos) {
+			synchronized (aStar) {
+				return aStar.findPath(pathRequester, targetPos);
+			}
+		}
+
 		@Override
 		public void addJobless(IManageableBearer bearer) {
 			if (!materials.isEmpty()) {
@@ -402,6 +415,10 @@ public class MovableTestsMap implements IGraphicsGrid, IAStarPathMap {
 			movableMap[position.x][position.y] = movable;
 		}
 
+		@Override
+		public void viewDistanceChanged(ILogicMovable movable) {
+		}
+
 		@Override
 		public void notifyAttackers(ShortPoint2D position, ILogicMovable movable, boolean informFullArea) {
 		}
@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2015
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.timer;
+
+import java.util.Random;
+
+import jsettlers.common.logging.MilliStopWatch;
+
+/**
+ * Measures the tick throughput of the {@link RescheduleTimer} with many timerables that reschedule themselves with random delays.
+ */
+public class RescheduleTimerBenchmark {
+	private static final int TIMERABLES = 50000;
+	private static final int MAX_DELAY = 5000;
+	private static final int TICKS = 20000;
+	private static final int ROUNDS = 3;
+
+	public static void main(String[] args) {
+		for (int round = 0; round < ROUNDS; round++) {
+			RescheduleTimer.stopAndClear();
+			RescheduleTimer timer = RescheduleTimer.get();
+			Random random = new Random(round);
+			for (int i = 0; i < TIMERABLES; i++) {
+				RescheduleTimer.add(new BenchmarkTimerable(random.nextLong()), 1 + random.nextInt(MAX_DELAY));
+			}
+
+			MilliStopWatch watch = new MilliStopWatch();
+			for (int tick = 0; tick < TICKS; tick++) {
+				timer.timerEvent();
+			}
+			long millis = watch.getDiff();
+			System.out.println(TICKS + " ticks with " + TIMERABLES + " timerables in " + millis + " ms (" + (TICKS * 1000L / Math.max(1, millis))
+					+ " ticks/s)");
+		}
+		RescheduleTimer.stopAndClear();
+	}
+
+	/**
+	 * Timerable with a cheap, deterministic pseudo random reschedule delay.
+	 */
+	private static class BenchmarkTimerable implements IScheduledTimerable {
+		private static final long serialVersionUID = 1L;
+
+		private long state;
+
+		BenchmarkTimerable(long seed) {
+			this.state = seed;
+		}
+
+		@Override
+		public int timerEvent() {
+			state = state * 6364136223846793005L + 1442695040888963407L;
+			return 1 + (int) ((state >>> 33) % MAX_DELAY);
+		}
+
+		@Override
+		public void kill() {
+		}
+	}
+}
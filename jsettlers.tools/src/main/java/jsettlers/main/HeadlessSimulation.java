@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2017
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.main;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.Map;
+
+import jsettlers.ai.highlevel.AiExecutor;
+import jsettlers.common.utils.MainUtils;
+import jsettlers.common.utils.OptionableProperties;
+import jsettlers.logic.map.loading.MapLoadException;
+import jsettlers.logic.map.loading.MapLoader;
+import jsettlers.logic.map.loading.list.DirectoryMapLister;
+import jsettlers.logic.map.loading.newmap.MapFileHeader;
+import jsettlers.logic.player.PlayerSetting;
+import jsettlers.main.replay.ReplayUtils;
+import jsettlers.main.swing.SwingManagedJSettlers;
+import jsettlers.main.swing.resources.SwingResourceLoader;
+import jsettlers.network.NetworkConstants;
+import jsettlers.network.client.OfflineNetworkConnector;
+import jsettlers.network.synchronic.timer.NetworkTimer;
+
+/**
+ * Runs a game without user interface as fast as possible and reports the simulation speed. This is meant for regression and balance runs.
+ * <p>
+ * The game is either started from a map (<code>--mapfile=&lt;file&gt;</code>, use <code>--all-ai</code> to let the AI play all players) or
+ * from a replay (<code>--replayFile=&lt;file&gt;</code>, optionally with <code>--all-ai-replay</code>). It is played until
+ * <code>--targetTime=&lt;minutes&gt;</code> (default: {@value #DEFAULT_TARGET_TIME_MINUTES}). The other options of the game, e.g.
+ * <code>--random</code> or <code>--parallel-timer-threads</code>, are supported as well.
+ * <p>
+ * The game is run headless (see {@link JSettlersGame#setHeadless(boolean)} and {@link NetworkTimer#setHeadless(boolean)}). Every
+ * {@value #REPORT_INTERVAL_MINUTES} game minutes, the game seconds per wall clock second, the ticks per second and the time needed by the
+ * scheduled tasks and timerables are printed.
+ */
+public class HeadlessSimulation {
+	private static final int DEFAULT_TARGET_TIME_MINUTES = 60;
+	private static final int REPORT_INTERVAL_MINUTES = 10;
+	private static final int MINUTE = 60 * 1000;
+
+	public static void main(String[] args) throws IOException, MapLoadException, SwingResourceLoader.ResourceSetupException {
+		OptionableProperties options = MainUtils.loadOptions(args);
+		SwingManagedJSettlers.loadOptionalSettings(options);
+		SwingManagedJSettlers.setupResourceManagers(options);
+
+		PrintStream report = System.out; // the game redirects System.out to its log file unless --console-output is set
+		int targetTime = Integer.parseInt(options.getProperty("targetTime", Integer.toString(DEFAULT_TARGET_TIME_MINUTES))) * MINUTE;
+
+		OfflineNetworkConnector networkConnector = ReplayUtils.createPausingOfflineNetworkConnector();
+		NetworkTimer networkTimer = (NetworkTimer) networkConnector.getGameClock();
+		networkTimer.setHeadless(true);
+
+		JSettlersGame game = createGame(options, networkConnector);
+		game.setHeadless(true);
+		JSettlersGame.GameRunner startedGame = (JSettlersGame.GameRunner) ReplayUtils.waitForGameStartup(game.start());
+
+		int startTime = networkTimer.getTime();
+		long startNanos = System.nanoTime();
+		while (networkTimer.getTime() < targetTime) {
+			networkTimer.fastForwardTo(Math.min(targetTime, networkTimer.getTime() + REPORT_INTERVAL_MINUTES * MINUTE));
+			printReport(report, networkTimer, startedGame.getAiExecutor(), networkTimer.getTime() - startTime, System.nanoTime() - startNanos);
+		}
+
+		ReplayUtils.awaitShutdown(startedGame);
+	}
+
+	private static JSettlersGame createGame(OptionableProperties options, OfflineNetworkConnector networkConnector) throws MapLoadException,
+			IOException {
+		if (options.containsKey("replayFile")) {
+			ReplayUtils.ReplayFile replayFile = new ReplayUtils.ReplayFile(new File(options.getProperty("replayFile")));
+			if (options.isOptionSet("all-ai-replay")) {
+				return JSettlersGame.loadFromReplayFileAllAi(replayFile, networkConnector, new ReplayStartInformation());
+			} else {
+				return JSettlersGame.loadFromReplayFile(replayFile, networkConnector, new ReplayStartInformation());
+			}
+		} else if (options.containsKey("mapfile")) {
+			MapLoader mapLoader = MapLoader.getLoaderForListedMap(new DirectoryMapLister.ListedMapFile(new File(options.getProperty("mapfile"))));
+			long randomSeed = Long.parseLong(options.getProperty("random", "0"));
+			if (mapLoader.getFileHeader().getType() == MapFileHeader.MapType.NORMAL) {
+				byte playerId = 0;
+				PlayerSetting[] playerSettings = PlayerSetting.createDefaultSettings(playerId, (byte) mapLoader.getMaxPlayers());
+				return new JSettlersGame(mapLoader, randomSeed, networkConnector, playerId, playerSettings);
+			} else {
+				MapFileHeader header = mapLoader.getFileHeader();
+				return new JSettlersGame(mapLoader, randomSeed, networkConnector, header.getPlayerId(), header.getPlayerSettings());
+			}
+		} else {
+			throw new IllegalArgumentException("Either --mapfile=<file> or --replayFile=<file> is required.");
+		}
+	}
+
+	private static void printReport(PrintStream report, NetworkTimer networkTimer, AiExecutor aiExecutor, int gameTime, long wallNanos) {
+		double wallSeconds = wallNanos / 1e9;
+		int ticks = gameTime / NetworkTimer.TIME_SLICE;
+		report.println(String.format(Locale.ENGLISH, "game time: %d min (lockstep %d), wall time: %.1fs, "
+				+ "%.1f game seconds per second, %.0f ticks per second",
+				networkTimer.getTime() / MINUTE, networkTimer.getTime() / NetworkConstants.Client.LOCKSTEP_PERIOD, wallSeconds,
+				gameTime / 1000.0 / wallSeconds, ticks / wallSeconds));
+
+		printSubsystem(report, "tasks", networkTimer.getTaskExecutionNanos(), wallNanos);
+		for (Map.Entry<String, Long> timerable : networkTimer.getTimerableExecutionNanos().entrySet()) {
+			printSubsystem(report, timerable.getKey(), timerable.getValue(), wallNanos);
+		}
+		if (aiExecutor != null) {
+			report.println("\tcomputerplayer:updateStatistics()" + aiExecutor.getUpdateStatisticsStopWatch());
+			report.println("\tcomputerplayer:applyRules()" + aiExecutor.getApplyRulesStopWatch());
+		}
+	}
+
+	private static void printSubsystem(PrintStream report, String name, long nanos, long wallNanos) {
+		report.println(String.format(Locale.ENGLISH, "\t%s: %.1fs (%.1f%%)", name, nanos / 1e9, 100.0 * nanos / wallNanos));
+	}
+}